@@ -0,0 +1,35 @@
+package org.wesuper.jtools.hdscompare.benchmark;
+
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+
+/**
+ * 基准测试覆盖的源/目标数据源组合
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public enum ComparePair {
+
+    MYSQL_TIDB(DatabaseType.MYSQL, DatabaseType.TIDB),
+
+    POJO_ES(DatabaseType.POJO, DatabaseType.ELASTICSEARCH),
+
+    ES_MYSQL(DatabaseType.ELASTICSEARCH, DatabaseType.MYSQL);
+
+    private final String sourceType;
+
+    private final String targetType;
+
+    ComparePair(String sourceType, String targetType) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+    }
+
+    public String getSourceType() {
+        return sourceType;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+}
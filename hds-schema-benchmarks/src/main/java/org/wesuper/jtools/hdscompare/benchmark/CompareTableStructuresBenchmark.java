@@ -0,0 +1,109 @@
+package org.wesuper.jtools.hdscompare.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TableStructureCompareServiceImpl#compareTableStructures} 的基准测试
+ * 按数据源组合、字段数、索引数和差异密度参数化，表结构由 {@link SyntheticTableGenerator} 生成。
+ *
+ * <pre>
+ * mvn -pl hds-schema-benchmarks -am package -DskipTests
+ * java -jar hds-schema-benchmarks/target/benchmarks.jar CompareTableStructuresBenchmark -p columnCount=1000
+ * </pre>
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompareTableStructuresBenchmark {
+
+    private static final long SEED = 20240601L;
+
+    @Param({"MYSQL_TIDB", "POJO_ES", "ES_MYSQL"})
+    public ComparePair pair;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int columnCount;
+
+    @Param({"0", "16"})
+    public int indexCount;
+
+    @Param({"0.0", "0.1", "0.5"})
+    public double differenceDensity;
+
+    private TableStructureCompareServiceImpl compareService;
+
+    private DataSourceCompareConfig.CompareConfig config;
+
+    private TableStructure sourceTable;
+
+    private TableStructure targetTable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticTableGenerator generator = new SyntheticTableGenerator(SEED);
+        sourceTable = generator.generate(pair.getSourceType(), "t_benchmark", columnCount, indexCount);
+        targetTable = generator.mutate(
+                generator.generate(pair.getTargetType(), "t_benchmark", columnCount, indexCount), differenceDensity);
+
+        // compareTableStructures 只依赖入参，不需要注入数据源配置和提取器
+        compareService = new TableStructureCompareServiceImpl();
+        config = createCompareConfig(pair);
+    }
+
+    @Benchmark
+    public CompareResult compareTableStructures() {
+        return compareService.compareTableStructures(sourceTable, targetTable, config);
+    }
+
+    private static DataSourceCompareConfig.CompareConfig createCompareConfig(ComparePair pair) {
+        DataSourceCompareConfig.DataSourceConfig source = new DataSourceCompareConfig.DataSourceConfig();
+        source.setType(pair.getSourceType());
+        DataSourceCompareConfig.DataSourceConfig target = new DataSourceCompareConfig.DataSourceConfig();
+        target.setType(pair.getTargetType());
+
+        DataSourceCompareConfig.TableCompareConfig tableConfig = new DataSourceCompareConfig.TableCompareConfig();
+        tableConfig.setSourceTableName("t_benchmark");
+        tableConfig.setTargetTableName("t_benchmark");
+
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName("benchmark-" + pair.name().toLowerCase());
+        config.setSourceDataSource(source);
+        config.setTargetDataSource(target);
+        config.getTableConfigs().add(tableConfig);
+        return config;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CompareTableStructuresBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,239 @@
+package org.wesuper.jtools.hdscompare.benchmark;
+
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 合成表结构生成器
+ * 按固定随机种子生成指定字段数、索引数的表结构，字段类型和类型映射与各提取器的输出保持一致，
+ * 并可按差异密度对目标表注入字段缺失、类型变更和属性变更，使基准测试覆盖比对的各条分支。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class SyntheticTableGenerator {
+
+    /**
+     * 字段类型模板，覆盖 MySQL、Elasticsearch 和 POJO 三种表示
+     */
+    private enum ColumnKind {
+        BIGINT("bigint", "bigint(20)", null, null, null, "long", Long.class,
+                Arrays.asList("bigint"), Arrays.asList("long"), Arrays.asList("bigint")),
+        INT("int", "int(11)", null, null, null, "integer", Integer.class,
+                Arrays.asList("int"), Arrays.asList("integer"), Arrays.asList("int")),
+        VARCHAR("varchar", "varchar(255)", 255, null, null, "keyword", String.class,
+                Arrays.asList("varchar", "text", "enum"), Arrays.asList("keyword", "text"),
+                Arrays.asList("varchar", "char", "enum")),
+        DECIMAL("decimal", "decimal(18,4)", null, 18, 4, "scaled_float", BigDecimal.class,
+                Arrays.asList("decimal"), Arrays.asList("scaled_float", "double"), Arrays.asList("decimal")),
+        DATETIME("datetime", "datetime", null, null, null, "date", LocalDateTime.class,
+                Arrays.asList("datetime"), Arrays.asList("date"), Arrays.asList("datetime", "timestamp", "date")),
+        TEXT("text", "text", 65535, null, null, "text", String.class,
+                Arrays.asList("varchar", "text", "enum"), Arrays.asList("keyword", "text"),
+                Arrays.asList("text", "longtext", "mediumtext", "tinytext", "varchar")),
+        BOOLEAN("tinyint", "tinyint(1)", null, null, null, "boolean", Boolean.class,
+                Arrays.asList("boolean"), Arrays.asList("boolean"), Arrays.asList("boolean", "bool"));
+
+        private final String mysqlType;
+        private final String mysqlColumnType;
+        private final Integer length;
+        private final Integer precision;
+        private final Integer scale;
+        private final String esType;
+        private final Class<?> javaType;
+        private final List<String> javaToMysql;
+        private final List<String> javaToEs;
+        private final List<String> esToMysql;
+
+        ColumnKind(String mysqlType, String mysqlColumnType, Integer length, Integer precision, Integer scale,
+                   String esType, Class<?> javaType, List<String> javaToMysql, List<String> javaToEs,
+                   List<String> esToMysql) {
+            this.mysqlType = mysqlType;
+            this.mysqlColumnType = mysqlColumnType;
+            this.length = length;
+            this.precision = precision;
+            this.scale = scale;
+            this.esType = esType;
+            this.javaType = javaType;
+            this.javaToMysql = javaToMysql;
+            this.javaToEs = javaToEs;
+            this.esToMysql = esToMysql;
+        }
+    }
+
+    private static final ColumnKind[] KINDS = ColumnKind.values();
+
+    private final long seed;
+
+    public SyntheticTableGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 生成表结构
+     * 索引只为 MySQL 和 TiDB 生成，POJO 和 Elasticsearch 提取器本身不产生索引。
+     *
+     * @param sourceType  数据源类型
+     * @param tableName   表名
+     * @param columnCount 字段数
+     * @param indexCount  二级索引数（不含主键）
+     * @return 表结构
+     */
+    public TableStructure generate(String sourceType, String tableName, int columnCount, int indexCount) {
+        Random random = new Random(seed);
+        TableStructure table = new TableStructure();
+        table.setTableName(tableName);
+        table.setSourceType(sourceType);
+        table.setTableComment("synthetic table " + tableName);
+
+        for (int i = 0; i < columnCount; i++) {
+            ColumnKind kind = i == 0 ? ColumnKind.BIGINT : KINDS[random.nextInt(KINDS.length)];
+            table.getColumns().add(column(sourceType, "col_" + i, kind, i));
+        }
+
+        if (isMySQLFamily(sourceType)) {
+            table.getProperties().put("engine", "InnoDB");
+            table.getProperties().put("charset", "utf8mb4");
+            table.getProperties().put("collation", "utf8mb4_general_ci");
+            if (columnCount > 0) {
+                table.getIndexes().add(index("PRIMARY", true, true, "col_0"));
+            }
+            for (int i = 0; i < indexCount && columnCount > 1; i++) {
+                String first = "col_" + (1 + i % (columnCount - 1));
+                String second = "col_" + (1 + (i + 1) % (columnCount - 1));
+                table.getIndexes().add(index("idx_" + i, false, i % 4 == 0, first, second));
+            }
+        } else if (DatabaseType.ELASTICSEARCH.equalsIgnoreCase(sourceType)) {
+            table.getProperties().put("number_of_shards", "3");
+            table.getProperties().put("number_of_replicas", "1");
+        }
+        return table;
+    }
+
+    /**
+     * 按差异密度修改目标表：每个字段以给定概率被删除、改变类型或改变属性，另有少量新增字段
+     *
+     * @param table             由 {@link #generate} 生成的表结构，会被原地修改
+     * @param differenceDensity 差异密度，0 到 1
+     * @return 修改后的表结构
+     */
+    public TableStructure mutate(TableStructure table, double differenceDensity) {
+        if (differenceDensity <= 0) {
+            return table;
+        }
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        List<ColumnStructure> columns = new ArrayList<>(table.getColumns().size());
+        int added = 0;
+        for (ColumnStructure column : table.getColumns()) {
+            if (random.nextDouble() >= differenceDensity) {
+                columns.add(column);
+                continue;
+            }
+            switch (random.nextInt(4)) {
+                case 0:
+                    // 字段缺失，同时在末尾追加一个源表没有的字段
+                    added++;
+                    break;
+                case 1:
+                    column.setDataType(column.getDataType().equals("bigint") || column.getDataType().equals("long")
+                            ? "varchar" : "bigint");
+                    columns.add(column);
+                    break;
+                case 2:
+                    column.setNullable(!column.isNullable());
+                    column.setDefaultValue(column.getDefaultValue() == null ? "0" : null);
+                    columns.add(column);
+                    break;
+                default:
+                    column.setComment("changed " + column.getComment());
+                    if (column.getLength() != null) {
+                        column.setLength(column.getLength() / 2);
+                    }
+                    columns.add(column);
+                    break;
+            }
+        }
+        for (int i = 0; i < added; i++) {
+            columns.add(column(table.getSourceType(), "extra_" + i, ColumnKind.VARCHAR, columns.size()));
+        }
+        table.setColumns(columns);
+
+        if (!table.getIndexes().isEmpty() && random.nextDouble() < differenceDensity) {
+            table.getIndexes().remove(table.getIndexes().size() - 1);
+        }
+        return table;
+    }
+
+    private ColumnStructure column(String sourceType, String name, ColumnKind kind, int position) {
+        ColumnStructure column = new ColumnStructure();
+        column.setColumnName(name);
+        column.setOrdinalPosition(position + 1);
+
+        String type = sourceType.toLowerCase(Locale.ROOT);
+        if (DatabaseType.POJO.equals(type)) {
+            column.setDataType(kind.javaType.getSimpleName());
+            column.setNullable(true);
+            column.getProperties().put("javaType", kind.javaType.getName());
+            for (String mysqlType : kind.javaToMysql) {
+                column.addTypeMapping(DatabaseType.MYSQL, mysqlType);
+                column.addTypeMapping(DatabaseType.TIDB, mysqlType);
+            }
+            for (String esType : kind.javaToEs) {
+                column.addTypeMapping(DatabaseType.ELASTICSEARCH, esType);
+            }
+        } else if (DatabaseType.ELASTICSEARCH.equals(type)) {
+            column.setDataType(kind.esType);
+            column.setNullable(true);
+            column.getProperties().put("type", kind.esType);
+            if (kind == ColumnKind.VARCHAR) {
+                column.setLength(256);
+                column.getProperties().put("ignore_above", 256);
+            }
+            for (String mysqlType : kind.esToMysql) {
+                column.addTypeMapping(DatabaseType.MYSQL, mysqlType);
+                column.addTypeMapping(DatabaseType.TIDB, mysqlType);
+            }
+        } else {
+            column.setDataType(kind.mysqlType);
+            column.setColumnType(kind.mysqlColumnType);
+            column.setLength(kind.length);
+            column.setPrecision(kind.precision);
+            column.setScale(kind.scale);
+            column.setNullable(position != 0);
+            column.setAutoIncrement(position == 0);
+            column.setDefaultValue(kind == ColumnKind.BOOLEAN ? "0" : null);
+            column.setComment("column " + name);
+        }
+        return column;
+    }
+
+    private static IndexStructure index(String name, boolean primary, boolean unique, String... columnNames) {
+        IndexStructure index = new IndexStructure();
+        index.setIndexName(name);
+        index.setIndexType("BTREE");
+        index.setPrimary(primary);
+        index.setUnique(unique);
+        for (int i = 0; i < columnNames.length; i++) {
+            IndexStructure.IndexColumnStructure column = new IndexStructure.IndexColumnStructure();
+            column.setColumnName(columnNames[i]);
+            column.setPosition(i + 1);
+            column.setSort("ASC");
+            index.getColumns().add(column);
+        }
+        return index;
+    }
+
+    private static boolean isMySQLFamily(String sourceType) {
+        return DatabaseType.MYSQL.equalsIgnoreCase(sourceType) || DatabaseType.TIDB.equalsIgnoreCase(sourceType);
+    }
+}
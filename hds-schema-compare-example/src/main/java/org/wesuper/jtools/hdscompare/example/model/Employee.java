@@ -1,11 +1,13 @@
 package org.wesuper.jtools.hdscompare.example.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.wesuper.jtools.hdscompare.processor.PojoSchema;
 import java.util.Date;
 
 /**
  * 员工信息实体类
  */
+@PojoSchema
 public class Employee {
     @JsonProperty("emp_no")
     private Integer empNo;
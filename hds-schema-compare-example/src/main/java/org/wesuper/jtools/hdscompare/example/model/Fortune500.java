@@ -1,11 +1,13 @@
 package org.wesuper.jtools.hdscompare.example.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.wesuper.jtools.hdscompare.processor.PojoSchema;
 import java.util.Date;
 
 /**
  * Fortune500公司信息实体类
  */
+@PojoSchema
 public class Fortune500 {
     @JsonProperty("id")
     private Long id;
@@ -55,6 +55,26 @@ public class DataSourceCompareConfig implements InitializingBean {
      */
     private String markdownOutputFilePath = "compare-results.md";
 
+    /**
+     * 是否启用NDJSON文件输出比对结果，每行一个比对结果，供看板等程序读取
+     */
+    private boolean enableNdjsonOutput = false;
+
+    /**
+     * NDJSON文件输出路径
+     */
+    private String ndjsonOutputFilePath = "compare-results.ndjson";
+
+    /**
+     * 是否启用JUnit XML文件输出比对结果，供CI读取
+     */
+    private boolean enableJunitXmlOutput = false;
+
+    /**
+     * JUnit XML文件输出路径
+     */
+    private String junitXmlOutputFilePath = "compare-results.xml";
+
     /**
      * 是否从外部 YAML 文件加载额外的比对配置
      */
@@ -75,6 +95,26 @@ public class DataSourceCompareConfig implements InitializingBean {
      */
     private String externalJsonConfigFile = "hdscompare-config.json";
 
+    /**
+     * 是否启用批量提取模式，对支持批量提取的数据源按比对配置一次性提取所有表结构
+     */
+    private boolean bulkExtractionEnabled = false;
+
+    /**
+     * 是否启用提取缓存，单次比对运行内同一张物理表只提取一次
+     */
+    private boolean extractionCacheEnabled = true;
+
+    /**
+     * 并行比对配置
+     */
+    private ParallelConfig parallel = new ParallelConfig();
+
+    /**
+     * 表结构快照配置
+     */
+    private SnapshotConfig snapshot = new SnapshotConfig();
+
     public List<CompareConfig> getCompareConfigs() {
         return compareConfigs;
     }
@@ -115,6 +155,38 @@ public class DataSourceCompareConfig implements InitializingBean {
         this.markdownOutputFilePath = markdownOutputFilePath;
     }
 
+    public boolean isEnableNdjsonOutput() {
+        return enableNdjsonOutput;
+    }
+
+    public void setEnableNdjsonOutput(boolean enableNdjsonOutput) {
+        this.enableNdjsonOutput = enableNdjsonOutput;
+    }
+
+    public String getNdjsonOutputFilePath() {
+        return ndjsonOutputFilePath;
+    }
+
+    public void setNdjsonOutputFilePath(String ndjsonOutputFilePath) {
+        this.ndjsonOutputFilePath = ndjsonOutputFilePath;
+    }
+
+    public boolean isEnableJunitXmlOutput() {
+        return enableJunitXmlOutput;
+    }
+
+    public void setEnableJunitXmlOutput(boolean enableJunitXmlOutput) {
+        this.enableJunitXmlOutput = enableJunitXmlOutput;
+    }
+
+    public String getJunitXmlOutputFilePath() {
+        return junitXmlOutputFilePath;
+    }
+
+    public void setJunitXmlOutputFilePath(String junitXmlOutputFilePath) {
+        this.junitXmlOutputFilePath = junitXmlOutputFilePath;
+    }
+
     public boolean isLoadFromExternalYaml() {
         return loadFromExternalYaml;
     }
@@ -147,6 +219,38 @@ public class DataSourceCompareConfig implements InitializingBean {
         this.externalJsonConfigFile = externalJsonConfigFile;
     }
 
+    public boolean isBulkExtractionEnabled() {
+        return bulkExtractionEnabled;
+    }
+
+    public void setBulkExtractionEnabled(boolean bulkExtractionEnabled) {
+        this.bulkExtractionEnabled = bulkExtractionEnabled;
+    }
+
+    public boolean isExtractionCacheEnabled() {
+        return extractionCacheEnabled;
+    }
+
+    public void setExtractionCacheEnabled(boolean extractionCacheEnabled) {
+        this.extractionCacheEnabled = extractionCacheEnabled;
+    }
+
+    public ParallelConfig getParallel() {
+        return parallel;
+    }
+
+    public void setParallel(ParallelConfig parallel) {
+        this.parallel = parallel;
+    }
+
+    public SnapshotConfig getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(SnapshotConfig snapshot) {
+        this.snapshot = snapshot;
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         logger.info("Starting to load and merge HDS Compare configurations...");
@@ -220,6 +324,147 @@ public class DataSourceCompareConfig implements InitializingBean {
         }
     }
 
+    /**
+     * 并行比对配置
+     */
+    public static class ParallelConfig {
+        /**
+         * 是否启用并行比对，启用后不同比对项以及同一比对项的源端与目标端提取并发执行
+         */
+        private boolean enabled = false;
+
+        /**
+         * 工作线程数
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * 线程池等待队列容量，队列满时新任务以 RejectedExecutionException 失败；
+         * 等待数据源并发名额的任务在各数据源自己的队列中排队，不占用该队列
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * 每个数据源的最大并发提取数，避免耗尽数据源连接池
+         */
+        private int maxConcurrencyPerDataSource = 4;
+
+        /**
+         * 单个提取任务的超时时间（秒）
+         */
+        private long taskTimeoutSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxConcurrencyPerDataSource() {
+            return maxConcurrencyPerDataSource;
+        }
+
+        public void setMaxConcurrencyPerDataSource(int maxConcurrencyPerDataSource) {
+            this.maxConcurrencyPerDataSource = maxConcurrencyPerDataSource;
+        }
+
+        public long getTaskTimeoutSeconds() {
+            return taskTimeoutSeconds;
+        }
+
+        public void setTaskTimeoutSeconds(long taskTimeoutSeconds) {
+            this.taskTimeoutSeconds = taskTimeoutSeconds;
+        }
+    }
+
+    /**
+     * 表结构快照配置
+     */
+    public static class SnapshotConfig {
+        /**
+         * 是否启用快照存储，启用后每次比对都会记录两端表结构及其指纹
+         */
+        private boolean enabled = false;
+
+        /**
+         * 是否启用增量比对，两端指纹与上次记录一致时直接复用上次的比对结果
+         */
+        private boolean incremental = true;
+
+        /**
+         * 快照存储目录
+         */
+        private String directory = ".hdscompare/snapshots";
+
+        /**
+         * 比对完成后将所有表结构快照导出到该文件，供 snapshot 类型的数据源离线读取，为空时不导出
+         */
+        private String exportFile;
+
+        /**
+         * 导出文件格式：json、smile 或 mapped，为空时按文件扩展名推断
+         */
+        private String exportFormat;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isIncremental() {
+            return incremental;
+        }
+
+        public void setIncremental(boolean incremental) {
+            this.incremental = incremental;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public String getExportFile() {
+            return exportFile;
+        }
+
+        public void setExportFile(String exportFile) {
+            this.exportFile = exportFile;
+        }
+
+        public String getExportFormat() {
+            return exportFormat;
+        }
+
+        public void setExportFormat(String exportFormat) {
+            this.exportFormat = exportFormat;
+        }
+    }
+
     /**
      * 单个比对配置项
      */
@@ -335,6 +580,18 @@ public class DataSourceCompareConfig implements InitializingBean {
          */
         private String targetTableName;
 
+        /**
+         * POJO 实体类的基础包名，设置后按包扫描模式比对：扫描包下的所有实体类，
+         * 按命名策略推导对端表名，每个实体类展开为一个表比对，此时忽略源表名和目标表名
+         */
+        private String entityPackage;
+
+        /**
+         * 包扫描模式下由类名推导表名的命名策略：snake_case（默认）、lower_case、simple_name，
+         * 或 PojoTableNamingStrategy 实现类的全限定名
+         */
+        private String namingStrategy;
+
         /**
          * 忽略的字段列表
          */
@@ -361,6 +618,22 @@ public class DataSourceCompareConfig implements InitializingBean {
             this.targetTableName = targetTableName;
         }
 
+        public String getEntityPackage() {
+            return entityPackage;
+        }
+
+        public void setEntityPackage(String entityPackage) {
+            this.entityPackage = entityPackage;
+        }
+
+        public String getNamingStrategy() {
+            return namingStrategy;
+        }
+
+        public void setNamingStrategy(String namingStrategy) {
+            this.namingStrategy = namingStrategy;
+        }
+
         public List<String> getIgnoreFields() {
             return ignoreFields;
         }
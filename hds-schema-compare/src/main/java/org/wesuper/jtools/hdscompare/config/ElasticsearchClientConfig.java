@@ -87,7 +87,12 @@ public class ElasticsearchClientConfig {
     
     @Bean
     public ElasticsearchTableStructureExtractor elasticsearchTableStructureExtractor() {
-        return new ElasticsearchTableStructureExtractor(elasticsearchClientMap(elasticsearchProperties()));
+        ElasticsearchProperties properties = elasticsearchProperties();
+        Map<String, Integer> maxInFlightRequests = new HashMap<>();
+        if (properties.getClients() != null) {
+            properties.getClients().forEach((name, config) -> maxInFlightRequests.put(name, config.getMaxInFlightRequests()));
+        }
+        return new ElasticsearchTableStructureExtractor(elasticsearchClientMap(properties), maxInFlightRequests);
     }
 
     /**
@@ -139,6 +144,11 @@ public class ElasticsearchClientConfig {
              */
             private int socketTimeout = 60000;
 
+            /**
+             * 异步提取时该客户端允许的最大在途请求数，超出的请求排队等待
+             */
+            private int maxInFlightRequests = ElasticsearchTableStructureExtractor.DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+
             public List<String> getHosts() {
                 return hosts;
             }
@@ -162,6 +172,14 @@ public class ElasticsearchClientConfig {
             public void setSocketTimeout(int socketTimeout) {
                 this.socketTimeout = socketTimeout;
             }
+
+            public int getMaxInFlightRequests() {
+                return maxInFlightRequests;
+            }
+
+            public void setMaxInFlightRequests(int maxInFlightRequests) {
+                this.maxInFlightRequests = maxInFlightRequests;
+            }
         }
     }
 } 
\ No newline at end of file
@@ -1,5 +1,12 @@
 package org.wesuper.jtools.hdscompare.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.wesuper.jtools.hdscompare.starter.TableStructureCompareAutoStarter;
@@ -8,11 +15,21 @@ import org.wesuper.jtools.hdscompare.extractor.TableStructureExtractorFactory;
 import org.wesuper.jtools.hdscompare.extractor.MySqlTableStructureExtractor;
 import org.wesuper.jtools.hdscompare.extractor.TidbTableStructureExtractor;
 import org.wesuper.jtools.hdscompare.extractor.PojoTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.extractor.SnapshotTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.metrics.SchemaCompareMetrics;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRule;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRuleRegistry;
 import org.wesuper.jtools.hdscompare.service.TableStructureCompareService;
 import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+import org.wesuper.jtools.hdscompare.snapshot.FileSchemaSnapshotStore;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaSnapshotStore;
+
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Configuration
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 public class SchemaCompareAutoConfiguration {
 
     @Bean
@@ -40,10 +57,43 @@ public class SchemaCompareAutoConfiguration {
         return new PojoTableStructureExtractor();
     }
 
+    @Bean
+    public SnapshotTableStructureExtractor snapshotTableStructureExtractor() {
+        return new SnapshotTableStructureExtractor();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ComparisonRuleRegistry.class)
+    public ComparisonRuleRegistry comparisonRuleRegistry(ObjectProvider<ComparisonRule> rules) {
+        return new ComparisonRuleRegistry(rules.orderedStream().collect(Collectors.toList()));
+    }
+
     @Bean
     public TableStructureCompareService tableStructureCompareService() {
         return new TableStructureCompareServiceImpl();
     }
 
+    @Bean
+    @ConditionalOnMissingBean(SchemaSnapshotStore.class)
+    @ConditionalOnProperty(prefix = "jtools.hdscompare.config.snapshot", name = "enabled", havingValue = "true")
+    public SchemaSnapshotStore schemaSnapshotStore(DataSourceCompareConfig dataSourceCompareConfig) {
+        return new FileSchemaSnapshotStore(Paths.get(dataSourceCompareConfig.getSnapshot().getDirectory()));
+    }
+
+    /**
+     * Micrometer 是可选依赖，指标相关的 Bean 放在单独的配置类中，类路径上没有 Micrometer 时不加载
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnMissingBean(SchemaCompareMetrics.class)
+        public SchemaCompareMetrics schemaCompareMetrics(MeterRegistry meterRegistry) {
+            return new SchemaCompareMetrics(meterRegistry);
+        }
+    }
+
     // Add more beans as needed for schema comparison functionality
 }
\ No newline at end of file
@@ -8,4 +8,5 @@ public class DatabaseType {
     public static final String TIDB = "tidb";
     public static final String ELASTICSEARCH = "elasticsearch";
     public static final String POJO = "pojo";
+    public static final String SNAPSHOT = "snapshot";
 } 
\ No newline at end of file
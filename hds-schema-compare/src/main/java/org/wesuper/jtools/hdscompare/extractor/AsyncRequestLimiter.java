@@ -0,0 +1,86 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 非阻塞请求的在途数量限制
+ * 超过上限的请求进入队列而不是阻塞调用线程，在途请求完成时由完成回调发出下一个请求。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+final class AsyncRequestLimiter {
+
+    private final int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    AsyncRequestLimiter(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * 提交请求，在途请求数未达上限时立即发出，否则排队
+     *
+     * @param request 发出请求并返回其结果
+     * @param <T>     结果类型
+     * @return 请求结果
+     */
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(() -> {
+            CompletableFuture<T> response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+                return;
+            }
+            response.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        drain();
+        return result;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable next = pending.poll();
+            if (next == null) {
+                // 队列已被其他线程取空，归还名额后重新检查
+                inFlight.decrementAndGet();
+                continue;
+            }
+            next.run();
+        }
+    }
+}
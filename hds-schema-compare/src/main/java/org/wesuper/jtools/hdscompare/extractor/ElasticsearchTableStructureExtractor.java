@@ -1,14 +1,26 @@
 package org.wesuper.jtools.hdscompare.extractor;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
 import org.elasticsearch.action.admin.indices.get.GetIndexResponse;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.cluster.metadata.MappingMetadata;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.regex.Regex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
@@ -17,10 +29,18 @@ import org.wesuper.jtools.hdscompare.model.IndexStructure;
 import org.wesuper.jtools.hdscompare.model.TableStructure;
 import org.wesuper.jtools.hdscompare.constants.DatabaseType;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Elasticsearch索引结构提取器实现
@@ -67,11 +87,81 @@ public class ElasticsearchTableStructureExtractor implements TableStructureExtra
         // 布尔类型映射
         ES_TO_MYSQL_TYPE_MAPPING.put("boolean", "boolean");
         ES_TO_MYSQL_TYPE_MAPPING.put("boolean", "bool"); // MySQL also supports 'bool'
+
+        // 对象类型映射，未展开存储时对应 JSON 字段
+        ES_TO_MYSQL_TYPE_MAPPING.put("object", "json");
+        ES_TO_MYSQL_TYPE_MAPPING.put("nested", "json");
     }
     
+    /**
+     * 表结构版本探测只需要的集群状态字段
+     */
+    private static final String SCHEMA_VERSION_FILTER_PATH = "metadata.indices.*.mapping_version,"
+            + "metadata.indices.*.settings_version,metadata.indices.*.settings.index.uuid";
+
+    /**
+     * 数据源扩展属性：为 true 时通过低级客户端流式解析映射，不构建完整的映射树
+     */
+    public static final String PROPERTY_STREAMING_MAPPING = "streamingMapping";
+
+    /**
+     * 字段属性：所属父字段的路径，仅对象子字段和多字段有
+     */
+    public static final String PROPERTY_PARENT_PATH = "parent_path";
+
+    /**
+     * 字段属性：为 true 表示该字段是父字段的多字段（如 name.keyword）
+     */
+    public static final String PROPERTY_MULTI_FIELD = "multi_field";
+
+    /**
+     * 字段展开的最大层级，与 ES 默认的 index.mapping.depth.limit 一致
+     */
+    private static final int MAX_FIELD_DEPTH = 20;
+
+    /**
+     * 提取只需要的映射字段
+     */
+    private static final String MAPPING_FILTER_PATH = "*.mappings.properties";
+
+    /**
+     * 提取只需要的索引设置，与 {@link #extractIndexSettings} 读取的设置一致
+     */
+    private static final String SETTINGS_FILTER_PATH = "*.settings.index.number_of_shards,"
+            + "*.settings.index.number_of_replicas,*.settings.index.creation_date,*.settings.index.uuid,"
+            + "*.settings.index.provided_name,*.settings.index.analysis";
+
+    /**
+     * 单次批量请求中索引列表的最大长度，超过后拆分为多次请求，避免请求行过长
+     */
+    private static final int MAX_BATCH_PATH_LENGTH = 2048;
+
+    private static final ObjectMapper JSON_READER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    /**
+     * 未配置时每个客户端的默认在途异步请求数
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 16;
+
+    /**
+     * 数据源名称到在途异步请求上限的映射
+     */
+    private final Map<String, Integer> maxInFlightRequests;
+
+    private final Map<String, AsyncRequestLimiter> requestLimiters = new ConcurrentHashMap<>();
+
     // @Autowired // Assuming this is handled by Spring configuration
     public ElasticsearchTableStructureExtractor(Map<String, RestHighLevelClient> elasticsearchClientMap) {
+        this(elasticsearchClientMap, Collections.emptyMap());
+    }
+
+    public ElasticsearchTableStructureExtractor(Map<String, RestHighLevelClient> elasticsearchClientMap,
+                                                Map<String, Integer> maxInFlightRequests) {
         this.elasticsearchClientMap = elasticsearchClientMap;
+        this.maxInFlightRequests = maxInFlightRequests;
     }
     
     @Override
@@ -86,41 +176,366 @@ public class ElasticsearchTableStructureExtractor implements TableStructureExtra
             throw new IllegalArgumentException("Elasticsearch client not found for data source: " + dataSourceName);
         }
         
+        try {
+            if (isStreamingMapping(dataSourceConfig)) {
+                Response response = client.getLowLevelClient().performRequest(streamingGetIndexRequest(indexName));
+                return parseStreamingGetIndex(indexName, response);
+            }
+            GetIndexRequest request = new GetIndexRequest().indices(indexName);
+            GetIndexResponse response = client.indices().get(request, RequestOptions.DEFAULT);
+            return toTableStructure(indexName, response);
+        } catch (Exception e) {
+            logger.error("Failed to extract Elasticsearch index structure for {} from {}", indexName, dataSourceName, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 通过 getAsync 非阻塞提取索引结构，等待响应期间不占用调用线程
+     * 使用客户端的 indices.GetIndexRequest，请求不带 include_type_name，映射中没有类型层。
+     * 每个客户端的在途请求数受 maxInFlightRequests 限制，超出的请求排队等待。
+     */
+    @Override
+    public CompletableFuture<TableStructure> extractTableStructureAsync(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                                       String tableName) {
+        String dataSourceName = dataSourceConfig.getDataSourceName();
+        RestHighLevelClient client;
+        try {
+            client = getElasticsearchClient(dataSourceName);
+        } catch (IllegalStateException e) {
+            CompletableFuture<TableStructure> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        AsyncRequestLimiter limiter = requestLimiters.computeIfAbsent(dataSourceName,
+                name -> new AsyncRequestLimiter(maxInFlightRequests.getOrDefault(name, DEFAULT_MAX_IN_FLIGHT_REQUESTS)));
+        boolean streaming = isStreamingMapping(dataSourceConfig);
+        return limiter.submit(() -> {
+            logger.info("Extracting structure for Elasticsearch index: {} from datasource: {} (async)", tableName, dataSourceName);
+            CompletableFuture<TableStructure> future = new CompletableFuture<>();
+            if (streaming) {
+                client.getLowLevelClient().performRequestAsync(streamingGetIndexRequest(tableName), new ResponseListener() {
+                    @Override
+                    public void onSuccess(Response response) {
+                        try {
+                            future.complete(parseStreamingGetIndex(tableName, response));
+                        } catch (IOException | RuntimeException e) {
+                            future.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        logger.error("Failed to extract Elasticsearch index structure for {} from {}",
+                                tableName, dataSourceName, e);
+                        future.completeExceptionally(e);
+                    }
+                });
+                return future;
+            }
+            client.indices().getAsync(new org.elasticsearch.client.indices.GetIndexRequest(tableName), RequestOptions.DEFAULT,
+                    new ActionListener<org.elasticsearch.client.indices.GetIndexResponse>() {
+                        @Override
+                        public void onResponse(org.elasticsearch.client.indices.GetIndexResponse response) {
+                            try {
+                                future.complete(toTableStructure(tableName, response));
+                            } catch (RuntimeException e) {
+                                future.completeExceptionally(e);
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            logger.error("Failed to extract Elasticsearch index structure for {} from {}",
+                                    tableName, dataSourceName, e);
+                            future.completeExceptionally(e);
+                        }
+                    });
+            return future;
+        });
+    }
+
+    @Override
+    public boolean supportsAsyncExtraction() {
+        return true;
+    }
+
+    private TableStructure toTableStructure(String indexName, GetIndexResponse response) {
         TableStructure tableStructure = new TableStructure();
         tableStructure.setTableName(indexName);
         tableStructure.setSourceType(TYPE);
+
+        Settings indexSettings = response.getSettings().get(indexName);
+        if (indexSettings != null) {
+            extractIndexSettings(tableStructure, indexSettings);
+        }
         
-        try {
-            GetIndexRequest request = new GetIndexRequest().indices(indexName);
-            GetIndexResponse response = client.indices().get(request, RequestOptions.DEFAULT);
-            
-            Settings indexSettings = response.getSettings().get(indexName);
-            if (indexSettings != null) {
-                extractIndexSettings(tableStructure, indexSettings);
+        // In ES 7+, type is usually _doc. If not, try to get the first available mapping.
+        ImmutableOpenMap<String, MappingMetadata> mappings = response.getMappings().get(indexName);
+        String mappingTypeToUse = "_doc"; 
+        if (mappings != null) {
+            if (!mappings.containsKey(mappingTypeToUse) && !mappings.isEmpty()) {
+                 mappingTypeToUse = mappings.keysIt().next(); // Get first type if _doc doesn't exist
             }
-            
-            // In ES 7+, type is usually _doc. If not, try to get the first available mapping.
-            ImmutableOpenMap<String, MappingMetadata> mappings = response.getMappings().get(indexName);
-            String mappingTypeToUse = "_doc"; 
-            if (mappings != null) {
-                if (!mappings.containsKey(mappingTypeToUse) && !mappings.isEmpty()) {
-                     mappingTypeToUse = mappings.keysIt().next(); // Get first type if _doc doesn't exist
+            MappingMetadata mappingMetaData = mappings.get(mappingTypeToUse);
+            if (mappingMetaData != null) {
+                extractMappingMetadata(tableStructure, mappingMetaData.sourceAsMap());
+            }
+        } else {
+            logger.warn("No mappings found for index: {}", indexName);
+        }
+        
+        return tableStructure;
+    }
+    
+    /**
+     * 从客户端 indices.GetIndexResponse 构建表结构，该响应的映射中没有类型层
+     */
+    private TableStructure toTableStructure(String indexName, org.elasticsearch.client.indices.GetIndexResponse response) {
+        TableStructure tableStructure = new TableStructure();
+        tableStructure.setTableName(indexName);
+        tableStructure.setSourceType(TYPE);
+
+        Settings indexSettings = response.getSettings().get(indexName);
+        if (indexSettings != null) {
+            extractIndexSettings(tableStructure, indexSettings);
+        }
+
+        MappingMetadata mappingMetadata = response.getMappings().get(indexName);
+        if (mappingMetadata != null) {
+            extractMappingMetadata(tableStructure, mappingMetadata.sourceAsMap());
+        } else {
+            logger.warn("No mappings found for index: {}", indexName);
+        }
+
+        return tableStructure;
+    }
+
+    /**
+     * 批量提取索引结构
+     * 用一次 _mapping 和一次 _settings 请求获取所有索引（或索引通配符）的映射与设置，filter_path 只保留提取需要的字段，
+     * 再按索引拆分为各自的表结构。通配符展开得到的具体索引一并返回；响应中没有的名称（如别名）逐个回退到单索引提取。
+     * 当 tableNames 为空时提取集群中的全部索引。
+     */
+    @Override
+    public Map<String, TableStructure> extractTableStructures(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                              Collection<String> tableNames) throws Exception {
+        String dataSourceName = dataSourceConfig.getDataSourceName();
+        List<String> requestedIndices = tableNames == null ? Collections.<String>emptyList()
+                : new ArrayList<>(new LinkedHashSet<>(tableNames));
+        boolean wholeCluster = requestedIndices.isEmpty();
+
+        logger.info("Batch extracting structure for {} Elasticsearch indices from datasource: {}",
+                wholeCluster ? "all" : requestedIndices.size(), dataSourceName);
+
+        RestClient lowLevelClient = getElasticsearchClient(dataSourceName).getLowLevelClient();
+        Map<String, TableStructure> fetched = new LinkedHashMap<>();
+        for (String indices : wholeCluster ? Collections.singletonList("*") : joinIndexBatches(requestedIndices)) {
+            parseIndexResponse(performFilteredGet(lowLevelClient, "/" + indices + "/_mapping", MAPPING_FILTER_PATH), fetched);
+            parseIndexResponse(performFilteredGet(lowLevelClient, "/" + indices + "/_settings", SETTINGS_FILTER_PATH), fetched);
+        }
+
+        if (wholeCluster) {
+            return fetched;
+        }
+        Map<String, TableStructure> tableStructures = new LinkedHashMap<>();
+        for (String indexName : requestedIndices) {
+            if (Regex.isSimpleMatchPattern(indexName)) {
+                fetched.forEach((name, tableStructure) -> {
+                    if (Regex.simpleMatch(indexName, name)) {
+                        tableStructures.putIfAbsent(name, tableStructure);
+                    }
+                });
+                continue;
+            }
+            TableStructure tableStructure = fetched.get(indexName);
+            tableStructures.put(indexName, tableStructure != null ? tableStructure
+                    : extractTableStructure(dataSourceConfig, indexName));
+        }
+        return tableStructures;
+    }
+
+    /**
+     * 将索引名按逗号拼接，单个批次不超过 {@link #MAX_BATCH_PATH_LENGTH}
+     */
+    private static List<String> joinIndexBatches(List<String> indexNames) {
+        List<String> batches = new ArrayList<>();
+        StringBuilder batch = new StringBuilder();
+        for (String indexName : indexNames) {
+            if (batch.length() > 0 && batch.length() + indexName.length() + 1 > MAX_BATCH_PATH_LENGTH) {
+                batches.add(batch.toString());
+                batch.setLength(0);
+            }
+            if (batch.length() > 0) {
+                batch.append(',');
+            }
+            batch.append(indexName);
+        }
+        if (batch.length() > 0) {
+            batches.add(batch.toString());
+        }
+        return batches;
+    }
+
+    private static Response performFilteredGet(RestClient lowLevelClient, String endpoint, String filterPath) throws IOException {
+        Request request = new Request("GET", endpoint);
+        request.addParameter("filter_path", filterPath);
+        // 缺失的索引不使整批失败，由调用方回退到单索引提取
+        request.addParameter("ignore_unavailable", "true");
+        request.addParameter("allow_no_indices", "true");
+        return lowLevelClient.performRequest(request);
+    }
+
+    private static Request streamingGetIndexRequest(String indexName) {
+        Request request = new Request("GET", "/" + indexName);
+        request.addParameter("filter_path", MAPPING_FILTER_PATH + "," + SETTINGS_FILTER_PATH);
+        return request;
+    }
+
+    /**
+     * 流式解析单个索引（或别名）的 get index 响应
+     * 别名指向多个索引时与 {@link GetIndexRequest} 路径一致，取第一个索引。
+     */
+    private TableStructure parseStreamingGetIndex(String indexName, Response response) throws IOException {
+        Map<String, TableStructure> parsed = new LinkedHashMap<>();
+        parseIndexResponse(response, parsed);
+        TableStructure tableStructure = parsed.get(indexName);
+        if (tableStructure == null && !parsed.isEmpty()) {
+            tableStructure = parsed.values().iterator().next();
+        }
+        if (tableStructure == null) {
+            logger.warn("No mappings found for index: {}", indexName);
+            tableStructure = new TableStructure();
+            tableStructure.setSourceType(TYPE);
+        }
+        tableStructure.setTableName(indexName);
+        return tableStructure;
+    }
+
+    /**
+     * 流式解析 {"index": {"mappings": {"properties": ...}, "settings": ...}} 形式的响应，合并到按索引名的表结构中
+     * 字段直接构造为 {@link ColumnStructure}，只有单个字段的属性会物化为 Map，不构建整个映射树。
+     */
+    private void parseIndexResponse(Response response, Map<String, TableStructure> tableStructures) throws IOException {
+        try (InputStream content = response.getEntity().getContent();
+             JsonParser parser = JSON_READER.getFactory().createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String indexName = parser.getCurrentName();
+                TableStructure tableStructure = tableStructures.computeIfAbsent(indexName, name -> {
+                    TableStructure created = new TableStructure();
+                    created.setTableName(name);
+                    created.setSourceType(TYPE);
+                    return created;
+                });
+                parser.nextToken();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String section = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("mappings".equals(section)) {
+                        parseMappings(parser, tableStructure);
+                    } else if ("settings".equals(section)) {
+                        Map<String, Object> settings = parser.readValueAs(MAP_TYPE);
+                        extractIndexSettings(tableStructure, Settings.builder().loadFromMap(settings).build());
+                    } else {
+                        parser.skipChildren();
+                    }
                 }
-                MappingMetadata mappingMetaData = mappings.get(mappingTypeToUse);
-                if (mappingMetaData != null) {
-                    extractMappingMetadata(tableStructure, mappingMetaData);
+            }
+        }
+    }
+
+    private void parseMappings(JsonParser parser, TableStructure tableStructure) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (!"properties".equals(name)) {
+                parser.skipChildren();
+                continue;
+            }
+            parseFields(parser, tableStructure, null, false, 0);
+        }
+        extractIndexInformation(tableStructure);
+    }
+
+    /**
+     * 流式递归解析 properties 或 fields 下的字段，与 {@link #extractFields} 产生相同的字段结构
+     * 字段对象中的 type 通常排在子字段之后，因此先占位添加字段，读完所有属性后再填充。
+     */
+    private void parseFields(JsonParser parser, TableStructure tableStructure, String parentPath,
+                             boolean multiFields, int depth) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = childPath(parentPath, parser.getCurrentName());
+            parser.nextToken();
+            ColumnStructure column = addFieldColumn(tableStructure, path);
+            Map<String, Object> esFieldProps = new HashMap<>();
+            boolean container = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.getCurrentName();
+                parser.nextToken();
+                boolean subProperties = "properties".equals(key);
+                if (subProperties || "fields".equals(key)) {
+                    container |= subProperties;
+                    if (withinDepthLimit(path, depth)) {
+                        parseFields(parser, tableStructure, path, !subProperties, depth + 1);
+                    } else {
+                        parser.skipChildren();
+                    }
+                } else {
+                    esFieldProps.put(key, parser.readValueAs(Object.class));
                 }
-            } else {
-                logger.warn("No mappings found for index: {}", indexName);
             }
-            
-            return tableStructure;
-        } catch (Exception e) {
-            logger.error("Failed to extract Elasticsearch index structure for {} from {}", indexName, dataSourceName, e);
-            throw e;
+            completeFieldColumn(column, esFieldProps, parentPath, multiFields, container);
         }
     }
-    
+
+    private static boolean isStreamingMapping(DataSourceCompareConfig.DataSourceConfig dataSourceConfig) {
+        Map<String, String> properties = dataSourceConfig.getProperties();
+        return properties != null && Boolean.parseBoolean(properties.get(PROPERTY_STREAMING_MAPPING));
+    }
+
+    @Override
+    public String probeSchemaVersion(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) throws Exception {
+        RestHighLevelClient client = getElasticsearchClient(dataSourceConfig.getDataSourceName());
+
+        // 集群状态中的索引元数据：uuid 在索引重建时变化，mapping_version/settings_version 在映射或设置变更时递增
+        Request request = new Request("GET", "/_cluster/state/metadata/" + tableName);
+        request.addParameter("filter_path", SCHEMA_VERSION_FILTER_PATH);
+        Response response = client.getLowLevelClient().performRequest(request);
+
+        JsonNode indices = JSON_READER.readTree(response.getEntity().getContent()).path("metadata").path("indices");
+        if (!indices.isObject() || indices.size() == 0) {
+            return null;
+        }
+
+        // 别名可能指向多个索引，按索引名排序后拼接
+        List<String> indexNames = new ArrayList<>();
+        indices.fieldNames().forEachRemaining(indexNames::add);
+        Collections.sort(indexNames);
+        StringBuilder version = new StringBuilder();
+        for (String indexName : indexNames) {
+            JsonNode index = indices.get(indexName);
+            if (version.length() > 0) {
+                version.append(',');
+            }
+            version.append(indexName)
+                    .append(':').append(index.path("settings").path("index").path("uuid").asText())
+                    .append(':').append(index.path("mapping_version").asText())
+                    .append(':').append(index.path("settings_version").asText());
+        }
+        return version.toString();
+    }
+
+    /**
+     * ES 类型到 MySQL 类型的静态映射，供 {@link TypeCompatibilityMatrix} 构建使用
+     */
+    static Multimap<String, String> esToMysqlTypeMapping() {
+        return Multimaps.unmodifiableMultimap(ES_TO_MYSQL_TYPE_MAPPING);
+    }
+
     @Override
     public String getSupportedType() {
         return TYPE;
@@ -139,36 +554,90 @@ public class ElasticsearchTableStructureExtractor implements TableStructureExtra
     }
     
     @SuppressWarnings("unchecked")
-    private void extractMappingMetadata(TableStructure tableStructure, MappingMetadata mappingMetaData) {
+    private void extractMappingMetadata(TableStructure tableStructure, Map<String, Object> mappingMap) {
         try {
-            Map<String, Object> mappingMap = mappingMetaData.sourceAsMap();
             Map<String, Object> fieldPropertiesMap = (Map<String, Object>) mappingMap.get("properties");
             
             if (fieldPropertiesMap != null) {
-                int position = 1;
-                for (Map.Entry<String, Object> entry : fieldPropertiesMap.entrySet()) {
-                    String fieldName = entry.getKey();
-                    Map<String, Object> esFieldProps = (Map<String, Object>) entry.getValue();
-                    
-                    ColumnStructure column = new ColumnStructure();
-                    column.setColumnName(fieldName);
-                    column.setOrdinalPosition(position++);
-                    extractFieldProperties(column, esFieldProps);
-                    tableStructure.getColumns().add(column);
-                }
+                extractFields(tableStructure, null, fieldPropertiesMap, false, 0);
             }
-            extractIndexInformation(tableStructure, mappingMap);
+            extractIndexInformation(tableStructure);
         } catch (Exception e) {
             logger.error("Error extracting Elasticsearch mapping metadata: {}", e.getMessage(), e);
         }
     }
+
+    /**
+     * 递归展开 properties（对象、nested 子字段）和 fields（多字段），以点分路径作为字段名
+     * 按先序一次遍历完成，父字段排在其子字段之前；超过 {@link #MAX_FIELD_DEPTH} 的层级不再展开。
+     */
+    @SuppressWarnings("unchecked")
+    private void extractFields(TableStructure tableStructure, String parentPath, Map<String, Object> properties,
+                               boolean multiFields, int depth) {
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            String path = childPath(parentPath, entry.getKey());
+            Map<String, Object> esFieldProps = new HashMap<>((Map<String, Object>) entry.getValue()); // Copy all ES props
+            Object subProperties = esFieldProps.remove("properties");
+            Object subFields = esFieldProps.remove("fields");
+
+            ColumnStructure column = addFieldColumn(tableStructure, path);
+            completeFieldColumn(column, esFieldProps, parentPath, multiFields, subProperties != null);
+            if (!withinDepthLimit(path, depth)) {
+                continue;
+            }
+            if (subProperties instanceof Map) {
+                extractFields(tableStructure, path, (Map<String, Object>) subProperties, false, depth + 1);
+            }
+            if (subFields instanceof Map) {
+                extractFields(tableStructure, path, (Map<String, Object>) subFields, true, depth + 1);
+            }
+        }
+    }
+
+    private static ColumnStructure addFieldColumn(TableStructure tableStructure, String path) {
+        ColumnStructure column = new ColumnStructure();
+        column.setColumnName(path);
+        column.setOrdinalPosition(tableStructure.getColumns().size() + 1);
+        tableStructure.getColumns().add(column);
+        return column;
+    }
+
+    private void completeFieldColumn(ColumnStructure column, Map<String, Object> esFieldProps, String parentPath,
+                                     boolean multiField, boolean container) {
+        if (container) {
+            // 未声明 type 但有子字段的是 object 字段
+            esFieldProps.putIfAbsent("type", "object");
+        }
+        if (parentPath != null) {
+            esFieldProps.put(PROPERTY_PARENT_PATH, parentPath);
+        }
+        if (multiField) {
+            esFieldProps.put(PROPERTY_MULTI_FIELD, true);
+        }
+        extractFieldProperties(column, esFieldProps);
+    }
+
+    private static String childPath(String parentPath, String fieldName) {
+        return parentPath == null ? fieldName : parentPath + "." + fieldName;
+    }
+
+    private static boolean withinDepthLimit(String path, int depth) {
+        if (depth + 1 < MAX_FIELD_DEPTH) {
+            return true;
+        }
+        logger.warn("Elasticsearch field {} exceeds max depth {}, sub-fields are not extracted", path, MAX_FIELD_DEPTH);
+        return false;
+    }
     
+    /**
+     * 填充字段属性，esFieldProps 直接作为字段的属性 Map，调用方不应再修改
+     */
     private void extractFieldProperties(ColumnStructure column, Map<String, Object> esFieldProps) {
         String esType = (String) esFieldProps.get("type");
         column.setDataType(esType); // Store original ES type as dataType
         column.setNullable(true); // In ES, fields are generally nullable by default
         
-        Map<String, Object> columnProperties = new HashMap<>(esFieldProps); // Copy all ES props
+        Map<String, Object> columnProperties = esFieldProps;
         column.setProperties(columnProperties);
         
         // Add MySQL type mappings based on ES type
@@ -189,46 +658,54 @@ public class ElasticsearchTableStructureExtractor implements TableStructureExtra
         }
     }
     
-    @SuppressWarnings("unchecked")
-    private void extractIndexInformation(TableStructure tableStructure, Map<String, Object> mappingMap) {
+    private void extractIndexInformation(TableStructure tableStructure) {
         List<IndexStructure> indexes = new ArrayList<>();
-        if (mappingMap.containsKey("_id")) { /* ... existing _id handling ... */ }
-        
-        Map<String, Object> properties = (Map<String, Object>) mappingMap.get("properties");
-        if (properties != null) {
-            for (Map.Entry<String, Object> entry : properties.entrySet()) {
-                String fieldName = entry.getKey();
-                Map<String, Object> fieldProps = (Map<String, Object>) entry.getValue();
-                Object indexFlag = fieldProps.get("index");
-                boolean isIndexed = indexFlag == null || Boolean.TRUE.equals(indexFlag) || "true".equals(String.valueOf(indexFlag).toLowerCase());
-
-                if (isIndexed && !fieldName.equals("_id")) { // Avoid duplicating _id index
-                    IndexStructure fieldIndex = new IndexStructure();
-                    fieldIndex.setIndexName(fieldName + "_idx"); // Simple naming convention
-                    fieldIndex.setIndexType("NORMAL"); 
-                    fieldIndex.setPrimary(false);
-                    fieldIndex.setUnique(false); // ES non-ID indexes are generally not unique by default
-                    
-                    IndexStructure.IndexColumnStructure indexColumn = new IndexStructure.IndexColumnStructure();
-                    indexColumn.setColumnName(fieldName);
-                    indexColumn.setPosition(1);
-                    List<IndexStructure.IndexColumnStructure> indexCols = new ArrayList<>();
-                    indexCols.add(indexColumn);
-                    fieldIndex.setColumns(indexCols);
-                    
-                    Map<String, Object> indexProps = new HashMap<>();
-                    if (fieldProps.containsKey("analyzer")) {
-                        indexProps.put("analyzer", fieldProps.get("analyzer"));
-                    }
-                    // Add other relevant ES index properties if needed
-                    fieldIndex.setProperties(indexProps);
-                    indexes.add(fieldIndex);
-                }
+        for (ColumnStructure column : tableStructure.getColumns()) {
+            IndexStructure fieldIndex = buildFieldIndex(column.getColumnName(), column.getProperties());
+            if (fieldIndex != null) {
+                indexes.add(fieldIndex);
             }
         }
         tableStructure.setIndexes(indexes);
     }
     
+    /**
+     * 为被索引的字段构造索引结构，未被索引的字段返回 null
+     */
+    private IndexStructure buildFieldIndex(String fieldName, Map<String, Object> fieldProps) {
+        Object indexFlag = fieldProps.get("index");
+        boolean isIndexed = indexFlag == null || Boolean.TRUE.equals(indexFlag) || "true".equals(String.valueOf(indexFlag).toLowerCase());
+        if (!isIndexed || fieldName.equals("_id")) { // Avoid duplicating _id index
+            return null;
+        }
+        Object esType = fieldProps.get("type");
+        if ("object".equals(esType) || "nested".equals(esType)) {
+            // 对象字段本身不建索引，其子字段各自建索引
+            return null;
+        }
+
+        IndexStructure fieldIndex = new IndexStructure();
+        fieldIndex.setIndexName(fieldName + "_idx"); // Simple naming convention
+        fieldIndex.setIndexType("NORMAL"); 
+        fieldIndex.setPrimary(false);
+        fieldIndex.setUnique(false); // ES non-ID indexes are generally not unique by default
+        
+        IndexStructure.IndexColumnStructure indexColumn = new IndexStructure.IndexColumnStructure();
+        indexColumn.setColumnName(fieldName);
+        indexColumn.setPosition(1);
+        List<IndexStructure.IndexColumnStructure> indexCols = new ArrayList<>();
+        indexCols.add(indexColumn);
+        fieldIndex.setColumns(indexCols);
+        
+        Map<String, Object> indexProps = new HashMap<>();
+        if (fieldProps.containsKey("analyzer")) {
+            indexProps.put("analyzer", fieldProps.get("analyzer"));
+        }
+        // Add other relevant ES index properties if needed
+        fieldIndex.setProperties(indexProps);
+        return fieldIndex;
+    }
+    
     private RestHighLevelClient getElasticsearchClient(String dataSourceName) {
         RestHighLevelClient client = elasticsearchClientMap.get(dataSourceName);
         if (client == null) {
@@ -0,0 +1,70 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * JDBC 表结构提取会话
+ * 在一次提取（单表或一批表）期间固定使用同一个连接：表注释、列、索引以及 TiDB 特有属性的查询都在该连接上执行，
+ * 每次提取只从连接池借出一个连接。会话通过 {@link DataSourceUtils} 获取连接，存在事务时复用事务绑定的连接。
+ * 会话不是线程安全的，只能在打开它的线程中使用，用完后必须关闭。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class JdbcExtractionSession implements AutoCloseable {
+
+    private final String dataSourceName;
+
+    private final DataSource dataSource;
+
+    private final Connection connection;
+
+    private final String catalog;
+
+    private JdbcTemplate jdbcTemplate;
+
+    JdbcExtractionSession(String dataSourceName, DataSource dataSource, Connection connection, String catalog) {
+        this.dataSourceName = dataSourceName;
+        this.dataSource = dataSource;
+        this.connection = connection;
+        this.catalog = catalog;
+    }
+
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    /**
+     * 会话固定使用的连接，调用方不能关闭
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * 数据源的默认库名，按数据源缓存
+     */
+    public String getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * 在会话连接上执行查询的 JDBC 模板，模板释放连接时不会真正关闭连接
+     */
+    public JdbcTemplate getJdbcTemplate() {
+        if (jdbcTemplate == null) {
+            jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        }
+        return jdbcTemplate;
+    }
+
+    @Override
+    public void close() {
+        DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+}
@@ -4,8 +4,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.datasource.lookup.DataSourceLookupFailureException;
 import org.springframework.stereotype.Component;
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
@@ -16,13 +19,20 @@ import org.wesuper.jtools.hdscompare.constants.DatabaseType;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * MySQL表结构提取器实现
@@ -49,51 +59,293 @@ public class MySqlTableStructureExtractor implements TableStructureExtractor {
         "SELECT column_name, data_type, column_type, column_default, is_nullable, " +
         "character_maximum_length, numeric_precision, numeric_scale, column_comment, ordinal_position, extra " +
         "FROM information_schema.columns WHERE table_schema = ? AND table_name = ? ORDER BY ordinal_position";
+
+    /**
+     * 表结构版本探测SQL
+     * 由建表时间、表注释以及列、索引元数据行的 CRC32 异或校验和组成，只在服务端聚合，返回一行。
+     * UPDATE_TIME 随数据写入变化，不能反映 DDL 变化，因此不参与探测。
+     */
+    private static final String SCHEMA_VERSION_PROBE_SQL =
+        "SELECT " +
+        "(SELECT CONCAT_WS(':', create_time, CRC32(table_comment)) FROM information_schema.tables " +
+        "WHERE table_schema = ? AND table_name = ?) AS table_version, " +
+        "(SELECT CONCAT(COUNT(*), ':', IFNULL(BIT_XOR(CRC32(CONCAT_WS('|', column_name, ordinal_position, column_type, " +
+        "is_nullable, IFNULL(column_default, '<null>'), extra, column_comment))), 0)) " +
+        "FROM information_schema.columns WHERE table_schema = ? AND table_name = ?) AS column_checksum, " +
+        "(SELECT CONCAT(COUNT(*), ':', IFNULL(BIT_XOR(CRC32(CONCAT_WS('|', index_name, non_unique, seq_in_index, " +
+        "column_name, IFNULL(collation, '<null>'), IFNULL(sub_part, '<null>'), index_type))), 0)) " +
+        "FROM information_schema.statistics WHERE table_schema = ? AND table_name = ?) AS index_checksum";
+
+    /**
+     * 批量获取表注释的SQL
+     */
+    private static final String BULK_TABLE_SQL =
+            "SELECT table_name, table_comment FROM information_schema.tables WHERE table_schema = ?";
+
+    /**
+     * 批量获取列详细信息的SQL
+     */
+    private static final String BULK_COLUMN_DETAILS_SQL =
+        "SELECT table_name, column_name, data_type, column_type, column_default, is_nullable, " +
+        "character_maximum_length, numeric_precision, numeric_scale, column_comment, ordinal_position, extra " +
+        "FROM information_schema.columns WHERE table_schema = ?";
+
+    /**
+     * 获取索引信息的SQL，单表与批量提取共用；is_visible 自 MySQL 8.0 起提供
+     */
+    private static final String INDEX_SQL =
+        "SELECT table_name, index_name, non_unique, seq_in_index, column_name, collation, sub_part, index_type, is_visible " +
+        "FROM information_schema.statistics WHERE table_schema = ?";
+
+    /**
+     * 不支持索引可见性的版本（如 MySQL 5.7）使用的索引查询SQL
+     */
+    private static final String LEGACY_INDEX_SQL =
+        "SELECT table_name, index_name, non_unique, seq_in_index, column_name, collation, sub_part, index_type " +
+        "FROM information_schema.statistics WHERE table_schema = ?";
+
+    private static final String INDEX_ORDER_BY = " ORDER BY table_name, index_name, seq_in_index";
+
+    /**
+     * 批量提取时IN子句允许的最大表数量，超过后改为按整库查询并在客户端过滤
+     */
+    protected static final int BULK_IN_CLAUSE_LIMIT = 1000;
     
     @Autowired
     private Map<String, DataSource> dataSourceMap;
     
+    /**
+     * 数据源 -> 默认库名，库名由连接池的连接地址决定，每个数据源只解析一次
+     */
+    private final Map<DataSource, String> catalogCache = new ConcurrentHashMap<>();
+
+    /**
+     * 不支持索引可见性查询的数据源名称
+     */
+    private final Set<String> legacyIndexDataSources = ConcurrentHashMap.newKeySet();
+    
     @Override
     public TableStructure extractTableStructure(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) throws Exception {
         String dataSourceName = dataSourceConfig.getDataSourceName();
         
         logger.info("Extracting structure for MySQL table: {} from datasource: {}", tableName, dataSourceName);
         
-        DataSource dataSource = getDataSource(dataSourceName);
-        if (dataSource == null) {
-            throw new DataSourceLookupFailureException("DataSource not found: " + dataSourceName);
+        try (JdbcExtractionSession session = openSession(dataSourceName)) {
+            return extractTableStructure(session, tableName);
+        } catch (Exception e) {
+            logger.error("Failed to extract MySQL table structure for {}: {}", tableName, e.getMessage(), e);
+            throw e;
         }
-        
-        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 在提取会话的连接上提取单表结构，子类可以在同一连接上补充特有属性
+     *
+     * @param session 提取会话
+     * @param tableName 表名
+     * @return 表结构
+     * @throws Exception 提取失败时抛出异常
+     */
+    protected TableStructure extractTableStructure(JdbcExtractionSession session, String tableName) throws Exception {
+        JdbcTemplate jdbcTemplate = session.getJdbcTemplate();
+        String catalog = session.getCatalog();
         
         TableStructure tableStructure = new TableStructure();
         tableStructure.setTableName(tableName);
         tableStructure.setSourceType(TYPE);
         
-        try {
-            // 提取数据库名
-            String catalog = getCatalog(dataSource);
-            
-            // 提取表注释
-            tableStructure.setTableComment(getTableComment(jdbcTemplate, catalog, tableName));
-            
-            // 提取列信息
-            tableStructure.setColumns(getColumnStructures(jdbcTemplate, catalog, tableName));
-            
-            // 提取索引信息
-            tableStructure.setIndexes(getIndexStructures(dataSource, catalog, tableName));
-            
-            return tableStructure;
+        // 提取表注释
+        tableStructure.setTableComment(getTableComment(jdbcTemplate, catalog, tableName));
+        
+        // 提取列信息
+        tableStructure.setColumns(getColumnStructures(jdbcTemplate, catalog, tableName));
+        
+        // 提取索引信息
+        Map<String, List<IndexStructure>> indexes = getIndexStructures(session,
+                Collections.singletonList(tableName), name -> true);
+        tableStructure.setIndexes(indexes.getOrDefault(tableName, new ArrayList<>()));
+        
+        return tableStructure;
+    }
+    
+    @Override
+    public Map<String, TableStructure> extractTableStructures(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                              Collection<String> tableNames) throws Exception {
+        String dataSourceName = dataSourceConfig.getDataSourceName();
+        List<String> requestedTables = tableNames == null ? Collections.<String>emptyList()
+                : new ArrayList<>(new LinkedHashSet<>(tableNames));
+        boolean wholeSchema = requestedTables.isEmpty();
+
+        logger.info("Bulk extracting structure for {} MySQL tables from datasource: {}",
+                wholeSchema ? "all" : requestedTables.size(), dataSourceName);
+
+        try (JdbcExtractionSession session = openSession(dataSourceName)) {
+            return extractTableStructures(session, requestedTables);
         } catch (Exception e) {
-            logger.error("Failed to extract MySQL table structure for {}: {}", tableName, e.getMessage(), e);
+            logger.error("Failed to bulk extract MySQL table structures from {}: {}", dataSourceName, e.getMessage(), e);
             throw e;
         }
     }
-    
+
+    /**
+     * 在提取会话的连接上批量提取表结构，子类可以在同一连接上补充特有属性
+     *
+     * @param session 提取会话
+     * @param requestedTables 去重后的表名，为空时提取整库
+     * @return 表名到表结构的映射，按请求顺序排列
+     * @throws Exception 提取失败时抛出异常
+     */
+    protected Map<String, TableStructure> extractTableStructures(JdbcExtractionSession session,
+                                                                 List<String> requestedTables) throws Exception {
+        boolean wholeSchema = requestedTables.isEmpty();
+        JdbcTemplate jdbcTemplate = session.getJdbcTemplate();
+        jdbcTemplate.setFetchSize(getBulkFetchSize());
+
+        // MySQL表名是否区分大小写取决于lower_case_table_names，这里统一按不区分大小写归并
+        Map<String, TableStructure> tableStructures = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String tableName : requestedTables) {
+            tableStructures.put(tableName, newTableStructure(tableName));
+        }
+
+        String catalog = session.getCatalog();
+        // 请求的表过多时按整库查询，避免超长的IN子句
+        List<String> filterTables = requestedTables.size() > BULK_IN_CLAUSE_LIMIT
+                ? Collections.<String>emptyList() : requestedTables;
+
+        // 1. 表注释
+        String tableSql = wholeSchema ? BULK_TABLE_SQL + " AND table_type = 'BASE TABLE'" : BULK_TABLE_SQL;
+        queryBySchema(jdbcTemplate, tableSql, " ORDER BY table_name", catalog, filterTables, rs -> {
+            String tableName = rs.getString("table_name");
+            TableStructure tableStructure = wholeSchema
+                    ? tableStructures.computeIfAbsent(tableName, this::newTableStructure)
+                    : tableStructures.get(tableName);
+            if (tableStructure != null) {
+                String comment = rs.getString("table_comment");
+                tableStructure.setTableComment(comment != null ? comment : "");
+            }
+        });
+
+        // 2. 列信息
+        RowMapper<ColumnStructure> columnRowMapper = getColumnStructureRowMapper();
+        queryBySchema(jdbcTemplate, BULK_COLUMN_DETAILS_SQL, " ORDER BY table_name, ordinal_position", catalog, filterTables,
+                new RowCallbackHandler() {
+                    private int rowNum = 0;
+
+                    @Override
+                    public void processRow(ResultSet rs) throws SQLException {
+                        TableStructure tableStructure = tableStructures.get(rs.getString("table_name"));
+                        if (tableStructure != null) {
+                            tableStructure.getColumns().add(columnRowMapper.mapRow(rs, rowNum++));
+                        }
+                    }
+                });
+
+        // 3. 索引信息
+        getIndexStructures(session, filterTables, tableStructures::containsKey).forEach((tableName, indexes) ->
+                tableStructures.get(tableName).setIndexes(indexes));
+
+        if (wholeSchema) {
+            return new LinkedHashMap<>(tableStructures);
+        }
+        Map<String, TableStructure> result = new LinkedHashMap<>();
+        for (String tableName : requestedTables) {
+            result.put(tableName, tableStructures.get(tableName));
+        }
+        return result;
+    }
+
+    @Override
+    public String probeSchemaVersion(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) throws Exception {
+        try (JdbcExtractionSession session = openSession(dataSourceConfig.getDataSourceName())) {
+            String catalog = session.getCatalog();
+            return session.getJdbcTemplate().queryForObject(SCHEMA_VERSION_PROBE_SQL, (rs, rowNum) -> {
+                String tableVersion = rs.getString("table_version");
+                if (tableVersion == null) {
+                    // 表不存在或无建表时间（如视图），无法判断是否变化
+                    return null;
+                }
+                return tableVersion + "/" + rs.getString("column_checksum") + "/" + rs.getString("index_checksum");
+            }, catalog, tableName, catalog, tableName, catalog, tableName);
+        }
+    }
+
+    @Override
+    public boolean supportsBulkExtraction() {
+        return true;
+    }
+
     @Override
     public String getSupportedType() {
         return TYPE;
     }
+
+    /**
+     * 批量查询使用的fetchSize，MySQL Connector/J 仅在 Integer.MIN_VALUE 时逐行流式读取结果集
+     *
+     * @return fetchSize
+     */
+    protected int getBulkFetchSize() {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * 按库执行批量查询，tableNames为空时查询整库
+     *
+     * @param jdbcTemplate JDBC模板
+     * @param sql 以 "WHERE table_schema = ?" 结尾的查询语句
+     * @param orderBy 排序子句
+     * @param schema 数据库名
+     * @param tableNames 需要过滤的表名
+     * @param handler 行处理器
+     */
+    protected void queryBySchema(JdbcTemplate jdbcTemplate, String sql, String orderBy, String schema,
+                                 List<String> tableNames, RowCallbackHandler handler) {
+        if (tableNames.isEmpty()) {
+            jdbcTemplate.query(sql + orderBy, handler, schema);
+            return;
+        }
+
+        StringBuilder inClauseSql = new StringBuilder(sql).append(" AND table_name IN (");
+        Object[] args = new Object[tableNames.size() + 1];
+        args[0] = schema;
+        for (int i = 0; i < tableNames.size(); i++) {
+            inClauseSql.append(i == 0 ? "?" : ", ?");
+            args[i + 1] = tableNames.get(i);
+        }
+        inClauseSql.append(')').append(orderBy);
+        jdbcTemplate.query(inClauseSql.toString(), handler, args);
+    }
+
+    /**
+     * 创建空的表结构
+     *
+     * @param tableName 表名
+     * @return 表结构
+     */
+    private TableStructure newTableStructure(String tableName) {
+        TableStructure tableStructure = new TableStructure();
+        tableStructure.setTableName(tableName);
+        tableStructure.setSourceType(TYPE);
+        tableStructure.setTableComment("");
+        return tableStructure;
+    }
+
+    /**
+     * 创建索引结构
+     *
+     * @param indexName 索引名
+     * @param indexType information_schema 中的索引类型（BTREE、HASH、FULLTEXT、SPATIAL 等）
+     * @return 索引结构
+     */
+    private IndexStructure newIndexStructure(String indexName, String indexType) {
+        IndexStructure indexStructure = new IndexStructure();
+        indexStructure.setIndexName(indexName);
+        boolean primary = "PRIMARY".equalsIgnoreCase(indexName);
+        indexStructure.setPrimary(primary);
+        indexStructure.setUnique(primary);
+        indexStructure.setIndexType(indexType != null ? indexType : primary ? "PRIMARY KEY" : "NORMAL");
+        return indexStructure;
+    }
     
     /**
      * 获取表注释
@@ -166,100 +418,113 @@ public class MySqlTableStructureExtractor implements TableStructureExtractor {
     
     /**
      * 获取索引结构列表
-     * 
-     * @param dataSource 数据源
-     * @param catalog 数据库名
-     * @param tableName 表名
-     * @return 索引结构列表
-     * @throws SQLException SQL异常
+     * 单表与批量提取共用一条 information_schema.statistics 查询，按表名归并。
+     * 索引类型取自 index_type；前缀索引的长度记录在索引属性 sub_part 中（如 "name(10)"），
+     * 不可见的索引在属性 visible 中记为 false。数据源不支持 is_visible 时改用不含可见性的查询，并按数据源记住。
+     *
+     * @param session 提取会话
+     * @param tableNames 需要过滤的表名，为空时查询整库
+     * @param tableFilter 结果中保留的表
+     * @return 表名（不区分大小写）到索引结构列表的映射，索引按名称排序
      */
-    private List<IndexStructure> getIndexStructures(DataSource dataSource, String catalog, String tableName) throws SQLException {
-        Map<String, IndexStructure> indexMap = new HashMap<>();
-        
-        try (Connection conn = dataSource.getConnection()) {
-            DatabaseMetaData metaData = conn.getMetaData();
-            
-            // 获取索引信息
-            try (ResultSet rs = metaData.getIndexInfo(catalog, null, tableName, false, true)) {
-                while (rs.next()) {
-                    String indexName = rs.getString("INDEX_NAME");
-                    
-                    // 跳过统计信息
-                    if (indexName == null) {
-                        continue;
-                    }
-                    
-                    // 创建或获取索引结构
-                    IndexStructure indexStructure = indexMap.computeIfAbsent(indexName, k -> {
-                        IndexStructure is = new IndexStructure();
-                        is.setIndexName(indexName);
-                        is.setPrimary("PRIMARY".equalsIgnoreCase(indexName));
-                        try {
-                            is.setUnique(!rs.getBoolean("NON_UNIQUE"));
-                            short indexType = rs.getShort("TYPE");
-                            is.setIndexType(indexType == DatabaseMetaData.tableIndexStatistic ? "STATISTIC" : "NORMAL");
-                        } catch (SQLException e) {
-                            logger.warn("Error reading index metadata for {}: {}", indexName, e.getMessage());
-                            is.setUnique(false);
-                            is.setIndexType("NORMAL");
-                        }
-                        return is;
-                    });
-                    
-                    // 获取列信息
-                    String columnName = rs.getString("COLUMN_NAME");
-                    if (columnName != null) {
-                        IndexStructure.IndexColumnStructure columnStructure = new IndexStructure.IndexColumnStructure();
-                        columnStructure.setColumnName(columnName.toLowerCase());
-                        columnStructure.setPosition(rs.getShort("ORDINAL_POSITION"));
-                        columnStructure.setSort(rs.getString("ASC_OR_DESC"));
-                        indexStructure.getColumns().add(columnStructure);
-                    }
-                }
+    private Map<String, List<IndexStructure>> getIndexStructures(JdbcExtractionSession session, List<String> tableNames,
+                                                                 Predicate<String> tableFilter) {
+        if (!legacyIndexDataSources.contains(session.getDataSourceName())) {
+            try {
+                return queryIndexStructures(session, tableNames, tableFilter, true);
+            } catch (BadSqlGrammarException e) {
+                logger.info("Data source {} does not expose index visibility, falling back to legacy index query: {}",
+                        session.getDataSourceName(), e.getMessage());
+                legacyIndexDataSources.add(session.getDataSourceName());
             }
-            
-            // 获取主键信息
-            try (ResultSet rs = metaData.getPrimaryKeys(catalog, null, tableName)) {
-                List<String> pkColumns = new ArrayList<>();
-                while (rs.next()) {
-                    String columnName = rs.getString("COLUMN_NAME");
-                    if (columnName != null) {
-                        pkColumns.add(columnName);
-                    }
-                }
-                // 如果存在主键列，强制创建主键索引（不管indexMap里有没有"PRIMARY"）
-                if (!pkColumns.isEmpty()) {
-                    IndexStructure pkIndexStructure = new IndexStructure();
-                    pkIndexStructure.setIndexName("PRIMARY");
-                    pkIndexStructure.setPrimary(true);
-                    pkIndexStructure.setUnique(true);
-                    pkIndexStructure.setIndexType("PRIMARY KEY");
-                    for (int i = 0; i < pkColumns.size(); i++) {
-                        IndexStructure.IndexColumnStructure columnStructure = new IndexStructure.IndexColumnStructure();
-                        columnStructure.setColumnName(pkColumns.get(i).toLowerCase());
-                        columnStructure.setPosition((short) (i + 1));
-                        pkIndexStructure.getColumns().add(columnStructure);
-                    }
-                    // 直接put，覆盖任何同名索引
-                    indexMap.put("PRIMARY", pkIndexStructure);
+        }
+        return queryIndexStructures(session, tableNames, tableFilter, false);
+    }
+
+    /**
+     * 执行索引查询并按表名、索引名归并结果
+     */
+    private Map<String, List<IndexStructure>> queryIndexStructures(JdbcExtractionSession session, List<String> tableNames,
+                                                                   Predicate<String> tableFilter, boolean withVisibility) {
+        Map<String, Map<String, IndexStructure>> indexMaps = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String sql = withVisibility ? INDEX_SQL : LEGACY_INDEX_SQL;
+        queryBySchema(session.getJdbcTemplate(), sql, INDEX_ORDER_BY, session.getCatalog(), tableNames, rs -> {
+            String tableName = rs.getString("table_name");
+            if (!tableFilter.test(tableName)) {
+                return;
+            }
+            String indexName = rs.getString("index_name");
+            String indexType = rs.getString("index_type");
+            IndexStructure indexStructure = indexMaps
+                    .computeIfAbsent(tableName, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(indexName, k -> newIndexStructure(indexName, indexType));
+            if (!indexStructure.isPrimary()) {
+                indexStructure.setUnique(rs.getInt("non_unique") == 0);
+            }
+            if (withVisibility && "NO".equalsIgnoreCase(rs.getString("is_visible"))) {
+                indexStructure.getProperties().put("visible", false);
+            }
+
+            // 函数索引（MySQL 8.0.13+）的 column_name 为空
+            String columnName = rs.getString("column_name");
+            if (columnName != null) {
+                IndexStructure.IndexColumnStructure columnStructure = new IndexStructure.IndexColumnStructure();
+                columnStructure.setColumnName(columnName.toLowerCase());
+                columnStructure.setPosition(rs.getInt("seq_in_index"));
+                columnStructure.setSort(rs.getString("collation"));
+                indexStructure.getColumns().add(columnStructure);
+
+                if (rs.getObject("sub_part") != null) {
+                    String prefix = columnStructure.getColumnName() + "(" + rs.getInt("sub_part") + ")";
+                    indexStructure.getProperties().merge("sub_part", prefix, (previous, current) -> previous + "," + current);
                 }
             }
-        }
-        
-        return new ArrayList<>(indexMap.values());
+        });
+
+        Map<String, List<IndexStructure>> indexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        indexMaps.forEach((tableName, indexMap) -> indexes.put(tableName, new ArrayList<>(indexMap.values())));
+        return indexes;
     }
     
     /**
-     * 获取数据库名
+     * 打开提取会话，从数据源借出一个连接供整个提取过程使用
+     *
+     * @param dataSourceName 数据源名称
+     * @return 提取会话，使用完毕后必须关闭
+     * @throws SQLException SQL异常
+     */
+    protected JdbcExtractionSession openSession(String dataSourceName) throws SQLException {
+        DataSource dataSource = getDataSource(dataSourceName);
+        if (dataSource == null) {
+            throw new DataSourceLookupFailureException("DataSource not found: " + dataSourceName);
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return new JdbcExtractionSession(dataSourceName, dataSource, connection, getCatalog(dataSource, connection));
+        } catch (SQLException | RuntimeException e) {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            throw e;
+        }
+    }
+
+    /**
+     * 获取数据库名，首次访问时从连接读取并按数据源缓存
      * 
      * @param dataSource 数据源
+     * @param connection 已借出的连接
      * @return 数据库名
      * @throws SQLException SQL异常
      */
-    protected String getCatalog(DataSource dataSource) throws SQLException {
-        try (Connection conn = dataSource.getConnection()) {
-            return conn.getCatalog();
+    protected String getCatalog(DataSource dataSource, Connection connection) throws SQLException {
+        String catalog = catalogCache.get(dataSource);
+        if (catalog == null) {
+            catalog = connection.getCatalog();
+            if (catalog != null) {
+                catalogCache.put(dataSource, catalog);
+            }
         }
+        return catalog;
     }
     
     /**
@@ -0,0 +1,53 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.ClassMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * POJO 实体类的包扫描器
+ * 使用 Spring 的字节码读取器（ASM）直接读取 class 文件的元数据，扫描过程不加载也不初始化任何类。
+ * 扫描结果为基础包及其子包下所有可独立实例化的具体类，接口、注解、枚举、抽象类和非静态内部类不在结果中。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class PojoClassScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PojoClassScanner.class);
+
+    private static final String ENUM_CLASS = "java.lang.Enum";
+
+    private PojoClassScanner() {
+    }
+
+    /**
+     * 扫描基础包下的实体类
+     *
+     * @param basePackage 基础包名
+     * @param classLoader 读取 class 文件使用的类加载器
+     * @return 按类名排序的全限定类名列表
+     */
+    public static List<String> scan(String basePackage, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+        provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+        provider.addIncludeFilter((metadataReader, metadataReaderFactory) -> {
+            ClassMetadata metadata = metadataReader.getClassMetadata();
+            return !metadata.isInterface() && !metadata.isAnnotation() && !ENUM_CLASS.equals(metadata.getSuperClassName());
+        });
+
+        List<String> classNames = new ArrayList<>();
+        for (BeanDefinition candidate : provider.findCandidateComponents(basePackage)) {
+            classNames.add(candidate.getBeanClassName());
+        }
+        classNames.sort(null);
+        logger.info("Found {} POJO classes in package {}", classNames.size(), basePackage);
+        return classNames;
+    }
+}
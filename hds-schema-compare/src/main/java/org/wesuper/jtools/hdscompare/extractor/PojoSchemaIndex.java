@@ -0,0 +1,150 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译期生成的 POJO 表结构描述索引
+ * 由 hds-schema-processor 的 PojoSchemaProcessor 生成：{@value #INDEX_RESOURCE} 中每行登记一个类名，
+ * 描述文件位于 {@value #DESCRIPTOR_DIRECTORY} 下。索引在创建时从类加载器的所有 classpath 条目中合并读取，
+ * 描述文件按需读取，整个过程只读取资源文件，不加载实体类。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+final class PojoSchemaIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PojoSchemaIndex.class);
+
+    static final String INDEX_RESOURCE = "META-INF/hdscompare/pojo-schema.index";
+
+    static final String DESCRIPTOR_DIRECTORY = "META-INF/hdscompare/pojo-schema/";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * 只保存类名，不持有类加载器，索引可以作为以类加载器为弱引用键的缓存值
+     */
+    private final Set<String> classNames;
+
+    private PojoSchemaIndex(Set<String> classNames) {
+        this.classNames = classNames;
+    }
+
+    /**
+     * 读取类加载器可见的全部索引文件
+     *
+     * @param classLoader 类加载器
+     * @return 索引，没有索引文件时为空索引
+     */
+    static PojoSchemaIndex load(ClassLoader classLoader) {
+        Set<String> classNames = new HashSet<>();
+        try {
+            Enumeration<URL> indexes = classLoader.getResources(INDEX_RESOURCE);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String className = line.trim();
+                        if (!className.isEmpty()) {
+                            classNames.add(className);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read POJO schema index {}: {}", INDEX_RESOURCE, e.getMessage());
+        }
+        if (!classNames.isEmpty()) {
+            logger.info("Loaded {} generated POJO schema descriptors", classNames.size());
+        }
+        return new PojoSchemaIndex(Collections.unmodifiableSet(classNames));
+    }
+
+    /**
+     * 读取类的表结构描述
+     *
+     * @param className   类名
+     * @param classLoader 读取索引时使用的类加载器
+     * @return 描述，索引中没有该类或描述不可读时返回 null
+     */
+    Descriptor find(String className, ClassLoader classLoader) {
+        if (!classNames.contains(className)) {
+            return null;
+        }
+        String resource = DESCRIPTOR_DIRECTORY + className + ".json";
+        try (InputStream input = classLoader.getResourceAsStream(resource)) {
+            if (input == null) {
+                logger.warn("POJO schema descriptor {} is listed in the index but missing", resource);
+                return null;
+            }
+            JsonNode root = OBJECT_MAPPER.readTree(input);
+            List<ColumnDescriptor> columns = new ArrayList<>();
+            for (JsonNode column : root.path("columns")) {
+                columns.add(new ColumnDescriptor(column.path("name").asText(), column.path("dataType").asText(),
+                        column.path("javaType").asText()));
+            }
+            return new Descriptor(root.path("tableName").asText(), root.path("tableComment").asText(""),
+                    Collections.unmodifiableList(columns));
+        } catch (IOException e) {
+            logger.warn("Failed to read POJO schema descriptor {}: {}", resource, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 索引中的类数量
+     */
+    int size() {
+        return classNames.size();
+    }
+
+    /**
+     * 类的表结构描述
+     */
+    static final class Descriptor {
+
+        final String tableName;
+        final String tableComment;
+        final List<ColumnDescriptor> columns;
+
+        Descriptor(String tableName, String tableComment, List<ColumnDescriptor> columns) {
+            this.tableName = tableName;
+            this.tableComment = tableComment;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * 字段描述，按声明顺序排列
+     */
+    static final class ColumnDescriptor {
+
+        final String name;
+        final String dataType;
+        final String javaType;
+
+        ColumnDescriptor(String name, String dataType, String javaType) {
+            this.name = name;
+            this.dataType = dataType;
+            this.javaType = javaType;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * POJO 表结构缓存
+ * 按 (类加载器, 类名) 缓存提取结果：类加载器以弱引用作为键，应用重新部署、旧的类加载器被回收后其缓存随之释放；
+ * 每个类加载器下的表结构和类层次字段数量有上限，超出后按最近最少使用淘汰。
+ * 缓存中的表结构是只读快照，字段、类型映射和属性均不可修改，可以直接交给多个调用方共享。
+ * 缓存的值只包含字符串，不引用 Class 对象，不会反过来阻止类加载器被回收。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+final class PojoStructureCache {
+
+    /**
+     * 每个类加载器下缓存的表结构数量上限
+     */
+    static final int MAX_STRUCTURES_PER_LOADER = 4096;
+
+    /**
+     * 每个类加载器下缓存的类层次字段数量上限
+     */
+    static final int MAX_HIERARCHIES_PER_LOADER = 8192;
+
+    private final Cache<ClassLoader, LoaderCache> loaders = CacheBuilder.newBuilder().weakKeys().build();
+
+    /**
+     * 获取类加载器对应的缓存，首次访问时读取该类加载器可见的生成描述索引
+     */
+    LoaderCache forLoader(ClassLoader classLoader) {
+        return loaders.asMap().computeIfAbsent(classLoader, loader -> new LoaderCache(PojoSchemaIndex.load(loader)));
+    }
+
+    /**
+     * 把提取的表结构转换为只读快照
+     */
+    static TableStructure freeze(TableStructure tableStructure) {
+        return tableStructure instanceof FrozenTableStructure ? tableStructure : new FrozenTableStructure(tableStructure);
+    }
+
+    /**
+     * 单个类加载器下的缓存
+     */
+    static final class LoaderCache {
+
+        private final PojoSchemaIndex schemaIndex;
+
+        private final Cache<String, TableStructure> structures =
+                CacheBuilder.newBuilder().maximumSize(MAX_STRUCTURES_PER_LOADER).build();
+
+        private final Cache<String, List<FieldColumn>> hierarchies =
+                CacheBuilder.newBuilder().maximumSize(MAX_HIERARCHIES_PER_LOADER).build();
+
+        private LoaderCache(PojoSchemaIndex schemaIndex) {
+            this.schemaIndex = schemaIndex;
+        }
+
+        PojoSchemaIndex getSchemaIndex() {
+            return schemaIndex;
+        }
+
+        TableStructure getStructure(String className) {
+            return structures.getIfPresent(className);
+        }
+
+        /**
+         * 缓存表结构的只读快照，并发提取同一个类时保留先写入的快照
+         */
+        TableStructure putStructure(String className, TableStructure tableStructure) {
+            TableStructure frozen = freeze(tableStructure);
+            TableStructure existing = structures.asMap().putIfAbsent(className, frozen);
+            return existing != null ? existing : frozen;
+        }
+
+        List<FieldColumn> getHierarchy(String className) {
+            return hierarchies.getIfPresent(className);
+        }
+
+        void putHierarchy(String className, List<FieldColumn> fields) {
+            hierarchies.put(className, fields);
+        }
+    }
+
+    /**
+     * 类层次中的一个字段，只保存提取需要的名称和类型
+     */
+    static final class FieldColumn {
+
+        final String name;
+        final String javaType;
+        final String simpleTypeName;
+        final boolean isStatic;
+
+        FieldColumn(String name, String javaType, String simpleTypeName, boolean isStatic) {
+            this.name = name;
+            this.javaType = javaType;
+            this.simpleTypeName = simpleTypeName;
+            this.isStatic = isStatic;
+        }
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Cached POJO table structure is read-only");
+    }
+
+    /**
+     * 只读表结构快照
+     */
+    private static final class FrozenTableStructure extends TableStructure {
+
+        FrozenTableStructure(TableStructure source) {
+            super.setTableName(source.getTableName());
+            super.setSourceType(source.getSourceType());
+            super.setTableComment(source.getTableComment());
+            List<ColumnStructure> columns = new ArrayList<>(source.getColumns().size());
+            for (ColumnStructure column : source.getColumns()) {
+                columns.add(new FrozenColumnStructure(column));
+            }
+            super.setColumns(Collections.unmodifiableList(columns));
+            super.setIndexes(Collections.<IndexStructure>emptyList());
+            super.setProperties(Collections.unmodifiableMap(new HashMap<>(source.getProperties())));
+        }
+
+        @Override
+        public void setTableName(String tableName) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setSourceType(String sourceType) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setTableComment(String tableComment) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setColumns(List<ColumnStructure> columns) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setIndexes(List<IndexStructure> indexes) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setProperties(Map<String, Object> properties) {
+            throw readOnly();
+        }
+    }
+
+    /**
+     * 只读字段快照
+     */
+    private static final class FrozenColumnStructure extends ColumnStructure {
+
+        FrozenColumnStructure(ColumnStructure source) {
+            super.setColumnName(source.getColumnName());
+            super.setDataType(source.getDataType());
+            super.setColumnType(source.getColumnType());
+            super.setLength(source.getLength());
+            super.setPrecision(source.getPrecision());
+            super.setScale(source.getScale());
+            super.setNullable(source.isNullable());
+            super.setDefaultValue(source.getDefaultValue());
+            super.setAutoIncrement(source.isAutoIncrement());
+            super.setComment(source.getComment());
+            super.setOrdinalPosition(source.getOrdinalPosition());
+            super.setProperties(source.getProperties() == null ? null
+                    : Collections.unmodifiableMap(new HashMap<>(source.getProperties())));
+            List<TypeMapping> typeMappings = new ArrayList<>();
+            if (source.getTypeMappings() != null) {
+                for (TypeMapping typeMapping : source.getTypeMappings()) {
+                    typeMappings.add(new FrozenTypeMapping(typeMapping));
+                }
+            }
+            super.setTypeMappings(Collections.unmodifiableList(typeMappings));
+        }
+
+        @Override
+        public void setColumnName(String columnName) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDataType(String dataType) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setColumnType(String columnType) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setLength(Integer length) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setPrecision(Integer precision) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setScale(Integer scale) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setNullable(boolean nullable) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDefaultValue(String defaultValue) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setAutoIncrement(boolean autoIncrement) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setComment(String comment) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setOrdinalPosition(Integer ordinalPosition) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setProperties(Map<String, Object> properties) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setTypeMappings(List<TypeMapping> typeMappings) {
+            throw readOnly();
+        }
+
+        @Override
+        public void addTypeMapping(String targetType, String columnType) {
+            throw readOnly();
+        }
+    }
+
+    /**
+     * 只读类型映射快照
+     */
+    private static final class FrozenTypeMapping extends ColumnStructure.TypeMapping {
+
+        FrozenTypeMapping(ColumnStructure.TypeMapping source) {
+            super.setTargetType(source.getTargetType());
+            super.setColumnTypes(Collections.unmodifiableList(new ArrayList<>(source.getColumnTypes())));
+        }
+
+        @Override
+        public void setTargetType(String targetType) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setColumnTypes(List<String> columnTypes) {
+            throw readOnly();
+        }
+
+        @Override
+        public void addColumnType(String columnType) {
+            throw readOnly();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import java.util.Locale;
+
+/**
+ * 包扫描模式下由 POJO 类名推导对端表名的命名策略
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public interface PojoTableNamingStrategy {
+
+    /**
+     * 由类名推导表名
+     *
+     * @param className 类的全限定名
+     * @return 表名
+     */
+    String tableName(String className);
+
+    /**
+     * 按名称获取命名策略
+     * 支持内置策略名（不区分大小写，见 {@link BuiltIn}），或实现了本接口且带无参构造函数的类的全限定名
+     *
+     * @param name 策略名称，为空时使用 {@link BuiltIn#SNAKE_CASE}
+     * @return 命名策略
+     * @throws IllegalArgumentException 策略不存在或无法实例化时抛出
+     */
+    static PojoTableNamingStrategy of(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return BuiltIn.SNAKE_CASE;
+        }
+        for (BuiltIn builtIn : BuiltIn.values()) {
+            if (builtIn.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return builtIn;
+            }
+        }
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            Class<?> strategyClass = Class.forName(name.trim(), true,
+                    classLoader != null ? classLoader : PojoTableNamingStrategy.class.getClassLoader());
+            return (PojoTableNamingStrategy) strategyClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Unknown POJO table naming strategy: " + name, e);
+        }
+    }
+
+    /**
+     * 内置命名策略，均基于类的简单名称（内部类取 $ 之后的部分）
+     */
+    enum BuiltIn implements PojoTableNamingStrategy {
+
+        /**
+         * 驼峰转下划线，如 OrderItem -> order_item、HTTPLog -> http_log
+         */
+        SNAKE_CASE {
+            @Override
+            public String tableName(String className) {
+                String simpleName = simpleName(className);
+                StringBuilder tableName = new StringBuilder(simpleName.length() + 8);
+                for (int i = 0; i < simpleName.length(); i++) {
+                    char c = simpleName.charAt(i);
+                    if (Character.isUpperCase(c)) {
+                        boolean previousLower = i > 0 && !Character.isUpperCase(simpleName.charAt(i - 1));
+                        boolean nextLower = i + 1 < simpleName.length() && Character.isLowerCase(simpleName.charAt(i + 1));
+                        if (i > 0 && simpleName.charAt(i - 1) != '_' && (previousLower || nextLower)) {
+                            tableName.append('_');
+                        }
+                        tableName.append(Character.toLowerCase(c));
+                    } else {
+                        tableName.append(c);
+                    }
+                }
+                return tableName.toString();
+            }
+        },
+
+        /**
+         * 简单名称转小写，如 OrderItem -> orderitem
+         */
+        LOWER_CASE {
+            @Override
+            public String tableName(String className) {
+                return simpleName(className).toLowerCase(Locale.ROOT);
+            }
+        },
+
+        /**
+         * 保持简单名称不变，如 OrderItem -> OrderItem
+         */
+        SIMPLE_NAME {
+            @Override
+            public String tableName(String className) {
+                return simpleName(className);
+            }
+        };
+
+        private static String simpleName(String className) {
+            int start = Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1;
+            return className.substring(start);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.wesuper.jtools.hdscompare.extractor;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
@@ -11,12 +12,16 @@ import org.wesuper.jtools.hdscompare.model.TableStructure;
 import org.wesuper.jtools.hdscompare.constants.DatabaseType;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 // import java.lang.reflect.Method; // Method import is not used
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap; // Added for caching
+import java.util.stream.Collectors;
 
 // Imports for class names used in static block
 import java.math.BigDecimal;
@@ -28,7 +33,10 @@ import java.sql.Timestamp;
 
 /**
  * POJO表结构提取器实现
- * 用于从Java实体类中提取结构信息
+ * 用于从Java实体类中提取结构信息。
+ * 类上标注了 hds-schema-processor 的 {@code @PojoSchema} 时，直接读取编译期生成的表结构描述，
+ * 不加载实体类也不反射字段；没有生成描述的类仍然通过反射提取，父类（JDK 类除外）的非静态字段排在本类字段之前。
+ * 返回的表结构是缓存中的只读快照，修改时抛出 {@link UnsupportedOperationException}。
  * 
  * @author vincentruan
  * @version 1.0.0
@@ -38,7 +46,11 @@ public class PojoTableStructureExtractor implements TableStructureExtractor {
     private static final Logger logger = LoggerFactory.getLogger(PojoTableStructureExtractor.class);
     
     private static final String TYPE = DatabaseType.POJO;
-    private final Map<String, TableStructure> pojoCache = new ConcurrentHashMap<>(); // Cache for POJO structures
+
+    /**
+     * 按 (类加载器, 类名) 缓存的表结构只读快照、类层次字段和生成描述索引，类加载器被回收后随之释放
+     */
+    private final PojoStructureCache structureCache = new PojoStructureCache();
     
     // 使用Guava的Multimap优化Java类型到数据库类型的映射
     private static final Multimap<String, String> JAVA_TO_MYSQL_TYPE_MAPPING = ArrayListMultimap.create();
@@ -110,19 +122,64 @@ public class PojoTableStructureExtractor implements TableStructureExtractor {
     
     @Override
     public TableStructure extractTableStructure(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String className) throws Exception {
-        // Check cache first
-        TableStructure cachedStructure = pojoCache.get(className);
+        return extractTableStructure(className, resolveClassLoader());
+    }
+
+    /**
+     * 并行提取多个类的结构，用于包扫描模式下一次性提取整个包的实体类
+     * 单个类提取失败时记录日志并跳过，由调用方对缺失的类逐个提取
+     */
+    @Override
+    public Map<String, TableStructure> extractTableStructures(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                              Collection<String> classNames) {
+        Map<String, TableStructure> tableStructures = new LinkedHashMap<>();
+        if (classNames == null || classNames.isEmpty()) {
+            return tableStructures;
+        }
+
+        // 工作线程的上下文类加载器可能不同，统一使用调用线程的类加载器
+        ClassLoader classLoader = resolveClassLoader();
+        List<String> orderedClassNames = new ArrayList<>(classNames);
+        List<TableStructure> extracted = orderedClassNames.parallelStream()
+                .map(className -> {
+                    try {
+                        return extractTableStructure(className, classLoader);
+                    } catch (Exception | LinkageError e) {
+                        logger.warn("Failed to extract structure for POJO class {}: {}", className, e.getMessage());
+                        return null;
+                    }
+                })
+                .collect(Collectors.toList());
+        for (int i = 0; i < orderedClassNames.size(); i++) {
+            if (extracted.get(i) != null) {
+                tableStructures.put(orderedClassNames.get(i), extracted.get(i));
+            }
+        }
+        return tableStructures;
+    }
+
+    @Override
+    public boolean supportsBulkExtraction() {
+        return true;
+    }
+
+    private TableStructure extractTableStructure(String className, ClassLoader classLoader) throws Exception {
+        PojoStructureCache.LoaderCache cache = structureCache.forLoader(classLoader);
+        TableStructure cachedStructure = cache.getStructure(className);
         if (cachedStructure != null) {
             logger.info("Returning cached structure for POJO class: {}", className);
-            // Return a deep copy to prevent modification of cached object if necessary, 
-            // or ensure TableStructure and its components are immutable or defensively copied.
-            // For now, returning direct reference assuming it's handled or not an issue.
-            return cachedStructure; 
+            return cachedStructure;
+        }
+
+        PojoSchemaIndex.Descriptor descriptor = cache.getSchemaIndex().find(className, classLoader);
+        if (descriptor != null) {
+            logger.info("Loading generated schema descriptor for POJO class: {}", className);
+            return cache.putStructure(className, createTableStructure(descriptor));
         }
 
         logger.info("Extracting structure for POJO class: {}", className);
         
-        Class<?> clazz = Class.forName(className);
+        Class<?> clazz = Class.forName(className, false, classLoader);
         TableStructure tableStructure = new TableStructure();
         tableStructure.setTableName(clazz.getSimpleName());
         tableStructure.setSourceType(TYPE);
@@ -149,11 +206,49 @@ public class PojoTableStructureExtractor implements TableStructureExtractor {
             }
         }
         
-        // Store in cache before returning
-        pojoCache.put(className, tableStructure);
-        return tableStructure;
+        return cache.putStructure(className, tableStructure);
     }
     
+    /**
+     * 由编译期生成的描述构建表结构，结果与反射提取一致
+     */
+    private TableStructure createTableStructure(PojoSchemaIndex.Descriptor descriptor) {
+        TableStructure tableStructure = new TableStructure();
+        tableStructure.setTableName(descriptor.tableName);
+        tableStructure.setSourceType(TYPE);
+        tableStructure.setTableComment(descriptor.tableComment);
+
+        List<ColumnStructure> columns = new ArrayList<>(descriptor.columns.size());
+        int ordinalPosition = 1;
+        for (PojoSchemaIndex.ColumnDescriptor column : descriptor.columns) {
+            columns.add(createColumn(column.name, column.javaType, column.dataType, ordinalPosition++));
+        }
+        tableStructure.setColumns(columns);
+        return tableStructure;
+    }
+
+    /**
+     * 优先使用线程上下文类加载器，与应用加载实体类的方式一致
+     */
+    private ClassLoader resolveClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : PojoTableStructureExtractor.class.getClassLoader();
+    }
+
+    /**
+     * Java 类型到 MySQL 类型的静态映射，供 {@link TypeCompatibilityMatrix} 构建使用
+     */
+    static Multimap<String, String> javaToMysqlTypeMapping() {
+        return Multimaps.unmodifiableMultimap(JAVA_TO_MYSQL_TYPE_MAPPING);
+    }
+
+    /**
+     * Java 类型到 ES 类型的静态映射，供 {@link TypeCompatibilityMatrix} 构建使用
+     */
+    static Multimap<String, String> javaToEsTypeMapping() {
+        return Multimaps.unmodifiableMultimap(JAVA_TO_ES_TYPE_MAPPING);
+    }
+
     @Override
     public String getSupportedType() {
         return TYPE;
@@ -177,50 +272,94 @@ public class PojoTableStructureExtractor implements TableStructureExtractor {
         logger.debug("Static JAVA_TO_ES_TYPE_MAPPING size: {}", JAVA_TO_ES_TYPE_MAPPING.size());
         logger.debug("Static JAVA_TO_ES_TYPE_MAPPING content: {}", JAVA_TO_ES_TYPE_MAPPING);
 
-        List<ColumnStructure> columns = new ArrayList<>();
+        List<PojoStructureCache.FieldColumn> fields = hierarchyFields(clazz);
+        List<ColumnStructure> columns = new ArrayList<>(fields.size());
         int ordinalPosition = 1;
-        
+        for (PojoStructureCache.FieldColumn field : fields) {
+            columns.add(createColumn(field.name, field.javaType, field.simpleTypeName, ordinalPosition++));
+        }
+        return columns;
+    }
+
+    /**
+     * 获取类层次中的字段：先是父类的非静态字段，再是本类声明的全部字段（含静态字段），JDK 中的父类不展开。
+     * 子类重新声明同名字段时保留父类字段的位置并使用子类的类型。
+     * 结果按类缓存在定义该类的类加载器下，多个实体共享的父类只反射一次。
+     */
+    private List<PojoStructureCache.FieldColumn> hierarchyFields(Class<?> clazz) {
+        ClassLoader definingLoader = clazz.getClassLoader();
+        PojoStructureCache.LoaderCache cache = definingLoader != null ? structureCache.forLoader(definingLoader) : null;
+        if (cache != null) {
+            List<PojoStructureCache.FieldColumn> cached = cache.getHierarchy(clazz.getName());
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Map<String, PojoStructureCache.FieldColumn> fields = new LinkedHashMap<>();
+        Class<?> superclass = clazz.getSuperclass();
+        if (superclass != null && !isJdkClass(superclass)) {
+            for (PojoStructureCache.FieldColumn field : hierarchyFields(superclass)) {
+                if (!field.isStatic) {
+                    fields.put(field.name, field);
+                }
+            }
+        }
         for (Field field : clazz.getDeclaredFields()) {
             if (field.isSynthetic()) {
                 continue;
             }
-
-            ColumnStructure column = new ColumnStructure();
             String fieldName = getFieldName(field);
-            column.setColumnName(fieldName);
-            
-            String javaTypeFullName = field.getType().getName(); 
-            String javaTypeSimpleName = field.getType().getSimpleName();
-            column.setDataType(javaTypeSimpleName); 
-            column.setOrdinalPosition(ordinalPosition++);
-
-            logger.debug("Extracting POJO column: '{}', Field Java Type (getName()): '{}', SimpleName: '{}'", 
-                         fieldName, javaTypeFullName, javaTypeSimpleName);
-            logger.debug("Attempting to get MySQL mappings for javaType '{}': Result: {}", javaTypeFullName, JAVA_TO_MYSQL_TYPE_MAPPING.get(javaTypeFullName));
-            logger.debug("Attempting to get ES mappings for javaType '{}': Result: {}", javaTypeFullName, JAVA_TO_ES_TYPE_MAPPING.get(javaTypeFullName));
-            
-            for (String mysqlType : JAVA_TO_MYSQL_TYPE_MAPPING.get(javaTypeFullName)) {
-                logger.debug("Adding MySQL mapping for field '{}': JavaType '{}' -> MySQLType '{}'", fieldName, javaTypeFullName, mysqlType);
-                column.addTypeMapping(DatabaseType.MYSQL, mysqlType);
-                column.addTypeMapping(DatabaseType.TIDB, mysqlType);
-            }
-            
-            for (String esType : JAVA_TO_ES_TYPE_MAPPING.get(javaTypeFullName)) {
-                logger.debug("Adding ES mapping for field '{}': JavaType '{}' -> ESType '{}'", fieldName, javaTypeFullName, esType);
-                column.addTypeMapping(DatabaseType.ELASTICSEARCH, esType);
-            }
-            
-            column.setNullable(true); 
-            Map<String, Object> properties = new HashMap<>();
-            properties.put("javaType", javaTypeFullName); 
-            column.setProperties(properties);
-            
-            columns.add(column);
+            fields.put(fieldName, new PojoStructureCache.FieldColumn(fieldName, field.getType().getName(),
+                    field.getType().getSimpleName(), Modifier.isStatic(field.getModifiers())));
         }
-        
-        return columns;
+
+        List<PojoStructureCache.FieldColumn> hierarchy = Collections.unmodifiableList(new ArrayList<>(fields.values()));
+        if (cache != null) {
+            cache.putHierarchy(clazz.getName(), hierarchy);
+        }
+        return hierarchy;
+    }
+
+    private static boolean isJdkClass(Class<?> clazz) {
+        String className = clazz.getName();
+        return className.startsWith("java.") || className.startsWith("javax.");
     }
     
+    /**
+     * 按字段名和 Java 类型创建列，并添加到 MySQL/TiDB/ES 的类型映射
+     */
+    private ColumnStructure createColumn(String fieldName, String javaTypeFullName, String javaTypeSimpleName,
+                                         int ordinalPosition) {
+        ColumnStructure column = new ColumnStructure();
+        column.setColumnName(fieldName);
+        column.setDataType(javaTypeSimpleName); 
+        column.setOrdinalPosition(ordinalPosition);
+
+        logger.debug("Extracting POJO column: '{}', Field Java Type (getName()): '{}', SimpleName: '{}'", 
+                     fieldName, javaTypeFullName, javaTypeSimpleName);
+        logger.debug("Attempting to get MySQL mappings for javaType '{}': Result: {}", javaTypeFullName, JAVA_TO_MYSQL_TYPE_MAPPING.get(javaTypeFullName));
+        logger.debug("Attempting to get ES mappings for javaType '{}': Result: {}", javaTypeFullName, JAVA_TO_ES_TYPE_MAPPING.get(javaTypeFullName));
+        
+        for (String mysqlType : JAVA_TO_MYSQL_TYPE_MAPPING.get(javaTypeFullName)) {
+            logger.debug("Adding MySQL mapping for field '{}': JavaType '{}' -> MySQLType '{}'", fieldName, javaTypeFullName, mysqlType);
+            column.addTypeMapping(DatabaseType.MYSQL, mysqlType);
+            column.addTypeMapping(DatabaseType.TIDB, mysqlType);
+        }
+        
+        for (String esType : JAVA_TO_ES_TYPE_MAPPING.get(javaTypeFullName)) {
+            logger.debug("Adding ES mapping for field '{}': JavaType '{}' -> ESType '{}'", fieldName, javaTypeFullName, esType);
+            column.addTypeMapping(DatabaseType.ELASTICSEARCH, esType);
+        }
+        
+        column.setNullable(true); 
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("javaType", javaTypeFullName); 
+        column.setProperties(properties);
+        
+        return column;
+    }
+
     /**
      * 获取字段名，优先使用JsonProperty注解的值
      */
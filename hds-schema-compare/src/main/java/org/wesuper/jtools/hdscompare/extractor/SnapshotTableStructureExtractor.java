@@ -0,0 +1,120 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileFormat;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileReader;
+import org.wesuper.jtools.hdscompare.snapshot.TableSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 快照文件表结构提取器
+ * 从之前运行导出的快照文件（JSON、Smile 或内存映射二进制格式）读取表结构，无需连接真实数据源，
+ * 适合在 CI 中将候选 POJO 或 DDL 与生产环境的表结构进行离线比对。
+ * 返回的表结构保留其原始数据源类型，比对规则与在线比对一致。
+ *
+ * <pre>
+ * source-data-source:
+ *   type: snapshot
+ *   properties:
+ *     path: /ci/prod-schema.smile      # 快照文件路径
+ *     format: smile                    # 可选，json、smile 或 mapped，默认按扩展名推断
+ *     sourceType: mysql                # 可选，快照中存在同名表时按来源过滤
+ *     sourceDataSourceName: mysqlDs    # 可选
+ * </pre>
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class SnapshotTableStructureExtractor implements TableStructureExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotTableStructureExtractor.class);
+
+    private static final String TYPE = DatabaseType.SNAPSHOT;
+
+    public static final String PROPERTY_PATH = "path";
+
+    public static final String PROPERTY_FORMAT = "format";
+
+    public static final String PROPERTY_SOURCE_TYPE = "sourceType";
+
+    public static final String PROPERTY_SOURCE_DATA_SOURCE_NAME = "sourceDataSourceName";
+
+    /**
+     * 已打开的快照文件，文件修改后重新建立索引
+     */
+    private final Map<Path, CachedReader> readers = new ConcurrentHashMap<>();
+
+    @Override
+    public TableStructure extractTableStructure(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) throws Exception {
+        Map<String, String> properties = dataSourceConfig.getProperties();
+        String file = properties == null ? null : properties.get(PROPERTY_PATH);
+        if (!StringUtils.hasText(file)) {
+            throw new IllegalArgumentException("Snapshot data source requires property '" + PROPERTY_PATH + "'");
+        }
+
+        Path path = Paths.get(file).toAbsolutePath().normalize();
+        SnapshotFileReader reader = getReader(path, SnapshotFileFormat.resolve(properties.get(PROPERTY_FORMAT), path));
+        TableSnapshot snapshot = reader.read(tableName,
+                properties.get(PROPERTY_SOURCE_TYPE), properties.get(PROPERTY_SOURCE_DATA_SOURCE_NAME));
+        if (snapshot == null || snapshot.getTableStructure() == null) {
+            throw new IllegalArgumentException("Table " + tableName + " not found in snapshot " + path);
+        }
+
+        logger.info("Loaded structure for table {} from snapshot {} (captured at {})",
+                tableName, path, snapshot.getCapturedAt());
+        return snapshot.getTableStructure();
+    }
+
+    @Override
+    public String getSupportedType() {
+        return TYPE;
+    }
+
+    private SnapshotFileReader getReader(Path path, SnapshotFileFormat format) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        long size = Files.size(path);
+
+        CachedReader cached = readers.get(path);
+        if (cached != null && cached.lastModified == lastModified && cached.size == size && cached.format == format) {
+            return cached.reader;
+        }
+
+        synchronized (readers) {
+            cached = readers.get(path);
+            if (cached == null || cached.lastModified != lastModified || cached.size != size || cached.format != format) {
+                long start = System.currentTimeMillis();
+                SnapshotFileReader reader = format.openReader(path);
+                logger.info("Indexed {} tables from snapshot {} in {} ms",
+                        reader.getTableCount(), path, System.currentTimeMillis() - start);
+                cached = new CachedReader(reader, format, lastModified, size);
+                readers.put(path, cached);
+            }
+            return cached.reader;
+        }
+    }
+
+    private static final class CachedReader {
+        private final SnapshotFileReader reader;
+        private final SnapshotFileFormat format;
+        private final long lastModified;
+        private final long size;
+
+        CachedReader(SnapshotFileReader reader, SnapshotFileFormat format, long lastModified, long size) {
+            this.reader = reader;
+            this.format = format;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+}
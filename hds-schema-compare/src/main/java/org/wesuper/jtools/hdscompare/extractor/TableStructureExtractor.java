@@ -3,6 +3,11 @@ package org.wesuper.jtools.hdscompare.extractor;
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
 import org.wesuper.jtools.hdscompare.model.TableStructure;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 表结构提取器接口
  *
@@ -20,11 +25,85 @@ public interface TableStructureExtractor {
      * @throws Exception 提取失败时抛出异常
      */
     TableStructure extractTableStructure(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) throws Exception;
-    
+
+    /**
+     * 异步提取表结构
+     * 默认实现在调用线程上同步提取，基于非阻塞客户端的数据源可覆盖此方法，等待响应期间不占用线程。
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName 表名
+     * @return 表结构，提取失败时异常完成
+     */
+    default CompletableFuture<TableStructure> extractTableStructureAsync(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                                        String tableName) {
+        CompletableFuture<TableStructure> future = new CompletableFuture<>();
+        try {
+            future.complete(extractTableStructure(dataSourceConfig, tableName));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 是否对 {@link #extractTableStructureAsync} 提供了真正的非阻塞实现
+     *
+     * @return 是否支持非阻塞提取
+     */
+    default boolean supportsAsyncExtraction() {
+        return false;
+    }
+
+    /**
+     * 批量提取表结构
+     * 默认实现逐表调用 {@link #extractTableStructure}，支持批量查询的数据源可覆盖此方法，
+     * 用少量查询一次性物化所有表结构。
+     * 当 tableNames 为空时，支持整库提取的实现返回该数据源下的全部表，默认实现返回空结果。
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableNames 表名集合
+     * @return 表名到表结构的映射，按请求顺序排列
+     * @throws Exception 提取失败时抛出异常
+     */
+    default Map<String, TableStructure> extractTableStructures(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                               Collection<String> tableNames) throws Exception {
+        Map<String, TableStructure> tableStructures = new LinkedHashMap<>();
+        if (tableNames == null) {
+            return tableStructures;
+        }
+        for (String tableName : tableNames) {
+            tableStructures.put(tableName, extractTableStructure(dataSourceConfig, tableName));
+        }
+        return tableStructures;
+    }
+
+    /**
+     * 是否对 {@link #extractTableStructures} 提供了真正的批量实现
+     *
+     * @return 是否支持批量提取
+     */
+    default boolean supportsBulkExtraction() {
+        return false;
+    }
+
+    /**
+     * 探测表结构版本
+     * 以远低于完整提取的代价返回一个能反映表结构（DDL）变化的版本值，版本值与上次记录一致时调用方可跳过完整提取。
+     * 不支持探测或无法确定版本时返回 null，调用方应执行完整提取。
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName 表名
+     * @return 表结构版本，不支持时返回 null
+     * @throws Exception 探测失败时抛出异常
+     */
+    default String probeSchemaVersion(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) throws Exception {
+        return null;
+    }
+
     /**
      * 获取支持的数据源类型
      *
      * @return 数据源类型
      */
     String getSupportedType();
-} 
\ No newline at end of file
+}
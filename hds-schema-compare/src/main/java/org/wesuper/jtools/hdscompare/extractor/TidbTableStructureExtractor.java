@@ -5,12 +5,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
 import org.wesuper.jtools.hdscompare.model.ColumnStructure;
 import org.wesuper.jtools.hdscompare.model.TableStructure;
 import org.wesuper.jtools.hdscompare.constants.DatabaseType;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * TiDB表结构提取器实现
@@ -32,18 +37,25 @@ public class TidbTableStructureExtractor extends MySqlTableStructureExtractor {
     private static final String TIDB_TABLE_ATTRIBUTES_SQL = 
             "SELECT tidb_pk_type, tidb_row_id_sharding_info FROM information_schema.tables " +
             "WHERE table_schema = ? AND table_name = ?";
+
+    /**
+     * 批量查询TiDB特有属性的SQL
+     */
+    private static final String TIDB_BULK_TABLE_ATTRIBUTES_SQL =
+            "SELECT table_name, tidb_pk_type, tidb_row_id_sharding_info FROM information_schema.tables " +
+            "WHERE table_schema = ?";
     
     @Override
-    public TableStructure extractTableStructure(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) throws Exception {
+    protected TableStructure extractTableStructure(JdbcExtractionSession session, String tableName) throws Exception {
         // 先通过MySQL提取器获取基本结构
-        TableStructure tableStructure = super.extractTableStructure(dataSourceConfig, tableName);
+        TableStructure tableStructure = super.extractTableStructure(session, tableName);
         
         // 设置正确的源类型
         tableStructure.setSourceType(TYPE);
         
         try {
-            // 获取TiDB特有属性
-            appendTidbSpecificAttributes(dataSourceConfig, tableName, tableStructure);
+            // 获取TiDB特有属性，与基本结构使用同一个连接
+            appendTidbSpecificAttributes(session, tableName, tableStructure);
         } catch (Exception e) {
             logger.warn("Failed to extract TiDB specific attributes for table {}: {}", 
                     tableName, e.getMessage());
@@ -52,6 +64,22 @@ public class TidbTableStructureExtractor extends MySqlTableStructureExtractor {
         return tableStructure;
     }
     
+    @Override
+    protected Map<String, TableStructure> extractTableStructures(JdbcExtractionSession session,
+                                                                 List<String> requestedTables) throws Exception {
+        Map<String, TableStructure> tableStructures = super.extractTableStructures(session, requestedTables);
+        tableStructures.values().forEach(tableStructure -> tableStructure.setSourceType(TYPE));
+
+        try {
+            appendTidbSpecificAttributes(session, tableStructures);
+        } catch (Exception e) {
+            logger.warn("Failed to bulk extract TiDB specific attributes from {}: {}",
+                    session.getDataSourceName(), e.getMessage());
+        }
+
+        return tableStructures;
+    }
+
     @Override
     public String getSupportedType() {
         return TYPE;
@@ -60,39 +88,20 @@ public class TidbTableStructureExtractor extends MySqlTableStructureExtractor {
     /**
      * 添加TiDB特有的表属性
      * 
-     * @param dataSourceConfig 数据源配置
+     * @param session 提取会话
      * @param tableName 表名
      * @param tableStructure 表结构
      */
-    private void appendTidbSpecificAttributes(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName, TableStructure tableStructure) {
+    private void appendTidbSpecificAttributes(JdbcExtractionSession session, String tableName, TableStructure tableStructure) {
         try {
-            String dataSourceName = dataSourceConfig.getDataSourceName();
-            
-            JdbcTemplate jdbcTemplate = new JdbcTemplate(getDataSource(dataSourceName));
-            String catalog = getCatalog(getDataSource(dataSourceName));
+            JdbcTemplate jdbcTemplate = session.getJdbcTemplate();
+            String catalog = session.getCatalog();
             
             // 查询TiDB特有的表属性
             try {
                 jdbcTemplate.query(TIDB_TABLE_ATTRIBUTES_SQL, 
                     (rs) -> {
-                        Map<String, Object> properties = tableStructure.getProperties();
-                        
-                        // 提取AUTO_RANDOM信息 (TiDB特有的自增类型)
-                        String pkType = rs.getString("tidb_pk_type");
-                        if (pkType != null && !pkType.isEmpty()) {
-                            properties.put("tidb_pk_type", pkType);
-                            
-                            // 如果是AUTO_RANDOM，需要标记对应的列
-                            if ("AUTO_RANDOM".equalsIgnoreCase(pkType)) {
-                                updateAutoRandomColumn(tableStructure);
-                            }
-                        }
-                        
-                        // 行ID分片信息
-                        String rowIdSharding = rs.getString("tidb_row_id_sharding_info");
-                        if (rowIdSharding != null && !rowIdSharding.isEmpty()) {
-                            properties.put("tidb_row_id_sharding", rowIdSharding);
-                        }
+                        applyTidbAttributes(rs, tableStructure);
                         return null;
                     },
                     catalog, tableName);
@@ -106,6 +115,60 @@ public class TidbTableStructureExtractor extends MySqlTableStructureExtractor {
         }
     }
     
+    /**
+     * 批量添加TiDB特有的表属性
+     * 
+     * @param session 提取会话
+     * @param tableStructures 表名到表结构的映射
+     */
+    private void appendTidbSpecificAttributes(JdbcExtractionSession session, Map<String, TableStructure> tableStructures) {
+        if (tableStructures.isEmpty()) {
+            return;
+        }
+        Map<String, TableStructure> tablesByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        tableStructures.values().forEach(tableStructure -> tablesByName.put(tableStructure.getTableName(), tableStructure));
+
+        JdbcTemplate jdbcTemplate = session.getJdbcTemplate();
+        String catalog = session.getCatalog();
+
+        List<String> filterTables = tablesByName.size() > BULK_IN_CLAUSE_LIMIT
+                ? Collections.<String>emptyList() : new ArrayList<>(tablesByName.keySet());
+        queryBySchema(jdbcTemplate, TIDB_BULK_TABLE_ATTRIBUTES_SQL, "", catalog, filterTables, rs -> {
+            TableStructure tableStructure = tablesByName.get(rs.getString("table_name"));
+            if (tableStructure != null) {
+                applyTidbAttributes(rs, tableStructure);
+            }
+        });
+    }
+
+    /**
+     * 将查询到的TiDB特有属性写入表结构
+     * 
+     * @param rs 结果集
+     * @param tableStructure 表结构
+     * @throws SQLException SQL异常
+     */
+    private void applyTidbAttributes(ResultSet rs, TableStructure tableStructure) throws SQLException {
+        Map<String, Object> properties = tableStructure.getProperties();
+        
+        // 提取AUTO_RANDOM信息 (TiDB特有的自增类型)
+        String pkType = rs.getString("tidb_pk_type");
+        if (pkType != null && !pkType.isEmpty()) {
+            properties.put("tidb_pk_type", pkType);
+            
+            // 如果是AUTO_RANDOM，需要标记对应的列
+            if ("AUTO_RANDOM".equalsIgnoreCase(pkType)) {
+                updateAutoRandomColumn(tableStructure);
+            }
+        }
+        
+        // 行ID分片信息
+        String rowIdSharding = rs.getString("tidb_row_id_sharding_info");
+        if (rowIdSharding != null && !rowIdSharding.isEmpty()) {
+            properties.put("tidb_row_id_sharding", rowIdSharding);
+        }
+    }
+
     /**
      * 更新具有AUTO_RANDOM属性的列
      * 
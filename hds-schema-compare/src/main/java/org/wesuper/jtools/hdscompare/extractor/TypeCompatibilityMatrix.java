@@ -0,0 +1,149 @@
+package org.wesuper.jtools.hdscompare.extractor;
+
+import com.google.common.collect.Multimap;
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 类型兼容矩阵
+ * 由 {@link ElasticsearchTableStructureExtractor} 和 {@link PojoTableStructureExtractor} 的静态类型映射表一次性构建，
+ * 类型名被驻留为小整数 ID，每个（源数据源、源类型、目标数据源）对应一个目标类型的 BitSet，
+ * 比对时的映射查找只是数组下标和位检查，不遍历字段上的 typeMappings，也不分配对象。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class TypeCompatibilityMatrix {
+
+    /**
+     * 矩阵中没有的数据源或类型
+     */
+    public static final int UNKNOWN = -1;
+
+    private static final String[] DATA_SOURCE_TYPES = {
+            DatabaseType.MYSQL, DatabaseType.TIDB, DatabaseType.ELASTICSEARCH, DatabaseType.POJO
+    };
+
+    private static final TypeCompatibilityMatrix DEFAULT = new TypeCompatibilityMatrix();
+
+    /**
+     * 类型名到 ID，构建后只读
+     */
+    private final Map<String, Integer> typeIds = new HashMap<>();
+
+    /**
+     * [源数据源][目标数据源][源类型 ID] -> 可映射的目标类型 ID 集合
+     */
+    private final BitSet[][][] mappings = new BitSet[DATA_SOURCE_TYPES.length][DATA_SOURCE_TYPES.length][];
+
+    private TypeCompatibilityMatrix() {
+        Multimap<String, String> esToMysql = ElasticsearchTableStructureExtractor.esToMysqlTypeMapping();
+        Multimap<String, String> javaToMysql = PojoTableStructureExtractor.javaToMysqlTypeMapping();
+        Multimap<String, String> javaToEs = PojoTableStructureExtractor.javaToEsTypeMapping();
+
+        // 先驻留所有类型名，确定每个数据源维度的数组长度
+        for (Multimap<String, String> table : Arrays.asList(esToMysql, javaToMysql, javaToEs)) {
+            table.entries().forEach(entry -> {
+                intern(entry.getKey());
+                intern(entry.getValue());
+            });
+        }
+        for (BitSet[][] byTarget : mappings) {
+            for (int target = 0; target < byTarget.length; target++) {
+                byTarget[target] = new BitSet[typeIds.size()];
+            }
+        }
+
+        register(DatabaseType.ELASTICSEARCH, DatabaseType.MYSQL, esToMysql);
+        register(DatabaseType.ELASTICSEARCH, DatabaseType.TIDB, esToMysql);
+        register(DatabaseType.POJO, DatabaseType.MYSQL, javaToMysql);
+        register(DatabaseType.POJO, DatabaseType.TIDB, javaToMysql);
+        register(DatabaseType.POJO, DatabaseType.ELASTICSEARCH, javaToEs);
+    }
+
+    public static TypeCompatibilityMatrix getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 数据源类型的 ID
+     *
+     * @param dataSourceType 数据源类型，忽略大小写
+     * @return 数据源 ID，不在矩阵中时返回 {@link #UNKNOWN}
+     */
+    public int dataSourceId(String dataSourceType) {
+        if (dataSourceType != null) {
+            for (int i = 0; i < DATA_SOURCE_TYPES.length; i++) {
+                if (DATA_SOURCE_TYPES[i].equalsIgnoreCase(dataSourceType)) {
+                    return i;
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 类型名的 ID
+     *
+     * @param typeName 类型名：数据库类型用小写（如 bigint、keyword），Java 类型用全限定类名
+     * @return 类型 ID，不在任何映射表中时返回 {@link #UNKNOWN}
+     */
+    public int typeId(String typeName) {
+        if (typeName == null) {
+            return UNKNOWN;
+        }
+        Integer id = typeIds.get(typeName);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * 源类型是否有到目标数据源的映射，对应字段上存在该目标数据源的 TypeMapping
+     */
+    public boolean hasMapping(int sourceDataSource, int sourceType, int targetDataSource) {
+        return mapping(sourceDataSource, sourceType, targetDataSource) != null;
+    }
+
+    /**
+     * 源类型到目标数据源的映射中是否包含目标类型
+     */
+    public boolean maps(int sourceDataSource, int sourceType, int targetDataSource, int targetType) {
+        BitSet mapping = mapping(sourceDataSource, sourceType, targetDataSource);
+        return mapping != null && targetType >= 0 && mapping.get(targetType);
+    }
+
+    /**
+     * 两个映射是否有共同的目标类型
+     */
+    public boolean sharesMappedType(int sourceDataSource, int sourceType, int targetDataSource, int targetType) {
+        BitSet sourceToTarget = mapping(sourceDataSource, sourceType, targetDataSource);
+        BitSet targetToSource = mapping(targetDataSource, targetType, sourceDataSource);
+        return sourceToTarget != null && targetToSource != null && sourceToTarget.intersects(targetToSource);
+    }
+
+    private BitSet mapping(int sourceDataSource, int sourceType, int targetDataSource) {
+        if (sourceDataSource < 0 || targetDataSource < 0 || sourceType < 0) {
+            return null;
+        }
+        return mappings[sourceDataSource][targetDataSource][sourceType];
+    }
+
+    private void intern(String typeName) {
+        typeIds.putIfAbsent(typeName, typeIds.size());
+    }
+
+    private void register(String sourceDataSourceType, String targetDataSourceType, Multimap<String, String> table) {
+        BitSet[] byType = mappings[dataSourceId(sourceDataSourceType)][dataSourceId(targetDataSourceType)];
+        for (Map.Entry<String, Collection<String>> entry : table.asMap().entrySet()) {
+            BitSet targets = new BitSet(typeIds.size());
+            for (String targetType : entry.getValue()) {
+                targets.set(typeIds.get(targetType));
+            }
+            byType[typeIds.get(entry.getKey())] = targets;
+        }
+    }
+}
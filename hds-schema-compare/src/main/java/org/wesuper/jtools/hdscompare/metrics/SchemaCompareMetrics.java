@@ -0,0 +1,228 @@
+package org.wesuper.jtools.hdscompare.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 表结构提取与比对的 Micrometer 指标
+ *
+ * <ul>
+ *   <li>{@code hds.compare.extraction}：表结构提取耗时，标签 type、dataSource、mode（single/bulk）、outcome</li>
+ *   <li>{@code hds.compare.extraction.tables}：提取的表数量，标签 type、dataSource</li>
+ *   <li>{@code hds.compare.phase}：比对各阶段耗时，标签 phase</li>
+ *   <li>{@code hds.compare.comparisons}：比对次数，标签 matched</li>
+ *   <li>{@code hds.compare.differences}：最近一轮比对中各级别差异的总数，标签 level</li>
+ * </ul>
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class SchemaCompareMetrics {
+
+    public static final String EXTRACTION = "hds.compare.extraction";
+
+    public static final String EXTRACTION_TABLES = "hds.compare.extraction.tables";
+
+    public static final String PHASE = "hds.compare.phase";
+
+    public static final String COMPARISONS = "hds.compare.comparisons";
+
+    public static final String DIFFERENCES = "hds.compare.differences";
+
+    /**
+     * 比对阶段
+     */
+    public enum Phase {
+        TABLE_PROPERTIES,
+        COLUMNS,
+        INDEXES,
+        MATCH_PERCENTAGE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final String UNKNOWN = "none";
+
+    private final MeterRegistry registry;
+
+    /**
+     * 阶段计时器在构造时注册，避免热路径上重复查找
+     */
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+
+    private final Map<DifferenceLevel, AtomicLong> differences = new EnumMap<>(DifferenceLevel.class);
+
+    private final Counter matchedComparisons;
+
+    private final Counter unmatchedComparisons;
+
+    public SchemaCompareMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder(PHASE)
+                    .description("Time spent in each phase of a table structure comparison")
+                    .tag("phase", phase.tag)
+                    .register(registry));
+        }
+        for (DifferenceLevel level : DifferenceLevel.values()) {
+            AtomicLong count = new AtomicLong();
+            differences.put(level, count);
+            Gauge.builder(DIFFERENCES, count, AtomicLong::get)
+                    .description("Differences found by the latest comparison run")
+                    .tag("level", level.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        this.matchedComparisons = Counter.builder(COMPARISONS).tag("matched", "true").register(registry);
+        this.unmatchedComparisons = Counter.builder(COMPARISONS).tag("matched", "false").register(registry);
+    }
+
+    /**
+     * 记录一次表结构提取
+     *
+     * @param type           数据源类型
+     * @param dataSourceName 数据源名称
+     * @param bulk           是否为批量提取
+     * @param tableCount     提取的表数量
+     * @param extraction     提取逻辑
+     * @param <T>            提取结果类型
+     * @return 提取结果
+     * @throws Exception 提取失败时原样抛出
+     */
+    public <T> T recordExtraction(String type, String dataSourceName, boolean bulk, int tableCount,
+                                  Callable<T> extraction) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = extraction.call();
+            success = true;
+            return result;
+        } finally {
+            recordExtraction(type, dataSourceName, bulk, tableCount, start, success);
+        }
+    }
+
+    /**
+     * 记录一次异步的单表提取，耗时从发起到结果完成
+     *
+     * @param type           数据源类型
+     * @param dataSourceName 数据源名称
+     * @param extraction     发起提取并返回其结果
+     * @param <T>            提取结果类型
+     * @return 提取结果
+     */
+    public <T> CompletableFuture<T> recordExtractionAsync(String type, String dataSourceName,
+                                                          Supplier<CompletableFuture<T>> extraction) {
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = extraction.get();
+        } catch (RuntimeException e) {
+            recordExtraction(type, dataSourceName, false, 1, start, false);
+            throw e;
+        }
+        return result.whenComplete((value, error) ->
+                recordExtraction(type, dataSourceName, false, 1, start, error == null));
+    }
+
+    private void recordExtraction(String type, String dataSourceName, boolean bulk, int tableCount,
+                                  long start, boolean success) {
+        String typeTag = type == null ? UNKNOWN : type.toLowerCase(Locale.ROOT);
+        String dataSourceTag = dataSourceName == null ? UNKNOWN : dataSourceName;
+        if (success) {
+            Counter.builder(EXTRACTION_TABLES)
+                    .description("Tables extracted from data sources")
+                    .tags("type", typeTag, "dataSource", dataSourceTag)
+                    .register(registry)
+                    .increment(tableCount);
+        }
+        Timer.builder(EXTRACTION)
+                .description("Time spent extracting table structures")
+                .tags("type", typeTag, "dataSource", dataSourceTag,
+                        "mode", bulk ? "bulk" : "single", "outcome", success ? "success" : "error")
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一个比对阶段的耗时
+     *
+     * @param phase 比对阶段
+     * @param task  阶段逻辑
+     */
+    public void recordPhase(Phase phase, Runnable task) {
+        phaseTimers.get(phase).record(task);
+    }
+
+    /**
+     * 记录一次表结构比对的结果
+     *
+     * @param result 比对结果
+     */
+    public void recordComparison(CompareResult result) {
+        (result.isFullyMatched() ? matchedComparisons : unmatchedComparisons).increment();
+    }
+
+    /**
+     * 以一轮比对的结果更新各级别差异数量
+     *
+     * @param results 比对结果
+     */
+    public void recordRun(Collection<CompareResult> results) {
+        Run run = startRun();
+        results.forEach(run::add);
+        run.finish();
+    }
+
+    /**
+     * 开始记录一轮比对，逐个累加结果的差异数量，流式比对时不需要保留结果列表
+     *
+     * @return 本轮比对的差异累加器
+     */
+    public Run startRun() {
+        return new Run();
+    }
+
+    /**
+     * 一轮比对的差异累加器，不是线程安全的
+     */
+    public final class Run {
+
+        private final Map<DifferenceLevel, Long> totals = new EnumMap<>(DifferenceLevel.class);
+
+        private Run() {
+        }
+
+        /**
+         * 累加一个比对结果的差异数量
+         *
+         * @param result 比对结果
+         */
+        public void add(CompareResult result) {
+            if (result == null || result.getDifferenceCountByLevel() == null) {
+                return;
+            }
+            result.getDifferenceCountByLevel().forEach((level, count) -> totals.merge(level, count.longValue(), Long::sum));
+        }
+
+        /**
+         * 以累加的总数更新各级别差异数量
+         */
+        public void finish() {
+            differences.forEach((level, gauge) -> gauge.set(totals.getOrDefault(level, 0L)));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.wesuper.jtools.hdscompare.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 字段列表的一次性索引，按字段名（忽略大小写）和点分路径前缀做 O(1) 查找
+ * 构建时对字段列表做一次遍历并持有当时的字段实例，之后字段列表的修改不会反映到索引中，
+ * 调用方在一次比对内构建并使用，不长期保存。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class ColumnIndex {
+
+    private final List<ColumnStructure> columns;
+
+    private final Map<String, ColumnStructure> byName;
+
+    private final Map<String, List<ColumnStructure>> byPathPrefix = new HashMap<>();
+
+    ColumnIndex(List<ColumnStructure> columns) {
+        this.columns = columns == null ? Collections.<ColumnStructure>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(columns));
+        this.byName = new HashMap<>(this.columns.size() * 2);
+        for (ColumnStructure column : this.columns) {
+            String name = column.getColumnName();
+            if (name == null) {
+                continue;
+            }
+            name = name.toLowerCase(Locale.ROOT);
+            byName.putIfAbsent(name, column);
+            for (int dot = name.indexOf('.'); dot > 0; dot = name.indexOf('.', dot + 1)) {
+                byPathPrefix.computeIfAbsent(name.substring(0, dot), k -> new ArrayList<>()).add(column);
+            }
+        }
+    }
+
+    /**
+     * 构建索引时的字段列表，与查找结果是同一批字段实例
+     *
+     * @return 只读字段列表
+     */
+    public List<ColumnStructure> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 根据字段名（忽略大小写）获取字段结构
+     *
+     * @param columnName 字段名
+     * @return 字段结构，同名字段有多个时返回第一个，不存在时返回 null
+     */
+    public ColumnStructure getColumnByName(String columnName) {
+        return columnName == null ? null : byName.get(columnName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 获取路径前缀（忽略大小写）下的所有字段，如 address 返回 address.city、address.geo.lat 等展开后的子字段
+     *
+     * @param pathPrefix 父字段路径，不含末尾的点
+     * @return 子字段列表，按字段顺序排列，不存在时返回空列表
+     */
+    public List<ColumnStructure> getColumnsByPathPrefix(String pathPrefix) {
+        List<ColumnStructure> children = pathPrefix == null ? null
+                : byPathPrefix.get(pathPrefix.toLowerCase(Locale.ROOT));
+        return children == null ? Collections.<ColumnStructure>emptyList() : Collections.unmodifiableList(children);
+    }
+}
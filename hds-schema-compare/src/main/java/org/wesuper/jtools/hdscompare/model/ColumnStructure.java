@@ -1,8 +1,5 @@
 package org.wesuper.jtools.hdscompare.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,8 +16,6 @@ import java.util.Set;
  */
 public class ColumnStructure {
     
-    private static final Logger logger = LoggerFactory.getLogger(ColumnStructure.class);
-    
     /**
      * 字段名
      */
@@ -246,35 +241,15 @@ public class ColumnStructure {
 
     // 获取特定目标类型的映射
     public TypeMapping getTypeMapping(String targetType) {
-        logger.debug("Column '{}': getTypeMapping called for targetType: '{}'", this.columnName, targetType);
         if (this.typeMappings == null) {
-            logger.debug("Column '{}': this.typeMappings is NULL", this.columnName);
             return null;
         }
-        logger.debug("Column '{}': Examining {} stored mappings:", this.columnName, this.typeMappings.size());
-        for (TypeMapping tm : this.typeMappings) {
-            logger.debug("  - Stored Mapping for column '{}': target='{}', types={}", this.columnName, tm.getTargetType(), tm.getColumnTypes());
-        }
-
-        TypeMapping foundMapping = typeMappings.stream()
-                .filter(mapping -> {
-                    // Robust comparison for targetType
-                    String storedTargetType = mapping.getTargetType();
-                    if (targetType == null) {
-                        return storedTargetType == null;
-                    } else {
-                        return targetType.equals(storedTargetType);
-                    }
-                })
-                .findFirst()
-                .orElse(null);
-        
-        if (foundMapping == null) {
-            logger.debug("Column '{}': No mapping found for targetType: '{}' after stream filter.", this.columnName, targetType);
-        } else {
-            logger.debug("Column '{}': Found mapping for targetType: '{}' -> {}", this.columnName, targetType, foundMapping.getColumnTypes());
+        for (TypeMapping mapping : this.typeMappings) {
+            if (Objects.equals(targetType, mapping.getTargetType())) {
+                return mapping;
+            }
         }
-        return foundMapping;
+        return null;
     }
 
     // 检查与另一个ColumnStructure的类型兼容性
@@ -188,6 +188,9 @@ public class CompareResult {
          */
         private String description;
         
+        protected Difference() {
+        }
+
         public Difference(DifferenceType type, DifferenceLevel level, String description) {
             this.type = type;
             this.level = level;
@@ -243,6 +246,9 @@ public class CompareResult {
          */
         private Map<String, PropertyDifference> propertyDifferences = new HashMap<>();
         
+        public ColumnDifference() {
+        }
+
         public ColumnDifference(DifferenceType type, DifferenceLevel level, String description, String columnName) {
             super(type, level, description);
             this.columnName = columnName;
@@ -318,6 +324,9 @@ public class CompareResult {
          */
         private Map<String, PropertyDifference> propertyDifferences = new HashMap<>();
         
+        public IndexDifference() {
+        }
+
         public IndexDifference(DifferenceType type, DifferenceLevel level, String description, String indexName) {
             super(type, level, description);
             this.indexName = indexName;
@@ -388,6 +397,9 @@ public class CompareResult {
          */
         private Object targetValue;
         
+        public TableDifference() {
+        }
+
         public TableDifference(DifferenceType type, DifferenceLevel level, String description, String propertyName, 
                                Object sourceValue, Object targetValue) {
             super(type, level, description);
@@ -445,6 +457,9 @@ public class CompareResult {
          */
         private DifferenceLevel level;
         
+        public PropertyDifference() {
+        }
+
         public PropertyDifference(String property, Object sourceValue, Object targetValue, DifferenceLevel level) {
             this.property = property;
             this.sourceValue = sourceValue;
@@ -20,7 +20,7 @@ public class IndexStructure {
     private String indexName;
     
     /**
-     * 索引类型（PRIMARY、UNIQUE、NORMAL、FULLTEXT等）
+     * 索引类型（MySQL/TiDB 为 information_schema 中的 BTREE、HASH、FULLTEXT、SPATIAL 等，ES 为 NORMAL）
      */
     private String indexType;
     
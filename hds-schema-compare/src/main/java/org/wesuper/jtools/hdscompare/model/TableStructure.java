@@ -1,9 +1,12 @@
 package org.wesuper.jtools.hdscompare.model;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Locale;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.stream.Collectors;
 
 /**
  * 表结构模型，用于统一描述不同数据源的表结构
@@ -98,6 +101,7 @@ public class TableStructure {
      * @return 字段结构，如果不存在则返回null
      */
     public ColumnStructure getColumnByName(String columnName) {
+        List<ColumnStructure> columns = getColumns();
         if (columnName == null || columns == null) {
             return null;
         }
@@ -107,6 +111,37 @@ public class TableStructure {
                 .findFirst()
                 .orElse(null);
     }
+
+    /**
+     * 获取路径前缀下的所有字段，如 address 返回 address.city、address.geo.lat 等展开后的子字段
+     * 每次调用都按当前字段列表查找，字段列表被替换、修改或字段改名后结果仍然准确；
+     * 需要反复查找时使用 {@link #indexColumns()}
+     *
+     * @param pathPrefix 父字段路径，不含末尾的点
+     * @return 子字段列表，按字段顺序排列，不存在时返回空列表
+     */
+    public List<ColumnStructure> getColumnsByPathPrefix(String pathPrefix) {
+        List<ColumnStructure> columns = getColumns();
+        if (pathPrefix == null || columns == null) {
+            return Collections.emptyList();
+        }
+
+        String prefix = pathPrefix.toLowerCase(Locale.ROOT) + ".";
+        return columns.stream()
+                .filter(column -> column.getColumnName() != null
+                        && column.getColumnName().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 为当前字段列表构建字段名和路径前缀索引，一次遍历完成，之后每次查找为 O(1)
+     * 索引是构建时的快照，需要多次查找的场景（如一次比对）构建一次并在期间复用
+     *
+     * @return 字段索引
+     */
+    public ColumnIndex indexColumns() {
+        return new ColumnIndex(getColumns());
+    }
     
     /**
      * 根据索引名获取索引结构
@@ -115,6 +150,7 @@ public class TableStructure {
      * @return 索引结构，如果不存在则返回null
      */
     public IndexStructure getIndexByName(String indexName) {
+        List<IndexStructure> indexes = getIndexes();
         if (indexName == null || indexes == null) {
             return null;
         }
@@ -128,10 +164,10 @@ public class TableStructure {
     @Override
     public String toString() {
         return "TableStructure{" +
-                "tableName='" + tableName + '\'' +
-                ", sourceType='" + sourceType + '\'' +
-                ", columns=" + columns +
-                ", indexes=" + indexes +
+                "tableName='" + getTableName() + '\'' +
+                ", sourceType='" + getSourceType() + '\'' +
+                ", columns=" + getColumns() +
+                ", indexes=" + getIndexes() +
                 '}';
     }
 } 
\ No newline at end of file
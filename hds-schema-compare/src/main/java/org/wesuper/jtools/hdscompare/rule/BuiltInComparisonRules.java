@@ -0,0 +1,223 @@
+package org.wesuper.jtools.hdscompare.rule;
+
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * 内置比对规则
+ * 包括 ES/POJO 特有属性的过滤、表注释的等价判断、按属性名关键字确定差异级别、
+ * ES/POJO 比对时降低描述类属性的差异级别，以及 TiDB auto_random 与 MySQL 自增列的等价判断。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class BuiltInComparisonRules {
+
+    /**
+     * ES特有的字段列表，在MySQL中不会出现
+     */
+    static final Set<String> ES_SPECIFIC_FIELDS = names(
+            "number_of_replicas",
+            "number_of_shards",
+            "creation_date",
+            "uuid",
+            "provided_name",
+            "has_custom_analyzers",
+            "analyzer",
+            "search_analyzer",
+            "ignore_above",
+            "scaling_factor",
+            "_meta",
+            "_source",
+            "_all",
+            "_routing",
+            "_parent",
+            "_field_names",
+            "dynamic",
+            "dynamic_templates",
+            "properties",
+            "include_in_all",
+            "copy_to",
+            "fields",
+            "format",
+            "ignore_malformed",
+            "index_options",
+            "norms",
+            "null_value",
+            "position_increment_gap",
+            "search_quote_analyzer",
+            "similarity",
+            "term_vector");
+
+    /**
+     * 不影响数据检索和展示的ES属性
+     */
+    static final Set<String> NON_ESSENTIAL_ES_PROPERTIES = names(
+            "creation_date", "uuid", "provided_name", "version", "_meta", "_source", "_all", "_routing", "_parent",
+            "_field_names");
+
+    /**
+     * 不影响数据检索和展示的POJO属性
+     */
+    static final Set<String> NON_ESSENTIAL_POJO_PROPERTIES = names(
+            "javaType", "package", "superclass", "interfaces", "annotations");
+
+    /**
+     * ES和POJO比对时可降低差异级别的属性
+     */
+    static final Set<String> REDUCIBLE_PROPERTIES = names(
+            "comment", "description", "label", "displayName", "format", "pattern");
+
+    private static final List<ComparisonRule> ALL = Collections.unmodifiableList(Arrays.asList(
+            // ES特有的字段，只要一端是ES就跳过
+            new SimpleRule(ComparisonRule.Scope.TABLE_PROPERTY, ComparisonRule.FILTER_ORDER, ES_SPECIFIC_FIELDS,
+                    (source, target) -> isES(source) || isES(target), PropertyComparison::ignore),
+            // ES到ES的比对，跳过不影响数据检索和展示的属性
+            new SimpleRule(ComparisonRule.Scope.TABLE_PROPERTY, ComparisonRule.FILTER_ORDER, NON_ESSENTIAL_ES_PROPERTIES,
+                    (source, target) -> isES(source) && isES(target), PropertyComparison::ignore),
+            // POJO的比对，跳过类元数据属性
+            new SimpleRule(ComparisonRule.Scope.TABLE_PROPERTY, ComparisonRule.FILTER_ORDER, NON_ESSENTIAL_POJO_PROPERTIES,
+                    (source, target) -> isPOJO(source) || isPOJO(target), PropertyComparison::ignore),
+            // 表注释按数据源组合的注释规则判断是否等价
+            new SimpleRule(ComparisonRule.Scope.TABLE_PROPERTY, ComparisonRule.FILTER_ORDER, names("comment"),
+                    (source, target) -> true, comparison -> {
+                if (comparison.getPlan().isCommentEqual(String.valueOf(comparison.getSourceValue()),
+                        String.valueOf(comparison.getTargetValue()))) {
+                    comparison.ignore();
+                }
+            }),
+            new SimpleRule(ComparisonRule.Scope.TABLE_PROPERTY, ComparisonRule.LEVEL_ORDER, Collections.emptySet(),
+                    (source, target) -> true, comparison -> comparison.setLevel(keywordLevel(comparison))),
+            // 对于ES和POJO的比对，降低描述类属性的差异级别
+            new SimpleRule(ComparisonRule.Scope.TABLE_PROPERTY, ComparisonRule.ADJUST_ORDER, REDUCIBLE_PROPERTIES,
+                    (source, target) -> isES(source) || isES(target) || isPOJO(source) || isPOJO(target),
+                    comparison -> comparison.setLevel(DifferenceLevel.NOTICE)),
+            // TiDB 的 auto_random 列与 MySQL 的自增列等价
+            new SimpleRule(ComparisonRule.Scope.COLUMN_PROPERTY, ComparisonRule.FILTER_ORDER, names("autoIncrement"),
+                    (source, target) -> isMySQLFamily(source) && isMySQLFamily(target), comparison -> {
+                ColumnStructure sourceColumn = comparison.getSourceColumn();
+                ColumnStructure targetColumn = comparison.getTargetColumn();
+                if (sourceColumn.isAutoIncrement() && targetColumn.getProperties() != null
+                        && Boolean.TRUE.equals(targetColumn.getProperties().get("is_auto_random"))) {
+                    comparison.ignore();
+                }
+            })
+    ));
+
+    private BuiltInComparisonRules() {
+    }
+
+    /**
+     * 全部内置规则
+     *
+     * @return 内置规则列表
+     */
+    public static List<ComparisonRule> all() {
+        return ALL;
+    }
+
+    /**
+     * 按属性名关键字确定表属性的差异级别
+     */
+    private static DifferenceLevel keywordLevel(PropertyComparison comparison) {
+        String propertyName = comparison.getPropertyName();
+        // 关键属性使用严重级别
+        if (propertyName.contains("primary") || propertyName.contains("unique")) {
+            return DifferenceLevel.CRITICAL;
+        }
+
+        // 性能相关属性使用警告级别
+        if (propertyName.contains("index") || propertyName.contains("shard") ||
+                propertyName.contains("replica") || propertyName.contains("partition")) {
+            return DifferenceLevel.WARNING;
+        }
+
+        // 被忽略的类型使用可接受级别
+        if (comparison.getPlan().isIgnoredType(propertyName.toUpperCase(Locale.ROOT))) {
+            return DifferenceLevel.ACCEPTABLE;
+        }
+
+        // 默认使用通知级别
+        return DifferenceLevel.NOTICE;
+    }
+
+    private static boolean isES(String type) {
+        return DatabaseType.ELASTICSEARCH.equalsIgnoreCase(type);
+    }
+
+    private static boolean isPOJO(String type) {
+        return DatabaseType.POJO.equalsIgnoreCase(type);
+    }
+
+    private static boolean isMySQLFamily(String type) {
+        return DatabaseType.MYSQL.equalsIgnoreCase(type) || DatabaseType.TIDB.equalsIgnoreCase(type);
+    }
+
+    private static Set<String> names(String... names) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(names)));
+    }
+
+    /**
+     * 由数据源组合判断和处理逻辑组成的规则
+     */
+    private static final class SimpleRule implements ComparisonRule {
+
+        private final Scope scope;
+        private final int order;
+        private final Set<String> propertyNames;
+        private final BiPredicate<String, String> pairs;
+        private final Consumer<PropertyComparison> action;
+
+        SimpleRule(Scope scope, int order, Set<String> propertyNames,
+                   BiPredicate<String, String> pairs, Consumer<PropertyComparison> action) {
+            this.scope = scope;
+            this.order = order;
+            this.propertyNames = propertyNames;
+            this.pairs = pairs;
+            this.action = action;
+        }
+
+        @Override
+        public Scope getScope() {
+            return scope;
+        }
+
+        @Override
+        public boolean appliesTo(String sourceType, String targetType) {
+            return pairs.test(sourceType, targetType);
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return propertyNames;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public void apply(PropertyComparison comparison) {
+            action.accept(comparison);
+        }
+
+        /**
+         * 内置规则的逻辑随版本发布，变化时递增 SchemaFingerprint 的规范形式版本号
+         */
+        @Override
+        public String getFingerprint() {
+            return BuiltInComparisonRules.class.getName();
+        }
+    }
+}
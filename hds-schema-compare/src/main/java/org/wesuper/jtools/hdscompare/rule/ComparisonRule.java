@@ -0,0 +1,96 @@
+package org.wesuper.jtools.hdscompare.rule;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 比对规则
+ * 规则声明适用的数据源组合和属性名，{@link ComparisonRuleRegistry} 在编译比对计划时按此建立分发表，
+ * 比对时每个存在差异的属性只执行适用于它的规则。规则可以忽略该差异或调整差异级别。
+ * 自定义规则以 Spring Bean 的形式注册即可生效。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public interface ComparisonRule {
+
+    /**
+     * 规则作用的属性范围
+     */
+    enum Scope {
+        /**
+         * 表级属性，如 engine、number_of_shards
+         */
+        TABLE_PROPERTY,
+        /**
+         * 列属性，如 nullable、defaultValue、autoIncrement
+         */
+        COLUMN_PROPERTY
+    }
+
+    /**
+     * 内置规则中过滤类规则的执行顺序
+     */
+    int FILTER_ORDER = -300;
+
+    /**
+     * 内置规则中确定差异级别的执行顺序
+     */
+    int LEVEL_ORDER = -200;
+
+    /**
+     * 内置规则中调整差异级别的执行顺序
+     */
+    int ADJUST_ORDER = -100;
+
+    /**
+     * 规则作用的属性范围
+     *
+     * @return 属性范围
+     */
+    Scope getScope();
+
+    /**
+     * 是否适用于指定的数据源组合，只在编译分发表时调用一次
+     *
+     * @param sourceType 源数据源类型
+     * @param targetType 目标数据源类型
+     * @return 是否适用
+     */
+    boolean appliesTo(String sourceType, String targetType);
+
+    /**
+     * 适用的属性名，忽略大小写
+     *
+     * @return 属性名集合，为空时适用于所有属性
+     */
+    default Set<String> getPropertyNames() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * 执行顺序，值小的先执行；内置规则使用负数，自定义规则默认在内置规则之后执行
+     *
+     * @return 执行顺序
+     */
+    default int getOrder() {
+        return 0;
+    }
+
+    /**
+     * 规则标识，参与增量比对的配置指纹计算
+     * 规则的判断逻辑或参数发生变化时应返回不同的值（如附加版本号或参数），否则增量比对会复用规则变化前的结果
+     *
+     * @return 规则标识，默认为规则类名
+     */
+    default String getFingerprint() {
+        return getClass().getName();
+    }
+
+    /**
+     * 对一个存在差异的属性执行规则
+     *
+     * @param comparison 属性比对上下文
+     */
+    void apply(PropertyComparison comparison);
+}
@@ -0,0 +1,156 @@
+package org.wesuper.jtools.hdscompare.rule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 比对规则注册表
+ * 启动时收集内置规则和自定义规则，按数据源组合编译 {@link DispatchTable}：
+ * 声明了属性名的规则按属性名建立索引，与适用于所有属性的规则合并后按执行顺序排列，
+ * 比对时一次哈希查找即可得到某个属性需要执行的规则列表。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class ComparisonRuleRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComparisonRuleRegistry.class);
+
+    private static final ComparisonRuleRegistry BUILT_IN = new ComparisonRuleRegistry(Collections.emptyList());
+
+    /**
+     * 按执行顺序排列的全部规则，顺序相同时内置规则在前、自定义规则按注册顺序
+     */
+    private final List<ComparisonRule> rules;
+
+    /**
+     * 构造函数，内置规则总是被注册
+     *
+     * @param customRules 自定义规则列表
+     */
+    public ComparisonRuleRegistry(List<ComparisonRule> customRules) {
+        List<ComparisonRule> all = new ArrayList<>(BuiltInComparisonRules.all());
+        if (customRules != null) {
+            for (ComparisonRule rule : customRules) {
+                all.add(rule);
+                logger.info("Registered comparison rule: {} ({})", rule.getClass().getName(), rule.getScope());
+            }
+        }
+        all.sort(Comparator.comparingInt(ComparisonRule::getOrder));
+        this.rules = Collections.unmodifiableList(all);
+    }
+
+    /**
+     * 只包含内置规则的注册表
+     *
+     * @return 注册表
+     */
+    public static ComparisonRuleRegistry builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * 按执行顺序排列的全部规则
+     *
+     * @return 只读的规则列表
+     */
+    public List<ComparisonRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * 编译指定数据源组合的分发表
+     *
+     * @param sourceType 源数据源类型
+     * @param targetType 目标数据源类型
+     * @return 分发表
+     */
+    public DispatchTable compile(String sourceType, String targetType) {
+        Map<ComparisonRule.Scope, List<ComparisonRule>> applicable = new EnumMap<>(ComparisonRule.Scope.class);
+        for (ComparisonRule rule : rules) {
+            if (rule.appliesTo(sourceType, targetType)) {
+                applicable.computeIfAbsent(rule.getScope(), scope -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        Map<ComparisonRule.Scope, ScopeTable> tables = new EnumMap<>(ComparisonRule.Scope.class);
+        applicable.forEach((scope, scopeRules) -> tables.put(scope, new ScopeTable(scopeRules)));
+        return new DispatchTable(tables);
+    }
+
+    /**
+     * 单个数据源组合的规则分发表，编译后只读
+     */
+    public static final class DispatchTable {
+
+        private final Map<ComparisonRule.Scope, ScopeTable> tables;
+
+        private DispatchTable(Map<ComparisonRule.Scope, ScopeTable> tables) {
+            this.tables = tables;
+        }
+
+        /**
+         * 对存在差异的属性执行适用的规则
+         *
+         * @param comparison 属性比对上下文
+         * @return 最终的差异级别，差异被忽略时返回 null
+         */
+        public DifferenceLevel evaluate(PropertyComparison comparison) {
+            ScopeTable table = tables.get(comparison.getScope());
+            if (table != null) {
+                for (ComparisonRule rule : table.rulesFor(comparison.getPropertyName())) {
+                    rule.apply(comparison);
+                    if (comparison.isIgnored()) {
+                        return null;
+                    }
+                }
+            }
+            return comparison.getLevel();
+        }
+    }
+
+    /**
+     * 某一属性范围内的规则索引
+     */
+    private static final class ScopeTable {
+
+        /**
+         * 小写属性名 -> 该属性专属规则与通用规则按执行顺序合并后的列表
+         */
+        private final Map<String, List<ComparisonRule>> byProperty = new HashMap<>();
+
+        /**
+         * 适用于所有属性的规则
+         */
+        private final List<ComparisonRule> wildcard = new ArrayList<>();
+
+        ScopeTable(List<ComparisonRule> orderedRules) {
+            for (ComparisonRule rule : orderedRules) {
+                if (rule.getPropertyNames().isEmpty()) {
+                    wildcard.add(rule);
+                    byProperty.values().forEach(list -> list.add(rule));
+                } else {
+                    for (String propertyName : rule.getPropertyNames()) {
+                        byProperty.computeIfAbsent(propertyName.toLowerCase(Locale.ROOT), name -> new ArrayList<>(wildcard))
+                                .add(rule);
+                    }
+                }
+            }
+        }
+
+        List<ComparisonRule> rulesFor(String propertyName) {
+            List<ComparisonRule> propertyRules = byProperty.get(propertyName.toLowerCase(Locale.ROOT));
+            return propertyRules != null ? propertyRules : wildcard;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.wesuper.jtools.hdscompare.rule;
+
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+import org.wesuper.jtools.hdscompare.service.ComparisonPlan;
+
+/**
+ * 属性比对上下文
+ * 描述一个源端与目标端取值不同的属性，规则通过 {@link #ignore()} 忽略该差异，或通过 {@link #setLevel} 调整差异级别。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class PropertyComparison {
+
+    private final ComparisonPlan plan;
+    private final ComparisonRule.Scope scope;
+    private final String propertyName;
+    private final Object sourceValue;
+    private final Object targetValue;
+    private final ColumnStructure sourceColumn;
+    private final ColumnStructure targetColumn;
+    private DifferenceLevel level;
+    private boolean ignored;
+
+    private PropertyComparison(ComparisonPlan plan, ComparisonRule.Scope scope, String propertyName,
+                               Object sourceValue, Object targetValue,
+                               ColumnStructure sourceColumn, ColumnStructure targetColumn, DifferenceLevel level) {
+        this.plan = plan;
+        this.scope = scope;
+        this.propertyName = propertyName;
+        this.sourceValue = sourceValue;
+        this.targetValue = targetValue;
+        this.sourceColumn = sourceColumn;
+        this.targetColumn = targetColumn;
+        this.level = level;
+    }
+
+    /**
+     * 表级属性的比对上下文
+     */
+    public static PropertyComparison tableProperty(ComparisonPlan plan, String propertyName,
+                                                   Object sourceValue, Object targetValue, DifferenceLevel level) {
+        return new PropertyComparison(plan, ComparisonRule.Scope.TABLE_PROPERTY, propertyName,
+                sourceValue, targetValue, null, null, level);
+    }
+
+    /**
+     * 列属性的比对上下文
+     */
+    public static PropertyComparison columnProperty(ComparisonPlan plan, String propertyName,
+                                                    Object sourceValue, Object targetValue,
+                                                    ColumnStructure sourceColumn, ColumnStructure targetColumn,
+                                                    DifferenceLevel level) {
+        return new PropertyComparison(plan, ComparisonRule.Scope.COLUMN_PROPERTY, propertyName,
+                sourceValue, targetValue, sourceColumn, targetColumn, level);
+    }
+
+    /**
+     * 忽略该差异，后续规则不再执行
+     */
+    public void ignore() {
+        this.ignored = true;
+    }
+
+    public boolean isIgnored() {
+        return ignored;
+    }
+
+    public ComparisonPlan getPlan() {
+        return plan;
+    }
+
+    public ComparisonRule.Scope getScope() {
+        return scope;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public Object getSourceValue() {
+        return sourceValue;
+    }
+
+    public Object getTargetValue() {
+        return targetValue;
+    }
+
+    /**
+     * 源端的列，仅列属性比对时存在
+     */
+    public ColumnStructure getSourceColumn() {
+        return sourceColumn;
+    }
+
+    /**
+     * 目标端的列，仅列属性比对时存在
+     */
+    public ColumnStructure getTargetColumn() {
+        return targetColumn;
+    }
+
+    public DifferenceLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(DifferenceLevel level) {
+        this.level = level;
+    }
+}
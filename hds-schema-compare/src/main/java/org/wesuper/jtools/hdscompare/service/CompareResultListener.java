@@ -0,0 +1,23 @@
+package org.wesuper.jtools.hdscompare.service;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+
+/**
+ * 比对结果监听器
+ * 比对服务按配置顺序把每个比对结果连同产生它的表配置交给监听器，包扫描展开的每张表都有各自的表配置。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface CompareResultListener {
+
+    /**
+     * 接收一个比对结果
+     *
+     * @param result      比对结果
+     * @param tableConfig 产生该结果的表比对配置，可为 null
+     */
+    void onResult(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig);
+}
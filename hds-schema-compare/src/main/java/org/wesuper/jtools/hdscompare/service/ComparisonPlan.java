@@ -0,0 +1,285 @@
+package org.wesuper.jtools.hdscompare.service;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+import org.wesuper.jtools.hdscompare.extractor.TypeCompatibilityMatrix;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRuleRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 比对计划
+ * 按 (源数据源类型, 目标数据源类型, 表比对配置) 编译一次：预先判定数据源组合适用哪些检查、
+ * 把忽略的差异类型解析为 {@link EnumSet}、忽略的字段放入哈希集合，选定注释的比较规则和默认值规范化器并编译适用的比对规则分发表，
+ * 之后对每一对表结构直接执行，不再逐字段重复判断数据源类型和查找配置列表。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class ComparisonPlan {
+
+    /**
+     * 可通过 ignoreTypes 忽略的检查项
+     */
+    public enum Check {
+        COMMENT, NULLABLE, DEFAULT, AUTO_INCREMENT, LENGTH, PRECISION, SCALE, INDEX, INDEX_DETAIL, UNIQUE, INDEX_TYPE
+    }
+
+    /**
+     * 注释比较规则
+     */
+    enum CommentRule {
+        /**
+         * MySQL 家族之间：null 与空字符串等价，去除首尾空格后比较
+         */
+        TRIMMED,
+        /**
+         * ES 与 MySQL 家族之间：注释不参与比较
+         */
+        IGNORED,
+        /**
+         * 其他组合：直接比较原始值
+         */
+        EXACT
+    }
+
+    private final String sourceType;
+    private final String targetType;
+    private final boolean sourceIsES;
+    private final boolean targetIsES;
+    private final boolean sourceIsPOJO;
+    private final boolean targetIsPOJO;
+    private final boolean sourceIsMySQLFamily;
+    private final boolean targetIsMySQLFamily;
+    private final int sourceDataSourceId;
+    private final int targetDataSourceId;
+    private final CommentRule commentRule;
+    private final DefaultValueNormalizer defaultValueNormalizer;
+    private final ComparisonRuleRegistry.DispatchTable rules;
+
+    private final Set<Check> ignoredChecks;
+    /**
+     * 全部忽略类型的原文，表属性的差异级别按大写的属性名查找，不局限于 {@link Check}
+     */
+    private final Set<String> ignoredTypeNames;
+    private final Set<String> ignoredFields;
+
+    /**
+     * 编译时的配置副本，用于发现配置在两次比对之间被修改
+     */
+    private final List<String> ignoreTypesSnapshot;
+    private final List<String> ignoreFieldsSnapshot;
+
+    private ComparisonPlan(String sourceType, String targetType, DataSourceCompareConfig.TableCompareConfig tableConfig,
+                           ComparisonRuleRegistry ruleRegistry) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.sourceIsES = DatabaseType.ELASTICSEARCH.equalsIgnoreCase(sourceType);
+        this.targetIsES = DatabaseType.ELASTICSEARCH.equalsIgnoreCase(targetType);
+        this.sourceIsPOJO = DatabaseType.POJO.equalsIgnoreCase(sourceType);
+        this.targetIsPOJO = DatabaseType.POJO.equalsIgnoreCase(targetType);
+        this.sourceIsMySQLFamily = isMySQLFamily(sourceType);
+        this.targetIsMySQLFamily = isMySQLFamily(targetType);
+        TypeCompatibilityMatrix matrix = TypeCompatibilityMatrix.getDefault();
+        this.sourceDataSourceId = matrix.dataSourceId(sourceType);
+        this.targetDataSourceId = matrix.dataSourceId(targetType);
+
+        if (sourceIsMySQLFamily && targetIsMySQLFamily) {
+            this.commentRule = CommentRule.TRIMMED;
+        } else if ((sourceIsES && targetIsMySQLFamily) || (sourceIsMySQLFamily && targetIsES)) {
+            this.commentRule = CommentRule.IGNORED;
+        } else {
+            this.commentRule = CommentRule.EXACT;
+        }
+        this.defaultValueNormalizer = DefaultValueNormalizer.getDefault();
+        this.rules = ruleRegistry.compile(sourceType, targetType);
+
+        List<String> ignoreTypes = tableConfig == null ? null : tableConfig.getIgnoreTypes();
+        List<String> ignoreFields = tableConfig == null ? null : tableConfig.getIgnoreFields();
+        this.ignoreTypesSnapshot = ignoreTypes == null ? null : new ArrayList<>(ignoreTypes);
+        this.ignoreFieldsSnapshot = ignoreFields == null ? null : new ArrayList<>(ignoreFields);
+
+        EnumSet<Check> checks = EnumSet.noneOf(Check.class);
+        Set<String> typeNames = new HashSet<>();
+        if (ignoreTypes != null) {
+            for (String ignoreType : ignoreTypes) {
+                if (ignoreType == null) {
+                    continue;
+                }
+                // 与配置原文精确匹配，大小写不同的写法不生效
+                for (Check check : Check.values()) {
+                    if (check.name().equals(ignoreType)) {
+                        checks.add(check);
+                    }
+                }
+                typeNames.add(ignoreType);
+            }
+        }
+        this.ignoredChecks = Collections.unmodifiableSet(checks);
+        this.ignoredTypeNames = Collections.unmodifiableSet(typeNames);
+        this.ignoredFields = ignoreFields == null
+                ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(ignoreFields));
+    }
+
+    /**
+     * 使用内置比对规则编译比对计划
+     *
+     * @param sourceType  源数据源类型
+     * @param targetType  目标数据源类型
+     * @param tableConfig 表比对配置，可为 null
+     * @return 比对计划
+     */
+    public static ComparisonPlan compile(String sourceType, String targetType,
+                                         DataSourceCompareConfig.TableCompareConfig tableConfig) {
+        return compile(sourceType, targetType, tableConfig, ComparisonRuleRegistry.builtIn());
+    }
+
+    /**
+     * 编译比对计划
+     *
+     * @param sourceType   源数据源类型
+     * @param targetType   目标数据源类型
+     * @param tableConfig  表比对配置，可为 null
+     * @param ruleRegistry 比对规则注册表
+     * @return 比对计划
+     */
+    public static ComparisonPlan compile(String sourceType, String targetType,
+                                         DataSourceCompareConfig.TableCompareConfig tableConfig,
+                                         ComparisonRuleRegistry ruleRegistry) {
+        return new ComparisonPlan(sourceType, targetType, tableConfig, ruleRegistry);
+    }
+
+    /**
+     * 计划的缓存键：数据源类型忽略大小写
+     */
+    static String key(String sourceType, String targetType) {
+        return String.valueOf(sourceType).toLowerCase(Locale.ROOT) + "->" + String.valueOf(targetType).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 计划是否仍与表比对配置一致
+     */
+    boolean isCompiledFrom(DataSourceCompareConfig.TableCompareConfig tableConfig) {
+        return Objects.equals(ignoreTypesSnapshot, tableConfig == null ? null : tableConfig.getIgnoreTypes())
+                && Objects.equals(ignoreFieldsSnapshot, tableConfig == null ? null : tableConfig.getIgnoreFields());
+    }
+
+    public boolean isIgnored(Check check) {
+        return ignoredChecks.contains(check);
+    }
+
+    /**
+     * 按名称判断差异类型是否被忽略，名称需与配置中的写法一致
+     */
+    public boolean isIgnoredType(String typeName) {
+        return ignoredTypeNames.contains(typeName);
+    }
+
+    public boolean isIgnoredField(String fieldName) {
+        return ignoredFields.contains(fieldName);
+    }
+
+    /**
+     * 判断两个注释是否相等，规则在编译时按数据源组合选定
+     */
+    public boolean isCommentEqual(String sourceComment, String targetComment) {
+        if (sourceComment == null && targetComment == null) {
+            return true;
+        }
+        switch (commentRule) {
+            case TRIMMED:
+                String normalizedSource = sourceComment == null ? "" : sourceComment.trim();
+                String normalizedTarget = targetComment == null ? "" : targetComment.trim();
+                return normalizedSource.equals(normalizedTarget);
+            case IGNORED:
+                return true;
+            default:
+                return Objects.equals(sourceComment, targetComment);
+        }
+    }
+
+    /**
+     * 默认值规范化器，目前各数据源组合都使用 MySQL/TiDB 默认值表达式的规范化器
+     */
+    public DefaultValueNormalizer getDefaultValueNormalizer() {
+        return defaultValueNormalizer;
+    }
+
+    /**
+     * 适用于该数据源组合的比对规则
+     */
+    public ComparisonRuleRegistry.DispatchTable getRules() {
+        return rules;
+    }
+
+    /**
+     * 任一端为 ES 或 POJO，此时只比对类型映射，不比对标准列属性和索引
+     */
+    public boolean isPojoOrEsComparison() {
+        return sourceIsES || targetIsES || sourceIsPOJO || targetIsPOJO;
+    }
+
+    /**
+     * 两端都是 MySQL 家族
+     */
+    public boolean isMySQLFamilyComparison() {
+        return sourceIsMySQLFamily && targetIsMySQLFamily;
+    }
+
+    public String getSourceType() {
+        return sourceType;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public boolean isSourceES() {
+        return sourceIsES;
+    }
+
+    public boolean isTargetES() {
+        return targetIsES;
+    }
+
+    public boolean isSourcePOJO() {
+        return sourceIsPOJO;
+    }
+
+    public boolean isTargetPOJO() {
+        return targetIsPOJO;
+    }
+
+    public boolean isSourceMySQLFamily() {
+        return sourceIsMySQLFamily;
+    }
+
+    public boolean isTargetMySQLFamily() {
+        return targetIsMySQLFamily;
+    }
+
+    /**
+     * 源数据源在 {@link TypeCompatibilityMatrix} 中的 ID
+     */
+    public int getSourceDataSourceId() {
+        return sourceDataSourceId;
+    }
+
+    /**
+     * 目标数据源在 {@link TypeCompatibilityMatrix} 中的 ID
+     */
+    public int getTargetDataSourceId() {
+        return targetDataSourceId;
+    }
+
+    private static boolean isMySQLFamily(String type) {
+        return DatabaseType.MYSQL.equalsIgnoreCase(type) || DatabaseType.TIDB.equalsIgnoreCase(type);
+    }
+}
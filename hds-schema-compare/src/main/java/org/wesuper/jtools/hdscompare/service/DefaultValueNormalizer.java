@@ -0,0 +1,311 @@
+package org.wesuper.jtools.hdscompare.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 列默认值规范化器
+ * 用手写扫描器把 MySQL/TiDB 的默认值表达式解析为规范化的类型化取值（NULL、CURRENT_TIMESTAMP(n)、数值、字符串字面量、表达式），
+ * 不使用正则表达式；解析结果按原始字符串缓存，同一默认值在整次比对中只解析一次。
+ * 等价规则：各种 NULL 写法互相等价，CURRENT_TIMESTAMP 不区分精度，数值按大小比较，字符串字面量与表达式按去掉引号后的文本比较。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class DefaultValueNormalizer {
+
+    /**
+     * 缓存的默认值数量上限，超过后新出现的默认值只解析不缓存
+     */
+    static final int MAX_CACHED_VALUES = 4096;
+
+    private static final String DEFAULT_KEYWORD = "default";
+    private static final String CURRENT_TIMESTAMP = "current_timestamp";
+
+    /**
+     * 去除 default 前缀和一层引号后仍表示 NULL 的写法
+     */
+    private static final Set<String> NULL_LITERALS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "", "null", "'null'", "\"null\"", "default null", "'default null'", "\"default null\"", "default", "''", "\"\"")));
+
+    private static final DefaultValueNormalizer DEFAULT = new DefaultValueNormalizer();
+
+    private final Map<String, DefaultValue> cache = new ConcurrentHashMap<>();
+
+    public static DefaultValueNormalizer getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 判断两个默认值是否等价
+     *
+     * @param sourceValue 源默认值
+     * @param targetValue 目标默认值
+     * @return 是否等价
+     */
+    public boolean isEquivalent(String sourceValue, String targetValue) {
+        if (sourceValue == null && targetValue == null) {
+            return true;
+        }
+        return normalize(sourceValue).isEquivalentTo(normalize(targetValue));
+    }
+
+    /**
+     * 规范化默认值
+     *
+     * @param rawValue 原始默认值，可为 null
+     * @return 规范化的默认值
+     */
+    public DefaultValue normalize(String rawValue) {
+        if (rawValue == null) {
+            return DefaultValue.NULL;
+        }
+        DefaultValue value = cache.get(rawValue);
+        if (value == null) {
+            value = parse(rawValue);
+            if (cache.size() < MAX_CACHED_VALUES) {
+                cache.putIfAbsent(rawValue, value);
+            }
+        }
+        return value;
+    }
+
+    static DefaultValue parse(String rawValue) {
+        int start = 0;
+        int end = rawValue.length();
+        while (start < end && rawValue.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && rawValue.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        // default 关键字后跟空白时去掉前缀，如 "DEFAULT 'abc'"
+        int keywordEnd = start + DEFAULT_KEYWORD.length();
+        if (keywordEnd < end && rawValue.regionMatches(true, start, DEFAULT_KEYWORD, 0, DEFAULT_KEYWORD.length())
+                && isWhitespace(rawValue.charAt(keywordEnd))) {
+            start = keywordEnd;
+            while (start < end && isWhitespace(rawValue.charAt(start))) {
+                start++;
+            }
+        }
+
+        // 依次去掉一层单引号和一层双引号
+        boolean quoted = false;
+        if (end - start >= 2 && rawValue.charAt(start) == '\'' && rawValue.charAt(end - 1) == '\'') {
+            start++;
+            end--;
+            quoted = true;
+        }
+        if (end - start >= 2 && rawValue.charAt(start) == '"' && rawValue.charAt(end - 1) == '"') {
+            start++;
+            end--;
+            quoted = true;
+        }
+
+        String text = rawValue.substring(start, end).toLowerCase(Locale.ROOT);
+        if (NULL_LITERALS.contains(text)) {
+            return DefaultValue.NULL;
+        }
+        int precision = parseCurrentTimestampPrecision(text);
+        if (precision >= 0) {
+            return new DefaultValue(DefaultValue.Kind.CURRENT_TIMESTAMP, text, null, precision);
+        }
+        BigDecimal number = parseNumber(text);
+        if (number != null) {
+            return new DefaultValue(DefaultValue.Kind.NUMERIC, text, number, 0);
+        }
+        return new DefaultValue(quoted ? DefaultValue.Kind.STRING : DefaultValue.Kind.EXPRESSION, text, null, 0);
+    }
+
+    /**
+     * 解析 current_timestamp、current_timestamp() 和 current_timestamp(n)
+     *
+     * @return 精度，不是 CURRENT_TIMESTAMP 时返回 -1
+     */
+    private static int parseCurrentTimestampPrecision(String text) {
+        if (!text.startsWith(CURRENT_TIMESTAMP)) {
+            return -1;
+        }
+        int length = text.length();
+        int prefix = CURRENT_TIMESTAMP.length();
+        if (length == prefix) {
+            return 0;
+        }
+        if (length < prefix + 2 || text.charAt(prefix) != '(' || text.charAt(length - 1) != ')') {
+            return -1;
+        }
+        int precision = 0;
+        for (int i = prefix + 1; i < length - 1; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            precision = Math.min(precision * 10 + (c - '0'), 1000);
+        }
+        return precision;
+    }
+
+    /**
+     * 解析 -?[0-9]+(.[0-9]+)?(e-?[0-9]+)? 形式的数值
+     *
+     * @return 数值，格式不符时返回 null
+     */
+    private static BigDecimal parseNumber(String text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && text.charAt(i) == '-') {
+            i++;
+        }
+        int digits = i;
+        i = skipDigits(text, i);
+        if (i == digits) {
+            return null;
+        }
+        if (i < length && text.charAt(i) == '.') {
+            digits = ++i;
+            i = skipDigits(text, i);
+            if (i == digits) {
+                return null;
+            }
+        }
+        if (i < length && text.charAt(i) == 'e') {
+            i++;
+            if (i < length && text.charAt(i) == '-') {
+                i++;
+            }
+            digits = i;
+            i = skipDigits(text, i);
+            if (i == digits) {
+                return null;
+            }
+        }
+        if (i != length) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            // 指数超出范围，按表达式处理
+            return null;
+        }
+    }
+
+    private static int skipDigits(String text, int index) {
+        while (index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * 与正则表达式 \s 相同的空白字符
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /**
+     * 规范化的默认值，不可变
+     */
+    public static final class DefaultValue {
+
+        /**
+         * 默认值种类
+         */
+        public enum Kind {
+            NULL, CURRENT_TIMESTAMP, NUMERIC, STRING, EXPRESSION
+        }
+
+        static final DefaultValue NULL = new DefaultValue(Kind.NULL, "null", null, 0);
+
+        private final Kind kind;
+        private final String text;
+        private final BigDecimal number;
+        private final int precision;
+
+        private DefaultValue(Kind kind, String text, BigDecimal number, int precision) {
+            this.kind = kind;
+            this.text = text;
+            this.number = number;
+            this.precision = precision;
+        }
+
+        /**
+         * 是否与另一个默认值等价
+         */
+        public boolean isEquivalentTo(DefaultValue other) {
+            if (kind != other.kind) {
+                // 字符串字面量与表达式都按去掉引号后的文本比较
+                return isText() && other.isText() && text.equals(other.text);
+            }
+            switch (kind) {
+                case NULL:
+                case CURRENT_TIMESTAMP:
+                    return true;
+                case NUMERIC:
+                    return number.compareTo(other.number) == 0;
+                default:
+                    return text.equals(other.text);
+            }
+        }
+
+        private boolean isText() {
+            return kind == Kind.STRING || kind == Kind.EXPRESSION;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * 去掉 default 前缀和引号后的小写文本
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * 数值，仅 {@link Kind#NUMERIC} 时存在
+         */
+        public BigDecimal getNumber() {
+            return number;
+        }
+
+        /**
+         * CURRENT_TIMESTAMP 的小数秒精度
+         */
+        public int getPrecision() {
+            return precision;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DefaultValue that = (DefaultValue) o;
+            return precision == that.precision && kind == that.kind && text.equals(that.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, text, precision);
+        }
+
+        @Override
+        public String toString() {
+            return kind + "(" + text + ")";
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.wesuper.jtools.hdscompare.service;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 单次比对运行内的表结构提取缓存
+ * 以 (数据源类型, 数据源名称, 表名) 为键，同一张物理表在多个比对配置中只提取一次；
+ * 并发请求同一张表时共享同一个进行中的提取任务。提取失败的结果同样会在本次运行内缓存，避免重复冲击数据源。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class ExtractionCache {
+
+    private final Map<Key, CompletableFuture<TableStructure>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 获取表结构，未缓存时在当前线程执行提取
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName        表名
+     * @param loader           提取逻辑
+     * @return 表结构
+     * @throws Exception 提取失败时抛出异常
+     */
+    public TableStructure get(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName,
+                              Callable<TableStructure> loader) throws Exception {
+        CompletableFuture<TableStructure> placeholder = new CompletableFuture<>();
+        CompletableFuture<TableStructure> existing = entries.putIfAbsent(new Key(dataSourceConfig, tableName), placeholder);
+        if (existing == null) {
+            try {
+                placeholder.complete(loader.call());
+            } catch (Exception e) {
+                placeholder.completeExceptionally(e);
+            }
+            existing = placeholder;
+        }
+
+        try {
+            return existing.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 异步获取表结构，未缓存时由 loader 发起提取
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName        表名
+     * @param loader           发起异步提取的逻辑
+     * @return 表结构
+     */
+    public CompletableFuture<TableStructure> getAsync(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName,
+                                                      Supplier<CompletableFuture<TableStructure>> loader) {
+        CompletableFuture<TableStructure> placeholder = new CompletableFuture<>();
+        CompletableFuture<TableStructure> existing = entries.putIfAbsent(new Key(dataSourceConfig, tableName), placeholder);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            loader.get().whenComplete((tableStructure, e) -> {
+                if (e != null) {
+                    placeholder.completeExceptionally(e);
+                } else {
+                    placeholder.complete(tableStructure);
+                }
+            });
+        } catch (RuntimeException e) {
+            placeholder.completeExceptionally(e);
+        }
+        return placeholder;
+    }
+
+    /**
+     * 放入已提取的表结构（如批量预提取的结果），已存在时保留原值
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName        表名
+     * @param tableStructure   表结构
+     */
+    public void put(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName, TableStructure tableStructure) {
+        if (tableStructure != null) {
+            entries.putIfAbsent(new Key(dataSourceConfig, tableName), CompletableFuture.completedFuture(tableStructure));
+        }
+    }
+
+    /**
+     * 是否已缓存或正在提取
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName        表名
+     * @return 是否存在
+     */
+    public boolean contains(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) {
+        return entries.containsKey(new Key(dataSourceConfig, tableName));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 缓存键
+     */
+    private static final class Key {
+        private final String type;
+        private final String dataSourceName;
+        private final String tableName;
+        private final Map<String, String> properties;
+
+        Key(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) {
+            this.type = dataSourceConfig.getType() == null ? null : dataSourceConfig.getType().toLowerCase(Locale.ROOT);
+            this.dataSourceName = dataSourceConfig.getDataSourceName();
+            this.tableName = tableName;
+            // 无需数据源名称的类型（如快照文件）通过扩展属性区分
+            this.properties = dataSourceConfig.getProperties();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(type, key.type)
+                    && Objects.equals(dataSourceName, key.dataSourceName)
+                    && Objects.equals(tableName, key.tableName)
+                    && Objects.equals(properties, key.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, dataSourceName, tableName, properties);
+        }
+    }
+}
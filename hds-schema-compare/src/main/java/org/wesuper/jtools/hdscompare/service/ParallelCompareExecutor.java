@@ -0,0 +1,335 @@
+package org.wesuper.jtools.hdscompare.service;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行比对执行器
+ * 使用有界线程池执行提取任务，按数据源限制并发数以避免耗尽连接池，并为每个任务设置超时时间。
+ * 超过数据源并发数的任务在该数据源自己的等待队列中排队，不占用工作线程；任务结束后先归还数据源名额再完成结果，
+ * 结果的后续阶段（比对、再次提交的任务）不会在持有名额时执行。线程池队列已满或执行器已关闭时，任务以
+ * {@link RejectedExecutionException} 异常完成，不会在提交线程上执行。
+ * 每次比对运行创建一个实例，运行结束后关闭。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class ParallelCompareExecutor implements AutoCloseable {
+
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService timeoutScheduler;
+
+    private final Map<String, DataSourceLane> lanes = new ConcurrentHashMap<>();
+
+    private final int maxConcurrencyPerDataSource;
+
+    private final long taskTimeoutMillis;
+
+    public ParallelCompareExecutor(DataSourceCompareConfig.ParallelConfig config) {
+        int threads = Math.max(1, config.getThreads());
+        int queueCapacity = Math.max(1, config.getQueueCapacity());
+        String poolName = "hdscompare-" + POOL_SEQUENCE.incrementAndGet();
+
+        this.maxConcurrencyPerDataSource = Math.max(1, config.getMaxConcurrencyPerDataSource());
+        this.taskTimeoutMillis = TimeUnit.SECONDS.toMillis(config.getTaskTimeoutSeconds());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), newThreadFactory(poolName + "-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(newThreadFactory(poolName + "-timeout"));
+    }
+
+    /**
+     * 单个任务的超时时间（毫秒），0 表示不限制
+     */
+    public long getTaskTimeoutMillis() {
+        return taskTimeoutMillis;
+    }
+
+    /**
+     * 提交提取任务
+     *
+     * @param dataSourceKey 数据源标识，为 null 时不限制并发
+     * @param task          任务
+     * @param <T>           结果类型
+     * @return 任务结果，超时后以 {@link TimeoutException} 异常完成并中断执行任务的线程
+     */
+    public <T> CompletableFuture<T> submit(String dataSourceKey, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        DataSourceLane lane = dataSourceKey == null ? null
+                : lanes.computeIfAbsent(dataSourceKey, k -> new DataSourceLane());
+        Task<T> wrapped = new Task<>(lane, task, future);
+        if (lane == null || lane.admit(wrapped)) {
+            if (!dispatch(wrapped)) {
+                releaseSlot(lane);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * 接管非阻塞提取的结果
+     * 结果转到工作线程上完成，后续比对不会占用客户端的 I/O 线程；超时从调用时开始计算。
+     * 线程池无法接收时结果以 {@link RejectedExecutionException} 异常完成，不会在 I/O 线程上执行后续比对。
+     *
+     * @param source 非阻塞提取的结果
+     * @param <T>    结果类型
+     * @return 在工作线程上完成的结果，超时后以 {@link TimeoutException} 异常完成
+     */
+    public <T> CompletableFuture<T> adopt(CompletableFuture<T> source) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = taskTimeoutMillis <= 0 ? null : timeoutScheduler.schedule(() ->
+                        future.completeExceptionally(new TimeoutException("Task timed out after " + taskTimeoutMillis + " ms")),
+                taskTimeoutMillis, TimeUnit.MILLISECONDS);
+        source.whenComplete((value, error) -> {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            try {
+                executor.execute(new Completion<>(future, value, error));
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 关闭执行器，尚未开始的任务和尚未转交的非阻塞提取结果以 {@link RejectedExecutionException} 异常完成
+     */
+    @Override
+    public void close() {
+        List<Runnable> notStarted = executor.shutdownNow();
+        timeoutScheduler.shutdownNow();
+
+        List<QueuedWork> cancelled = new ArrayList<>();
+        for (Runnable runnable : notStarted) {
+            if (runnable instanceof QueuedWork) {
+                cancelled.add((QueuedWork) runnable);
+            }
+        }
+        for (DataSourceLane lane : lanes.values()) {
+            cancelled.addAll(lane.drain());
+        }
+        for (QueuedWork work : cancelled) {
+            work.reject(new RejectedExecutionException("Parallel compare executor closed"));
+        }
+    }
+
+    /**
+     * 把任务交给线程池，线程池拒绝时任务以异常完成
+     *
+     * @return 是否已交给线程池
+     */
+    private boolean dispatch(Task<?> task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    /**
+     * 归还数据源名额：有排队的任务时直接转交给下一个任务，转交失败的任务也会归还名额
+     */
+    private void releaseSlot(DataSourceLane lane) {
+        if (lane == null) {
+            return;
+        }
+        Task<?> next;
+        while ((next = lane.release()) != null) {
+            if (dispatch(next)) {
+                return;
+            }
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 单个数据源的并发名额与等待队列
+     */
+    private final class DataSourceLane {
+
+        private final Deque<Task<?>> waiting = new ArrayDeque<>();
+
+        private int running;
+
+        /**
+         * 有空闲名额时占用名额并返回 true，否则排队等待
+         */
+        synchronized boolean admit(Task<?> task) {
+            if (running < maxConcurrencyPerDataSource) {
+                running++;
+                return true;
+            }
+            waiting.add(task);
+            return false;
+        }
+
+        /**
+         * 归还名额，有排队任务时名额直接转交给它
+         *
+         * @return 接手名额的任务，没有排队任务时为 null
+         */
+        synchronized Task<?> release() {
+            Task<?> next = waiting.poll();
+            if (next == null) {
+                running--;
+            }
+            return next;
+        }
+
+        synchronized List<Task<?>> drain() {
+            List<Task<?>> drained = new ArrayList<>(waiting);
+            waiting.clear();
+            return drained;
+        }
+    }
+
+    /**
+     * 在线程池中排队的工作，执行器关闭时尚未开始的以异常完成
+     */
+    private interface QueuedWork extends Runnable {
+
+        void reject(RejectedExecutionException e);
+    }
+
+    /**
+     * 在工作线程上完成接管的非阻塞提取结果
+     */
+    private static final class Completion<T> implements QueuedWork {
+
+        private final CompletableFuture<T> future;
+
+        private final T value;
+
+        private final Throwable error;
+
+        Completion(CompletableFuture<T> future, T value, Throwable error) {
+            this.future = future;
+            this.value = value;
+            this.error = error;
+        }
+
+        @Override
+        public void run() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(value);
+            }
+        }
+
+        @Override
+        public void reject(RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 提交到线程池的任务
+     */
+    private final class Task<T> implements QueuedWork {
+
+        private final DataSourceLane lane;
+
+        private final Callable<T> callable;
+
+        private final CompletableFuture<T> future;
+
+        private Thread runner;
+
+        Task(DataSourceLane lane, Callable<T> callable, CompletableFuture<T> future) {
+            this.lane = lane;
+            this.callable = callable;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                releaseSlot(lane);
+                return;
+            }
+
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            // 超时从获得数据源名额开始计算，排队等待名额的时间不计入
+            ScheduledFuture<?> timeout = null;
+            if (taskTimeoutMillis > 0) {
+                timeout = timeoutScheduler.schedule(this::timeout, taskTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+
+            T value = null;
+            Throwable error = null;
+            try {
+                value = callable.call();
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                synchronized (this) {
+                    runner = null;
+                }
+                // 清除超时留下的中断标记，避免影响线程池中的下一个任务
+                Thread.interrupted();
+            }
+
+            // 先归还名额再完成结果，后续阶段不在持有名额时执行
+            releaseSlot(lane);
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(value);
+            }
+        }
+
+        @Override
+        public void reject(RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        private void timeout() {
+            if (future.completeExceptionally(new TimeoutException("Task timed out after " + taskTimeoutMillis + " ms"))) {
+                synchronized (this) {
+                    if (runner != null) {
+                        runner.interrupt();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.wesuper.jtools.hdscompare.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
 import org.wesuper.jtools.hdscompare.model.CompareResult;
@@ -31,6 +32,33 @@ public interface TableStructureCompareService {
      * @return 比对结果列表
      */
     List<CompareResult> compareAllConfiguredTables();
+
+    /**
+     * 比对所有配置的表，每个比对结果按配置顺序交给监听器，用于流式输出报告
+     * 默认实现在全部比对完成后依次通知，实现类可以在结果产生时立即通知
+     *
+     * @param resultListener 比对结果监听器，可为 null
+     * @return 比对结果列表
+     */
+    default List<CompareResult> compareAllConfiguredTables(Consumer<CompareResult> resultListener) {
+        List<CompareResult> results = compareAllConfiguredTables();
+        if (resultListener != null) {
+            results.forEach(resultListener);
+        }
+        return results;
+    }
+
+    /**
+     * 比对所有配置的表，每个比对结果连同产生它的表配置按配置顺序交给监听器，不保留结果列表，用于流式输出报告
+     * 默认实现在全部比对完成后依次通知且不提供表配置，实现类应在结果产生时立即通知
+     *
+     * @param resultListener 比对结果监听器
+     */
+    default void streamAllConfiguredTables(CompareResultListener resultListener) {
+        for (CompareResult result : compareAllConfiguredTables()) {
+            resultListener.onResult(result, null);
+        }
+    }
     
     /**
      * 根据配置名称比对表
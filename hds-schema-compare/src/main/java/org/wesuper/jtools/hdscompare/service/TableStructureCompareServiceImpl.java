@@ -6,8 +6,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.ElasticsearchTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.extractor.PojoClassScanner;
+import org.wesuper.jtools.hdscompare.extractor.PojoTableNamingStrategy;
 import org.wesuper.jtools.hdscompare.extractor.TableStructureExtractor;
 import org.wesuper.jtools.hdscompare.extractor.TableStructureExtractorFactory;
+import org.wesuper.jtools.hdscompare.extractor.TypeCompatibilityMatrix;
+import org.wesuper.jtools.hdscompare.metrics.SchemaCompareMetrics;
+import org.wesuper.jtools.hdscompare.model.ColumnIndex;
 import org.wesuper.jtools.hdscompare.model.ColumnStructure;
 import org.wesuper.jtools.hdscompare.model.CompareResult;
 import org.wesuper.jtools.hdscompare.model.IndexStructure;
@@ -17,18 +23,45 @@ import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
 import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceType;
 import org.wesuper.jtools.hdscompare.model.CompareResult.IndexDifference;
 import org.wesuper.jtools.hdscompare.model.CompareResult.TableDifference;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRuleRegistry;
+import org.wesuper.jtools.hdscompare.rule.PropertyComparison;
 import org.wesuper.jtools.hdscompare.constants.DatabaseType;
-
+import org.wesuper.jtools.hdscompare.snapshot.CompareSnapshot;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaFingerprint;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaSnapshotStore;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileFormat;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileWriter;
+import org.wesuper.jtools.hdscompare.snapshot.TableSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 表结构比对服务实现
@@ -46,45 +79,20 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
     @Autowired
     private TableStructureExtractorFactory extractorFactory;
 
-    // ES特有的字段列表，在MySQL中不会出现
-    private static final Set<String> ES_SPECIFIC_FIELDS = new HashSet<>(Arrays.asList(
-        "number_of_replicas",
-        "number_of_shards",
-        "creation_date",
-        "uuid",
-        "provided_name",
-        "has_custom_analyzers",
-        "analyzer",
-        "search_analyzer",
-        "ignore_above",
-        "scaling_factor",
-        "_meta",
-        "_source",
-        "_all",
-        "_routing",
-        "_parent",
-        "_field_names",
-        "dynamic",
-        "dynamic_templates",
-        "properties",
-        "include_in_all",
-        "copy_to",
-        "fields",
-        "format",
-        "ignore_malformed",
-        "index_options",
-        "norms",
-        "null_value",
-        "position_increment_gap",
-        "search_quote_analyzer",
-        "similarity",
-        "term_vector"
-    ));
-    
-    // 静态成员区添加：
-    private static final Pattern DEFAULT_PREFIX_PATTERN = Pattern.compile("^default\\s+", Pattern.CASE_INSENSITIVE);
-    private static final Pattern LEADING_ZERO_PATTERN = Pattern.compile("^0+([1-9])");
-    private static final Pattern TRAILING_ZERO_PATTERN = Pattern.compile("\\.0+$");
+    @Autowired(required = false)
+    private SchemaSnapshotStore snapshotStore;
+
+    @Autowired(required = false)
+    private SchemaCompareMetrics metrics;
+
+    @Autowired(required = false)
+    private ComparisonRuleRegistry ruleRegistry;
+
+    /**
+     * 比对计划缓存，表比对配置按对象弱引用持有，内层按源/目标数据源类型区分
+     */
+    private final Map<DataSourceCompareConfig.TableCompareConfig, Map<String, ComparisonPlan>> comparisonPlans =
+            Collections.synchronizedMap(new WeakHashMap<>());
 
     @Override
     public CompareResult compareTableStructures(TableStructure sourceTable, TableStructure targetTable,
@@ -102,17 +110,19 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
         result.setSourceTable(sourceTable);
         result.setTargetTable(targetTable);
 
+        ComparisonPlan plan = getComparisonPlan(sourceTable.getSourceType(), targetTable.getSourceType(), config);
+
         // 1. 比对表级属性
-        compareTableProperties(result, config);
+        runPhase(SchemaCompareMetrics.Phase.TABLE_PROPERTIES, () -> compareTableProperties(result, plan));
 
         // 2. 比对列结构
-        compareColumns(result, config);
+        runPhase(SchemaCompareMetrics.Phase.COLUMNS, () -> compareColumns(result, plan));
 
         // 3. 比对索引结构
-        compareIndexes(result, config);
+        runPhase(SchemaCompareMetrics.Phase.INDEXES, () -> compareIndexes(result, plan));
 
         // 4. 计算整体匹配度
-        calculateMatchPercentage(result);
+        runPhase(SchemaCompareMetrics.Phase.MATCH_PERCENTAGE, () -> calculateMatchPercentage(result));
 
         if (result.getColumnDifferences().isEmpty() &&
                 result.getIndexDifferences().isEmpty() &&
@@ -121,31 +131,95 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
             result.setMatchPercentage(100.0);
         }
 
+        if (metrics != null) {
+            metrics.recordComparison(result);
+        }
         return result;
     }
 
     @Override
     public List<CompareResult> compareAllConfiguredTables() {
+        return compareAllConfiguredTables(null);
+    }
+
+    @Override
+    public List<CompareResult> compareAllConfiguredTables(Consumer<CompareResult> resultListener) {
         List<CompareResult> results = new ArrayList<>();
+        streamAllConfiguredTables((result, tableConfig) -> {
+            results.add(result);
+            if (resultListener != null) {
+                resultListener.accept(result);
+            }
+        });
+        return results;
+    }
 
+    @Override
+    public void streamAllConfiguredTables(CompareResultListener resultListener) {
         List<DataSourceCompareConfig.CompareConfig> configs = dataSourceConfig.getCompareConfigs();
         if (configs == null || configs.isEmpty()) {
             logger.warn("No table compare configurations found");
-            return results;
+            return;
         }
 
-        for (DataSourceCompareConfig.CompareConfig config : configs) {
-            try {
-                List<CompareResult> configResults = compareTablesByConfig(config);
-                if (configResults != null) {
-                    results.addAll(configResults);
+        // 只累加差异数量，不保留比对结果
+        SchemaCompareMetrics.Run run = metrics != null ? metrics.startRun() : null;
+        CompareResultListener listener = (result, tableConfig) -> {
+            if (run != null) {
+                run.add(result);
+            }
+            notifyResultListener(resultListener, result, tableConfig);
+        };
+
+        DataSourceCompareConfig.ParallelConfig parallelConfig = dataSourceConfig.getParallel();
+        if (parallelConfig != null && parallelConfig.isEnabled()) {
+            compareConfigsInParallel(configs, parallelConfig, listener);
+        } else {
+            ExtractionCache extractionCache = createExtractionCache();
+            for (DataSourceCompareConfig.CompareConfig config : configs) {
+                try {
+                    compareTablesByConfig(config, extractionCache, listener);
+                } catch (Exception e) {
+                    logger.error("Failed to compare tables for config {}: {}", config.getName(), e.getMessage(), e);
                 }
-            } catch (Exception e) {
-                logger.error("Failed to compare tables for config {}: {}", config.getName(), e.getMessage(), e);
             }
         }
 
-        return results;
+        exportSnapshotFile();
+        if (run != null) {
+            run.finish();
+        }
+    }
+
+    /**
+     * 将快照存储中的所有表结构导出为单个快照文件，供 snapshot 类型的数据源离线比对使用
+     */
+    private void exportSnapshotFile() {
+        if (!isSnapshotEnabled() || !StringUtils.hasText(dataSourceConfig.getSnapshot().getExportFile())) {
+            return;
+        }
+
+        Path exportFile = Paths.get(dataSourceConfig.getSnapshot().getExportFile());
+        SnapshotFileFormat format = SnapshotFileFormat.resolve(dataSourceConfig.getSnapshot().getExportFormat(), exportFile);
+        SnapshotFileWriter writer = null;
+        try {
+            SnapshotFileWriter snapshotWriter = format.openWriter(exportFile);
+            writer = snapshotWriter;
+            snapshotStore.forEachTable(snapshot -> {
+                try {
+                    snapshotWriter.write(snapshot);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            snapshotWriter.close();
+            logger.info("Exported {} table snapshots to {}", snapshotWriter.getTableCount(), exportFile);
+        } catch (IOException | UncheckedIOException e) {
+            if (writer != null) {
+                writer.discard();
+            }
+            logger.warn("Failed to export snapshot file {}: {}", exportFile, e.getMessage());
+        }
     }
 
     @Override
@@ -164,8 +238,9 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
             return null;
         }
 
-        List<CompareResult> results = compareTablesByConfig(config);
-        return results != null && !results.isEmpty() ? results.get(0) : null;
+        List<CompareResult> results = new ArrayList<>();
+        compareTablesByConfig(config, createExtractionCache(), (result, tableConfig) -> results.add(result));
+        return !results.isEmpty() ? results.get(0) : null;
     }
 
     @Override
@@ -185,43 +260,60 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
             throw new IllegalArgumentException("No extractor found for source type: " + sourceType);
         }
 
-        return extractor.extractTableStructure(dataSourceConfig, tableName);
+        if (metrics == null) {
+            return extractor.extractTableStructure(dataSourceConfig, tableName);
+        }
+        return metrics.recordExtraction(sourceType, dataSourceConfig.getDataSourceName(), false, 1,
+                () -> extractor.extractTableStructure(dataSourceConfig, tableName));
     }
 
     /**
      * 根据比对配置比对表结构
      *
-     * @param config 比对配置
-     * @return 比对结果列表
+     * @param config          比对配置
+     * @param extractionCache 提取缓存，未启用时为 null
+     * @param resultListener  比对结果监听器
      */
-    private List<CompareResult> compareTablesByConfig(DataSourceCompareConfig.CompareConfig config) {
-        List<CompareResult> results = new ArrayList<>();
-
+    private void compareTablesByConfig(DataSourceCompareConfig.CompareConfig config,
+                                       ExtractionCache extractionCache,
+                                       CompareResultListener resultListener) {
         try {
             // 获取源数据源配置
             DataSourceCompareConfig.DataSourceConfig sourceConfig = config.getSourceDataSource();
             // 获取目标数据源配置
             DataSourceCompareConfig.DataSourceConfig targetConfig = config.getTargetDataSource();
 
+            List<DataSourceCompareConfig.TableCompareConfig> tableConfigs = expandTableConfigs(config);
+
+            // 批量模式下一次性提取源端和目标端的所有表结构
+            Set<String> sourceTableNames = new LinkedHashSet<>();
+            Set<String> targetTableNames = new LinkedHashSet<>();
+            for (DataSourceCompareConfig.TableCompareConfig tableConfig : tableConfigs) {
+                sourceTableNames.add(tableConfig.getSourceTableName());
+                targetTableNames.add(tableConfig.getTargetTableName());
+            }
+            Map<String, TableStructure> sourceTables = prefetchTableStructures(sourceConfig,
+                    uncachedTableNames(sourceConfig, sourceTableNames, extractionCache),
+                    isPackageScanned(config, sourceConfig));
+            Map<String, TableStructure> targetTables = prefetchTableStructures(targetConfig,
+                    uncachedTableNames(targetConfig, targetTableNames, extractionCache),
+                    isPackageScanned(config, targetConfig));
+
             // 遍历每个表的比对配置
-            for (DataSourceCompareConfig.TableCompareConfig tableConfig : config.getTableConfigs()) {
+            for (DataSourceCompareConfig.TableCompareConfig tableConfig : tableConfigs) {
                 try {
                     // 获取源表结构
-                    TableStructure sourceTable = getTableStructure(sourceConfig, tableConfig.getSourceTableName());
+                    TableStructure sourceTable = resolveTableStructure(sourceConfig, tableConfig.getSourceTableName(),
+                            sourceTables, extractionCache);
                     // 获取目标表结构
-                    TableStructure targetTable = getTableStructure(targetConfig, tableConfig.getTargetTableName());
-
-                    // 创建临时配置用于比对
-                    DataSourceCompareConfig.CompareConfig tempConfig = new DataSourceCompareConfig.CompareConfig();
-                    tempConfig.setName(config.getName());
-                    tempConfig.setSourceDataSource(sourceConfig);
-                    tempConfig.setTargetDataSource(targetConfig);
-                    tempConfig.setTableConfigs(Collections.singletonList(tableConfig));
+                    TableStructure targetTable = resolveTableStructure(targetConfig, tableConfig.getTargetTableName(),
+                            targetTables, extractionCache);
 
                     // 比对结构
-                    CompareResult result = compareTableStructures(sourceTable, targetTable, tempConfig);
+                    CompareResult result = compareIncrementally(sourceTable, targetTable,
+                            createTableCompareConfig(config, tableConfig));
                     if (result != null) {
-                        results.add(result);
+                        resultListener.onResult(result, tableConfig);
                     }
                 } catch (Exception e) {
                     logger.error("Failed to compare tables {} vs {}: {}",
@@ -233,32 +325,541 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
         } catch (Exception e) {
             logger.error("Failed to compare tables with config {}: {}", config.getName(), e.getMessage(), e);
         }
+    }
 
-        return results;
+    /**
+     * 并行比对所有配置项
+     * 源端与目标端的提取、不同表之间的比对并发执行，结果按配置顺序交给监听器，交出后不再持有
+     *
+     * @param configs        比对配置列表
+     * @param parallelConfig 并行配置
+     * @param resultListener 比对结果监听器
+     */
+    private void compareConfigsInParallel(List<DataSourceCompareConfig.CompareConfig> configs,
+                                          DataSourceCompareConfig.ParallelConfig parallelConfig,
+                                          CompareResultListener resultListener) {
+        int completed = 0;
+        Deque<PendingCompare> pendingCompares = new ArrayDeque<>();
+        ExtractionCache extractionCache = createExtractionCache();
+
+        try (ParallelCompareExecutor executor = new ParallelCompareExecutor(parallelConfig)) {
+            for (DataSourceCompareConfig.CompareConfig config : configs) {
+                DataSourceCompareConfig.DataSourceConfig sourceConfig = config.getSourceDataSource();
+                DataSourceCompareConfig.DataSourceConfig targetConfig = config.getTargetDataSource();
+                if (config.getTableConfigs() == null) {
+                    continue;
+                }
+                List<DataSourceCompareConfig.TableCompareConfig> tableConfigs = expandTableConfigs(config);
+
+                Set<String> sourceTableNames = new LinkedHashSet<>();
+                Set<String> targetTableNames = new LinkedHashSet<>();
+                for (DataSourceCompareConfig.TableCompareConfig tableConfig : tableConfigs) {
+                    sourceTableNames.add(tableConfig.getSourceTableName());
+                    targetTableNames.add(tableConfig.getTargetTableName());
+                }
+                CompletableFuture<Map<String, TableStructure>> sourceTables =
+                        prefetchTableStructuresAsync(executor, sourceConfig,
+                                uncachedTableNames(sourceConfig, sourceTableNames, extractionCache),
+                                isPackageScanned(config, sourceConfig));
+                CompletableFuture<Map<String, TableStructure>> targetTables =
+                        prefetchTableStructuresAsync(executor, targetConfig,
+                                uncachedTableNames(targetConfig, targetTableNames, extractionCache),
+                                isPackageScanned(config, targetConfig));
+
+                for (DataSourceCompareConfig.TableCompareConfig tableConfig : tableConfigs) {
+                    CompletableFuture<TableStructure> sourceTable = resolveTableStructureAsync(executor, sourceConfig,
+                            tableConfig.getSourceTableName(), sourceTables, extractionCache);
+                    CompletableFuture<TableStructure> targetTable = resolveTableStructureAsync(executor, targetConfig,
+                            tableConfig.getTargetTableName(), targetTables, extractionCache);
+                    DataSourceCompareConfig.CompareConfig tableCompareConfig = createTableCompareConfig(config, tableConfig);
+
+                    pendingCompares.add(new PendingCompare(tableConfig, sourceTable.thenCombine(targetTable,
+                            (source, target) -> compareIncrementally(source, target, tableCompareConfig))));
+                }
+            }
+
+            // 按配置顺序收集结果；一次比对最多依赖批量提取、单表提取和比对三个阶段，等待时间按任务超时的三倍限制
+            long resultWaitMillis = executor.getTaskTimeoutMillis() * 3;
+            PendingCompare pendingCompare;
+            while ((pendingCompare = pendingCompares.poll()) != null) {
+                try {
+                    CompareResult result = resultWaitMillis > 0
+                            ? pendingCompare.result.get(resultWaitMillis, TimeUnit.MILLISECONDS)
+                            : pendingCompare.result.get();
+                    if (result != null) {
+                        completed++;
+                        resultListener.onResult(result, pendingCompare.tableConfig);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Parallel comparison interrupted after {} completed results", completed);
+                    break;
+                } catch (ExecutionException e) {
+                    Throwable cause = unwrapCompletionException(e.getCause());
+                    logger.error("Failed to compare tables {} vs {}: {}",
+                            pendingCompare.tableConfig.getSourceTableName(),
+                            pendingCompare.tableConfig.getTargetTableName(),
+                            cause.getMessage(), cause);
+                } catch (TimeoutException e) {
+                    pendingCompare.result.cancel(true);
+                    logger.error("Timed out after {} ms waiting for comparison of tables {} vs {}",
+                            resultWaitMillis, pendingCompare.tableConfig.getSourceTableName(),
+                            pendingCompare.tableConfig.getTargetTableName());
+                }
+            }
+        }
+    }
+
+    /**
+     * 通知比对结果监听器，监听器的异常不影响后续比对
+     */
+    private void notifyResultListener(CompareResultListener resultListener, CompareResult result,
+                                      DataSourceCompareConfig.TableCompareConfig tableConfig) {
+        if (resultListener == null) {
+            return;
+        }
+        try {
+            resultListener.onResult(result, tableConfig);
+        } catch (RuntimeException e) {
+            logger.warn("Compare result listener failed for {}: {}", result.getName(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 异步预先提取表结构，失败时返回空映射，由调用方逐表提取
+     */
+    private CompletableFuture<Map<String, TableStructure>> prefetchTableStructuresAsync(ParallelCompareExecutor executor,
+                                                                                     DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                                                     Collection<String> tableNames,
+                                                                                     boolean packageScanned) {
+        if (!this.dataSourceConfig.isBulkExtractionEnabled() && !packageScanned) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return executor.submit(dataSourceKey(dataSourceConfig),
+                        () -> prefetchTableStructures(dataSourceConfig, tableNames, packageScanned))
+                .exceptionally(e -> {
+                    logger.warn("Bulk extraction failed for data source {}, falling back to per-table extraction: {}",
+                            dataSourceConfig.getDataSourceName(), unwrapCompletionException(e).getMessage());
+                    return Collections.emptyMap();
+                });
+    }
+
+    /**
+     * 异步获取表结构，优先使用缓存和预先提取的结果
+     * 启用缓存时，预提取完成前即登记该表，其他比对配置对同一张表的请求会等待同一个提取结果
+     */
+    private CompletableFuture<TableStructure> resolveTableStructureAsync(ParallelCompareExecutor executor,
+                                                                         DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                                         String tableName,
+                                                                         CompletableFuture<Map<String, TableStructure>> prefetch,
+                                                                         ExtractionCache extractionCache) {
+        Supplier<CompletableFuture<TableStructure>> loader = () -> prefetch.thenCompose(prefetched -> {
+            TableStructure tableStructure = prefetched.get(tableName);
+            if (tableStructure != null) {
+                return CompletableFuture.completedFuture(tableStructure);
+            }
+            return extractTableStructureAsync(executor, dataSourceConfig, tableName);
+        });
+        return extractionCache != null ? extractionCache.getAsync(dataSourceConfig, tableName, loader) : loader.get();
+    }
+
+    /**
+     * 异步提取表结构
+     * 提取器支持非阻塞提取且未启用快照时直接发起异步请求，等待响应期间不占用工作线程；
+     * 否则（包括需要探测版本和写快照的情况）在工作线程上同步提取。
+     */
+    private CompletableFuture<TableStructure> extractTableStructureAsync(ParallelCompareExecutor executor,
+                                                                         DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                                         String tableName) {
+        TableStructureExtractor extractor = extractorFactory.getExtractor(dataSourceConfig.getType());
+        if (extractor == null || !extractor.supportsAsyncExtraction() || isSnapshotEnabled()) {
+            return executor.submit(dataSourceKey(dataSourceConfig), () -> extractTableStructure(dataSourceConfig, tableName));
+        }
+        return executor.adopt(metrics == null
+                ? extractor.extractTableStructureAsync(dataSourceConfig, tableName)
+                : metrics.recordExtractionAsync(dataSourceConfig.getType(), dataSourceConfig.getDataSourceName(),
+                        () -> extractor.extractTableStructureAsync(dataSourceConfig, tableName)));
+    }
+
+    /**
+     * 创建单次运行使用的提取缓存
+     *
+     * @return 提取缓存，未启用时返回 null
+     */
+    private ExtractionCache createExtractionCache() {
+        return dataSourceConfig.isExtractionCacheEnabled() ? new ExtractionCache() : null;
+    }
+
+    /**
+     * 过滤掉已缓存或正在提取的表，避免批量预提取重复查询
+     */
+    private Collection<String> uncachedTableNames(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                  Collection<String> tableNames, ExtractionCache extractionCache) {
+        if (extractionCache == null || dataSourceConfig == null) {
+            return tableNames;
+        }
+        return tableNames.stream()
+                .filter(tableName -> !extractionCache.contains(dataSourceConfig, tableName))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * 生成用于并发限制的数据源标识，无需连接的数据源（如POJO）不限制并发
+     */
+    private String dataSourceKey(DataSourceCompareConfig.DataSourceConfig dataSourceConfig) {
+        if (dataSourceConfig == null || !StringUtils.hasText(dataSourceConfig.getDataSourceName())) {
+            return null;
+        }
+        return dataSourceConfig.getType() + ":" + dataSourceConfig.getDataSourceName();
+    }
+
+    private static Throwable unwrapCompletionException(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * 结合快照存储进行比对
+     * 增量模式下两端表结构指纹和比对配置指纹与上次记录一致时，直接复用上次的比对结果，跳过列和索引的比对；
+     * 否则执行完整比对并记录本次的比对结果（表结构快照在提取时记录）。快照读写失败不影响比对本身。
+     *
+     * @param sourceTable 源表结构
+     * @param targetTable 目标表结构
+     * @param config      仅包含单个表配置的比对配置
+     * @return 比对结果
+     */
+    private CompareResult compareIncrementally(TableStructure sourceTable, TableStructure targetTable,
+                                               DataSourceCompareConfig.CompareConfig config) {
+        if (!isSnapshotEnabled() || sourceTable == null || targetTable == null) {
+            return compareTableStructures(sourceTable, targetTable, config);
+        }
+
+        DataSourceCompareConfig.DataSourceConfig sourceConfig = config.getSourceDataSource();
+        DataSourceCompareConfig.DataSourceConfig targetConfig = config.getTargetDataSource();
+        String sourceKey = TableSnapshot.key(sourceConfig.getType(), sourceConfig.getDataSourceName(), sourceTable.getTableName());
+        String targetKey = TableSnapshot.key(targetConfig.getType(), targetConfig.getDataSourceName(), targetTable.getTableName());
+        String compareKey = config.getName() + "|" + sourceKey + "|" + targetKey;
+        String configFingerprint = SchemaFingerprint.of(config, getRuleRegistry());
+        String sourceFingerprint = SchemaFingerprint.of(sourceTable);
+        String targetFingerprint = SchemaFingerprint.of(targetTable);
+
+        if (dataSourceConfig.getSnapshot().isIncremental()) {
+            try {
+                CompareSnapshot previous = snapshotStore.loadCompare(compareKey);
+                if (previous != null && previous.matches(configFingerprint, sourceFingerprint, targetFingerprint)) {
+                    logger.info("Table structures unchanged since last comparison, reusing result: {} vs {}",
+                            sourceTable.getTableName(), targetTable.getTableName());
+                    CompareResult result = previous.getResult();
+                    result.setName(config.getName());
+                    result.setSourceTable(sourceTable);
+                    result.setTargetTable(targetTable);
+                    return result;
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to load compare snapshot {}, running full comparison: {}", compareKey, e.getMessage());
+            }
+        }
+
+        CompareResult result = compareTableStructures(sourceTable, targetTable, config);
+        try {
+            snapshotStore.saveCompare(new CompareSnapshot(compareKey, configFingerprint,
+                    sourceFingerprint, targetFingerprint, result));
+        } catch (Exception e) {
+            logger.warn("Failed to save snapshot for {}: {}", compareKey, e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 提取表结构
+     * 启用快照时先探测表结构版本，增量模式下版本与快照记录一致则直接使用快照中的表结构，跳过完整提取；
+     * 完整提取的结果连同探测到的版本写入快照。
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName        表名
+     * @return 表结构
+     * @throws Exception 提取失败时抛出异常
+     */
+    private TableStructure extractTableStructure(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                 String tableName) throws Exception {
+        if (!isSnapshotEnabled()) {
+            return getTableStructure(dataSourceConfig, tableName);
+        }
+
+        String probe = probeSchemaVersion(dataSourceConfig, tableName);
+        if (probe != null && this.dataSourceConfig.getSnapshot().isIncremental()) {
+            try {
+                TableSnapshot previous = snapshotStore.loadTable(dataSourceConfig.getType(),
+                        dataSourceConfig.getDataSourceName(), tableName);
+                if (previous != null && previous.getTableStructure() != null && probe.equals(previous.getProbe())) {
+                    logger.info("Schema version of {} unchanged since last extraction, using snapshot", tableName);
+                    return previous.getTableStructure();
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to load table snapshot for {}, extracting: {}", tableName, e.getMessage());
+            }
+        }
+
+        TableStructure tableStructure = getTableStructure(dataSourceConfig, tableName);
+        saveTableSnapshot(dataSourceConfig, tableName, tableStructure, probe);
+        return tableStructure;
+    }
+
+    /**
+     * 探测表结构版本，提取器不支持或探测失败时返回 null
+     */
+    private String probeSchemaVersion(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName) {
+        TableStructureExtractor extractor = extractorFactory.getExtractor(dataSourceConfig.getType());
+        if (extractor == null) {
+            return null;
+        }
+        try {
+            return extractor.probeSchemaVersion(dataSourceConfig, tableName);
+        } catch (Exception e) {
+            logger.warn("Schema version probe failed for {}, falling back to full extraction: {}", tableName, e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveTableSnapshot(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName,
+                                   TableStructure tableStructure, String probe) {
+        if (tableStructure == null) {
+            return;
+        }
+        try {
+            TableSnapshot snapshot = new TableSnapshot(dataSourceConfig.getType(), dataSourceConfig.getDataSourceName(),
+                    tableName, SchemaFingerprint.of(tableStructure), tableStructure);
+            snapshot.setProbe(probe);
+            snapshotStore.saveTable(snapshot);
+        } catch (Exception e) {
+            logger.warn("Failed to save table snapshot for {}: {}", tableName, e.getMessage());
+        }
+    }
+
+    /**
+     * 执行比对阶段，注册了指标时记录阶段耗时
+     */
+    private void runPhase(SchemaCompareMetrics.Phase phase, Runnable task) {
+        if (metrics == null) {
+            task.run();
+        } else {
+            metrics.recordPhase(phase, task);
+        }
+    }
+
+    private boolean isSnapshotEnabled() {
+        return snapshotStore != null && dataSourceConfig.getSnapshot() != null && dataSourceConfig.getSnapshot().isEnabled();
+    }
+
+    /**
+     * 获取比对计划，同一表比对配置和数据源组合只编译一次；配置的忽略项被修改后重新编译
+     *
+     * @param sourceType 源数据源类型
+     * @param targetType 目标数据源类型
+     * @param config     比对配置
+     * @return 比对计划
+     */
+    private ComparisonPlan getComparisonPlan(String sourceType, String targetType,
+                                             DataSourceCompareConfig.CompareConfig config) {
+        DataSourceCompareConfig.TableCompareConfig tableConfig =
+                config.getTableConfigs() == null || config.getTableConfigs().isEmpty() ? null : config.getTableConfigs().get(0);
+        if (tableConfig == null) {
+            return ComparisonPlan.compile(sourceType, targetType, null, getRuleRegistry());
+        }
+
+        Map<String, ComparisonPlan> plans = comparisonPlans.computeIfAbsent(tableConfig, k -> new ConcurrentHashMap<>());
+        String key = ComparisonPlan.key(sourceType, targetType);
+        ComparisonPlan plan = plans.get(key);
+        if (plan == null || !plan.isCompiledFrom(tableConfig)) {
+            plan = ComparisonPlan.compile(sourceType, targetType, tableConfig, getRuleRegistry());
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * 比对规则注册表，未配置时只使用内置规则
+     */
+    private ComparisonRuleRegistry getRuleRegistry() {
+        return ruleRegistry != null ? ruleRegistry : ComparisonRuleRegistry.builtIn();
+    }
+
+    /**
+     * 展开包扫描模式的表比对配置
+     * 设置了实体包名的表配置按包扫描展开：扫描包下的实体类（只读取 class 文件，不加载类），
+     * 每个类按命名策略推导对端表名，生成一个共享忽略配置的表配置；其他表配置保持不变。
+     *
+     * @param config 比对配置
+     * @return 展开后的表比对配置列表
+     */
+    private List<DataSourceCompareConfig.TableCompareConfig> expandTableConfigs(DataSourceCompareConfig.CompareConfig config) {
+        if (config.getTableConfigs() == null) {
+            return Collections.emptyList();
+        }
+        List<DataSourceCompareConfig.TableCompareConfig> tableConfigs = new ArrayList<>();
+        for (DataSourceCompareConfig.TableCompareConfig tableConfig : config.getTableConfigs()) {
+            if (!StringUtils.hasText(tableConfig.getEntityPackage())) {
+                tableConfigs.add(tableConfig);
+                continue;
+            }
+
+            boolean sourceIsPojo = isPojo(config.getSourceDataSource());
+            if (!sourceIsPojo && !isPojo(config.getTargetDataSource())) {
+                logger.warn("Entity package {} in config {} ignored: neither data source is of type pojo",
+                        tableConfig.getEntityPackage(), config.getName());
+                continue;
+            }
+            PojoTableNamingStrategy namingStrategy;
+            try {
+                namingStrategy = PojoTableNamingStrategy.of(tableConfig.getNamingStrategy());
+            } catch (IllegalArgumentException e) {
+                logger.error("Entity package {} in config {} ignored: {}", tableConfig.getEntityPackage(),
+                        config.getName(), e.getMessage(), e);
+                continue;
+            }
+
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            for (String className : PojoClassScanner.scan(tableConfig.getEntityPackage(),
+                    classLoader != null ? classLoader : getClass().getClassLoader())) {
+                String tableName = namingStrategy.tableName(className);
+                DataSourceCompareConfig.TableCompareConfig entityConfig = new DataSourceCompareConfig.TableCompareConfig();
+                entityConfig.setSourceTableName(sourceIsPojo ? className : tableName);
+                entityConfig.setTargetTableName(sourceIsPojo ? tableName : className);
+                entityConfig.setIgnoreFields(tableConfig.getIgnoreFields());
+                entityConfig.setIgnoreTypes(tableConfig.getIgnoreTypes());
+                tableConfigs.add(entityConfig);
+            }
+        }
+        return tableConfigs;
+    }
+
+    /**
+     * 比对配置中是否有包扫描模式的表配置，且指定的数据源为 POJO
+     */
+    private boolean isPackageScanned(DataSourceCompareConfig.CompareConfig config,
+                                     DataSourceCompareConfig.DataSourceConfig dataSourceConfig) {
+        if (!isPojo(dataSourceConfig) || config.getTableConfigs() == null) {
+            return false;
+        }
+        for (DataSourceCompareConfig.TableCompareConfig tableConfig : config.getTableConfigs()) {
+            if (StringUtils.hasText(tableConfig.getEntityPackage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPojo(DataSourceCompareConfig.DataSourceConfig dataSourceConfig) {
+        return dataSourceConfig != null && DatabaseType.POJO.equalsIgnoreCase(dataSourceConfig.getType());
+    }
+
+    /**
+     * 创建单表比对使用的临时配置
+     *
+     * @param config      比对配置
+     * @param tableConfig 表比对配置
+     * @return 仅包含单个表配置的比对配置
+     */
+    private DataSourceCompareConfig.CompareConfig createTableCompareConfig(DataSourceCompareConfig.CompareConfig config,
+                                                                          DataSourceCompareConfig.TableCompareConfig tableConfig) {
+        DataSourceCompareConfig.CompareConfig tempConfig = new DataSourceCompareConfig.CompareConfig();
+        tempConfig.setName(config.getName());
+        tempConfig.setSourceDataSource(config.getSourceDataSource());
+        tempConfig.setTargetDataSource(config.getTargetDataSource());
+        tempConfig.setTableConfigs(Collections.singletonList(tableConfig));
+        return tempConfig;
+    }
+
+    /**
+     * 等待完成的单表比对任务
+     */
+    private static class PendingCompare {
+        private final DataSourceCompareConfig.TableCompareConfig tableConfig;
+        private final CompletableFuture<CompareResult> result;
+
+        PendingCompare(DataSourceCompareConfig.TableCompareConfig tableConfig, CompletableFuture<CompareResult> result) {
+            this.tableConfig = tableConfig;
+            this.result = result;
+        }
+    }
+
+    /**
+     * 批量模式下预先提取表结构，提取器不支持批量或批量提取失败时返回空映射，由调用方逐表提取
+     * 包扫描展开的 POJO 端不受批量模式开关限制，总是一次性并行提取
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableNames       表名集合
+     * @param packageScanned   是否为包扫描展开的 POJO 端
+     * @return 表名到表结构的映射
+     */
+    private Map<String, TableStructure> prefetchTableStructures(DataSourceCompareConfig.DataSourceConfig dataSourceConfig,
+                                                                Collection<String> tableNames, boolean packageScanned) {
+        if ((!this.dataSourceConfig.isBulkExtractionEnabled() && !packageScanned)
+                || dataSourceConfig == null || tableNames.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        TableStructureExtractor extractor = extractorFactory.getExtractor(dataSourceConfig.getType());
+        if (extractor == null || !extractor.supportsBulkExtraction()) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            Map<String, TableStructure> tableStructures = metrics == null
+                    ? extractor.extractTableStructures(dataSourceConfig, tableNames)
+                    : metrics.recordExtraction(dataSourceConfig.getType(), dataSourceConfig.getDataSourceName(),
+                            true, tableNames.size(), () -> extractor.extractTableStructures(dataSourceConfig, tableNames));
+            if (isSnapshotEnabled()) {
+                tableStructures.forEach((tableName, tableStructure) ->
+                        saveTableSnapshot(dataSourceConfig, tableName, tableStructure, null));
+            }
+            return tableStructures;
+        } catch (Exception e) {
+            logger.warn("Bulk extraction failed for data source {}, falling back to per-table extraction: {}",
+                    dataSourceConfig.getDataSourceName(), e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * 优先使用预先提取的表结构，未命中时逐表提取
+     *
+     * @param dataSourceConfig 数据源配置
+     * @param tableName        表名
+     * @param prefetched       预先提取的表结构
+     * @param extractionCache  提取缓存，未启用时为 null
+     * @return 表结构
+     * @throws Exception 获取表结构时可能抛出的异常
+     */
+    private TableStructure resolveTableStructure(DataSourceCompareConfig.DataSourceConfig dataSourceConfig, String tableName,
+                                                 Map<String, TableStructure> prefetched,
+                                                 ExtractionCache extractionCache) throws Exception {
+        TableStructure tableStructure = prefetched.get(tableName);
+        if (extractionCache == null) {
+            return tableStructure != null ? tableStructure : extractTableStructure(dataSourceConfig, tableName);
+        }
+        if (tableStructure != null) {
+            extractionCache.put(dataSourceConfig, tableName, tableStructure);
+        }
+        return extractionCache.get(dataSourceConfig, tableName, () -> extractTableStructure(dataSourceConfig, tableName));
     }
 
     /**
      * 比对表级属性
      *
      * @param result 比对结果
-     * @param config 比对配置
+     * @param plan   比对计划
      */
-    private void compareTableProperties(CompareResult result, DataSourceCompareConfig.CompareConfig config) {
+    private void compareTableProperties(CompareResult result, ComparisonPlan plan) {
         TableStructure sourceTable = result.getSourceTable();
         TableStructure targetTable = result.getTargetTable();
-        
-        String sourceType = sourceTable.getSourceType();
-        String targetType = targetTable.getSourceType();
-        
-        boolean sourceIsES = sourceType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-        boolean targetIsES = targetType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-        boolean sourceIsPOJO = sourceType.equalsIgnoreCase(DatabaseType.POJO);
-        boolean targetIsPOJO = targetType.equalsIgnoreCase(DatabaseType.POJO);
 
         // 检查表注释
-        if (!isCommentEqual(sourceTable.getTableComment(), targetTable.getTableComment(),
-                sourceType, targetType) &&
-                !isIgnoredType(config, "COMMENT")) {
+        if (!plan.isCommentEqual(sourceTable.getTableComment(), targetTable.getTableComment()) &&
+                !plan.isIgnored(ComparisonPlan.Check.COMMENT)) {
             TableDifference diff = new TableDifference(
                     DifferenceType.TABLE_PROPERTY_DIFFERENT,
                     DifferenceLevel.NOTICE,
@@ -282,37 +883,12 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
                 Object sourceValue = sourceTable.getProperties().get(key);
                 Object targetValue = targetTable.getProperties().get(key);
 
-                // 如果是ES特有的字段，则跳过比对
-                if ((sourceIsES || targetIsES) && ES_SPECIFIC_FIELDS.contains(key)) {
-                    continue;
-                }
-
-                // 对于ES到ES的比对，跳过不影响数据检索和展示的属性
-                if (sourceIsES && targetIsES && isNonEssentialESProperty(key)) {
-                    continue;
-                }
-
-                // 对于POJO的比对，跳过一些特定属性
-                if ((sourceIsPOJO || targetIsPOJO) && isNonEssentialPOJOProperty(key)) {
-                    continue;
-                }
-
-                // 对于comment属性，使用特殊的比对逻辑
-                if ("comment".equalsIgnoreCase(key)) {
-                    if (isCommentEqual(String.valueOf(sourceValue), String.valueOf(targetValue),
-                            sourceType, targetType)) {
-                        continue;
-                    }
-                }
-
-                // 处理属性值差异
+                // 处理属性值差异，由比对规则过滤并确定差异级别
                 if (!Objects.equals(sourceValue, targetValue)) {
-                    DifferenceLevel level = getDifferenceLevel(key, config);
-                    
-                    // 对于ES和POJO的比对，降低某些属性的差异级别
-                    if ((sourceIsES || targetIsES || sourceIsPOJO || targetIsPOJO) && 
-                        isReducibleProperty(key)) {
-                        level = DifferenceLevel.NOTICE;
+                    DifferenceLevel level = plan.getRules().evaluate(
+                            PropertyComparison.tableProperty(plan, key, sourceValue, targetValue, DifferenceLevel.NOTICE));
+                    if (level == null) {
+                        continue;
                     }
 
                     TableDifference diff = new TableDifference(
@@ -354,77 +930,57 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
                DatabaseType.ELASTICSEARCH.equalsIgnoreCase(targetType);
     }
 
-    /**
-     * 判断是否为不影响数据检索和展示的ES属性
-     */
-    private boolean isNonEssentialESProperty(String propertyName) {
-        return ES_SPECIFIC_FIELDS.contains(propertyName) ||
-               propertyName.equals("creation_date") ||
-               propertyName.equals("uuid") ||
-               propertyName.equals("provided_name") ||
-               propertyName.equals("version") ||
-               propertyName.equals("_meta") ||
-               propertyName.equals("_source") ||
-               propertyName.equals("_all") ||
-               propertyName.equals("_routing") ||
-               propertyName.equals("_parent") ||
-               propertyName.equals("_field_names");
-    }
-
-    /**
-     * 判断是否为不影响数据检索和展示的POJO属性
-     */
-    private boolean isNonEssentialPOJOProperty(String propertyName) {
-        return propertyName.equals("javaType") ||
-               propertyName.equals("package") ||
-               propertyName.equals("superclass") ||
-               propertyName.equals("interfaces") ||
-               propertyName.equals("annotations");
-    }
-
-    /**
-     * 判断是否为可降低差异级别的属性
-     */
-    private boolean isReducibleProperty(String propertyName) {
-        return propertyName.equals("comment") ||
-               propertyName.equals("description") ||
-               propertyName.equals("label") ||
-               propertyName.equals("displayName") ||
-               propertyName.equals("format") ||
-               propertyName.equals("pattern");
-    }
-
     /**
      * 比对列结构
      *
      * @param result 比对结果
-     * @param config 比对配置
+     * @param plan   比对计划
      */
-    private void compareColumns(CompareResult result, DataSourceCompareConfig.CompareConfig config) {
-        TableStructure sourceTable = result.getSourceTable();
-        TableStructure targetTable = result.getTargetTable();
-
-        // 获取当前表的配置
-        DataSourceCompareConfig.TableCompareConfig tableConfig = config.getTableConfigs().get(0);
-        List<String> ignoreFields = tableConfig.getIgnoreFields();
+    private void compareColumns(CompareResult result, ComparisonPlan plan) {
+        // 每端的字段列表只读取一次并建立名称和路径前缀索引，后续查找均为 O(1)
+        ColumnIndex sourceIndex = result.getSourceTable().indexColumns();
+        ColumnIndex targetIndex = result.getTargetTable().indexColumns();
 
         // 创建映射，方便查找
-        Map<String, ColumnStructure> sourceColumns = sourceTable.getColumns().stream()
+        Map<String, ColumnStructure> sourceColumns = sourceIndex.getColumns().stream()
                 .collect(Collectors.toMap(ColumnStructure::getColumnName, c -> c, (c1, c2) -> c1));
 
-        Map<String, ColumnStructure> targetColumns = targetTable.getColumns().stream()
+        Map<String, ColumnStructure> targetColumns = targetIndex.getColumns().stream()
                 .collect(Collectors.toMap(ColumnStructure::getColumnName, c -> c, (c1, c2) -> c1));
 
+        // Elasticsearch 与其他数据源比对时，展开的叶子字段可以对应反规范化字段（address.city 对应 address_city），
+        // 也可以由同名的父字段整体覆盖（如 POJO 的 address 属性或 MySQL 的 JSON 字段）。
+        // 覆盖和配对按字段名记录，不依赖字段对象的同一性
+        boolean pathMatching = plan.isSourceES() != plan.isTargetES();
+        Map<String, ColumnStructure> denormalizedLeaves = pathMatching
+                ? denormalizedLeaves(plan.isSourceES() ? sourceIndex : targetIndex)
+                : Collections.<String, ColumnStructure>emptyMap();
+        Set<String> coveredSourceColumns = pathMatching && plan.isSourceES()
+                ? coveredLeafColumns(sourceIndex, targetColumns) : Collections.<String>emptySet();
+        Set<String> matchedTargetColumns = new HashSet<>();
+        if (pathMatching && plan.isTargetES()) {
+            matchedTargetColumns.addAll(coveredLeafColumns(targetIndex, sourceColumns));
+        }
+
         // 检查源表中存在但目标表不存在的列
-        for (ColumnStructure sourceColumn : sourceTable.getColumns()) {
+        for (ColumnStructure sourceColumn : sourceIndex.getColumns()) {
             String columnName = sourceColumn.getColumnName();
 
             // 跳过被忽略的字段
-            if (ignoreFields != null && ignoreFields.contains(columnName)) {
+            if (plan.isIgnoredField(columnName)) {
                 continue;
             }
 
-            if (!targetColumns.containsKey(columnName)) {
+            ColumnStructure targetColumn = targetColumns.get(columnName);
+            if (targetColumn == null && pathMatching) {
+                targetColumn = findDenormalizedColumn(sourceColumn, plan.isSourceES(), targetIndex, denormalizedLeaves,
+                        sourceColumns);
+            }
+
+            if (targetColumn == null) {
+                if (coveredSourceColumns.contains(columnName) || isDerivedColumn(plan.isSourceES(), sourceColumn)) {
+                    continue;
+                }
                 // 列缺失
                 ColumnDifference diff = new ColumnDifference(
                         DifferenceType.COLUMN_MISSING,
@@ -437,21 +993,24 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
                 result.incrementDifferenceCount(diff.getLevel());
             } else {
                 // 列存在，需要比对细节
-                ColumnStructure targetColumn = targetColumns.get(columnName);
-                compareColumnDetails(result, config, sourceColumn, targetColumn);
+                matchedTargetColumns.add(targetColumn.getColumnName());
+                compareColumnDetails(result, plan, sourceColumn, targetColumn);
             }
         }
 
         // 检查目标表中存在但源表不存在的列
-        for (ColumnStructure targetColumn : targetTable.getColumns()) {
+        for (ColumnStructure targetColumn : targetIndex.getColumns()) {
             String columnName = targetColumn.getColumnName();
 
             // 跳过被忽略的字段
-            if (ignoreFields != null && ignoreFields.contains(columnName)) {
+            if (plan.isIgnoredField(columnName)) {
                 continue;
             }
 
-            if (!sourceColumns.containsKey(columnName)) {
+            if (!sourceColumns.containsKey(columnName) && !matchedTargetColumns.contains(columnName)) {
+                if (isDerivedColumn(plan.isTargetES(), targetColumn)) {
+                    continue;
+                }
                 // 列缺失
                 ColumnDifference diff = new ColumnDifference(
                         DifferenceType.COLUMN_MISSING,
@@ -466,10 +1025,91 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
         }
     }
 
+    /**
+     * 查找 Elasticsearch 叶子字段对应的反规范化字段，点分路径中的点替换为下划线后按名称（忽略大小写）匹配
+     *
+     * @param column             在另一端没有同名字段的列
+     * @param elasticsearch      该列是否来自 Elasticsearch
+     * @param otherIndex         另一端的字段索引
+     * @param denormalizedLeaves Elasticsearch 一端按反规范化名称（小写）索引的叶子字段
+     * @param ownColumns         该列所在一端的字段映射，另一端的候选字段已有同名字段对应时不再匹配
+     * @return 对应的字段，不存在时返回 null
+     */
+    private ColumnStructure findDenormalizedColumn(ColumnStructure column, boolean elasticsearch, ColumnIndex otherIndex,
+                                                   Map<String, ColumnStructure> denormalizedLeaves,
+                                                   Map<String, ColumnStructure> ownColumns) {
+        String columnName = column.getColumnName();
+        if (columnName == null) {
+            return null;
+        }
+
+        ColumnStructure candidate = null;
+        if (elasticsearch) {
+            if (columnName.indexOf('.') > 0 && !isDerivedColumn(true, column)) {
+                candidate = otherIndex.getColumnByName(columnName.replace('.', '_'));
+            }
+        } else {
+            candidate = denormalizedLeaves.get(columnName.toLowerCase(Locale.ROOT));
+        }
+        return candidate == null || ownColumns.containsKey(candidate.getColumnName()) ? null : candidate;
+    }
+
+    /**
+     * 按反规范化名称（点替换为下划线后转小写）索引 Elasticsearch 的叶子字段，同名时保留字段顺序中的第一个
+     *
+     * @param esIndex Elasticsearch 一端的字段索引
+     * @return 反规范化名称到叶子字段的映射
+     */
+    private Map<String, ColumnStructure> denormalizedLeaves(ColumnIndex esIndex) {
+        Map<String, ColumnStructure> leaves = new HashMap<>();
+        for (ColumnStructure column : esIndex.getColumns()) {
+            String name = column.getColumnName();
+            if (name != null && name.indexOf('.') > 0 && !isDerivedColumn(true, column)) {
+                leaves.putIfAbsent(name.replace('.', '_').toLowerCase(Locale.ROOT), column);
+            }
+        }
+        return leaves;
+    }
+
+    /**
+     * 另一端存在同名父字段的 Elasticsearch 对象字段，其展开的全部子字段视为已被父字段覆盖
+     *
+     * @param esIndex      Elasticsearch 一端的字段索引
+     * @param otherColumns 另一端的字段映射
+     * @return 被覆盖的子字段名
+     */
+    private Set<String> coveredLeafColumns(ColumnIndex esIndex, Map<String, ColumnStructure> otherColumns) {
+        Set<String> covered = new HashSet<>();
+        for (ColumnStructure column : esIndex.getColumns()) {
+            String dataType = column.getDataType();
+            if (("object".equals(dataType) || "nested".equals(dataType))
+                    && otherColumns.containsKey(column.getColumnName())) {
+                for (ColumnStructure leaf : esIndex.getColumnsByPathPrefix(column.getColumnName())) {
+                    covered.add(leaf.getColumnName());
+                }
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * 是否为 Elasticsearch 的派生字段：多字段（如 name.keyword）或对象容器字段（其子字段已展开为独立字段）
+     * 这类字段在另一端缺失时不视为差异，反规范化的 MySQL 表只需要与叶子字段对应。
+     */
+    private boolean isDerivedColumn(boolean elasticsearch, ColumnStructure column) {
+        if (!elasticsearch) {
+            return false;
+        }
+        String dataType = column.getDataType();
+        return "object".equals(dataType) || "nested".equals(dataType)
+                || (column.getProperties() != null
+                && Boolean.TRUE.equals(column.getProperties().get(ElasticsearchTableStructureExtractor.PROPERTY_MULTI_FIELD)));
+    }
+
     /**
      * 比对列结构细节
      */
-    private void compareColumnDetails(CompareResult result, DataSourceCompareConfig.CompareConfig config,
+    private void compareColumnDetails(CompareResult result, ComparisonPlan plan,
             ColumnStructure sourceColumn, ColumnStructure targetColumn) {
         String columnName = sourceColumn.getColumnName();
 
@@ -496,31 +1136,21 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
             }
         }
 
-        DataSourceCompareConfig.TableCompareConfig tableConfig = config.getTableConfigs().get(0);
-        List<String> ignoreFields = tableConfig.getIgnoreFields();
-
-        if (ignoreFields != null && ignoreFields.contains(columnName)) {
+        if (plan.isIgnoredField(columnName)) {
             return;
         }
 
         boolean hasDifferences = false;
         ColumnDifference columnDiff = null; 
 
-        String sourceDbType = result.getSourceTable().getSourceType();
-        String targetDbType = result.getTargetTable().getSourceType();
-        
-        boolean sourceIsES = sourceDbType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-        boolean targetIsES = targetDbType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-        boolean sourceIsPOJO = sourceDbType.equalsIgnoreCase(DatabaseType.POJO);
-        boolean targetIsPOJO = targetDbType.equalsIgnoreCase(DatabaseType.POJO);
-        boolean isPojoOrEsComparison = sourceIsPOJO || targetIsPOJO || sourceIsES || targetIsES;
+        boolean isPojoOrEsComparison = plan.isPojoOrEsComparison();
 
         String sDataTypeOriginal = sourceColumn.getDataType();
         String tDataTypeOriginal = targetColumn.getDataType();
         String sDataTypeLower = sDataTypeOriginal.toLowerCase();
         String tDataTypeLower = tDataTypeOriginal.toLowerCase();
 
-        boolean typesCompatible = resolveColumnTypeCompatibility(sourceColumn, targetColumn, sourceDbType, targetDbType,
+        boolean typesCompatible = resolveColumnTypeCompatibility(sourceColumn, targetColumn, plan,
                                                                sDataTypeOriginal, tDataTypeOriginal,
                                                                sDataTypeLower, tDataTypeLower, columnName);
 
@@ -547,8 +1177,8 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
             columnDiff.setTargetColumn(targetColumn);
 
             if (!isPojoOrEsComparison) {
-                hasDifferences = compareStandardColumnProperties(columnDiff, sourceColumn, targetColumn, config, result,
-                                                               sourceDbType, targetDbType, sDataTypeLower, tDataTypeLower, columnName);
+                hasDifferences = compareStandardColumnProperties(columnDiff, sourceColumn, targetColumn, plan, result,
+                                                               sDataTypeLower, tDataTypeLower, columnName);
             }
         }
 
@@ -562,11 +1192,77 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
 
     /**
      * Resolves column type compatibility between source and target columns.
+     * 映射查找走预先构建的 {@link TypeCompatibilityMatrix}，判定顺序与按字段 typeMappings 判定完全一致；
+     * 只有字段带有矩阵中不存在的类型映射（如手工构造的字段）时才回退到逐字段查找。
      */
     private boolean resolveColumnTypeCompatibility(ColumnStructure sourceColumn, ColumnStructure targetColumn,
-                                                   String sourceDbType, String targetDbType,
+                                                   ComparisonPlan plan,
                                                    String sDataTypeOriginal, String tDataTypeOriginal,
                                                    String sDataTypeLower, String tDataTypeLower, String columnName) {
+        TypeCompatibilityMatrix matrix = TypeCompatibilityMatrix.getDefault();
+        String sourceDbType = plan.getSourceType();
+        String targetDbType = plan.getTargetType();
+        int sourceKey = matrix.typeId(typeMappingKey(sourceColumn, plan.isSourcePOJO(), sDataTypeLower));
+        int targetKey = matrix.typeId(typeMappingKey(targetColumn, plan.isTargetPOJO(), tDataTypeLower));
+        if (hasUnregisteredTypeMappings(sourceColumn, sourceKey) || hasUnregisteredTypeMappings(targetColumn, targetKey)) {
+            return resolveColumnTypeCompatibilityByMappings(sourceColumn, targetColumn, sourceDbType, targetDbType,
+                    sDataTypeOriginal, tDataTypeOriginal, sDataTypeLower, tDataTypeLower, columnName);
+        }
+
+        int sourceDb = plan.getSourceDataSourceId();
+        int targetDb = plan.getTargetDataSourceId();
+        // 对端映射表中以小写类型名出现的 ID，用于 hasColumnType 判定
+        int sourceTypeAsMapped = matrix.typeId(sDataTypeLower);
+        int targetTypeAsMapped = matrix.typeId(tDataTypeLower);
+
+        boolean typesCompatible = false;
+        if (plan.isSourcePOJO()) {
+            typesCompatible = plan.isTargetES() || plan.isTargetMySQLFamily()
+                    ? matrix.maps(sourceDb, sourceKey, targetDb, targetTypeAsMapped)
+                    : sDataTypeLower.equals(tDataTypeLower);
+        } else if (plan.isTargetPOJO() && (plan.isSourceES() || plan.isSourceMySQLFamily())) {
+            typesCompatible = matrix.maps(targetDb, targetKey, sourceDb, sourceTypeAsMapped);
+        }
+        if (!typesCompatible) {
+            typesCompatible = matrix.sharesMappedType(sourceDb, sourceKey, targetDb, targetKey)
+                    || matrix.maps(sourceDb, sourceKey, targetDb, targetTypeAsMapped)
+                    || matrix.maps(targetDb, targetKey, sourceDb, sourceTypeAsMapped)
+                    || sDataTypeLower.equals(tDataTypeLower);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Col '{}': {} ({}) vs {} ({}) typesCompatible = {}", columnName,
+                    sDataTypeOriginal, sourceDbType, tDataTypeOriginal, targetDbType, typesCompatible);
+        }
+        return typesCompatible;
+    }
+
+    /**
+     * 字段在类型映射表中的键：POJO 字段用 Java 全限定类名，其余用小写的数据类型
+     */
+    private static String typeMappingKey(ColumnStructure column, boolean pojo, String dataTypeLower) {
+        if (pojo) {
+            Object javaType = column.getProperties() == null ? null : column.getProperties().get("javaType");
+            return javaType instanceof String ? (String) javaType : null;
+        }
+        return dataTypeLower;
+    }
+
+    /**
+     * 字段带有类型映射但其类型不在兼容矩阵中，此时矩阵无法代表该字段的映射
+     */
+    private static boolean hasUnregisteredTypeMappings(ColumnStructure column, int typeKey) {
+        return typeKey == TypeCompatibilityMatrix.UNKNOWN
+                && column.getTypeMappings() != null && !column.getTypeMappings().isEmpty();
+    }
+
+    /**
+     * 按字段上的 typeMappings 逐个查找判定类型兼容性
+     */
+    private boolean resolveColumnTypeCompatibilityByMappings(ColumnStructure sourceColumn, ColumnStructure targetColumn,
+                                                             String sourceDbType, String targetDbType,
+                                                             String sDataTypeOriginal, String tDataTypeOriginal,
+                                                             String sDataTypeLower, String tDataTypeLower, String columnName) {
         boolean typesCompatible = false;
         ColumnStructure.TypeMapping sourceToTargetMapping = sourceColumn.getTypeMapping(targetDbType);
         ColumnStructure.TypeMapping targetToSourceMapping = targetColumn.getTypeMapping(sourceDbType);
@@ -637,343 +1333,167 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
      * Returns true if differences were found.
      */
     private boolean compareStandardColumnProperties(ColumnDifference columnDiff, ColumnStructure sourceColumn, ColumnStructure targetColumn,
-                                                  DataSourceCompareConfig.CompareConfig config, CompareResult result,
-                                                  String sourceDbType, String targetDbType,
+                                                  ComparisonPlan plan, CompareResult result,
                                                   String sDataTypeLower, String tDataTypeLower, String columnName) {
         boolean localHasDifferences = false;
 
-        if (sourceColumn.isNullable() != targetColumn.isNullable() && !isIgnoredType(config, "NULLABLE")) {
-            columnDiff.addPropertyDifference("nullable", sourceColumn.isNullable(), targetColumn.isNullable(), DifferenceLevel.WARNING);
-            localHasDifferences = true;
-            result.incrementDifferenceCount(DifferenceLevel.WARNING);
+        if (sourceColumn.isNullable() != targetColumn.isNullable() && !plan.isIgnored(ComparisonPlan.Check.NULLABLE)) {
+            localHasDifferences |= addColumnPropertyDifference(columnDiff, plan, result, "nullable",
+                    sourceColumn.isNullable(), targetColumn.isNullable(), DifferenceLevel.WARNING);
         }
-        if (!isDefaultValueEqual(sourceColumn.getDefaultValue(), targetColumn.getDefaultValue(),
-                sourceDbType, targetDbType) && !isIgnoredType(config, "DEFAULT")) {
-            columnDiff.addPropertyDifference("defaultValue", sourceColumn.getDefaultValue(), targetColumn.getDefaultValue(), DifferenceLevel.WARNING);
-            localHasDifferences = true;
-            result.incrementDifferenceCount(DifferenceLevel.WARNING);
+        if (!isDefaultValueEqual(sourceColumn.getDefaultValue(), targetColumn.getDefaultValue(), plan) &&
+                !plan.isIgnored(ComparisonPlan.Check.DEFAULT)) {
+            localHasDifferences |= addColumnPropertyDifference(columnDiff, plan, result, "defaultValue",
+                    sourceColumn.getDefaultValue(), targetColumn.getDefaultValue(), DifferenceLevel.WARNING);
         }
-        if (sourceColumn.isAutoIncrement() != targetColumn.isAutoIncrement()) {
-            boolean isSpecialCase = (isMySQLFamily(sourceDbType) && isMySQLFamily(targetDbType)) &&
-                                    (sourceColumn.isAutoIncrement() && Boolean.TRUE.equals(targetColumn.getProperties().get("is_auto_random")));
-            if (!isSpecialCase && !isIgnoredType(config, "AUTO_INCREMENT")) {
-                 columnDiff.addPropertyDifference("autoIncrement", sourceColumn.isAutoIncrement(), targetColumn.isAutoIncrement(), DifferenceLevel.WARNING);
-                localHasDifferences = true;
-                result.incrementDifferenceCount(DifferenceLevel.WARNING);
-            }
+        // TiDB auto_random 与 MySQL 自增列的等价判断由内置比对规则处理
+        if (sourceColumn.isAutoIncrement() != targetColumn.isAutoIncrement() && !plan.isIgnored(ComparisonPlan.Check.AUTO_INCREMENT)) {
+            localHasDifferences |= addColumnPropertyDifference(columnDiff, plan, result, "autoIncrement",
+                    sourceColumn.isAutoIncrement(), targetColumn.isAutoIncrement(), DifferenceLevel.WARNING);
         }
         boolean isInteger = isIntegerType(sDataTypeLower) || isIntegerType(tDataTypeLower);
         if (!isInteger) {
             int initialPropertyDiffCount = columnDiff.getPropertyDifferences() != null ? columnDiff.getPropertyDifferences().size() : 0;
-            compareColumnLengthProperties(columnDiff, sourceColumn, targetColumn, config, result, columnName);
+            compareColumnLengthProperties(columnDiff, sourceColumn, targetColumn, plan, result, columnName);
             int finalPropertyDiffCount = columnDiff.getPropertyDifferences() != null ? columnDiff.getPropertyDifferences().size() : 0;
             if (finalPropertyDiffCount > initialPropertyDiffCount) {
                 localHasDifferences = true;
             }
         }
-        if (!isCommentEqual(sourceColumn.getComment(), targetColumn.getComment(), sourceDbType, targetDbType) &&
-            !isIgnoredType(config, "COMMENT")) {
-            columnDiff.addPropertyDifference("comment", sourceColumn.getComment(), targetColumn.getComment(), DifferenceLevel.NOTICE);
-            localHasDifferences = true;
-            result.incrementDifferenceCount(DifferenceLevel.NOTICE);
+        if (!plan.isCommentEqual(sourceColumn.getComment(), targetColumn.getComment()) &&
+            !plan.isIgnored(ComparisonPlan.Check.COMMENT)) {
+            localHasDifferences |= addColumnPropertyDifference(columnDiff, plan, result, "comment",
+                    sourceColumn.getComment(), targetColumn.getComment(), DifferenceLevel.NOTICE);
         }
         return localHasDifferences;
     }
 
     /**
-     * 比较列的长度相关属性
+     * 经比对规则过滤后记录列属性差异
+     *
+     * @return 差异未被规则忽略时返回 true
      */
-    private void compareColumnLengthProperties(ColumnDifference columnDiff, ColumnStructure sourceColumn,
-            ColumnStructure targetColumn, DataSourceCompareConfig.CompareConfig config, CompareResult result, String columnName) {
-        if (!Objects.equals(sourceColumn.getLength(), targetColumn.getLength()) &&
-                !isIgnoredType(config, "LENGTH")) {
-            columnDiff.addPropertyDifference("length",
-                    sourceColumn.getLength(),
-                    targetColumn.getLength(),
-                    DifferenceLevel.WARNING);
-            result.incrementDifferenceCount(DifferenceLevel.WARNING);
-        }
-
-        if (!Objects.equals(sourceColumn.getPrecision(), targetColumn.getPrecision()) &&
-                !isIgnoredType(config, "PRECISION")) {
-            columnDiff.addPropertyDifference("precision",
-                    sourceColumn.getPrecision(),
-                    targetColumn.getPrecision(),
-                    DifferenceLevel.WARNING);
-            result.incrementDifferenceCount(DifferenceLevel.WARNING);
-        }
-
-        if (!Objects.equals(sourceColumn.getScale(), targetColumn.getScale()) &&
-                !isIgnoredType(config, "SCALE")) {
-            columnDiff.addPropertyDifference("scale",
-                    sourceColumn.getScale(),
-                    targetColumn.getScale(),
-                    DifferenceLevel.WARNING);
-            result.incrementDifferenceCount(DifferenceLevel.WARNING);
+    private boolean addColumnPropertyDifference(ColumnDifference columnDiff, ComparisonPlan plan, CompareResult result,
+                                                String propertyName, Object sourceValue, Object targetValue,
+                                                DifferenceLevel level) {
+        DifferenceLevel resolved = plan.getRules().evaluate(PropertyComparison.columnProperty(plan, propertyName,
+                sourceValue, targetValue, columnDiff.getSourceColumn(), columnDiff.getTargetColumn(), level));
+        if (resolved == null) {
+            return false;
         }
+        columnDiff.addPropertyDifference(propertyName, sourceValue, targetValue, resolved);
+        result.incrementDifferenceCount(resolved);
+        return true;
     }
 
     /**
-     * 判断两个注释是否相等，处理MySQL家族数据库的特殊情况
-     * 1. null和空字符串视为等价
-     * 2. 去除首尾空格后比较
-     * 3. 对于ES和MySQL的比对，忽略注释差异
+     * 比较列的长度相关属性
      */
-    private boolean isCommentEqual(String sourceComment, String targetComment, String sourceType, String targetType) {
-        // 如果两个值都是null，则认为相等
-        if (sourceComment == null && targetComment == null) {
-            return true;
+    private void compareColumnLengthProperties(ColumnDifference columnDiff, ColumnStructure sourceColumn,
+            ColumnStructure targetColumn, ComparisonPlan plan, CompareResult result, String columnName) {
+        if (!Objects.equals(sourceColumn.getLength(), targetColumn.getLength()) &&
+                !plan.isIgnored(ComparisonPlan.Check.LENGTH)) {
+            addColumnPropertyDifference(columnDiff, plan, result, "length",
+                    sourceColumn.getLength(), targetColumn.getLength(), DifferenceLevel.WARNING);
         }
 
-        // 处理MySQL家族数据库的特殊情况
-        String[] mysqlFamilyTypes = { DatabaseType.MYSQL, DatabaseType.TIDB };
-        boolean isMySQLFamily = Arrays.stream(mysqlFamilyTypes).anyMatch(type -> type.equalsIgnoreCase(sourceType)) &&
-                Arrays.stream(mysqlFamilyTypes).anyMatch(type -> type.equalsIgnoreCase(targetType));
-
-        if (isMySQLFamily) {
-            // 将null转换为空字符串
-            String normalizedSource = sourceComment == null ? "" : sourceComment.trim();
-            String normalizedTarget = targetComment == null ? "" : targetComment.trim();
-            return normalizedSource.equals(normalizedTarget);
+        if (!Objects.equals(sourceColumn.getPrecision(), targetColumn.getPrecision()) &&
+                !plan.isIgnored(ComparisonPlan.Check.PRECISION)) {
+            addColumnPropertyDifference(columnDiff, plan, result, "precision",
+                    sourceColumn.getPrecision(), targetColumn.getPrecision(), DifferenceLevel.WARNING);
         }
 
-        // 对于ES和MySQL的比对，忽略注释差异
-        if ((sourceType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH) && isMySQLFamily(targetType)) ||
-            (isMySQLFamily(sourceType) && targetType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH))) {
-            return true;
+        if (!Objects.equals(sourceColumn.getScale(), targetColumn.getScale()) &&
+                !plan.isIgnored(ComparisonPlan.Check.SCALE)) {
+            addColumnPropertyDifference(columnDiff, plan, result, "scale",
+                    sourceColumn.getScale(), targetColumn.getScale(), DifferenceLevel.WARNING);
         }
-
-        // 其他情况直接比较原始值
-        return Objects.equals(sourceComment, targetComment);
     }
 
-    // 处理带引号的值，去掉外层引号后比较
-    // 使用静态编译的正则表达式提升性能
-    private static final Pattern QUOTE_PATTERN = Pattern.compile("^['\"].*['\"]$");
-    private static final Pattern QUOTE_REPLACE_PATTERN = Pattern.compile("^['\"]|['\"]$");
-
     /**
      * 比较默认值是否相等，处理MySQL和ES的特殊情况
      *
      * @param sourceValue 源默认值
      * @param targetValue 目标默认值
-     * @param sourceType  源数据库类型
-     * @param targetType  目标数据库类型
+     * @param plan        比对计划
      * @return 是否相等
      */
-    private boolean isDefaultValueEqual(String sourceValue, String targetValue, String sourceType, String targetType) {
+    private boolean isDefaultValueEqual(String sourceValue, String targetValue, ComparisonPlan plan) {
         // 如果两个值都是null，则认为相等
         if (sourceValue == null && targetValue == null) {
             return true;
         }
 
-        boolean sourceIsES = sourceType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-        boolean targetIsES = targetType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-
         // 如果一端是ES，且ES端没有默认值（null），则认为与MySQL端的默认值等价
-        if ((sourceIsES && targetValue != null) || (targetIsES && sourceValue != null)) {
+        if ((plan.isSourceES() && targetValue != null) || (plan.isTargetES() && sourceValue != null)) {
             return true;
         }
 
-        // 标准化默认值
-        String normalizedSource = normalizeDefaultValue(sourceValue, sourceType);
-        String normalizedTarget = normalizeDefaultValue(targetValue, targetType);
-
-        // 处理NULL值的情况
-        if (isNullDefaultValue(normalizedSource, true) && isNullDefaultValue(normalizedTarget, true)) {
-            return true;
-        }
-
-        // 处理CURRENT_TIMESTAMP的情况
-        if (isCurrentTimestamp(normalizedSource) && isCurrentTimestamp(normalizedTarget)) {
-            return true;
-        }
-
-        // 处理数值类型的情况
-        if (isNumericDefaultValue(normalizedSource) && isNumericDefaultValue(normalizedTarget)) {
-            return normalizeNumericValue(normalizedSource).equals(normalizeNumericValue(normalizedTarget));
-        }
-
-        // 其他情况直接比较标准化后的值
-        return Objects.equals(normalizedSource, normalizedTarget);
-    }
-
-    /**
-     * 标准化默认值
-     */
-    private String normalizeDefaultValue(String value, String dbType) {
-        if (value == null) {
-            return null;
-        }
-
-        String normalized = value.toLowerCase().trim();
-        
-        // 在normalizeDefaultValue方法内替换：
-        // normalized = normalized.replaceAll("^default\\s+", "");
-        normalized = DEFAULT_PREFIX_PATTERN.matcher(normalized).replaceFirst("");
-        
-        // 处理引号
-        if (normalized.startsWith("'") && normalized.endsWith("'")) {
-            normalized = normalized.substring(1, normalized.length() - 1);
-        }
-        if (normalized.startsWith("\"") && normalized.endsWith("\"")) {
-            normalized = normalized.substring(1, normalized.length() - 1);
-        }
-
-        return normalized;
-    }
-
-    /**
-     * 判断是否为NULL默认值
-     */
-    private boolean isNullDefaultValue(String value, boolean isNormalized) {
-        if (value == null) {
-            return true;
-        }
-        String normalized = isNormalized ? value : value.toLowerCase().trim();
-        return normalized.isEmpty() ||
-               normalized.equals("null") ||
-               normalized.equals("'null'") ||
-               normalized.equals("\"null\"") ||
-               normalized.equals("default null") ||
-               normalized.equals("'default null'") ||
-               normalized.equals("\"default null\"") ||
-               normalized.equals("default") ||
-               normalized.equals("''") ||
-               normalized.equals("\"\"");
-    }
-
-    /**
-     * 判断是否为CURRENT_TIMESTAMP默认值
-     */
-    private boolean isCurrentTimestamp(String value) {
-        if (value == null) {
-            return false;
-        }
-        String normalized = value.toLowerCase().trim();
-        return normalized.equals("current_timestamp") ||
-               normalized.equals("current_timestamp()") ||
-               normalized.matches("current_timestamp\\([0-9]*\\)");
-    }
-
-    /**
-     * 判断是否为数值类型默认值
-     */
-    private boolean isNumericDefaultValue(String value) {
-        if (value == null) {
-            return false;
-        }
-        String normalized = value.toLowerCase().trim();
-        return normalized.matches("^-?[0-9]+(\\.[0-9]+)?$") ||
-               normalized.matches("^-?[0-9]+(\\.[0-9]+)?e-?[0-9]+$");
-    }
-
-    /**
-     * 标准化数值类型默认值
-     */
-    private String normalizeNumericValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        String normalized = value.toLowerCase().trim();
-        // 移除前导零
-        normalized = LEADING_ZERO_PATTERN.matcher(normalized).replaceAll("$1");
-        // 移除小数点后的尾随零
-        normalized = TRAILING_ZERO_PATTERN.matcher(normalized).replaceAll("");
-        return normalized;
-    }
-
-    /**
-     * 判断指定的差异类型是否被忽略
-     *
-     * @param config   比对配置
-     * @param diffType 差异类型
-     * @return 是否被忽略
-     */
-    private boolean isIgnoredType(DataSourceCompareConfig.CompareConfig config, String diffType) {
-        if (config.getTableConfigs() == null || config.getTableConfigs().isEmpty()) {
-            return false;
-        }
-        // 使用第一个表的配置进行判断
-        List<String> ignoreTypes = config.getTableConfigs().get(0).getIgnoreTypes();
-        return ignoreTypes != null && ignoreTypes.contains(diffType);
-    }
-
-    /**
-     * 获取差异级别
-     *
-     * @param propertyName 属性名
-     * @param config       比对配置
-     * @return 差异级别
-     */
-    private DifferenceLevel getDifferenceLevel(String propertyName, DataSourceCompareConfig.CompareConfig config) {
-        // 关键属性使用严重级别
-        if (propertyName.contains("primary") || propertyName.contains("unique")) {
-            return DifferenceLevel.CRITICAL;
-        }
-
-        // 性能相关属性使用警告级别
-        if (propertyName.contains("index") || propertyName.contains("shard") ||
-                propertyName.contains("replica") || propertyName.contains("partition")) {
-            return DifferenceLevel.WARNING;
-        }
-
-        // 被忽略的类型使用可接受级别
-        if (isIgnoredType(config, propertyName.toUpperCase(java.util.Locale.ROOT))) {
-            return DifferenceLevel.ACCEPTABLE;
-        }
-
-        // 默认使用通知级别
-        return DifferenceLevel.NOTICE;
+        // 由比对计划选定的规范化器解析为类型化取值后比较
+        return plan.getDefaultValueNormalizer().isEquivalent(sourceValue, targetValue);
     }
 
     /**
      * 比对索引结构
      *
      * @param result 比对结果
-     * @param config 比对配置
+     * @param plan   比对计划
      */
-    private void compareIndexes(CompareResult result, DataSourceCompareConfig.CompareConfig config) {
+    private void compareIndexes(CompareResult result, ComparisonPlan plan) {
         TableStructure sourceTable = result.getSourceTable();
         TableStructure targetTable = result.getTargetTable();
-        
-        String sourceType = sourceTable.getSourceType();
-        String targetType = targetTable.getSourceType();
-        
-        boolean sourceIsES = sourceType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-        boolean targetIsES = targetType.equalsIgnoreCase(DatabaseType.ELASTICSEARCH);
-        boolean sourceIsPOJO = sourceType.equalsIgnoreCase(DatabaseType.POJO);
-        boolean targetIsPOJO = targetType.equalsIgnoreCase(DatabaseType.POJO);
 
         // 如果源表或目标表是ES或POJO，则跳过索引比对
-        if (sourceIsES || targetIsES || sourceIsPOJO || targetIsPOJO) {
-            logger.debug("Skipping index comparison for {} vs {}", sourceType, targetType);
+        if (plan.isPojoOrEsComparison()) {
+            logger.debug("Skipping index comparison for {} vs {}", plan.getSourceType(), plan.getTargetType());
             return;
         }
 
+        // 目标表按规范化的列集合建立哈希索引，列集合相同的重复/冗余索引按出现顺序放在同一个桶中。
+        // 目标索引按下标记录配对状态，不依赖索引对象的同一性
+        List<IndexStructure> targetIndexes = new ArrayList<>(targetTable.getIndexes());
+        List<String> targetKeys = new ArrayList<>(targetIndexes.size());
+        Map<String, List<Integer>> targetByKey = new HashMap<>();
+        List<Integer> targetPrimaries = new ArrayList<>(1);
+        for (int i = 0; i < targetIndexes.size(); i++) {
+            IndexStructure targetIndex = targetIndexes.get(i);
+            String key = indexKey(targetIndex);
+            targetKeys.add(key);
+            targetByKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(i);
+            if (targetIndex.isPrimary()) {
+                targetPrimaries.add(i);
+            }
+        }
+
         // 检查源表有但目标表没有的索引
+        Set<String> sourceKeys = new HashSet<>();
+        boolean sourceHasPrimary = false;
+        BitSet matchedTargets = new BitSet(targetIndexes.size());
         for (IndexStructure sourceIndex : sourceTable.getIndexes()) {
-            boolean found = false;
+            String key = indexKey(sourceIndex);
+            sourceKeys.add(key);
+            sourceHasPrimary |= sourceIndex.isPrimary();
 
             // 索引名称可能不同，需要基于列进行匹配
-            for (IndexStructure targetIndex : targetTable.getIndexes()) {
-                if (indexesEqual(sourceIndex, targetIndex)) {
-                    found = true;
-
-                    // 比对索引细节
-                    compareIndexDetails(result, config, sourceIndex, targetIndex);
-                    break;
-                }
+            int targetPosition = matchIndex(sourceIndex, targetByKey.get(key), targetPrimaries, targetIndexes, matchedTargets);
+            boolean found = targetPosition >= 0;
+            if (found) {
+                // 比对索引细节
+                compareIndexDetails(result, plan, sourceIndex, targetIndexes.get(targetPosition));
             }
 
-            if (!found && !isIgnoredType(config, "INDEX")) {
-                // 主键缺失是严重问题，普通索引缺失是警告
-                DifferenceLevel level = sourceIndex.isPrimary() ? DifferenceLevel.CRITICAL : DifferenceLevel.WARNING;
+            if (!found && !plan.isIgnored(ComparisonPlan.Check.INDEX)) {
+                // 目标表存在同列索引但都已配对时，该索引是源表的重复/冗余索引，属于提示级别；
+                // 否则主键缺失是严重问题，普通索引缺失是警告
+                boolean redundant = targetByKey.containsKey(key) || (sourceIndex.isPrimary() && !targetPrimaries.isEmpty());
+                DifferenceLevel level = redundant ? DifferenceLevel.NOTICE
+                        : sourceIndex.isPrimary() ? DifferenceLevel.CRITICAL : DifferenceLevel.WARNING;
 
                 IndexDifference diff = new IndexDifference(
                         DifferenceType.INDEX_MISSING,
                         level,
-                        "Index exists in source but not in target",
+                        redundant ? "Redundant index exists in source but has no counterpart in target"
+                                : "Index exists in source but not in target",
                         sourceIndex.getIndexName());
                 diff.setSourceIndex(sourceIndex);
 
@@ -983,24 +1503,21 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
         }
 
         // 检查目标表有但源表没有的索引
-        for (IndexStructure targetIndex : targetTable.getIndexes()) {
-            boolean found = false;
+        for (int i = 0; i < targetIndexes.size(); i++) {
+            IndexStructure targetIndex = targetIndexes.get(i);
+            boolean found = matchedTargets.get(i);
 
-            for (IndexStructure sourceIndex : sourceTable.getIndexes()) {
-                if (indexesEqual(sourceIndex, targetIndex)) {
-                    found = true;
-                    break;
-                }
-            }
-
-            if (!found && !isIgnoredType(config, "INDEX")) {
-                // 目标表多的索引一般是优化目的，属于警告级别
-                DifferenceLevel level = targetIndex.isPrimary() ? DifferenceLevel.CRITICAL : DifferenceLevel.NOTICE;
+            if (!found && !plan.isIgnored(ComparisonPlan.Check.INDEX)) {
+                // 源表存在同列索引但已与其他目标索引配对时，该索引是目标表的重复/冗余索引；
+                // 目标表多的索引一般是优化目的，属于提示级别
+                boolean redundant = sourceKeys.contains(targetKeys.get(i)) || (targetIndex.isPrimary() && sourceHasPrimary);
+                DifferenceLevel level = targetIndex.isPrimary() && !redundant ? DifferenceLevel.CRITICAL : DifferenceLevel.NOTICE;
 
                 IndexDifference diff = new IndexDifference(
                         DifferenceType.INDEX_MISSING,
                         level,
-                        "Index exists in target but not in source",
+                        redundant ? "Redundant index exists in target but has no counterpart in source"
+                                : "Index exists in target but not in source",
                         targetIndex.getIndexName());
                 diff.setTargetIndex(targetIndex);
 
@@ -1014,13 +1531,13 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
      * 比对索引结构细节
      *
      * @param result      比对结果
-     * @param config      比对配置
+     * @param plan        比对计划
      * @param sourceIndex 源索引结构
      * @param targetIndex 目标索引结构
      */
-    private void compareIndexDetails(CompareResult result, DataSourceCompareConfig.CompareConfig config,
+    private void compareIndexDetails(CompareResult result, ComparisonPlan plan,
             IndexStructure sourceIndex, IndexStructure targetIndex) {
-        if (isIgnoredType(config, "INDEX_DETAIL")) {
+        if (plan.isIgnored(ComparisonPlan.Check.INDEX_DETAIL)) {
             return;
         }
 
@@ -1035,7 +1552,7 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
         indexDiff.setTargetIndex(targetIndex);
 
         // 检查唯一性
-        if (sourceIndex.isUnique() != targetIndex.isUnique() && !isIgnoredType(config, "UNIQUE")) {
+        if (sourceIndex.isUnique() != targetIndex.isUnique() && !plan.isIgnored(ComparisonPlan.Check.UNIQUE)) {
             indexDiff.addPropertyDifference("unique",
                     sourceIndex.isUnique(),
                     targetIndex.isUnique(),
@@ -1046,7 +1563,7 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
 
         // 检查索引类型
         if (!Objects.equals(sourceIndex.getIndexType(), targetIndex.getIndexType()) &&
-                !isIgnoredType(config, "INDEX_TYPE")) {
+                !plan.isIgnored(ComparisonPlan.Check.INDEX_TYPE)) {
             DifferenceLevel level = DifferenceLevel.NOTICE;
             // 如果主键类型不同，那么是严重问题
             if (sourceIndex.isPrimary() || targetIndex.isPrimary()) {
@@ -1128,32 +1645,64 @@ public class TableStructureCompareServiceImpl implements TableStructureCompareSe
     }
 
     /**
-     * 判断两个索引是否相等（基于包含的列）
+     * 索引的规范化键：排序后的列名，与列顺序无关
      *
-     * @param index1 索引1
-     * @param index2 索引2
-     * @return 是否相等
+     * @param index 索引结构
+     * @return 规范化键
      */
-    private boolean indexesEqual(IndexStructure index1, IndexStructure index2) {
-        // 主键索引有特殊匹配逻辑
-        if (index1.isPrimary() && index2.isPrimary()) {
-            return true;
+    private static String indexKey(IndexStructure index) {
+        List<IndexStructure.IndexColumnStructure> columns = index.getColumns();
+        if (columns.size() == 1) {
+            return String.valueOf(columns.get(0).getColumnName());
         }
-
-        // 根据索引列匹配
-        if (index1.getColumns().size() != index2.getColumns().size()) {
-            return false;
+        String[] columnNames = new String[columns.size()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = String.valueOf(columns.get(i).getColumnName());
         }
+        Arrays.sort(columnNames);
+        return String.join("\u0001", columnNames);
+    }
 
-        List<String> columns1 = index1.getColumns().stream()
-                .map(IndexStructure.IndexColumnStructure::getColumnName)
-                .collect(Collectors.toList());
-
-        List<String> columns2 = index2.getColumns().stream()
-                .map(IndexStructure.IndexColumnStructure::getColumnName)
-                .collect(Collectors.toList());
+    /**
+     * 为源索引选择对应的目标索引
+     * 候选为列集合相同的目标索引，源索引是主键时目标主键优先（主键之间总是匹配）。
+     * 候选中优先选择未配对且唯一性相同的索引，其次是未配对的索引；
+     * 候选都已配对时说明源表存在重复/冗余索引，不与任何目标索引配对，由调用方报告。
+     *
+     * @param sourceIndex     源索引
+     * @param sameColumns     列集合相同的目标索引下标，可为 null
+     * @param targetPrimaries 目标主键索引下标
+     * @param targetIndexes   目标索引列表
+     * @param matchedTargets  已配对的目标索引下标
+     * @return 对应的目标索引下标，没有候选或候选都已配对时返回 -1
+     */
+    private int matchIndex(IndexStructure sourceIndex, List<Integer> sameColumns, List<Integer> targetPrimaries,
+                           List<IndexStructure> targetIndexes, BitSet matchedTargets) {
+        List<Integer> candidates = sameColumns != null ? sameColumns : Collections.emptyList();
+        if (sourceIndex.isPrimary() && !targetPrimaries.isEmpty()) {
+            candidates = new ArrayList<>(targetPrimaries);
+            if (sameColumns != null) {
+                candidates.addAll(sameColumns);
+            }
+        }
 
-        return columns1.containsAll(columns2) && columns2.containsAll(columns1);
+        int unmatched = -1;
+        for (int candidate : candidates) {
+            if (matchedTargets.get(candidate)) {
+                continue;
+            }
+            if (targetIndexes.get(candidate).isUnique() == sourceIndex.isUnique()) {
+                matchedTargets.set(candidate);
+                return candidate;
+            }
+            if (unmatched < 0) {
+                unmatched = candidate;
+            }
+        }
+        if (unmatched >= 0) {
+            matchedTargets.set(unmatched);
+        }
+        return unmatched;
     }
 
     /**
@@ -0,0 +1,118 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+
+/**
+ * 比对结果快照，记录上一次比对时两端表结构的指纹以及比对结果
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class CompareSnapshot {
+
+    /**
+     * 比对键，由比对配置名称和两端的表标识组成
+     */
+    private String compareKey;
+
+    /**
+     * 比对配置指纹
+     */
+    private String configFingerprint;
+
+    /**
+     * 源表结构指纹
+     */
+    private String sourceFingerprint;
+
+    /**
+     * 目标表结构指纹
+     */
+    private String targetFingerprint;
+
+    /**
+     * 比对时间（毫秒时间戳）
+     */
+    private long comparedAt;
+
+    /**
+     * 比对结果，不包含两端的表结构
+     */
+    private CompareResult result;
+
+    public CompareSnapshot() {
+    }
+
+    public CompareSnapshot(String compareKey, String configFingerprint, String sourceFingerprint,
+                           String targetFingerprint, CompareResult result) {
+        this.compareKey = compareKey;
+        this.configFingerprint = configFingerprint;
+        this.sourceFingerprint = sourceFingerprint;
+        this.targetFingerprint = targetFingerprint;
+        this.result = result;
+        this.comparedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 判断快照是否对应相同的配置和两端结构
+     *
+     * @param configFingerprint 比对配置指纹
+     * @param sourceFingerprint 源表结构指纹
+     * @param targetFingerprint 目标表结构指纹
+     * @return 是否匹配
+     */
+    public boolean matches(String configFingerprint, String sourceFingerprint, String targetFingerprint) {
+        return result != null
+                && configFingerprint != null && configFingerprint.equals(this.configFingerprint)
+                && sourceFingerprint != null && sourceFingerprint.equals(this.sourceFingerprint)
+                && targetFingerprint != null && targetFingerprint.equals(this.targetFingerprint);
+    }
+
+    public String getCompareKey() {
+        return compareKey;
+    }
+
+    public void setCompareKey(String compareKey) {
+        this.compareKey = compareKey;
+    }
+
+    public String getConfigFingerprint() {
+        return configFingerprint;
+    }
+
+    public void setConfigFingerprint(String configFingerprint) {
+        this.configFingerprint = configFingerprint;
+    }
+
+    public String getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public void setSourceFingerprint(String sourceFingerprint) {
+        this.sourceFingerprint = sourceFingerprint;
+    }
+
+    public String getTargetFingerprint() {
+        return targetFingerprint;
+    }
+
+    public void setTargetFingerprint(String targetFingerprint) {
+        this.targetFingerprint = targetFingerprint;
+    }
+
+    public long getComparedAt() {
+        return comparedAt;
+    }
+
+    public void setComparedAt(long comparedAt) {
+        this.comparedAt = comparedAt;
+    }
+
+    public CompareResult getResult() {
+        return result;
+    }
+
+    public void setResult(CompareResult result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,126 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 基于本地文件的表结构快照存储
+ * 表快照存放在 tables 目录，比对快照存放在 compares 目录，文件名为快照键的 SHA-256，内容为 JSON。
+ * 写入先落到临时文件再原子替换，进程中断时不会留下半个快照。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class FileSchemaSnapshotStore implements SchemaSnapshotStore {
+
+    private static final String FILE_SUFFIX = ".json";
+
+    private final Path tablesDirectory;
+
+    private final Path comparesDirectory;
+
+    private final ObjectMapper objectMapper;
+
+    public FileSchemaSnapshotStore(Path baseDirectory) {
+        this.tablesDirectory = baseDirectory.resolve("tables");
+        this.comparesDirectory = baseDirectory.resolve("compares");
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .addMixIn(CompareResult.class, CompareResultMixIn.class);
+    }
+
+    @Override
+    public TableSnapshot loadTable(String dataSourceType, String dataSourceName, String tableName) throws IOException {
+        return read(tablesDirectory, TableSnapshot.key(dataSourceType, dataSourceName, tableName), TableSnapshot.class);
+    }
+
+    @Override
+    public void saveTable(TableSnapshot snapshot) throws IOException {
+        write(tablesDirectory,
+                TableSnapshot.key(snapshot.getDataSourceType(), snapshot.getDataSourceName(), snapshot.getTableName()),
+                snapshot);
+    }
+
+    @Override
+    public void forEachTable(Consumer<TableSnapshot> action) throws IOException {
+        if (!Files.isDirectory(tablesDirectory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tablesDirectory, "*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        for (Path file : files) {
+            try {
+                action.accept(objectMapper.readValue(Files.readAllBytes(file), TableSnapshot.class));
+            } catch (NoSuchFileException e) {
+                // 遍历期间被替换或删除的快照直接跳过
+            }
+        }
+    }
+
+    @Override
+    public CompareSnapshot loadCompare(String compareKey) throws IOException {
+        return read(comparesDirectory, compareKey, CompareSnapshot.class);
+    }
+
+    @Override
+    public void saveCompare(CompareSnapshot snapshot) throws IOException {
+        write(comparesDirectory, snapshot.getCompareKey(), snapshot);
+    }
+
+    private <T> T read(Path directory, String key, Class<T> type) throws IOException {
+        try {
+            return objectMapper.readValue(Files.readAllBytes(resolve(directory, key)), type);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void write(Path directory, String key, Object snapshot) throws IOException {
+        Files.createDirectories(directory);
+        Path target = resolve(directory, key);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                objectMapper.writeValue(out, snapshot);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path resolve(Path directory, String key) {
+        return directory.resolve(SchemaFingerprint.sha256(key) + FILE_SUFFIX);
+    }
+
+    /**
+     * 比对结果快照不重复保存两端表结构，复用时由调用方填回当前表结构
+     */
+    @JsonIgnoreProperties({"sourceTable", "targetTable"})
+    private abstract static class CompareResultMixIn {
+    }
+}
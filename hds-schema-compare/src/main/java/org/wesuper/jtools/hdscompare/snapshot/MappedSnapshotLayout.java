@@ -0,0 +1,135 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+/**
+ * 内存映射快照文件的二进制布局
+ *
+ * <pre>
+ * 文件头（32 字节）: magic "HDSS" | version int | tableCount int | dictionaryOffset long | indexOffset long | 保留 int
+ * 表记录区: 每张表一条记录，按写入顺序连续存放
+ * 字符串字典: count int | 偏移 int[count + 1] | UTF-8 字节
+ * 表索引: 每张表一个定长条目（见 INDEX_ENTRY_* 常量）
+ *
+ * 表记录:
+ *   记录头: 见 RECORD_* 常量，偏移均相对记录起始位置
+ *   列区: COLUMN_INT_FIELDS 个 int[columnCount] 数组按列式依次存放，随后是 byte[columnCount] 标志位
+ *   索引区: int[indexCount] 偏移数组，随后是逐个索引条目
+ *   数据区: 属性 Map 与类型映射列表的变长编码，由列区、索引区和记录头通过相对数据区起始的偏移引用
+ * </pre>
+ *
+ * 所有字符串均以字典 id 存储，-1 表示 null；可空整数以 {@link #NULL_INT} 表示 null；数据区引用以 -1 表示空。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+final class MappedSnapshotLayout {
+
+    static final int MAGIC = 0x48445353;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    static final int HEADER_TABLE_COUNT = 8;
+
+    static final int HEADER_DICTIONARY_OFFSET = 12;
+
+    static final int HEADER_INDEX_OFFSET = 20;
+
+    static final int NULL_ID = -1;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    static final int NO_DATA = -1;
+
+    /**
+     * 表索引条目: tableName | dataSourceType | dataSourceName | fingerprint | probe | capturedAt long | recordOffset long | recordLength int
+     */
+    static final int INDEX_ENTRY_SIZE = 40;
+
+    static final int INDEX_ENTRY_CAPTURED_AT = 20;
+
+    static final int INDEX_ENTRY_RECORD_OFFSET = 28;
+
+    static final int INDEX_ENTRY_RECORD_LENGTH = 36;
+
+    /**
+     * 记录头: tableName | sourceType | tableComment | propertiesRef | columnCount | indexCount |
+     * columnsOffset | indexesOffset | dataOffset
+     */
+    static final int RECORD_TABLE_NAME = 0;
+
+    static final int RECORD_SOURCE_TYPE = 4;
+
+    static final int RECORD_TABLE_COMMENT = 8;
+
+    static final int RECORD_PROPERTIES = 12;
+
+    static final int RECORD_COLUMN_COUNT = 16;
+
+    static final int RECORD_INDEX_COUNT = 20;
+
+    static final int RECORD_COLUMNS_OFFSET = 24;
+
+    static final int RECORD_INDEXES_OFFSET = 28;
+
+    static final int RECORD_DATA_OFFSET = 32;
+
+    static final int RECORD_HEADER_SIZE = 36;
+
+    /**
+     * 列区的 int 数组，按此顺序存放
+     */
+    static final int COLUMN_NAME = 0;
+
+    static final int COLUMN_DATA_TYPE = 1;
+
+    static final int COLUMN_COLUMN_TYPE = 2;
+
+    static final int COLUMN_LENGTH = 3;
+
+    static final int COLUMN_PRECISION = 4;
+
+    static final int COLUMN_SCALE = 5;
+
+    static final int COLUMN_DEFAULT_VALUE = 6;
+
+    static final int COLUMN_COMMENT = 7;
+
+    static final int COLUMN_ORDINAL_POSITION = 8;
+
+    static final int COLUMN_PROPERTIES = 9;
+
+    static final int COLUMN_TYPE_MAPPINGS = 10;
+
+    static final int COLUMN_INT_FIELDS = 11;
+
+    static final byte FLAG_NULLABLE = 1;
+
+    static final byte FLAG_AUTO_INCREMENT = 1 << 1;
+
+    static final byte FLAG_PRIMARY = 1;
+
+    static final byte FLAG_UNIQUE = 1 << 1;
+
+    /**
+     * 属性值类型标记
+     */
+    static final byte VALUE_NULL = 0;
+
+    static final byte VALUE_STRING = 1;
+
+    static final byte VALUE_TRUE = 2;
+
+    static final byte VALUE_FALSE = 3;
+
+    static final byte VALUE_INT = 4;
+
+    static final byte VALUE_LONG = 5;
+
+    static final byte VALUE_DOUBLE = 6;
+
+    static final byte VALUE_JSON = 7;
+
+    private MappedSnapshotLayout() {
+    }
+}
@@ -0,0 +1,193 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotLayout.*;
+
+/**
+ * 内存映射快照文件读取器
+ * 字典、表索引和表记录区均通过 MappedByteBuffer 映射，不占用堆内存；读取的表结构为
+ * {@link MappedTableStructure} 视图，字段和索引在访问时才解码。
+ * 单个映射最大 2GB，表记录区按表边界切分为多个映射段，单张表记录不会跨段。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class MappedSnapshotReader implements SnapshotFileReader {
+
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private final Path path;
+
+    private final StringDictionary dictionary;
+
+    private final ByteBuffer indexBuffer;
+
+    private final int tableCount;
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+
+    private final List<Long> segmentStarts = new ArrayList<>();
+
+    /**
+     * 每张表所在的映射段
+     */
+    private final int[] tableSegments;
+
+    /**
+     * 表名（不区分大小写）到表索引序号的索引
+     */
+    private final Map<String, List<Integer>> index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private MappedSnapshotReader(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Invalid snapshot file " + path + ": truncated header");
+            }
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Invalid snapshot file " + path + ": bad magic");
+        }
+        int version = header.getInt(4);
+        if (version > VERSION) {
+            throw new IOException("Unsupported snapshot format version " + version + " in " + path);
+        }
+        this.tableCount = header.getInt(HEADER_TABLE_COUNT);
+        long dictionaryOffset = header.getLong(HEADER_DICTIONARY_OFFSET);
+        long indexOffset = header.getLong(HEADER_INDEX_OFFSET);
+
+        this.dictionary = new StringDictionary(map(channel, dictionaryOffset, indexOffset - dictionaryOffset));
+        this.indexBuffer = map(channel, indexOffset, (long) tableCount * INDEX_ENTRY_SIZE);
+        this.tableSegments = new int[tableCount];
+        mapRecords(channel);
+
+        for (int i = 0; i < tableCount; i++) {
+            String tableName = dictionary.get(indexBuffer.getInt(i * INDEX_ENTRY_SIZE));
+            index.computeIfAbsent(tableName, k -> new ArrayList<>(1)).add(i);
+        }
+    }
+
+    /**
+     * 打开快照文件，映射字典、表索引和表记录区
+     *
+     * @param path 快照文件路径
+     * @return 快照文件读取器
+     * @throws IOException 读取失败或文件格式不正确时抛出异常
+     */
+    public static MappedSnapshotReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedSnapshotReader(path, channel);
+        }
+    }
+
+    @Override
+    public TableSnapshot read(String tableName, String dataSourceType, String dataSourceName) {
+        List<Integer> entries = index.get(tableName);
+        if (entries == null) {
+            return null;
+        }
+
+        List<Integer> matched = new ArrayList<>(1);
+        for (int entry : entries) {
+            int base = entry * INDEX_ENTRY_SIZE;
+            if ((dataSourceType == null || dataSourceType.equalsIgnoreCase(dictionary.get(indexBuffer.getInt(base + 4))))
+                    && (dataSourceName == null || dataSourceName.equals(dictionary.get(indexBuffer.getInt(base + 8))))) {
+                matched.add(entry);
+            }
+        }
+        if (matched.isEmpty()) {
+            return null;
+        }
+        if (matched.size() > 1) {
+            throw new IllegalStateException("Table " + tableName + " exists in multiple data sources of snapshot " + path
+                    + ", specify sourceType/sourceDataSourceName to select one");
+        }
+        return readEntry(matched.get(0));
+    }
+
+    @Override
+    public Set<String> getTableNames() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    @Override
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    private TableSnapshot readEntry(int entry) {
+        int base = entry * INDEX_ENTRY_SIZE;
+        long recordOffset = indexBuffer.getLong(base + INDEX_ENTRY_RECORD_OFFSET);
+        int recordLength = indexBuffer.getInt(base + INDEX_ENTRY_RECORD_LENGTH);
+
+        int segment = tableSegments[entry];
+        ByteBuffer record = segments.get(segment).duplicate();
+        int start = (int) (recordOffset - segmentStarts.get(segment));
+        record.position(start);
+        record.limit(start + recordLength);
+
+        TableSnapshot snapshot = new TableSnapshot();
+        snapshot.setTableName(dictionary.get(indexBuffer.getInt(base)));
+        snapshot.setDataSourceType(dictionary.get(indexBuffer.getInt(base + 4)));
+        snapshot.setDataSourceName(dictionary.get(indexBuffer.getInt(base + 8)));
+        snapshot.setFingerprint(dictionary.get(indexBuffer.getInt(base + 12)));
+        snapshot.setProbe(dictionary.get(indexBuffer.getInt(base + 16)));
+        snapshot.setCapturedAt(indexBuffer.getLong(base + INDEX_ENTRY_CAPTURED_AT));
+        snapshot.setTableStructure(new MappedTableStructure(dictionary, record.slice()));
+        return snapshot;
+    }
+
+    /**
+     * 按表记录顺序将记录区切分为不超过 2GB 的映射段
+     */
+    private void mapRecords(FileChannel channel) throws IOException {
+        long segmentStart = -1;
+        long segmentEnd = -1;
+        for (int i = 0; i < tableCount; i++) {
+            long recordOffset = indexBuffer.getLong(i * INDEX_ENTRY_SIZE + INDEX_ENTRY_RECORD_OFFSET);
+            long recordEnd = recordOffset + indexBuffer.getInt(i * INDEX_ENTRY_SIZE + INDEX_ENTRY_RECORD_LENGTH);
+            if (segmentStart >= 0 && recordEnd - segmentStart > MAX_SEGMENT_SIZE) {
+                addSegment(channel, segmentStart, segmentEnd);
+                segmentStart = -1;
+            }
+            if (segmentStart < 0) {
+                segmentStart = recordOffset;
+            }
+            segmentEnd = Math.max(segmentEnd, recordEnd);
+            tableSegments[i] = segments.size();
+        }
+        if (segmentStart >= 0) {
+            addSegment(channel, segmentStart, segmentEnd);
+        }
+    }
+
+    private void addSegment(FileChannel channel, long start, long end) throws IOException {
+        segments.add(map(channel, start, end - start));
+        segmentStarts.add(start);
+    }
+
+    private MappedByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        if (offset < HEADER_SIZE || length < 0 || offset + length > channel.size()) {
+            throw new IOException("Invalid snapshot file " + path + ": region " + offset + "+" + length
+                    + " out of bounds");
+        }
+        if (length > MAX_SEGMENT_SIZE) {
+            throw new IOException("Snapshot region larger than 2GB in " + path);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+}
@@ -0,0 +1,321 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotLayout.*;
+
+/**
+ * 内存映射快照文件写入器
+ * 每张表按列式布局编码后通过 FileChannel 顺序写入，字符串统一进入字典去重，
+ * 关闭时依次写出字典和表索引并回填文件头。布局见 {@link MappedSnapshotLayout}。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class MappedSnapshotWriter implements SnapshotFileWriter {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final Path target;
+
+    private final Path temp;
+
+    private final FileChannel channel;
+
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream indexOut = new DataOutputStream(indexBytes);
+
+    private long position = HEADER_SIZE;
+
+    private int tableCount;
+
+    private boolean closed;
+
+    public MappedSnapshotWriter(Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.target = target;
+        this.temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.channel.position(HEADER_SIZE);
+    }
+
+    @Override
+    public void write(TableSnapshot snapshot) throws IOException {
+        byte[] record = encodeTable(snapshot.getTableStructure());
+        writeFully(ByteBuffer.wrap(record));
+
+        indexOut.writeInt(id(snapshot.getTableName()));
+        indexOut.writeInt(id(snapshot.getDataSourceType()));
+        indexOut.writeInt(id(snapshot.getDataSourceName()));
+        indexOut.writeInt(id(snapshot.getFingerprint()));
+        indexOut.writeInt(id(snapshot.getProbe()));
+        indexOut.writeLong(snapshot.getCapturedAt());
+        indexOut.writeLong(position);
+        indexOut.writeInt(record.length);
+
+        position += record.length;
+        tableCount++;
+    }
+
+    @Override
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    @Override
+    public void discard() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 临时文件即将删除，关闭失败无需处理
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // 临时文件删除失败不影响目标文件
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            try {
+                long dictionaryOffset = position;
+                writeFully(ByteBuffer.wrap(encodeDictionary()));
+                position = channel.position();
+
+                long indexOffset = position;
+                writeFully(ByteBuffer.wrap(indexBytes.toByteArray()));
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC);
+                header.putInt(VERSION);
+                header.putInt(tableCount);
+                header.putLong(dictionaryOffset);
+                header.putLong(indexOffset);
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            } finally {
+                channel.close();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private byte[] encodeTable(TableStructure table) throws IOException {
+        List<ColumnStructure> columns = table.getColumns() == null ? Collections.emptyList() : table.getColumns();
+        List<IndexStructure> indexes = table.getIndexes() == null ? Collections.emptyList() : table.getIndexes();
+        int columnCount = columns.size();
+        int indexCount = indexes.size();
+
+        ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(dataBytes);
+        int tableProperties = writeProperties(data, table.getProperties());
+
+        // 列区：每个字段一个数组，解码单列时按下标直接定位
+        int[][] columnFields = new int[COLUMN_INT_FIELDS][columnCount];
+        byte[] columnFlags = new byte[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            ColumnStructure column = columns.get(i);
+            columnFields[COLUMN_NAME][i] = id(column.getColumnName());
+            columnFields[COLUMN_DATA_TYPE][i] = id(column.getDataType());
+            columnFields[COLUMN_COLUMN_TYPE][i] = id(column.getColumnType());
+            columnFields[COLUMN_LENGTH][i] = nullableInt(column.getLength());
+            columnFields[COLUMN_PRECISION][i] = nullableInt(column.getPrecision());
+            columnFields[COLUMN_SCALE][i] = nullableInt(column.getScale());
+            columnFields[COLUMN_DEFAULT_VALUE][i] = id(column.getDefaultValue());
+            columnFields[COLUMN_COMMENT][i] = id(column.getComment());
+            columnFields[COLUMN_ORDINAL_POSITION][i] = nullableInt(column.getOrdinalPosition());
+            columnFields[COLUMN_PROPERTIES][i] = writeProperties(data, column.getProperties());
+            columnFields[COLUMN_TYPE_MAPPINGS][i] = writeTypeMappings(data, column.getTypeMappings());
+            columnFlags[i] = (byte) ((column.isNullable() ? FLAG_NULLABLE : 0)
+                    | (column.isAutoIncrement() ? FLAG_AUTO_INCREMENT : 0));
+        }
+
+        // 索引区：偏移数组 + 变长条目
+        ByteArrayOutputStream indexEntryBytes = new ByteArrayOutputStream();
+        DataOutputStream indexEntries = new DataOutputStream(indexEntryBytes);
+        int[] indexOffsets = new int[indexCount];
+        for (int i = 0; i < indexCount; i++) {
+            IndexStructure index = indexes.get(i);
+            indexOffsets[i] = indexEntries.size();
+            indexEntries.writeInt(id(index.getIndexName()));
+            indexEntries.writeInt(id(index.getIndexType()));
+            indexEntries.writeByte((index.isPrimary() ? FLAG_PRIMARY : 0) | (index.isUnique() ? FLAG_UNIQUE : 0));
+            List<IndexStructure.IndexColumnStructure> indexColumns =
+                    index.getColumns() == null ? Collections.emptyList() : index.getColumns();
+            indexEntries.writeInt(indexColumns.size());
+            for (IndexStructure.IndexColumnStructure indexColumn : indexColumns) {
+                indexEntries.writeInt(id(indexColumn.getColumnName()));
+                indexEntries.writeInt(indexColumn.getPosition());
+                indexEntries.writeInt(id(indexColumn.getSort()));
+            }
+            indexEntries.writeInt(writeProperties(data, index.getProperties()));
+        }
+
+        int columnsOffset = RECORD_HEADER_SIZE;
+        int indexesOffset = columnsOffset + columnCount * COLUMN_INT_FIELDS * 4 + columnCount;
+        int dataOffset = indexesOffset + indexCount * 4 + indexEntries.size();
+
+        ByteBuffer record = ByteBuffer.allocate(dataOffset + data.size());
+        record.putInt(id(table.getTableName()));
+        record.putInt(id(table.getSourceType()));
+        record.putInt(id(table.getTableComment()));
+        record.putInt(tableProperties);
+        record.putInt(columnCount);
+        record.putInt(indexCount);
+        record.putInt(columnsOffset);
+        record.putInt(indexesOffset);
+        record.putInt(dataOffset);
+        for (int[] field : columnFields) {
+            for (int value : field) {
+                record.putInt(value);
+            }
+        }
+        record.put(columnFlags);
+        for (int indexOffset : indexOffsets) {
+            record.putInt(indexOffset);
+        }
+        record.put(indexEntryBytes.toByteArray());
+        record.put(dataBytes.toByteArray());
+        return record.array();
+    }
+
+    private int writeProperties(DataOutputStream data, Map<String, Object> properties) throws IOException {
+        if (properties == null || properties.isEmpty()) {
+            return NO_DATA;
+        }
+        int ref = data.size();
+        data.writeInt(properties.size());
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            data.writeInt(id(entry.getKey()));
+            writeValue(data, entry.getValue());
+        }
+        return ref;
+    }
+
+    private void writeValue(DataOutputStream data, Object value) throws IOException {
+        if (value == null) {
+            data.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            data.writeByte(VALUE_STRING);
+            data.writeInt(id((String) value));
+        } else if (value instanceof Boolean) {
+            data.writeByte((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            data.writeByte(VALUE_INT);
+            data.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            data.writeByte(VALUE_LONG);
+            data.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            data.writeByte(VALUE_DOUBLE);
+            data.writeDouble(((Number) value).doubleValue());
+        } else {
+            // 嵌套结构等其他类型以 JSON 文本存入字典
+            data.writeByte(VALUE_JSON);
+            data.writeInt(id(JSON_MAPPER.writeValueAsString(value)));
+        }
+    }
+
+    private int writeTypeMappings(DataOutputStream data, List<ColumnStructure.TypeMapping> typeMappings) throws IOException {
+        if (typeMappings == null || typeMappings.isEmpty()) {
+            return NO_DATA;
+        }
+        int ref = data.size();
+        data.writeInt(typeMappings.size());
+        for (ColumnStructure.TypeMapping typeMapping : typeMappings) {
+            List<String> columnTypes = typeMapping.getColumnTypes() == null
+                    ? Collections.emptyList() : typeMapping.getColumnTypes();
+            data.writeInt(id(typeMapping.getTargetType()));
+            data.writeInt(columnTypes.size());
+            for (String columnType : columnTypes) {
+                data.writeInt(id(columnType));
+            }
+        }
+        return ref;
+    }
+
+    private byte[] encodeDictionary() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int[] offsets = new int[dictionary.size() + 1];
+        for (int i = 0; i < dictionary.size(); i++) {
+            offsets[i] = bytes.size();
+            bytes.write(dictionary.get(i).getBytes(StandardCharsets.UTF_8));
+        }
+        offsets[dictionary.size()] = bytes.size();
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + offsets.length * 4 + bytes.size());
+        buffer.putInt(dictionary.size());
+        for (int offset : offsets) {
+            buffer.putInt(offset);
+        }
+        buffer.put(bytes.toByteArray());
+        return buffer.array();
+    }
+
+    private int id(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = dictionaryIds.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.add(value);
+            dictionaryIds.put(value, id);
+        }
+        return id;
+    }
+
+    private static int nullableInt(Integer value) {
+        return value == null ? NULL_INT : value;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotLayout.*;
+
+/**
+ * 基于内存映射快照记录的只读表结构视图
+ * 字段和索引在首次 get(i) 时才从映射区解码并缓存在视图中，同一视图重复读取返回同一实例，
+ * 比对引擎可以按对象配对；视图在比对结束后即可连同解码结果一起回收。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class MappedTableStructure extends TableStructure {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final StringDictionary dictionary;
+
+    private final ByteBuffer record;
+
+    private final int columnCount;
+
+    private final int indexCount;
+
+    private final int columnsOffset;
+
+    private final int indexesOffset;
+
+    private final int dataOffset;
+
+    /**
+     * 已解码的字段和索引，视图可能被多个比对线程共享，并发解码时保留先写入的实例
+     */
+    private final AtomicReferenceArray<ColumnStructure> decodedColumns;
+
+    private final AtomicReferenceArray<IndexStructure> decodedIndexes;
+
+    MappedTableStructure(StringDictionary dictionary, ByteBuffer record) {
+        this.dictionary = dictionary;
+        this.record = record;
+        this.columnCount = record.getInt(RECORD_COLUMN_COUNT);
+        this.indexCount = record.getInt(RECORD_INDEX_COUNT);
+        this.columnsOffset = record.getInt(RECORD_COLUMNS_OFFSET);
+        this.indexesOffset = record.getInt(RECORD_INDEXES_OFFSET);
+        this.dataOffset = record.getInt(RECORD_DATA_OFFSET);
+        this.decodedColumns = new AtomicReferenceArray<>(columnCount);
+        this.decodedIndexes = new AtomicReferenceArray<>(indexCount);
+    }
+
+    @Override
+    public String getTableName() {
+        return dictionary.get(record.getInt(RECORD_TABLE_NAME));
+    }
+
+    @Override
+    public String getSourceType() {
+        return dictionary.get(record.getInt(RECORD_SOURCE_TYPE));
+    }
+
+    @Override
+    public String getTableComment() {
+        return dictionary.get(record.getInt(RECORD_TABLE_COMMENT));
+    }
+
+    @Override
+    public List<ColumnStructure> getColumns() {
+        return new DecodingList<ColumnStructure>(columnCount) {
+            @Override
+            public ColumnStructure get(int i) {
+                checkIndex(i);
+                return column(i);
+            }
+        };
+    }
+
+    @Override
+    public List<IndexStructure> getIndexes() {
+        return new DecodingList<IndexStructure>(indexCount) {
+            @Override
+            public IndexStructure get(int i) {
+                checkIndex(i);
+                return index(i);
+            }
+        };
+    }
+
+    /**
+     * 只比较字典中的字段名，命中后才解码该字段，不为映射快照建立常驻的字段索引
+     */
+    @Override
+    public ColumnStructure getColumnByName(String columnName) {
+        if (columnName == null) {
+            return null;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            if (columnName.equalsIgnoreCase(dictionary.get(columnField(COLUMN_NAME, i)))) {
+                return column(i);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<ColumnStructure> getColumnsByPathPrefix(String pathPrefix) {
+        if (pathPrefix == null) {
+            return Collections.emptyList();
+        }
+        String prefix = pathPrefix.toLowerCase(Locale.ROOT) + ".";
+        List<ColumnStructure> columns = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            String name = dictionary.get(columnField(COLUMN_NAME, i));
+            if (name != null && name.toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                columns.add(column(i));
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    public Map<String, Object> getProperties() {
+        return readProperties(record.getInt(RECORD_PROPERTIES));
+    }
+
+    @Override
+    public void setTableName(String tableName) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSourceType(String sourceType) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTableComment(String tableComment) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setColumns(List<ColumnStructure> columns) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setIndexes(List<IndexStructure> indexes) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setProperties(Map<String, Object> properties) {
+        throw readOnly();
+    }
+
+    private ColumnStructure column(int i) {
+        ColumnStructure column = decodedColumns.get(i);
+        if (column == null) {
+            decodedColumns.compareAndSet(i, null, decodeColumn(i));
+            column = decodedColumns.get(i);
+        }
+        return column;
+    }
+
+    private IndexStructure index(int i) {
+        IndexStructure index = decodedIndexes.get(i);
+        if (index == null) {
+            decodedIndexes.compareAndSet(i, null, decodeIndex(i));
+            index = decodedIndexes.get(i);
+        }
+        return index;
+    }
+
+    private ColumnStructure decodeColumn(int i) {
+        ColumnStructure column = new ColumnStructure();
+        column.setColumnName(dictionary.get(columnField(COLUMN_NAME, i)));
+        column.setDataType(dictionary.get(columnField(COLUMN_DATA_TYPE, i)));
+        column.setColumnType(dictionary.get(columnField(COLUMN_COLUMN_TYPE, i)));
+        column.setLength(nullableInt(columnField(COLUMN_LENGTH, i)));
+        column.setPrecision(nullableInt(columnField(COLUMN_PRECISION, i)));
+        column.setScale(nullableInt(columnField(COLUMN_SCALE, i)));
+        column.setDefaultValue(dictionary.get(columnField(COLUMN_DEFAULT_VALUE, i)));
+        column.setComment(dictionary.get(columnField(COLUMN_COMMENT, i)));
+        column.setOrdinalPosition(nullableInt(columnField(COLUMN_ORDINAL_POSITION, i)));
+        column.setProperties(readProperties(columnField(COLUMN_PROPERTIES, i)));
+        column.setTypeMappings(readTypeMappings(columnField(COLUMN_TYPE_MAPPINGS, i)));
+
+        byte flags = record.get(columnsOffset + COLUMN_INT_FIELDS * columnCount * 4 + i);
+        column.setNullable((flags & FLAG_NULLABLE) != 0);
+        column.setAutoIncrement((flags & FLAG_AUTO_INCREMENT) != 0);
+        return column;
+    }
+
+    private IndexStructure decodeIndex(int i) {
+        int position = indexesOffset + indexCount * 4 + record.getInt(indexesOffset + i * 4);
+        IndexStructure index = new IndexStructure();
+        index.setIndexName(dictionary.get(record.getInt(position)));
+        index.setIndexType(dictionary.get(record.getInt(position + 4)));
+        byte flags = record.get(position + 8);
+        index.setPrimary((flags & FLAG_PRIMARY) != 0);
+        index.setUnique((flags & FLAG_UNIQUE) != 0);
+
+        int columns = record.getInt(position + 9);
+        position += 13;
+        List<IndexStructure.IndexColumnStructure> indexColumns = new ArrayList<>(columns);
+        for (int c = 0; c < columns; c++) {
+            IndexStructure.IndexColumnStructure indexColumn = new IndexStructure.IndexColumnStructure();
+            indexColumn.setColumnName(dictionary.get(record.getInt(position)));
+            indexColumn.setPosition(record.getInt(position + 4));
+            indexColumn.setSort(dictionary.get(record.getInt(position + 8)));
+            indexColumns.add(indexColumn);
+            position += 12;
+        }
+        index.setColumns(indexColumns);
+        index.setProperties(readProperties(record.getInt(position)));
+        return index;
+    }
+
+    private int columnField(int field, int i) {
+        return record.getInt(columnsOffset + (field * columnCount + i) * 4);
+    }
+
+    private Map<String, Object> readProperties(int ref) {
+        Map<String, Object> properties = new HashMap<>();
+        if (ref == NO_DATA) {
+            return properties;
+        }
+        int position = dataOffset + ref;
+        int count = record.getInt(position);
+        position += 4;
+        for (int i = 0; i < count; i++) {
+            String key = dictionary.get(record.getInt(position));
+            byte tag = record.get(position + 4);
+            position += 5;
+            Object value;
+            switch (tag) {
+                case VALUE_NULL:
+                    value = null;
+                    break;
+                case VALUE_STRING:
+                    value = dictionary.get(record.getInt(position));
+                    position += 4;
+                    break;
+                case VALUE_TRUE:
+                    value = Boolean.TRUE;
+                    break;
+                case VALUE_FALSE:
+                    value = Boolean.FALSE;
+                    break;
+                case VALUE_INT:
+                    value = record.getInt(position);
+                    position += 4;
+                    break;
+                case VALUE_LONG:
+                    value = record.getLong(position);
+                    position += 8;
+                    break;
+                case VALUE_DOUBLE:
+                    value = record.getDouble(position);
+                    position += 8;
+                    break;
+                case VALUE_JSON:
+                    value = readJson(dictionary.get(record.getInt(position)));
+                    position += 4;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown property value tag " + tag + " in snapshot record");
+            }
+            properties.put(key, value);
+        }
+        return properties;
+    }
+
+    private List<ColumnStructure.TypeMapping> readTypeMappings(int ref) {
+        if (ref == NO_DATA) {
+            return null;
+        }
+        int position = dataOffset + ref;
+        int count = record.getInt(position);
+        position += 4;
+        List<ColumnStructure.TypeMapping> typeMappings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ColumnStructure.TypeMapping typeMapping = new ColumnStructure.TypeMapping();
+            typeMapping.setTargetType(dictionary.get(record.getInt(position)));
+            int types = record.getInt(position + 4);
+            position += 8;
+            List<String> columnTypes = new ArrayList<>(types);
+            for (int t = 0; t < types; t++) {
+                columnTypes.add(dictionary.get(record.getInt(position)));
+                position += 4;
+            }
+            typeMapping.setColumnTypes(columnTypes);
+            typeMappings.add(typeMapping);
+        }
+        return typeMappings;
+    }
+
+    private static Object readJson(String json) {
+        try {
+            return JSON_MAPPER.readValue(json, Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Integer nullableInt(int value) {
+        return value == NULL_INT ? null : value;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Mapped table structure is read-only");
+    }
+
+    /**
+     * 按下标读取视图中字段或索引的只读列表
+     */
+    private abstract static class DecodingList<E> extends AbstractList<E> implements RandomAccess {
+
+        private final int size;
+
+        DecodingList(int size) {
+            this.size = size;
+        }
+
+        void checkIndex(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRule;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRuleRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 表结构指纹计算工具
+ * 将表结构按稳定的规范形式序列化后计算 SHA-256，内容不变时指纹不变，与属性 Map 的遍历顺序和索引的提取顺序无关。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public final class SchemaFingerprint {
+
+    /**
+     * 规范形式的版本号，规范形式或比对逻辑发生不兼容变化时递增，使旧快照失效
+     */
+    private static final String FORMAT_VERSION = "1";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private SchemaFingerprint() {
+    }
+
+    /**
+     * 计算表结构指纹
+     *
+     * @param tableStructure 表结构
+     * @return 十六进制 SHA-256 指纹
+     */
+    public static String of(TableStructure tableStructure) {
+        StringBuilder canonical = new StringBuilder(1024);
+        append(canonical, FORMAT_VERSION);
+        append(canonical, tableStructure.getTableName());
+        append(canonical, lowerCase(tableStructure.getSourceType()));
+        append(canonical, tableStructure.getTableComment());
+        appendValue(canonical, tableStructure.getProperties());
+
+        List<ColumnStructure> columns = tableStructure.getColumns();
+        canonical.append("C[");
+        if (columns != null) {
+            for (ColumnStructure column : columns) {
+                appendColumn(canonical, column);
+            }
+        }
+        canonical.append(']');
+
+        List<IndexStructure> indexes = tableStructure.getIndexes() == null
+                ? new ArrayList<>() : new ArrayList<>(tableStructure.getIndexes());
+        indexes.sort(Comparator.comparing(index -> lowerCase(index.getIndexName()),
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        canonical.append("I[");
+        for (IndexStructure index : indexes) {
+            appendIndex(canonical, index);
+        }
+        canonical.append(']');
+
+        return sha256(canonical.toString());
+    }
+
+    /**
+     * 计算单表比对配置在内置规则下的指纹
+     *
+     * @param config 仅包含单个表配置的比对配置
+     * @return 十六进制 SHA-256 指纹
+     */
+    public static String of(DataSourceCompareConfig.CompareConfig config) {
+        return of(config, ComparisonRuleRegistry.builtIn());
+    }
+
+    /**
+     * 计算单表比对配置和比对规则的指纹，配置或规则变化时以前的比对结果不可复用
+     *
+     * @param config       仅包含单个表配置的比对配置
+     * @param ruleRegistry 比对规则注册表
+     * @return 十六进制 SHA-256 指纹
+     */
+    public static String of(DataSourceCompareConfig.CompareConfig config, ComparisonRuleRegistry ruleRegistry) {
+        StringBuilder canonical = new StringBuilder(256);
+        append(canonical, FORMAT_VERSION);
+        append(canonical, config.getName());
+        appendDataSource(canonical, config.getSourceDataSource());
+        appendDataSource(canonical, config.getTargetDataSource());
+        if (config.getTableConfigs() != null) {
+            for (DataSourceCompareConfig.TableCompareConfig tableConfig : config.getTableConfigs()) {
+                append(canonical, tableConfig.getSourceTableName());
+                append(canonical, tableConfig.getTargetTableName());
+                appendValue(canonical, sorted(tableConfig.getIgnoreFields()));
+                appendValue(canonical, sorted(tableConfig.getIgnoreTypes()));
+            }
+        }
+        canonical.append("R[");
+        for (ComparisonRule rule : ruleRegistry.getRules()) {
+            append(canonical, rule.getFingerprint());
+            append(canonical, rule.getScope().name());
+            append(canonical, String.valueOf(rule.getOrder()));
+            appendValue(canonical, sorted(new ArrayList<>(rule.getPropertyNames())));
+        }
+        canonical.append(']');
+        return sha256(canonical.toString());
+    }
+
+    /**
+     * 计算字符串的 SHA-256
+     *
+     * @param value 字符串
+     * @return 十六进制 SHA-256
+     */
+    public static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0x0f];
+                hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0x0f];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void appendColumn(StringBuilder canonical, ColumnStructure column) {
+        canonical.append('{');
+        append(canonical, column.getColumnName());
+        append(canonical, column.getDataType());
+        append(canonical, column.getColumnType());
+        appendValue(canonical, column.getLength());
+        appendValue(canonical, column.getPrecision());
+        appendValue(canonical, column.getScale());
+        appendValue(canonical, column.isNullable());
+        append(canonical, column.getDefaultValue());
+        appendValue(canonical, column.isAutoIncrement());
+        append(canonical, column.getComment());
+        appendValue(canonical, column.getOrdinalPosition());
+        appendValue(canonical, column.getProperties());
+        canonical.append('}');
+    }
+
+    private static void appendIndex(StringBuilder canonical, IndexStructure index) {
+        canonical.append('{');
+        append(canonical, index.getIndexName());
+        append(canonical, index.getIndexType());
+        appendValue(canonical, index.isPrimary());
+        appendValue(canonical, index.isUnique());
+        canonical.append('[');
+        if (index.getColumns() != null) {
+            for (IndexStructure.IndexColumnStructure column : index.getColumns()) {
+                append(canonical, column.getColumnName());
+                appendValue(canonical, column.getPosition());
+                append(canonical, column.getSort());
+            }
+        }
+        canonical.append(']');
+        appendValue(canonical, index.getProperties());
+        canonical.append('}');
+    }
+
+    private static void appendDataSource(StringBuilder canonical, DataSourceCompareConfig.DataSourceConfig dataSource) {
+        if (dataSource == null) {
+            canonical.append('~');
+            return;
+        }
+        append(canonical, lowerCase(dataSource.getType()));
+        append(canonical, dataSource.getDataSourceName());
+    }
+
+    private static void appendValue(StringBuilder canonical, Object value) {
+        if (value == null) {
+            canonical.append('~');
+        } else if (value instanceof Map) {
+            Map<String, Object> sortedMap = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sortedMap.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            canonical.append('{');
+            for (Map.Entry<String, Object> entry : sortedMap.entrySet()) {
+                append(canonical, entry.getKey());
+                appendValue(canonical, entry.getValue());
+            }
+            canonical.append('}');
+        } else if (value instanceof Collection) {
+            canonical.append('[');
+            for (Object element : (Collection<?>) value) {
+                appendValue(canonical, element);
+            }
+            canonical.append(']');
+        } else {
+            append(canonical, String.valueOf(value));
+        }
+    }
+
+    /**
+     * 以长度前缀写入字符串，避免内容中的分隔符造成歧义
+     */
+    private static void append(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append('~');
+            return;
+        }
+        canonical.append(value.length()).append(':').append(value);
+    }
+
+    private static List<String> sorted(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> sortedValues = new ArrayList<>(values);
+        sortedValues.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        return sortedValues;
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
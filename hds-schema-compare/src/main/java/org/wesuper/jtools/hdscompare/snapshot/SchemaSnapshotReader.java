@@ -0,0 +1,173 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 快照文件读取器
+ * 打开时流式扫描一遍文件，只记录每张表的名称、来源和字节偏移；读取某张表时从其偏移处单独解析，
+ * 因此上万张表的快照也只需常驻一个很小的索引。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class SchemaSnapshotReader implements SnapshotFileReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    private final JsonFactory factory;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 表名（不区分大小写）到表快照位置的索引
+     */
+    private final Map<String, List<Entry>> index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private int tableCount;
+
+    private SchemaSnapshotReader(Path path, SnapshotFileFormat format) {
+        this.path = path;
+        this.factory = format.createFactory();
+        this.objectMapper = new ObjectMapper(factory)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * 打开快照文件并建立索引
+     *
+     * @param path   快照文件路径
+     * @param format 快照文件格式
+     * @return 快照文件读取器
+     * @throws IOException 读取失败或文件格式不正确时抛出异常
+     */
+    public static SchemaSnapshotReader open(Path path, SnapshotFileFormat format) throws IOException {
+        SchemaSnapshotReader reader = new SchemaSnapshotReader(path, format);
+        reader.buildIndex();
+        return reader;
+    }
+
+    @Override
+    public TableSnapshot read(String tableName, String dataSourceType, String dataSourceName) throws IOException {
+        List<Entry> entries = index.get(tableName);
+        if (entries == null) {
+            return null;
+        }
+
+        List<Entry> matched = new ArrayList<>(1);
+        for (Entry entry : entries) {
+            if ((dataSourceType == null || dataSourceType.equalsIgnoreCase(entry.dataSourceType))
+                    && (dataSourceName == null || dataSourceName.equals(entry.dataSourceName))) {
+                matched.add(entry);
+            }
+        }
+        if (matched.isEmpty()) {
+            return null;
+        }
+        if (matched.size() > 1) {
+            throw new IllegalStateException("Table " + tableName + " exists in multiple data sources of snapshot " + path
+                    + ", specify sourceType/sourceDataSourceName to select one");
+        }
+        return readAt(matched.get(0).offset);
+    }
+
+    @Override
+    public Set<String> getTableNames() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    @Override
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    private TableSnapshot readAt(long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.position(offset);
+            try (JsonParser parser = factory.createParser(
+                    new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE))) {
+                return objectMapper.readValue(parser, TableSnapshot.class);
+            }
+        }
+    }
+
+    private void buildIndex() throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+             JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid snapshot file " + path + ": expected an object at root");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (SchemaSnapshotWriter.FIELD_FORMAT_VERSION.equals(field)) {
+                    int version = parser.getIntValue();
+                    if (version > SchemaSnapshotWriter.FORMAT_VERSION) {
+                        throw new IOException("Unsupported snapshot format version " + version + " in " + path);
+                    }
+                } else if (SchemaSnapshotWriter.FIELD_TABLES.equals(field) && value == JsonToken.START_ARRAY) {
+                    indexTables(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void indexTables(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Entry entry = new Entry(parser.getTokenLocation().getByteOffset());
+            String tableName = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("tableName".equals(field)) {
+                    tableName = parser.getValueAsString();
+                } else if ("dataSourceType".equals(field)) {
+                    entry.dataSourceType = parser.getValueAsString();
+                } else if ("dataSourceName".equals(field)) {
+                    entry.dataSourceName = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (tableName != null) {
+                index.computeIfAbsent(tableName, k -> new ArrayList<>(1)).add(entry);
+                tableCount++;
+            }
+        }
+    }
+
+    /**
+     * 索引项：表快照在文件中的位置及来源
+     */
+    private static final class Entry {
+        private final long offset;
+        private String dataSourceType;
+        private String dataSourceName;
+
+        Entry(long offset) {
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * 表结构快照存储接口
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public interface SchemaSnapshotStore {
+
+    /**
+     * 读取表结构快照
+     *
+     * @param dataSourceType 数据源类型
+     * @param dataSourceName 数据源名称
+     * @param tableName      表名
+     * @return 表结构快照，不存在时返回 null
+     * @throws IOException 读取失败时抛出异常
+     */
+    TableSnapshot loadTable(String dataSourceType, String dataSourceName, String tableName) throws IOException;
+
+    /**
+     * 保存表结构快照，覆盖已有快照
+     *
+     * @param snapshot 表结构快照
+     * @throws IOException 写入失败时抛出异常
+     */
+    void saveTable(TableSnapshot snapshot) throws IOException;
+
+    /**
+     * 逐个遍历所有表结构快照，不会一次性加载到内存
+     *
+     * @param action 对每个表快照执行的操作
+     * @throws IOException 读取失败时抛出异常
+     */
+    void forEachTable(Consumer<TableSnapshot> action) throws IOException;
+
+    /**
+     * 读取比对结果快照
+     *
+     * @param compareKey 比对键
+     * @return 比对结果快照，不存在时返回 null
+     * @throws IOException 读取失败时抛出异常
+     */
+    CompareSnapshot loadCompare(String compareKey) throws IOException;
+
+    /**
+     * 保存比对结果快照，覆盖已有快照
+     *
+     * @param snapshot 比对结果快照
+     * @throws IOException 写入失败时抛出异常
+     */
+    void saveCompare(CompareSnapshot snapshot) throws IOException;
+}
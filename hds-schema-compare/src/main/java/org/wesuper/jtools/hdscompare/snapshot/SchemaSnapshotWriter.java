@@ -0,0 +1,110 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 快照文件写入器
+ * 以流式方式逐表写入，文件结构为 {"formatVersion":1,"tables":[TableSnapshot...]}，
+ * 写入临时文件，关闭时原子替换目标文件；调用 {@link #discard()} 则放弃本次写入。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class SchemaSnapshotWriter implements SnapshotFileWriter {
+
+    static final String FIELD_FORMAT_VERSION = "formatVersion";
+
+    static final String FIELD_TABLES = "tables";
+
+    static final int FORMAT_VERSION = 1;
+
+    private final Path target;
+
+    private final Path temp;
+
+    private final JsonGenerator generator;
+
+    private int tableCount;
+
+    private boolean closed;
+
+    public SchemaSnapshotWriter(Path target, SnapshotFileFormat format) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.target = target;
+        this.temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+        JsonFactory factory = format.createFactory();
+        this.generator = factory.createGenerator(Files.newOutputStream(temp));
+        this.generator.setCodec(new ObjectMapper(factory));
+        this.generator.writeStartObject();
+        this.generator.writeNumberField(FIELD_FORMAT_VERSION, FORMAT_VERSION);
+        this.generator.writeFieldName(FIELD_TABLES);
+        this.generator.writeStartArray();
+    }
+
+    @Override
+    public void write(TableSnapshot snapshot) throws IOException {
+        generator.writeObject(snapshot);
+        tableCount++;
+    }
+
+    @Override
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    @Override
+    public void discard() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            generator.close();
+        } catch (IOException ignored) {
+            // 临时文件即将删除，关闭失败无需处理
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // 临时文件删除失败不影响目标文件
+        }
+    }
+
+    /**
+     * 完成写入并原子替换目标文件
+     *
+     * @throws IOException 写入失败时抛出异常
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            try {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } finally {
+                generator.close();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
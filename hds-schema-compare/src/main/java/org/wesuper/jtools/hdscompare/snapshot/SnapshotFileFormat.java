@@ -0,0 +1,105 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 快照文件格式
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public enum SnapshotFileFormat {
+
+    /**
+     * JSON 文本格式，便于查看和版本管理
+     */
+    JSON(".json"),
+
+    /**
+     * Smile 二进制格式，体积更小、解析更快
+     */
+    SMILE(".smile"),
+
+    /**
+     * 内存映射的列式二进制格式，字符串字典去重，读取时按需解码，适合超大规模表结构
+     */
+    MAPPED(".hdss");
+
+    private final String extension;
+
+    SnapshotFileFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 创建读写该格式的 JsonFactory
+     * Smile 格式关闭共享名称/值的回溯引用，使每张表的数据可以从任意字节偏移单独解析，
+     * 读取时也不要求偏移处存在文件头。
+     *
+     * @return JsonFactory
+     */
+    public JsonFactory createFactory() {
+        if (this == MAPPED) {
+            throw new IllegalStateException("Snapshot format " + this + " is not a Jackson format");
+        }
+        if (this == SMILE) {
+            return SmileFactory.builder()
+                    .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                    .disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .disable(SmileParser.Feature.REQUIRE_HEADER)
+                    .build();
+        }
+        return new JsonFactory();
+    }
+
+    /**
+     * 打开该格式的快照文件读取器
+     *
+     * @param path 快照文件路径
+     * @return 快照文件读取器
+     * @throws IOException 读取失败或文件格式不正确时抛出异常
+     */
+    public SnapshotFileReader openReader(Path path) throws IOException {
+        return this == MAPPED ? MappedSnapshotReader.open(path) : SchemaSnapshotReader.open(path, this);
+    }
+
+    /**
+     * 创建该格式的快照文件写入器
+     *
+     * @param path 快照文件路径
+     * @return 快照文件写入器
+     * @throws IOException 创建临时文件失败时抛出异常
+     */
+    public SnapshotFileWriter openWriter(Path path) throws IOException {
+        return this == MAPPED ? new MappedSnapshotWriter(path) : new SchemaSnapshotWriter(path, this);
+    }
+
+    /**
+     * 根据格式名称解析，名称为空时根据文件扩展名推断
+     *
+     * @param name 格式名称
+     * @param path 文件路径
+     * @return 快照文件格式
+     */
+    public static SnapshotFileFormat resolve(String name, Path path) {
+        if (name != null && !name.trim().isEmpty()) {
+            return SnapshotFileFormat.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(MAPPED.extension)) {
+            return MAPPED;
+        }
+        return fileName.endsWith(SMILE.extension) || fileName.endsWith(".sml") ? SMILE : JSON;
+    }
+}
@@ -0,0 +1,38 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * 快照文件读取器接口
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public interface SnapshotFileReader {
+
+    /**
+     * 读取表快照
+     *
+     * @param tableName      表名，不区分大小写
+     * @param dataSourceType 来源数据源类型，为 null 时不过滤
+     * @param dataSourceName 来源数据源名称，为 null 时不过滤
+     * @return 表快照，不存在时返回 null
+     * @throws IOException 读取失败时抛出异常
+     */
+    TableSnapshot read(String tableName, String dataSourceType, String dataSourceName) throws IOException;
+
+    /**
+     * 获取快照中的所有表名
+     *
+     * @return 表名集合
+     */
+    Set<String> getTableNames();
+
+    /**
+     * 获取快照中的表数量
+     *
+     * @return 表数量
+     */
+    int getTableCount();
+}
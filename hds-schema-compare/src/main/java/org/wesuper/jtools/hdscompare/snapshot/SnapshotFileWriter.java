@@ -0,0 +1,34 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 快照文件写入器接口
+ * 写入临时文件，{@link #close()} 时原子替换目标文件，{@link #discard()} 则放弃本次写入。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public interface SnapshotFileWriter extends Closeable {
+
+    /**
+     * 写入一张表的快照
+     *
+     * @param snapshot 表结构快照
+     * @throws IOException 写入失败时抛出异常
+     */
+    void write(TableSnapshot snapshot) throws IOException;
+
+    /**
+     * 获取已写入的表数量
+     *
+     * @return 表数量
+     */
+    int getTableCount();
+
+    /**
+     * 放弃写入，删除临时文件且不替换目标文件
+     */
+    void discard();
+}
@@ -0,0 +1,45 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 内存映射快照的字符串字典，按 id 即时解码，不在堆上保留已解码的字符串
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+final class StringDictionary {
+
+    private final ByteBuffer buffer;
+
+    private final int count;
+
+    private final int bytesStart;
+
+    StringDictionary(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(0);
+        this.bytesStart = 4 + (count + 1) * 4;
+    }
+
+    String get(int id) {
+        if (id == MappedSnapshotLayout.NULL_ID) {
+            return null;
+        }
+        if (id < 0 || id >= count) {
+            throw new IllegalStateException("Invalid string id " + id + " in snapshot dictionary of size " + count);
+        }
+        int start = buffer.getInt(4 + id * 4);
+        int end = buffer.getInt(4 + (id + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = buffer.duplicate();
+        view.position(bytesStart + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return count;
+    }
+}
@@ -0,0 +1,132 @@
+package org.wesuper.jtools.hdscompare.snapshot;
+
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.util.Locale;
+
+/**
+ * 表结构快照，记录某一时刻提取到的表结构及其指纹
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class TableSnapshot {
+
+    /**
+     * 数据源类型
+     */
+    private String dataSourceType;
+
+    /**
+     * 数据源名称
+     */
+    private String dataSourceName;
+
+    /**
+     * 表名
+     */
+    private String tableName;
+
+    /**
+     * 表结构指纹
+     */
+    private String fingerprint;
+
+    /**
+     * 提取时探测到的表结构版本，数据源不支持探测时为 null
+     */
+    private String probe;
+
+    /**
+     * 快照时间（毫秒时间戳）
+     */
+    private long capturedAt;
+
+    /**
+     * 表结构
+     */
+    private TableStructure tableStructure;
+
+    public TableSnapshot() {
+    }
+
+    public TableSnapshot(String dataSourceType, String dataSourceName, String tableName,
+                         String fingerprint, TableStructure tableStructure) {
+        this.dataSourceType = dataSourceType;
+        this.dataSourceName = dataSourceName;
+        this.tableName = tableName;
+        this.fingerprint = fingerprint;
+        this.tableStructure = tableStructure;
+        this.capturedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 生成快照键
+     *
+     * @param dataSourceType 数据源类型
+     * @param dataSourceName 数据源名称
+     * @param tableName      表名
+     * @return 快照键
+     */
+    public static String key(String dataSourceType, String dataSourceName, String tableName) {
+        return (dataSourceType == null ? "" : dataSourceType.toLowerCase(Locale.ROOT))
+                + "/" + (dataSourceName == null ? "" : dataSourceName)
+                + "/" + tableName;
+    }
+
+    public String getDataSourceType() {
+        return dataSourceType;
+    }
+
+    public void setDataSourceType(String dataSourceType) {
+        this.dataSourceType = dataSourceType;
+    }
+
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    public void setDataSourceName(String dataSourceName) {
+        this.dataSourceName = dataSourceName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getProbe() {
+        return probe;
+    }
+
+    public void setProbe(String probe) {
+        this.probe = probe;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(long capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public TableStructure getTableStructure() {
+        return tableStructure;
+    }
+
+    public void setTableStructure(TableStructure tableStructure) {
+        this.tableStructure = tableStructure;
+    }
+}
@@ -0,0 +1,47 @@
+package org.wesuper.jtools.hdscompare.starter;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * 比对结果输出目标
+ * 启动器在一次遍历中把每个比对结果连同产生它的表配置依次交给所有输出目标。
+ * 内置 Markdown、NDJSON 和 JUnit XML 三种输出，按配置启用，由启动器创建并在全部比对完成后关闭；
+ * 注册为 Spring Bean 的实现会作为自定义输出一并接收结果，生命周期由容器管理，每轮比对完成后只调用 {@link #flush()}。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public interface CompareResultSink extends Closeable, Flushable {
+
+    /**
+     * 写入一个比对结果
+     *
+     * @param result      比对结果
+     * @param tableConfig 产生该结果的表比对配置，可为 null
+     * @throws IOException 写入失败时抛出，该输出目标不再接收后续结果
+     */
+    void write(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig) throws IOException;
+
+    /**
+     * 一轮比对完成后对 Spring 管理的输出目标调用，用于输出本轮已缓冲的内容
+     *
+     * @throws IOException 刷新失败时抛出
+     */
+    @Override
+    default void flush() throws IOException {
+    }
+
+    /**
+     * 启动器创建的输出目标在全部比对完成后调用，用于写入结尾并释放资源
+     *
+     * @throws IOException 关闭失败时抛出
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
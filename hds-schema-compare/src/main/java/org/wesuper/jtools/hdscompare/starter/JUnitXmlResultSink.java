@@ -0,0 +1,182 @@
+package org.wesuper.jtools.hdscompare.starter;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.CompareResult.ColumnDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.Difference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+import org.wesuper.jtools.hdscompare.model.CompareResult.IndexDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.PropertyDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.TableDifference;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * JUnit XML 比对结果输出
+ * 每个比对结果写成一个以比对名称和源表、目标表命名的 testsuite，每个差异写成一个 testcase，完全匹配时写一个通过的 testcase；
+ * CRITICAL 和 WARNING 级别的差异记为 failure，其余级别的差异作为通过的 testcase 并在 system-out 中给出详情。
+ * 使用 StAX 流式写入，已写入的结果不在内存中保留。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class JUnitXmlResultSink implements CompareResultSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final OutputStream output;
+
+    private final XMLStreamWriter xml;
+
+    /**
+     * 创建输出文件并写入根元素，已存在的文件会被覆盖
+     *
+     * @param file 输出文件
+     * @throws IOException 创建文件失败时抛出
+     */
+    public JUnitXmlResultSink(Path file) throws IOException {
+        this.output = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        try {
+            this.xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement("testsuites");
+            xml.writeAttribute("name", "hds-schema-compare");
+            xml.writeCharacters("\n");
+        } catch (XMLStreamException e) {
+            output.close();
+            throw new IOException("Failed to create JUnit XML report " + file, e);
+        }
+    }
+
+    @Override
+    public void write(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig) throws IOException {
+        int tests = result.getTableDifferences().size() + result.getColumnDifferences().size()
+                + result.getIndexDifferences().size();
+        int failures = 0;
+        for (TableDifference diff : result.getTableDifferences()) {
+            failures += isFailure(diff) ? 1 : 0;
+        }
+        for (ColumnDifference diff : result.getColumnDifferences()) {
+            failures += isFailure(diff) ? 1 : 0;
+        }
+        for (IndexDifference diff : result.getIndexDifferences()) {
+            failures += isFailure(diff) ? 1 : 0;
+        }
+
+        String suiteName = suiteName(result, tableConfig);
+        try {
+            xml.writeStartElement("testsuite");
+            xml.writeAttribute("name", suiteName);
+            xml.writeAttribute("tests", String.valueOf(Math.max(tests, 1)));
+            xml.writeAttribute("failures", String.valueOf(failures));
+            xml.writeAttribute("errors", "0");
+            xml.writeCharacters("\n");
+
+            if (tests == 0) {
+                writeTestCase(suiteName, "structure", null, null);
+            }
+            for (TableDifference diff : result.getTableDifferences()) {
+                writeTestCase(suiteName, "table " + diff.getPropertyName(), diff,
+                        diff.getSourceValue() + " → " + diff.getTargetValue());
+            }
+            for (ColumnDifference diff : result.getColumnDifferences()) {
+                writeTestCase(suiteName, "column " + diff.getColumnName(), diff,
+                        describe(diff.getType(), diff.getSourceColumn() != null, diff.getPropertyDifferences()));
+            }
+            for (IndexDifference diff : result.getIndexDifferences()) {
+                writeTestCase(suiteName, "index " + diff.getIndexName(), diff,
+                        describe(diff.getType(), diff.getSourceIndex() != null, diff.getPropertyDifferences()));
+            }
+
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write JUnit XML for " + suiteName, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to finish JUnit XML report", e);
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeTestCase(String className, String name, Difference diff, String details)
+            throws XMLStreamException {
+        xml.writeCharacters("  ");
+        if (diff == null) {
+            xml.writeEmptyElement("testcase");
+            xml.writeAttribute("classname", className);
+            xml.writeAttribute("name", name);
+            xml.writeCharacters("\n");
+            return;
+        }
+
+        xml.writeStartElement("testcase");
+        xml.writeAttribute("classname", className);
+        xml.writeAttribute("name", name);
+        if (isFailure(diff)) {
+            xml.writeStartElement("failure");
+            xml.writeAttribute("type", String.valueOf(diff.getLevel()));
+            xml.writeAttribute("message", diff.getDescription() != null ? diff.getDescription() : String.valueOf(diff.getType()));
+        } else {
+            xml.writeStartElement("system-out");
+        }
+        xml.writeCharacters("[" + diff.getLevel() + "] " + diff.getType() + "\n" + details);
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+    }
+
+    /**
+     * testsuite 名称由比对名称和源表、目标表组成，包扫描展开的同名比对中每张表各有一个唯一的 testsuite
+     */
+    private static String suiteName(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig) {
+        String sourceTable = tableConfig != null ? tableConfig.getSourceTableName()
+                : result.getSourceTable() != null ? result.getSourceTable().getTableName() : null;
+        String targetTable = tableConfig != null ? tableConfig.getTargetTableName()
+                : result.getTargetTable() != null ? result.getTargetTable().getTableName() : null;
+        return result.getName() + "[" + sourceTable + " vs " + targetTable + "]";
+    }
+
+    private static boolean isFailure(Difference diff) {
+        return diff.getLevel() == DifferenceLevel.CRITICAL || diff.getLevel() == DifferenceLevel.WARNING;
+    }
+
+    private static String describe(CompareResult.DifferenceType type, boolean existsInSource,
+                                   Map<String, PropertyDifference> propertyDifferences) {
+        if (type == CompareResult.DifferenceType.COLUMN_MISSING || type == CompareResult.DifferenceType.INDEX_MISSING) {
+            return "Missing in " + (existsInSource ? "target" : "source");
+        }
+        StringBuilder details = new StringBuilder();
+        if (propertyDifferences != null) {
+            for (Map.Entry<String, PropertyDifference> entry : propertyDifferences.entrySet()) {
+                details.append(entry.getKey()).append(": ")
+                        .append(entry.getValue().getSourceValue()).append(" → ")
+                        .append(entry.getValue().getTargetValue())
+                        .append(" (").append(entry.getValue().getLevel()).append(")\n");
+            }
+        }
+        return details.toString();
+    }
+}
@@ -0,0 +1,253 @@
+package org.wesuper.jtools.hdscompare.starter;
+
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.CompareResult.ColumnDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+import org.wesuper.jtools.hdscompare.model.CompareResult.IndexDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.PropertyDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.TableDifference;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Markdown 比对报告的流式写入器
+ * 每个比对结果直接写入带缓冲的文件通道，不在内存中拼接整份报告，内存占用与报告大小无关。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class MarkdownReportWriter implements CompareResultSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    private int resultCount;
+
+    /**
+     * 创建报告文件并写入标题，已存在的文件会被覆盖
+     *
+     * @param file 报告文件
+     * @throws IOException 创建文件失败时抛出
+     */
+    public MarkdownReportWriter(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                BUFFER_SIZE);
+        writer.write("# Table Structure Comparison Report\n\n");
+    }
+
+    /**
+     * 写入一个比对结果
+     *
+     * @param result      比对结果
+     * @param tableConfig 对应的表比对配置，可为 null
+     * @throws IOException 写入失败时抛出
+     */
+    @Override
+    public void write(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig) throws IOException {
+        writer.write("## Comparison: ");
+        writer.write(String.valueOf(result.getName()));
+        writer.write("\n\n");
+
+        if (result.isFullyMatched()) {
+            writer.write("**Result: ✅ FULLY MATCHED** (100%)\n\n");
+        } else {
+            writer.write("**Result: ❌ DIFFERENCES FOUND** (");
+            writer.write(String.format("%.2f", result.getMatchPercentage()));
+            writer.write("%)\n");
+            if (result.hasCriticalDifferences()) {
+                writer.write("  ❗ **Contains CRITICAL Differences**\n");
+            } else if (result.hasWarningDifferences()) {
+                writer.write("  ⚠️ **Contains WARNINGS**\n");
+            }
+            writer.write("\n");
+        }
+
+        writer.write("### Overview\n");
+        writer.write("- **Source Table:** `");
+        writer.write(String.valueOf(result.getSourceTable().getSourceType()));
+        writer.write("`.`");
+        writer.write(String.valueOf(result.getSourceTable().getTableName()));
+        writer.write("`\n");
+        writer.write("- **Target Table:** `");
+        writer.write(String.valueOf(result.getTargetTable().getSourceType()));
+        writer.write("`.`");
+        writer.write(String.valueOf(result.getTargetTable().getTableName()));
+        writer.write("`\n");
+
+        if (tableConfig != null) {
+            writeNameList("- **Ignored Fields:** `", tableConfig.getIgnoreFields());
+            writeNameList("- **Ignored Types:** `", tableConfig.getIgnoreTypes());
+        }
+        writer.write("\n");
+
+        if (!result.getTableDifferences().isEmpty()) {
+            writer.write("### Ⅲ Table Property Differences\n");
+            writer.write("| Property | Level | Source Value | Target Value |\n");
+            writer.write("|----------|-------|--------------|--------------|\n");
+            for (TableDifference diff : result.getTableDifferences()) {
+                writer.write("| `");
+                writer.write(String.valueOf(diff.getPropertyName()));
+                writer.write("` | ");
+                writer.write(formatDifferenceLevel(diff.getLevel()));
+                writer.write(" | `");
+                writeEscaped(String.valueOf(diff.getSourceValue()));
+                writer.write("` | `");
+                writeEscaped(String.valueOf(diff.getTargetValue()));
+                writer.write("` |\n");
+            }
+            writer.write("\n");
+        }
+
+        if (!result.getColumnDifferences().isEmpty()) {
+            writer.write("### Ⅱ Column Differences\n");
+            writer.write("| Column Name | Type | Level | Details |\n");
+            writer.write("|-------------|------|-------|---------|\n");
+            for (ColumnDifference diff : result.getColumnDifferences()) {
+                writeDifferenceRow(diff.getColumnName(), diff.getType(), diff.getLevel());
+                if (diff.getType() == CompareResult.DifferenceType.COLUMN_MISSING) {
+                    writeMissingIn(diff.getSourceColumn() != null);
+                } else {
+                    writePropertyDifferences(diff.getPropertyDifferences());
+                }
+            }
+            writer.write("\n");
+        }
+
+        if (!result.getIndexDifferences().isEmpty()) {
+            writer.write("### I Index Differences\n");
+            writer.write("| Index Name | Type | Level | Details |\n");
+            writer.write("|------------|------|-------|---------|\n");
+            for (IndexDifference diff : result.getIndexDifferences()) {
+                writeDifferenceRow(diff.getIndexName(), diff.getType(), diff.getLevel());
+                if (diff.getType() == CompareResult.DifferenceType.INDEX_MISSING) {
+                    writeMissingIn(diff.getSourceIndex() != null);
+                } else {
+                    writePropertyDifferences(diff.getPropertyDifferences());
+                }
+            }
+            writer.write("\n");
+        }
+        // 多个结果之间的分隔线
+        writer.write("---\n\n");
+        resultCount++;
+    }
+
+    /**
+     * 已写入的比对结果数量
+     */
+    public int getResultCount() {
+        return resultCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeNameList(String prefix, List<String> names) throws IOException {
+        if (names == null || names.isEmpty()) {
+            return;
+        }
+        writer.write(prefix);
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                writer.write("`, `");
+            }
+            writer.write(String.valueOf(names.get(i)));
+        }
+        writer.write("`\n");
+    }
+
+    private void writeDifferenceRow(String name, CompareResult.DifferenceType type, DifferenceLevel level)
+            throws IOException {
+        writer.write("| `");
+        writer.write(String.valueOf(name));
+        writer.write("` | ");
+        writer.write(String.valueOf(type));
+        writer.write(" | ");
+        writer.write(formatDifferenceLevel(level));
+        writer.write(" ");
+    }
+
+    private void writeMissingIn(boolean existsInSource) throws IOException {
+        writer.write("| Missing in ");
+        writer.write(existsInSource ? "target" : "source");
+        writer.write(" |\n");
+    }
+
+    private void writePropertyDifferences(Map<String, PropertyDifference> propertyDifferences) throws IOException {
+        writer.write("| ");
+        boolean first = true;
+        for (Map.Entry<String, PropertyDifference> entry : propertyDifferences.entrySet()) {
+            if (!first) {
+                writer.write("<br>");
+            }
+            first = false;
+            writer.write('`');
+            writeEscaped(entry.getKey());
+            writer.write("`: `");
+            writeEscaped(String.valueOf(entry.getValue().getSourceValue()));
+            writer.write("` → `");
+            writeEscaped(String.valueOf(entry.getValue().getTargetValue()));
+            writer.write("` (");
+            writer.write(formatDifferenceLevel(entry.getValue().getLevel()));
+            writer.write(')');
+        }
+        writer.write(" |\n");
+    }
+
+    private String formatDifferenceLevel(DifferenceLevel level) {
+        switch (level) {
+            case CRITICAL:
+                return "❗ CRITICAL";
+            case WARNING:
+                return "⚠️ WARNING";
+            case NOTICE:
+                return "ℹ️ NOTICE";
+            case ACCEPTABLE:
+                return "✅ ACCEPTABLE";
+            default:
+                return level.toString();
+        }
+    }
+
+    /**
+     * 转义 Markdown 特殊字符后写入，逐字符写入不产生中间字符串
+     */
+    private void writeEscaped(String text) throws IOException {
+        if (text == null) {
+            writer.write("null");
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '|':
+                case '`':
+                case '*':
+                case '_':
+                case '[':
+                case ']':
+                    writer.write("\\\\");
+                    writer.write(c);
+                    break;
+                default:
+                    writer.write(c);
+                    break;
+            }
+        }
+    }
+}
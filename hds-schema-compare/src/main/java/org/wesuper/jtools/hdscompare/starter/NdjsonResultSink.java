@@ -0,0 +1,132 @@
+package org.wesuper.jtools.hdscompare.starter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.CompareResult.ColumnDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.Difference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.IndexDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.PropertyDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.TableDifference;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * NDJSON 比对结果输出
+ * 每个比对结果用 Jackson 的流式生成器写成一行 JSON，不经过对象树，也不在内存中保留已写入的结果。
+ * 每行包含比对名称、源表和目标表、匹配情况，以及表属性、列和索引差异，属性值统一按字符串输出。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+public class NdjsonResultSink implements CompareResultSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+
+    /**
+     * 创建输出文件，已存在的文件会被覆盖
+     *
+     * @param file 输出文件
+     * @throws IOException 创建文件失败时抛出
+     */
+    public NdjsonResultSink(Path file) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE), JsonEncoding.UTF8);
+        // 每个结果单独成行，根值之间不需要分隔符
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", result.getName());
+        writeTable("source", result.getSourceTable() != null ? result.getSourceTable().getSourceType() : null,
+                result.getSourceTable() != null ? result.getSourceTable().getTableName() : null);
+        writeTable("target", result.getTargetTable() != null ? result.getTargetTable().getSourceType() : null,
+                result.getTargetTable() != null ? result.getTargetTable().getTableName() : null);
+        generator.writeBooleanField("fullyMatched", result.isFullyMatched());
+        generator.writeNumberField("matchPercentage", result.getMatchPercentage());
+        generator.writeBooleanField("critical", result.hasCriticalDifferences());
+        generator.writeBooleanField("warning", result.hasWarningDifferences());
+
+        generator.writeArrayFieldStart("tableDifferences");
+        for (TableDifference diff : result.getTableDifferences()) {
+            writeDifferenceStart(diff, "property", diff.getPropertyName());
+            writeStringField("sourceValue", diff.getSourceValue());
+            writeStringField("targetValue", diff.getTargetValue());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("columnDifferences");
+        for (ColumnDifference diff : result.getColumnDifferences()) {
+            writeDifferenceStart(diff, "column", diff.getColumnName());
+            writePropertyDifferences(diff.getPropertyDifferences());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("indexDifferences");
+        for (IndexDifference diff : result.getIndexDifferences()) {
+            writeDifferenceStart(diff, "index", diff.getIndexName());
+            writePropertyDifferences(diff.getPropertyDifferences());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeTable(String fieldName, String sourceType, String tableName) throws IOException {
+        generator.writeObjectFieldStart(fieldName);
+        generator.writeStringField("type", sourceType);
+        generator.writeStringField("table", tableName);
+        generator.writeEndObject();
+    }
+
+    private void writeDifferenceStart(Difference diff, String nameField, String name) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(nameField, name);
+        writeStringField("type", diff.getType());
+        writeStringField("level", diff.getLevel());
+        generator.writeStringField("description", diff.getDescription());
+    }
+
+    private void writePropertyDifferences(Map<String, PropertyDifference> propertyDifferences) throws IOException {
+        generator.writeObjectFieldStart("properties");
+        if (propertyDifferences != null) {
+            for (Map.Entry<String, PropertyDifference> entry : propertyDifferences.entrySet()) {
+                generator.writeObjectFieldStart(entry.getKey());
+                writeStringField("sourceValue", entry.getValue().getSourceValue());
+                writeStringField("targetValue", entry.getValue().getTargetValue());
+                writeStringField("level", entry.getValue().getLevel());
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeStringField(String fieldName, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(fieldName);
+        } else {
+            generator.writeStringField(fieldName, value.toString());
+        }
+    }
+}
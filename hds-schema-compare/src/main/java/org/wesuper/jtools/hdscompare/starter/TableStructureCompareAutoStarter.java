@@ -8,16 +8,12 @@ import org.springframework.boot.ApplicationRunner;
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
 import org.wesuper.jtools.hdscompare.model.CompareResult;
 import org.wesuper.jtools.hdscompare.service.TableStructureCompareService;
-import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
-import org.wesuper.jtools.hdscompare.model.CompareResult.TableDifference;
-import org.wesuper.jtools.hdscompare.model.CompareResult.ColumnDifference;
-import org.wesuper.jtools.hdscompare.model.CompareResult.IndexDifference;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 表结构比对自动启动器
@@ -36,6 +32,9 @@ public class TableStructureCompareAutoStarter implements ApplicationRunner {
     @Autowired
     private TableStructureCompareService compareService;
 
+    @Autowired(required = false)
+    private List<CompareResultSink> customSinks;
+
     @Override
     public void run(ApplicationArguments args) {
         if (!dataSourceConfig.isAutoCompareOnStartup()) {
@@ -46,18 +45,14 @@ public class TableStructureCompareAutoStarter implements ApplicationRunner {
         logger.info("Starting automatic table structure comparison...");
         
         try {
-            List<CompareResult> results = compareService.compareAllConfiguredTables();
+            ComparisonSummary summary = compareAndWriteReport();
             
-            if (results.isEmpty()) {
+            if (summary.resultCount == 0) {
                 logger.warn("No table structure comparison results");
                 return;
             }
             
-            logComparisonResults(results);
-
-            if (dataSourceConfig.isEnableMarkdownOutput()) {
-                writeResultsToMarkdownFile(results, dataSourceConfig.getMarkdownOutputFilePath());
-            }
+            logOverallResult(summary);
 
         } catch (Exception e) {
             logger.error("Error during automatic table structure comparison", e);
@@ -65,36 +60,41 @@ public class TableStructureCompareAutoStarter implements ApplicationRunner {
     }
     
     /**
-     * 输出比对结果
+     * 输出单个比对结果并计入本轮汇总
      *
-     * @param results 比对结果列表
+     * @param result      比对结果
+     * @param tableConfig 产生该结果的表配置，可为 null
+     * @param summary     本轮比对汇总
      */
-    private void logComparisonResults(List<CompareResult> results) {
-        boolean hasWarnings = false;
-        boolean hasCritical = false;
-        
-        for (CompareResult result : results) {
-            if (result.isFullyMatched()) {
-                logger.info("Table comparison '{}': MATCHED (100%)", result.getName());
-            } else {
-                logger.info("Table comparison '{}': DIFFERENCES FOUND ({}%)", 
-                        result.getName(), String.format("%.2f", result.getMatchPercentage()));
-                
-                // 打印摘要
-                printResultSummary(result);
-                
-                if (result.hasCriticalDifferences()) {
-                    hasCritical = true;
-                } else if (result.hasWarningDifferences()) {
-                    hasWarnings = true;
-                }
+    private void logComparisonResult(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig,
+                                     ComparisonSummary summary) {
+        summary.resultCount++;
+        if (result.isFullyMatched()) {
+            logger.info("Table comparison '{}': MATCHED (100%)", result.getName());
+        } else {
+            logger.info("Table comparison '{}': DIFFERENCES FOUND ({}%)", 
+                    result.getName(), String.format("%.2f", result.getMatchPercentage()));
+            
+            // 打印摘要
+            printResultSummary(result, tableConfig);
+            
+            if (result.hasCriticalDifferences()) {
+                summary.hasCritical = true;
+            } else if (result.hasWarningDifferences()) {
+                summary.hasWarnings = true;
             }
         }
-        
-        // 输出总体结果
-        if (hasCritical) {
+    }
+
+    /**
+     * 输出总体结果
+     *
+     * @param summary 本轮比对汇总
+     */
+    private void logOverallResult(ComparisonSummary summary) {
+        if (summary.hasCritical) {
             logger.error("TABLE STRUCTURE COMPARISON FOUND CRITICAL DIFFERENCES!");
-        } else if (hasWarnings) {
+        } else if (summary.hasWarnings) {
             logger.warn("Table structure comparison found warnings");
         } else {
             logger.info("Table structure comparison completed successfully");
@@ -104,9 +104,10 @@ public class TableStructureCompareAutoStarter implements ApplicationRunner {
     /**
      * 打印结果摘要
      *
-     * @param result 比对结果
+     * @param result      比对结果
+     * @param tableConfig 产生该结果的表配置，可为 null
      */
-    private void printResultSummary(CompareResult result) {
+    private void printResultSummary(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig) {
         boolean verbose = dataSourceConfig.isVerboseOutput();
         StringBuilder summary = new StringBuilder();
         
@@ -116,11 +117,6 @@ public class TableStructureCompareAutoStarter implements ApplicationRunner {
         summary.append("Target Table: ").append(result.getTargetTable().getSourceType()).append(".").append(result.getTargetTable().getTableName()).append("\n");
         
         // 添加忽略的内容
-        DataSourceCompareConfig.TableCompareConfig tableConfig = dataSourceConfig.getCompareConfigs().stream()
-                .filter(config -> config.getName().equals(result.getName()))
-                .findFirst()
-                .map(config -> config.getTableConfigs().get(0))
-                .orElse(null);
         if (tableConfig != null && tableConfig.getIgnoreFields() != null && !tableConfig.getIgnoreFields().isEmpty()) {
             summary.append("Ignored Fields: ").append(String.join(", ", tableConfig.getIgnoreFields())).append("\n");
         }
@@ -225,140 +221,127 @@ public class TableStructureCompareAutoStarter implements ApplicationRunner {
         logger.info(summary.toString());
     }
 
-    private void writeResultsToMarkdownFile(List<CompareResult> results, String filePath) {
-        logger.info("Writing comparison results to Markdown file: {}", filePath);
-        StringBuilder markdownBuilder = new StringBuilder();
-        markdownBuilder.append("# Table Structure Comparison Report\n\n");
-
-        for (CompareResult result : results) {
-            DataSourceCompareConfig.TableCompareConfig tableConfig = dataSourceConfig.getCompareConfigs().stream()
-                    .filter(config -> config.getName().equals(result.getName()))
-                    .findFirst()
-                    .flatMap(config -> config.getTableConfigs().stream().findFirst())
-                    .orElse(null);
-            markdownBuilder.append(formatResultToMarkdown(result, tableConfig));
-        }
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write(markdownBuilder.toString());
-            logger.info("Successfully wrote comparison results to {}", filePath);
-        } catch (IOException e) {
-            logger.error("Failed to write Markdown report to {}: {}", filePath, e.getMessage(), e);
+    /**
+     * 流式比对所有配置的表，每个结果产生后立即输出日志并写入所有输出目标，不保留结果列表
+     *
+     * @return 本轮比对汇总
+     */
+    private ComparisonSummary compareAndWriteReport() {
+        List<OpenSink> sinks = openResultSinks();
+        ComparisonSummary summary = new ComparisonSummary();
+        try {
+            // 一次遍历依次写入所有输出目标，某个输出写入失败后不再接收后续结果，比对照常进行
+            compareService.streamAllConfiguredTables((result, tableConfig) -> {
+                logComparisonResult(result, tableConfig, summary);
+                for (OpenSink openSink : sinks) {
+                    if (openSink.failure == null) {
+                        try {
+                            openSink.sink.write(result, tableConfig);
+                            openSink.resultCount++;
+                        } catch (IOException e) {
+                            openSink.failure = e;
+                        }
+                    }
+                }
+            });
+        } finally {
+            finishResultSinks(sinks);
         }
+        return summary;
     }
 
-    private String formatResultToMarkdown(CompareResult result, DataSourceCompareConfig.TableCompareConfig tableConfig) {
-        StringBuilder md = new StringBuilder();
-
-        md.append("## Comparison: ").append(result.getName()).append("\n\n");
-
-        if (result.isFullyMatched()) {
-            md.append("**Result: ✅ FULLY MATCHED** (100%)\n\n");
-        } else {
-            md.append("**Result: ❌ DIFFERENCES FOUND** (").append(String.format("%.2f", result.getMatchPercentage())).append("%)\n");
-            if (result.hasCriticalDifferences()) {
-                md.append("  ❗ **Contains CRITICAL Differences**\n");
-            } else if (result.hasWarningDifferences()) {
-                md.append("  ⚠️ **Contains WARNINGS**\n");
-            }
-            md.append("\n");
-        }
-
-        md.append("### Overview\n");
-        md.append("- **Source Table:** `").append(result.getSourceTable().getSourceType()).append("`.`").append(result.getSourceTable().getTableName()).append("`\n");
-        md.append("- **Target Table:** `").append(result.getTargetTable().getSourceType()).append("`.`").append(result.getTargetTable().getTableName()).append("`\n");
-
-        if (tableConfig != null) {
-            if (tableConfig.getIgnoreFields() != null && !tableConfig.getIgnoreFields().isEmpty()) {
-                md.append("- **Ignored Fields:** `").append(String.join("`, `", tableConfig.getIgnoreFields())).append("`\n");
+    /**
+     * 结束所有输出目标：关闭启动器创建的内置输出，Spring 管理的自定义输出只刷新、由容器负责关闭
+     */
+    private void finishResultSinks(List<OpenSink> sinks) {
+        for (OpenSink openSink : sinks) {
+            try {
+                if (openSink.owned) {
+                    openSink.sink.close();
+                } else {
+                    openSink.sink.flush();
+                }
+            } catch (IOException e) {
+                if (openSink.failure == null) {
+                    openSink.failure = e;
+                }
             }
-            if (tableConfig.getIgnoreTypes() != null && !tableConfig.getIgnoreTypes().isEmpty()) {
-                md.append("- **Ignored Types:** `").append(String.join("`, `", tableConfig.getIgnoreTypes())).append("`\n");
+            if (openSink.failure != null) {
+                logger.error("Failed to write {}: {}", openSink.name, openSink.failure.getMessage(), openSink.failure);
+            } else {
+                logger.info("Successfully wrote {} comparison results to {}", openSink.resultCount, openSink.name);
             }
         }
-        md.append("\n");
+    }
 
-        if (!result.getTableDifferences().isEmpty()) {
-            md.append("### Ⅲ Table Property Differences\n");
-            md.append("| Property | Level | Source Value | Target Value |\n");
-            md.append("|----------|-------|--------------|--------------|\n");
-            for (TableDifference diff : result.getTableDifferences()) {
-                md.append("| `").append(diff.getPropertyName()).append("` ");
-                md.append("| ").append(formatDifferenceLevel(diff.getLevel())).append(" ");
-                md.append("| `").append(escapeMarkdown(String.valueOf(diff.getSourceValue()))).append("` ");
-                md.append("| `").append(escapeMarkdown(String.valueOf(diff.getTargetValue()))).append("` |\n");
-            }
-            md.append("\n");
+    /**
+     * 打开按配置启用的内置输出和注册的自定义输出，无法创建的输出记录错误后跳过
+     */
+    private List<OpenSink> openResultSinks() {
+        List<OpenSink> sinks = new ArrayList<>();
+        if (dataSourceConfig.isEnableMarkdownOutput()) {
+            openFileSink(sinks, "Markdown report", dataSourceConfig.getMarkdownOutputFilePath(), MarkdownReportWriter::new);
         }
-
-        if (!result.getColumnDifferences().isEmpty()) {
-            md.append("### Ⅱ Column Differences\n");
-            md.append("| Column Name | Type | Level | Details |\n");
-            md.append("|-------------|------|-------|---------|\n");
-            for (ColumnDifference diff : result.getColumnDifferences()) {
-                md.append("| `").append(diff.getColumnName()).append("` ");
-                md.append("| ").append(diff.getType()).append(" ");
-                md.append("| ").append(formatDifferenceLevel(diff.getLevel())).append(" ");
-                if (diff.getType() == CompareResult.DifferenceType.COLUMN_MISSING) {
-                    md.append("| Missing in ").append(diff.getSourceColumn() != null ? "target" : "source").append(" |\n");
-                } else {
-                    String details = diff.getPropertyDifferences().entrySet().stream()
-                        .map(entry -> String.format("`%s`: `%s` → `%s` (%s)", 
-                                     escapeMarkdown(entry.getKey()), 
-                                     escapeMarkdown(String.valueOf(entry.getValue().getSourceValue())), 
-                                     escapeMarkdown(String.valueOf(entry.getValue().getTargetValue())),
-                                     formatDifferenceLevel(entry.getValue().getLevel())))
-                        .collect(Collectors.joining("<br>"));
-                    md.append("| ").append(details).append(" |\n");
-                }
+        if (dataSourceConfig.isEnableNdjsonOutput()) {
+            openFileSink(sinks, "NDJSON results", dataSourceConfig.getNdjsonOutputFilePath(), NdjsonResultSink::new);
+        }
+        if (dataSourceConfig.isEnableJunitXmlOutput()) {
+            openFileSink(sinks, "JUnit XML report", dataSourceConfig.getJunitXmlOutputFilePath(), JUnitXmlResultSink::new);
+        }
+        if (customSinks != null) {
+            for (CompareResultSink sink : customSinks) {
+                sinks.add(new OpenSink(sink.getClass().getName(), sink, false));
             }
-            md.append("\n");
         }
+        return sinks;
+    }
 
-        if (!result.getIndexDifferences().isEmpty()) {
-            md.append("### I Index Differences\n");
-            md.append("| Index Name | Type | Level | Details |\n");
-            md.append("|------------|------|-------|---------|\n");
-            for (IndexDifference diff : result.getIndexDifferences()) {
-                md.append("| `").append(diff.getIndexName()).append("` ");
-                md.append("| ").append(diff.getType()).append(" ");
-                md.append("| ").append(formatDifferenceLevel(diff.getLevel())).append(" ");
-                 if (diff.getType() == CompareResult.DifferenceType.INDEX_MISSING) {
-                    md.append("| Missing in ").append(diff.getSourceIndex() != null ? "target" : "source").append(" |\n");
-                } else {
-                     String details = diff.getPropertyDifferences().entrySet().stream()
-                        .map(entry -> String.format("`%s`: `%s` → `%s` (%s)",
-                                     escapeMarkdown(entry.getKey()), 
-                                     escapeMarkdown(String.valueOf(entry.getValue().getSourceValue())), 
-                                     escapeMarkdown(String.valueOf(entry.getValue().getTargetValue())),
-                                     formatDifferenceLevel(entry.getValue().getLevel())))
-                        .collect(Collectors.joining("<br>"));
-                    md.append("| ").append(details).append(" |\n");
-                }
-            }
-            md.append("\n");
+    private void openFileSink(List<OpenSink> sinks, String description, String filePath, SinkFactory factory) {
+        String name = description + " " + filePath;
+        logger.info("Writing comparison results to {}", name);
+        try {
+            sinks.add(new OpenSink(name, factory.open(Paths.get(filePath)), true));
+        } catch (IOException e) {
+            logger.error("Failed to write {}: {}", name, e.getMessage(), e);
         }
-        md.append("---\n\n"); // Separator for multiple results
-        return md.toString();
     }
 
-    private String formatDifferenceLevel(DifferenceLevel level) {
-        switch (level) {
-            case CRITICAL:
-                return "❗ CRITICAL";
-            case WARNING:
-                return "⚠️ WARNING";
-            case NOTICE:
-                return "ℹ️ NOTICE";
-            case ACCEPTABLE:
-                return "✅ ACCEPTABLE";
-            default:
-                return level.toString();
+    /**
+     * 内置文件输出的构造函数
+     */
+    @FunctionalInterface
+    private interface SinkFactory {
+        CompareResultSink open(Path file) throws IOException;
+    }
+
+    /**
+     * 本次运行中打开的输出目标及其写入状态
+     */
+    private static final class OpenSink {
+
+        private final String name;
+        private final CompareResultSink sink;
+        /**
+         * 是否由启动器创建，只有启动器创建的输出在运行结束时关闭
+         */
+        private final boolean owned;
+        private int resultCount;
+        private IOException failure;
+
+        OpenSink(String name, CompareResultSink sink, boolean owned) {
+            this.name = name;
+            this.sink = sink;
+            this.owned = owned;
         }
     }
 
-    private String escapeMarkdown(String text) {
-        if (text == null) return "null";
-        return text.replace("|", "\\\\|").replace("`", "\\\\`").replace("*", "\\\\*").replace("_", "\\\\_").replace("[", "\\\\[").replace("]", "\\\\]");
+    /**
+     * 一轮比对的汇总，结果逐个计入后即可释放
+     */
+    private static final class ComparisonSummary {
+
+        private int resultCount;
+        private boolean hasWarnings;
+        private boolean hasCritical;
     }
-} 
\ No newline at end of file
+}
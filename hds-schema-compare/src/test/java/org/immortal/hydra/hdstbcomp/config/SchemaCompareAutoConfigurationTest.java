@@ -0,0 +1,67 @@
+package org.immortal.hydra.hdstbcomp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.config.SchemaCompareAutoConfiguration;
+import org.wesuper.jtools.hdscompare.metrics.SchemaCompareMetrics;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareService;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Micrometer 作为可选依赖时的自动配置测试
+ */
+class SchemaCompareAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(SchemaCompareAutoConfiguration.class))
+            .withBean(DataSourceCompareConfig.class, DataSourceCompareConfig::new)
+            .withBean("mysql", DataSource.class, () -> mock(DataSource.class));
+
+    @Test
+    void testMetricsAreRegisteredWhenMeterRegistryIsPresent() {
+        contextRunner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(SchemaCompareMetrics.class);
+                });
+    }
+
+    @Test
+    void testStartsWithoutMicrometerOnClasspath() {
+        contextRunner.withClassLoader(new FilteredClassLoader(MeterRegistry.class))
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(TableStructureCompareService.class);
+                    assertThat(context).doesNotHaveBean(SchemaCompareMetrics.class);
+                });
+    }
+
+    @Test
+    void testNoMetricsWithoutMeterRegistryBean() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(SchemaCompareMetrics.class);
+        });
+    }
+
+    @Test
+    void testTopLevelConfigurationDoesNotReferenceMicrometer() {
+        // Spring 解析配置类时会读取全部方法签名，签名中出现 Micrometer 类型会在缺少依赖时加载失败
+        for (Method method : SchemaCompareAutoConfiguration.class.getDeclaredMethods()) {
+            assertThat(method.getReturnType().getName()).doesNotStartWith("io.micrometer.");
+            assertThat(Arrays.stream(method.getParameterTypes()).map(Class::getName))
+                    .noneMatch(name -> name.startsWith("io.micrometer."));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.ElasticsearchTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Elasticsearch 非阻塞提取测试
+ */
+class ElasticsearchAsyncExtractionTest {
+
+    private static final String MAPPING = "{\"properties\":{\"id\":{\"type\":\"long\"},"
+            + "\"title\":{\"type\":\"text\",\"analyzer\":\"ik_max_word\"}}}";
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private ExecutorService serverExecutor;
+
+    private HttpServer server;
+
+    private RestHighLevelClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            String uri = exchange.getRequestURI().toString();
+            requests.add(uri);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String index = exchange.getRequestURI().getPath().substring(1);
+            int status = index.startsWith("missing") ? 404 : 200;
+            String response = status == 404
+                    ? "{\"error\":{\"type\":\"index_not_found_exception\",\"reason\":\"no such index [" + index + "]\"},\"status\":404}"
+                    : "{\"" + index + "\":{\"aliases\":{},"
+                    // 旧版 GetIndexRequest 带 include_type_name=true，映射外层多一层类型名
+                    + "\"mappings\":" + (uri.contains("include_type_name=true") ? "{\"_doc\":" + MAPPING + "}" : MAPPING) + ","
+                    + "\"settings\":{\"index\":{\"number_of_shards\":\"3\",\"number_of_replicas\":\"1\",\"uuid\":\"u1\"}}}}";
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+        client = new RestHighLevelClient(RestClient.builder(
+                new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testAsyncExtractionMatchesSyncExtraction() throws Exception {
+        ElasticsearchTableStructureExtractor extractor =
+                new ElasticsearchTableStructureExtractor(Collections.singletonMap("es", client));
+
+        TableStructure sync = extractor.extractTableStructure(dataSourceConfig(), "order_2024");
+        TableStructure async = extractor.extractTableStructureAsync(dataSourceConfig(), "order_2024")
+                .get(5, TimeUnit.SECONDS);
+
+        // 非阻塞路径使用不带类型层的 indices.GetIndexRequest
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(0).contains("include_type_name=true"), requests.get(0));
+        assertFalse(requests.get(1).contains("include_type_name"), requests.get(1));
+
+        for (TableStructure table : Arrays.asList(sync, async)) {
+            assertEquals("order_2024", table.getTableName());
+            assertEquals("elasticsearch", table.getSourceType());
+            assertEquals("3", table.getProperties().get("number_of_shards"));
+            assertEquals("long", table.getColumnByName("id").getDataType());
+            assertEquals("ik_max_word", table.getColumnByName("title").getProperties().get("analyzer"));
+        }
+        assertEquals(sync.getColumns().size(), async.getColumns().size());
+        assertEquals(sync.getIndexes().size(), async.getIndexes().size());
+    }
+
+    @Test
+    void testInFlightRequestsAreLimitedPerClient() throws Exception {
+        ElasticsearchTableStructureExtractor extractor = new ElasticsearchTableStructureExtractor(
+                Collections.singletonMap("es", client), Collections.singletonMap("es", 2));
+        release = new CountDownLatch(1);
+
+        List<CompletableFuture<TableStructure>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // 超过上限的请求排队，调用线程不阻塞
+            futures.add(extractor.extractTableStructureAsync(dataSourceConfig(), "index_" + i));
+        }
+        waitForRequests(2);
+        Thread.sleep(200);
+        assertEquals(2, requests.size());
+
+        release.countDown();
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("index_" + i, futures.get(i).get(5, TimeUnit.SECONDS).getTableName());
+        }
+        assertEquals(5, requests.size());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void testFailedRequestCompletesExceptionallyAndReleasesSlot() throws Exception {
+        ElasticsearchTableStructureExtractor extractor = new ElasticsearchTableStructureExtractor(
+                Collections.singletonMap("es", client), Collections.singletonMap("es", 1));
+
+        CompletableFuture<TableStructure> missing = extractor.extractTableStructureAsync(dataSourceConfig(), "missing_index");
+        CompletableFuture<TableStructure> next = extractor.extractTableStructureAsync(dataSourceConfig(), "order_2024");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause().getMessage().contains("index_not_found_exception"), error.getCause().getMessage());
+        assertEquals("order_2024", next.get(5, TimeUnit.SECONDS).getTableName());
+    }
+
+    @Test
+    void testUnknownDataSourceFailsWithoutThrowing() {
+        ElasticsearchTableStructureExtractor extractor =
+                new ElasticsearchTableStructureExtractor(Collections.singletonMap("es", client));
+        DataSourceCompareConfig.DataSourceConfig dataSourceConfig = dataSourceConfig();
+        dataSourceConfig.setDataSourceName("unknown");
+
+        CompletableFuture<TableStructure> future = extractor.extractTableStructureAsync(dataSourceConfig, "order_2024");
+
+        assertTrue(future.isCompletedExceptionally());
+        assertTrue(requests.isEmpty());
+    }
+
+    private void waitForRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (requests.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static DataSourceCompareConfig.DataSourceConfig dataSourceConfig() {
+        DataSourceCompareConfig.DataSourceConfig dataSourceConfig = new DataSourceCompareConfig.DataSourceConfig();
+        dataSourceConfig.setType("elasticsearch");
+        dataSourceConfig.setDataSourceName("es");
+        return dataSourceConfig;
+    }
+}
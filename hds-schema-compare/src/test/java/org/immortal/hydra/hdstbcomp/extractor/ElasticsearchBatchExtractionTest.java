@@ -0,0 +1,183 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.ElasticsearchTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElasticsearchBatchExtractionTest {
+
+    private static final String MAPPINGS = "{"
+            + "\"order_2024\":{\"mappings\":{\"properties\":{\"id\":{\"type\":\"long\"},"
+            + "\"title\":{\"type\":\"text\",\"analyzer\":\"ik_max_word\"}}}},"
+            + "\"order_2025\":{\"mappings\":{\"properties\":{\"id\":{\"type\":\"long\"}}}},"
+            + "\"user\":{\"mappings\":{\"properties\":{\"name\":{\"type\":\"keyword\",\"ignore_above\":64}}}}}";
+
+    private static final String SETTINGS = "{"
+            + "\"order_2024\":{\"settings\":{\"index\":{\"number_of_shards\":\"3\",\"number_of_replicas\":\"1\",\"uuid\":\"u1\"}}},"
+            + "\"order_2025\":{\"settings\":{\"index\":{\"number_of_shards\":\"1\",\"number_of_replicas\":\"0\",\"uuid\":\"u2\"}}},"
+            + "\"user\":{\"settings\":{\"index\":{\"number_of_shards\":\"2\",\"number_of_replicas\":\"1\",\"uuid\":\"u3\"}}}}";
+
+    private static final String GET_INDEX = "{\"order_2024\":{"
+            + "\"settings\":{\"index\":{\"number_of_shards\":\"3\",\"number_of_replicas\":\"1\",\"uuid\":\"u1\"}},"
+            + "\"mappings\":{\"properties\":{\"id\":{\"type\":\"long\"},"
+            + "\"title\":{\"type\":\"text\",\"analyzer\":\"ik_max_word\",\"index\":false}}}}}";
+
+    private static final String PROFILE_MAPPING = "{\"properties\":{"
+            + "\"name\":{\"type\":\"text\",\"fields\":{\"keyword\":{\"type\":\"keyword\",\"ignore_above\":256}}},"
+            + "\"address\":{\"properties\":{\"city\":{\"type\":\"keyword\"},"
+            + "\"geo\":{\"properties\":{\"lat\":{\"type\":\"double\"}}}}},"
+            + "\"orders\":{\"type\":\"nested\",\"properties\":{\"id\":{\"type\":\"long\"}}}}}";
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    private HttpServer server;
+
+    private RestHighLevelClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String uri = exchange.getRequestURI().toString();
+            requests.add(uri);
+            String path = exchange.getRequestURI().getPath();
+            String response;
+            if (path.equals("/profile")) {
+                // 旧版 GetIndexRequest 带 include_type_name=true，映射外层多一层类型名
+                boolean typed = uri.contains("include_type_name=true");
+                response = "{\"profile\":{\"mappings\":" + (typed ? "{\"_doc\":" + PROFILE_MAPPING + "}" : PROFILE_MAPPING)
+                        + ",\"settings\":{\"index\":{\"number_of_shards\":\"1\"}}}}";
+            } else {
+                response = path.endsWith("/_mapping") ? MAPPINGS : path.endsWith("/_settings") ? SETTINGS : GET_INDEX;
+            }
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new RestHighLevelClient(RestClient.builder(
+                new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testBatchFetchSplitsResponsePerIndex() throws Exception {
+        ElasticsearchTableStructureExtractor extractor =
+                new ElasticsearchTableStructureExtractor(Collections.singletonMap("es", client));
+
+        Map<String, TableStructure> tables = extractor.extractTableStructures(dataSourceConfig(),
+                Arrays.asList("user", "order_*"));
+
+        // 一次 _mapping 加一次 _settings，且都带 filter_path
+        assertEquals(2, requests.size());
+        assertTrue(requests.stream().allMatch(uri -> uri.startsWith("/user,order_*/") && uri.contains("filter_path=")));
+
+        assertEquals(Arrays.asList("user", "order_2024", "order_2025"), new ArrayList<>(tables.keySet()));
+
+        TableStructure user = tables.get("user");
+        assertEquals("2", user.getProperties().get("number_of_shards"));
+        assertEquals(Integer.valueOf(64), user.getColumnByName("name").getLength());
+
+        TableStructure order = tables.get("order_2024");
+        assertEquals("u1", order.getProperties().get("uuid"));
+        assertEquals(2, order.getColumns().size());
+        assertEquals("ik_max_word", order.getColumnByName("title").getProperties().get("analyzer"));
+        assertEquals(2, order.getIndexes().size());
+    }
+
+    @Test
+    void testStreamingMappingExtraction() throws Exception {
+        ElasticsearchTableStructureExtractor extractor =
+                new ElasticsearchTableStructureExtractor(Collections.singletonMap("es", client));
+        DataSourceCompareConfig.DataSourceConfig dataSourceConfig = dataSourceConfig();
+        dataSourceConfig.getProperties().put(ElasticsearchTableStructureExtractor.PROPERTY_STREAMING_MAPPING, "true");
+
+        TableStructure sync = extractor.extractTableStructure(dataSourceConfig, "order_2024");
+        TableStructure async = extractor.extractTableStructureAsync(dataSourceConfig, "order_2024").get();
+
+        assertEquals(2, requests.size());
+        assertTrue(requests.stream().allMatch(uri -> uri.startsWith("/order_2024?") && uri.contains("filter_path=")));
+        for (TableStructure table : Arrays.asList(sync, async)) {
+            assertEquals("order_2024", table.getTableName());
+            assertEquals("3", table.getProperties().get("number_of_shards"));
+            assertEquals(Arrays.asList("id", "title"), Arrays.asList(
+                    table.getColumns().get(0).getColumnName(), table.getColumns().get(1).getColumnName()));
+            assertEquals("ik_max_word", table.getColumnByName("title").getProperties().get("analyzer"));
+            // index: false 的字段不生成索引
+            assertEquals(1, table.getIndexes().size());
+            assertEquals("id_idx", table.getIndexes().get(0).getIndexName());
+        }
+    }
+
+    @Test
+    void testNestedAndMultiFieldsAreFlattened() throws Exception {
+        ElasticsearchTableStructureExtractor extractor =
+                new ElasticsearchTableStructureExtractor(Collections.singletonMap("es", client));
+        DataSourceCompareConfig.DataSourceConfig streamingConfig = dataSourceConfig();
+        streamingConfig.getProperties().put(ElasticsearchTableStructureExtractor.PROPERTY_STREAMING_MAPPING, "true");
+
+        TableStructure tree = extractor.extractTableStructure(dataSourceConfig(), "profile");
+        TableStructure streamed = extractor.extractTableStructure(streamingConfig, "profile");
+
+        for (TableStructure table : Arrays.asList(tree, streamed)) {
+            // 映射 Map 的字段顺序不固定，只校验父字段排在子字段之前
+            List<String> names = table.getColumns().stream().map(ColumnStructure::getColumnName).collect(Collectors.toList());
+            assertEquals(Arrays.asList("address", "address.city", "address.geo", "address.geo.lat",
+                    "name", "name.keyword", "orders", "orders.id"), names.stream().sorted().collect(Collectors.toList()));
+            assertTrue(names.indexOf("address.geo") < names.indexOf("address.geo.lat"));
+            assertTrue(names.indexOf("name") < names.indexOf("name.keyword"));
+
+            ColumnStructure keyword = table.getColumnByName("NAME.KEYWORD");
+            assertEquals("keyword", keyword.getDataType());
+            assertEquals(Integer.valueOf(256), keyword.getLength());
+            assertEquals(Boolean.TRUE, keyword.getProperties().get(ElasticsearchTableStructureExtractor.PROPERTY_MULTI_FIELD));
+            assertEquals("name", keyword.getProperties().get(ElasticsearchTableStructureExtractor.PROPERTY_PARENT_PATH));
+            assertFalse(table.getColumnByName("name").getProperties().containsKey("fields"));
+
+            assertEquals("object", table.getColumnByName("address").getDataType());
+            assertEquals(Arrays.asList("address.city", "address.geo", "address.geo.lat"),
+                    table.getColumnsByPathPrefix("address").stream()
+                            .map(ColumnStructure::getColumnName).sorted().collect(Collectors.toList()));
+            assertEquals("nested", table.getColumnByName("orders").getDataType());
+
+            // 对象字段本身不建索引
+            assertNull(table.getIndexByName("address_idx"));
+            assertNotNull(table.getIndexByName("address.geo.lat_idx"));
+        }
+    }
+
+    private static DataSourceCompareConfig.DataSourceConfig dataSourceConfig() {
+        DataSourceCompareConfig.DataSourceConfig dataSourceConfig = new DataSourceCompareConfig.DataSourceConfig();
+        dataSourceConfig.setType("elasticsearch");
+        dataSourceConfig.setDataSourceName("es");
+        return dataSourceConfig;
+    }
+}
@@ -0,0 +1,80 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.MySqlTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.extractor.TidbTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 提取会话的连接复用测试
+ */
+class JdbcExtractionSessionTest {
+
+    private final TidbTableStructureExtractor extractor = new TidbTableStructureExtractor();
+
+    private final DataSource dataSource = mock(DataSource.class);
+
+    private final Connection connection = mock(Connection.class);
+
+    private DataSourceCompareConfig.DataSourceConfig dataSourceConfig;
+
+    @BeforeEach
+    void setup() throws Exception {
+        Field field = MySqlTableStructureExtractor.class.getDeclaredField("dataSourceMap");
+        field.setAccessible(true);
+        field.set(extractor, Collections.singletonMap("tidb", dataSource));
+
+        // 所有查询返回空结果
+        ResultSet emptyResultSet = mock(ResultSet.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(emptyResultSet);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.getCatalog()).thenReturn("orders");
+
+        dataSourceConfig = new DataSourceCompareConfig.DataSourceConfig();
+        dataSourceConfig.setType("tidb");
+        dataSourceConfig.setDataSourceName("tidb");
+    }
+
+    @Test
+    void testSingleTableExtractionBorrowsOneConnection() throws Exception {
+        TableStructure tableStructure = extractor.extractTableStructure(dataSourceConfig, "t_order");
+        assertEquals("tidb", tableStructure.getSourceType());
+        // 表注释、列、索引和 TiDB 属性查询共用一个连接
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, times(4)).prepareStatement(anyString());
+        verify(connection, times(1)).close();
+
+        extractor.extractTableStructure(dataSourceConfig, "t_order_item");
+        verify(dataSource, times(2)).getConnection();
+        verify(connection, times(2)).close();
+        // 库名按数据源缓存
+        verify(connection, times(1)).getCatalog();
+    }
+
+    @Test
+    void testBulkExtractionBorrowsOneConnection() throws Exception {
+        Map<String, TableStructure> tableStructures =
+                extractor.extractTableStructures(dataSourceConfig, Arrays.asList("t_order", "t_order_item"));
+        assertEquals(Arrays.asList("t_order", "t_order_item"), Arrays.asList(tableStructures.keySet().toArray()));
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, times(1)).close();
+    }
+}
@@ -0,0 +1,252 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.MySqlTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.extractor.TidbTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 基于 information_schema 的批量表结构提取测试
+ */
+class MySqlBulkExtractionTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+
+    private final Connection connection = mock(Connection.class);
+
+    /**
+     * 执行过的查询，按执行顺序记录
+     */
+    private final List<ExecutedQuery> queries = new ArrayList<>();
+
+    private final Map<String, List<Map<String, Object>>> rowsByTable = new HashMap<>();
+
+    private DataSourceCompareConfig.DataSourceConfig dataSourceConfig;
+
+    @BeforeEach
+    void setup() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getCatalog()).thenReturn("orders");
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+
+        dataSourceConfig = new DataSourceCompareConfig.DataSourceConfig();
+        dataSourceConfig.setType("mysql");
+        dataSourceConfig.setDataSourceName("mysql");
+
+        rowsByTable.put("information_schema.tables", Arrays.asList(
+                row("table_name", "t_order", "table_comment", "orders",
+                        "tidb_pk_type", "AUTO_RANDOM", "tidb_row_id_sharding_info", "NOT_SHARDED(PK_IS_HANDLE)"),
+                row("table_name", "t_user", "table_comment", null,
+                        "tidb_pk_type", "CLUSTERED", "tidb_row_id_sharding_info", null),
+                row("table_name", "t_other", "table_comment", "not requested",
+                        "tidb_pk_type", null, "tidb_row_id_sharding_info", null)));
+        rowsByTable.put("information_schema.columns", Arrays.asList(
+                column("t_order", "id", "bigint", "bigint(20)", 1, "auto_increment"),
+                column("t_order", "status", "varchar", "varchar(32)", 2, ""),
+                column("t_other", "id", "int", "int(11)", 1, ""),
+                column("t_user", "id", "bigint", "bigint(20)", 1, "")));
+        rowsByTable.put("information_schema.statistics", Arrays.asList(
+                row("table_name", "t_order", "index_name", "PRIMARY", "non_unique", 0, "seq_in_index", 1,
+                        "column_name", "id", "collation", "A", "sub_part", null, "index_type", "BTREE", "is_visible", "YES"),
+                row("table_name", "t_other", "index_name", "PRIMARY", "non_unique", 0, "seq_in_index", 1,
+                        "column_name", "id", "collation", "A", "sub_part", null, "index_type", "BTREE", "is_visible", "YES"),
+                row("table_name", "t_user", "index_name", "idx_id", "non_unique", 1, "seq_in_index", 1,
+                        "column_name", "id", "collation", "A", "sub_part", null, "index_type", "BTREE", "is_visible", "YES")));
+    }
+
+    @Test
+    void testRequestedTablesAreExtractedWithOneQueryPerMetadataTable() throws Exception {
+        MySqlTableStructureExtractor extractor = extractor(new MySqlTableStructureExtractor());
+
+        Map<String, TableStructure> tables = extractor.extractTableStructures(dataSourceConfig,
+                Arrays.asList("T_USER", "t_order", "t_order", "t_missing"));
+
+        // 去重后按请求顺序返回，表名不区分大小写匹配
+        assertEquals(Arrays.asList("T_USER", "t_order", "t_missing"), new ArrayList<>(tables.keySet()));
+
+        TableStructure order = tables.get("t_order");
+        assertEquals("mysql", order.getSourceType());
+        assertEquals("orders", order.getTableComment());
+        assertEquals(Arrays.asList("id", "status"), columnNames(order));
+        assertTrue(order.getColumnByName("id").isAutoIncrement());
+        assertEquals(32, order.getColumnByName("status").getLength());
+        assertEquals(1, order.getIndexes().size());
+        assertTrue(order.getIndexes().get(0).isPrimary());
+
+        TableStructure user = tables.get("T_USER");
+        assertEquals("", user.getTableComment());
+        assertEquals(Collections.singletonList("id"), columnNames(user));
+        assertEquals("idx_id", user.getIndexes().get(0).getIndexName());
+
+        // 不存在的表返回空结构，未请求的表不出现在结果中
+        TableStructure missing = tables.get("t_missing");
+        assertTrue(missing.getColumns().isEmpty());
+        assertTrue(missing.getIndexes().isEmpty());
+        assertFalse(tables.containsKey("t_other"));
+
+        // 表注释、列、索引各一次整库查询，按 IN 子句过滤并流式读取
+        assertEquals(3, queries.size());
+        for (ExecutedQuery query : queries) {
+            assertTrue(query.sql.contains("table_name IN (?, ?, ?)"), query.sql);
+            assertEquals(Arrays.asList("orders", "T_USER", "t_order", "t_missing"), query.parameters);
+            verify(query.statement).setFetchSize(Integer.MIN_VALUE);
+        }
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void testWholeSchemaExtractionDiscoversBaseTables() throws Exception {
+        MySqlTableStructureExtractor extractor = extractor(new MySqlTableStructureExtractor());
+
+        Map<String, TableStructure> tables = extractor.extractTableStructures(dataSourceConfig, Collections.emptyList());
+
+        assertEquals(Arrays.asList("t_order", "t_other", "t_user"), new ArrayList<>(tables.keySet()));
+        assertEquals("not requested", tables.get("t_other").getTableComment());
+        assertEquals(Collections.singletonList("id"), columnNames(tables.get("t_other")));
+
+        ExecutedQuery tableQuery = queries.get(0);
+        assertTrue(tableQuery.sql.contains("table_type = 'BASE TABLE'"), tableQuery.sql);
+        for (ExecutedQuery query : queries) {
+            assertFalse(query.sql.contains(" IN ("), query.sql);
+            assertEquals(Collections.singletonList("orders"), query.parameters);
+        }
+    }
+
+    @Test
+    void testTooManyTablesQueryWholeSchemaAndFilterOnClient() throws Exception {
+        MySqlTableStructureExtractor extractor = extractor(new MySqlTableStructureExtractor());
+        List<String> tableNames = new ArrayList<>();
+        tableNames.add("t_order");
+        for (int i = 0; i < 1000; i++) {
+            tableNames.add("t_partition_" + i);
+        }
+
+        Map<String, TableStructure> tables = extractor.extractTableStructures(dataSourceConfig, tableNames);
+
+        assertEquals(1001, tables.size());
+        assertEquals(Arrays.asList("id", "status"), columnNames(tables.get("t_order")));
+        assertFalse(tables.containsKey("t_other"));
+        for (ExecutedQuery query : queries) {
+            assertFalse(query.sql.contains(" IN ("), query.sql);
+            assertFalse(query.sql.contains("table_type"), query.sql);
+        }
+    }
+
+    @Test
+    void testTidbBulkExtractionAddsTidbAttributesOnSameConnection() throws Exception {
+        dataSourceConfig.setType("tidb");
+        MySqlTableStructureExtractor extractor = extractor(new TidbTableStructureExtractor());
+
+        Map<String, TableStructure> tables = extractor.extractTableStructures(dataSourceConfig,
+                Arrays.asList("t_order", "t_user"));
+
+        TableStructure order = tables.get("t_order");
+        assertEquals("tidb", order.getSourceType());
+        assertEquals("AUTO_RANDOM", order.getProperties().get("tidb_pk_type"));
+        assertEquals("NOT_SHARDED(PK_IS_HANDLE)", order.getProperties().get("tidb_row_id_sharding"));
+        assertEquals(true, order.getColumnByName("id").getProperties().get("is_auto_random"));
+        assertEquals("CLUSTERED", tables.get("t_user").getProperties().get("tidb_pk_type"));
+        assertFalse(tables.get("t_user").getProperties().containsKey("tidb_row_id_sharding"));
+
+        assertEquals(4, queries.size());
+        assertTrue(queries.get(3).sql.contains("tidb_pk_type"), queries.get(3).sql);
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    private MySqlTableStructureExtractor extractor(MySqlTableStructureExtractor extractor) throws Exception {
+        Field field = MySqlTableStructureExtractor.class.getDeclaredField("dataSourceMap");
+        field.setAccessible(true);
+        field.set(extractor, Collections.singletonMap("mysql", dataSource));
+        return extractor;
+    }
+
+    private static List<String> columnNames(TableStructure tableStructure) {
+        return tableStructure.getColumns().stream().map(ColumnStructure::getColumnName).collect(Collectors.toList());
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        List<Map<String, Object>> rows = rowsByTable.entrySet().stream()
+                .filter(entry -> sql.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(Collections.emptyList());
+        ExecutedQuery query = new ExecutedQuery(sql, mock(PreparedStatement.class));
+        queries.add(query);
+        doAnswer(invocation -> {
+            query.parameters.add(invocation.getArgument(1));
+            return null;
+        }).when(query.statement).setString(anyInt(), anyString());
+        when(query.statement.executeQuery()).thenAnswer(invocation -> resultSet(rows));
+        return query.statement;
+    }
+
+    private static ResultSet resultSet(List<Map<String, Object>> rows) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        AtomicInteger cursor = new AtomicInteger(-1);
+        when(resultSet.next()).thenAnswer(invocation -> cursor.incrementAndGet() < rows.size());
+        when(resultSet.getObject(anyString())).thenAnswer(invocation ->
+                rows.get(cursor.get()).get((String) invocation.getArgument(0)));
+        when(resultSet.getString(anyString())).thenAnswer(invocation -> {
+            Object value = rows.get(cursor.get()).get((String) invocation.getArgument(0));
+            return value == null ? null : value.toString();
+        });
+        when(resultSet.getInt(anyString())).thenAnswer(invocation -> {
+            Object value = rows.get(cursor.get()).get((String) invocation.getArgument(0));
+            return value == null ? 0 : ((Number) value).intValue();
+        });
+        return resultSet;
+    }
+
+    private static Map<String, Object> column(String tableName, String columnName, String dataType, String columnType,
+                                              int position, String extra) {
+        Integer length = dataType.contains("char") ? Integer.valueOf(columnType.replaceAll("\\D", "")) : null;
+        return row("table_name", tableName, "column_name", columnName, "data_type", dataType,
+                "column_type", columnType, "column_default", null, "is_nullable", "NO",
+                "character_maximum_length", length, "numeric_precision", null, "numeric_scale", null,
+                "column_comment", "", "ordinal_position", position, "extra", extra);
+    }
+
+    private static Map<String, Object> row(Object... keyValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            row.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return row;
+    }
+
+    private static final class ExecutedQuery {
+
+        private final String sql;
+        private final PreparedStatement statement;
+        private final List<Object> parameters = new ArrayList<>();
+
+        ExecutedQuery(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+    }
+}
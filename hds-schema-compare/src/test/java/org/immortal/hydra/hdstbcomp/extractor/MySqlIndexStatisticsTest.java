@@ -0,0 +1,146 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.MySqlTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 基于 information_schema.statistics 的索引提取测试
+ */
+class MySqlIndexStatisticsTest {
+
+    private static final String[] STATISTICS_COLUMNS = {"table_name", "index_name", "non_unique", "seq_in_index",
+            "column_name", "collation", "sub_part", "index_type", "is_visible"};
+
+    private final MySqlTableStructureExtractor extractor = new MySqlTableStructureExtractor();
+
+    private final DataSource dataSource = mock(DataSource.class);
+
+    private final Connection connection = mock(Connection.class);
+
+    private final List<Object[]> statistics = Arrays.asList(
+            new Object[]{"t_order", "PRIMARY", 0, 1, "ID", "A", null, "BTREE", "YES"},
+            new Object[]{"t_order", "ft_remark", 1, 1, "remark", null, null, "FULLTEXT", "YES"},
+            new Object[]{"t_order", "idx_name_code", 1, 1, "name", "A", 10, "BTREE", "NO"},
+            new Object[]{"t_order", "idx_name_code", 1, 2, "code", "D", null, "BTREE", "NO"});
+
+    private DataSourceCompareConfig.DataSourceConfig dataSourceConfig;
+
+    @BeforeEach
+    void setup() throws Exception {
+        Field field = MySqlTableStructureExtractor.class.getDeclaredField("dataSourceMap");
+        field.setAccessible(true);
+        field.set(extractor, Collections.singletonMap("mysql", dataSource));
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getCatalog()).thenReturn("orders");
+
+        dataSourceConfig = new DataSourceCompareConfig.DataSourceConfig();
+        dataSourceConfig.setType("mysql");
+        dataSourceConfig.setDataSourceName("mysql");
+    }
+
+    @Test
+    void testStatisticsRowsFeedIndexStructures() throws Exception {
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+
+        TableStructure tableStructure = extractor.extractTableStructure(dataSourceConfig, "t_order");
+        Map<String, IndexStructure> indexes = tableStructure.getIndexes().stream()
+                .collect(Collectors.toMap(IndexStructure::getIndexName, index -> index));
+        assertEquals(3, indexes.size());
+
+        IndexStructure primary = indexes.get("PRIMARY");
+        assertTrue(primary.isPrimary());
+        assertTrue(primary.isUnique());
+        assertEquals("BTREE", primary.getIndexType());
+        assertEquals("id", primary.getColumns().get(0).getColumnName());
+        assertTrue(primary.getProperties().isEmpty());
+
+        assertEquals("FULLTEXT", indexes.get("ft_remark").getIndexType());
+        assertNull(indexes.get("ft_remark").getColumns().get(0).getSort());
+
+        IndexStructure composite = indexes.get("idx_name_code");
+        assertFalse(composite.isUnique());
+        assertEquals(Arrays.asList("name", "code"), composite.getColumns().stream()
+                .map(IndexStructure.IndexColumnStructure::getColumnName).collect(Collectors.toList()));
+        assertEquals("D", composite.getColumns().get(1).getSort());
+        assertEquals(2, composite.getColumns().get(1).getPosition());
+        assertEquals("name(10)", composite.getProperties().get("sub_part"));
+        assertEquals(false, composite.getProperties().get("visible"));
+
+        // 不再通过 DatabaseMetaData 读取索引
+        verify(connection, never()).getMetaData();
+    }
+
+    @Test
+    void testFallsBackWhenIndexVisibilityIsNotSupported() throws Exception {
+        AtomicInteger visibilityQueries = new AtomicInteger();
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains("is_visible")) {
+                visibilityQueries.incrementAndGet();
+                throw new SQLException("Unknown column 'is_visible' in 'field list'", "42S22", 1054);
+            }
+            return statement(sql);
+        });
+
+        TableStructure tableStructure = extractor.extractTableStructure(dataSourceConfig, "t_order");
+        assertEquals(3, tableStructure.getIndexes().size());
+        assertTrue(tableStructure.getIndexes().stream()
+                .noneMatch(index -> index.getProperties().containsKey("visible")));
+
+        extractor.extractTableStructure(dataSourceConfig, "t_order");
+        assertEquals(1, visibilityQueries.get());
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        List<Object[]> rows = sql.contains("information_schema.statistics")
+                ? statistics : Collections.<Object[]>emptyList();
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = resultSet(rows);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        return statement;
+    }
+
+    private static ResultSet resultSet(List<Object[]> rows) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        AtomicInteger cursor = new AtomicInteger(-1);
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < STATISTICS_COLUMNS.length; i++) {
+            columnIndexes.put(STATISTICS_COLUMNS[i], i);
+        }
+        when(resultSet.next()).thenAnswer(invocation -> cursor.incrementAndGet() < rows.size());
+        when(resultSet.getObject(anyString())).thenAnswer(invocation ->
+                rows.get(cursor.get())[columnIndexes.get((String) invocation.getArgument(0))]);
+        when(resultSet.getString(anyString())).thenAnswer(invocation -> {
+            Object value = rows.get(cursor.get())[columnIndexes.get((String) invocation.getArgument(0))];
+            return value == null ? null : value.toString();
+        });
+        when(resultSet.getInt(anyString())).thenAnswer(invocation -> {
+            Object value = rows.get(cursor.get())[columnIndexes.get((String) invocation.getArgument(0))];
+            return value == null ? 0 : ((Number) value).intValue();
+        });
+        return resultSet;
+    }
+}
@@ -0,0 +1,51 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import org.immortal.hydra.hdstbcomp.extractor.scan.ScanFixtures;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.extractor.PojoClassScanner;
+import org.wesuper.jtools.hdscompare.extractor.PojoTableNamingStrategy;
+import org.wesuper.jtools.hdscompare.extractor.PojoTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PojoClassScannerTest {
+
+    @Test
+    void testScanFindsConcreteClassesWithoutInitializing() {
+        List<String> classNames = PojoClassScanner.scan(ScanFixtures.class.getPackage().getName(),
+                getClass().getClassLoader());
+
+        assertEquals(Arrays.asList(ScanFixtures.class.getName(), ScanFixtures.class.getName() + "$OrderItem"),
+                classNames);
+    }
+
+    @Test
+    void testExtractScannedClassesWithoutInitializing() {
+        List<String> classNames = PojoClassScanner.scan(ScanFixtures.class.getPackage().getName(),
+                getClass().getClassLoader());
+
+        Map<String, TableStructure> structures = new PojoTableStructureExtractor().extractTableStructures(null, classNames);
+
+        // OrderItem 的静态初始化块会抛出异常，提取成功说明没有初始化该类
+        TableStructure orderItem = structures.get(ScanFixtures.class.getName() + "$OrderItem");
+        assertNotNull(orderItem);
+        assertEquals("OrderItem", orderItem.getTableName());
+        assertEquals("id", orderItem.getColumns().get(0).getColumnName());
+    }
+
+    @Test
+    void testNamingStrategies() {
+        PojoTableNamingStrategy snakeCase = PojoTableNamingStrategy.of(null);
+        assertEquals("order_item", snakeCase.tableName("com.example.OrderItem"));
+        assertEquals("http_log", snakeCase.tableName("com.example.HTTPLog"));
+        assertEquals("user_v2", snakeCase.tableName("com.example.Outer$User_V2"));
+        assertEquals("orderitem", PojoTableNamingStrategy.of("lower-case").tableName("com.example.OrderItem"));
+        assertEquals("OrderItem", PojoTableNamingStrategy.of("SIMPLE_NAME").tableName("com.example.OrderItem"));
+        assertThrows(IllegalArgumentException.class, () -> PojoTableNamingStrategy.of("com.example.Missing"));
+    }
+}
@@ -0,0 +1,143 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.PojoTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.processor.PojoSchemaProcessor;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PojoSchemaProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGeneratedDescriptorMatchesReflection() throws Exception {
+        Path classes = compile("demo/Order.java",
+                "package demo;\n"
+                        + "import com.fasterxml.jackson.annotation.JsonProperty;\n"
+                        + "@org.wesuper.jtools.hdscompare.processor.PojoSchema\n"
+                        + "public class Order<T extends Number> {\n"
+                        + "    private static final long serialVersionUID = 1L;\n"
+                        + "    @JsonProperty(\"order_id\") private Long id;\n"
+                        + "    private int quantity;\n"
+                        + "    private java.math.BigDecimal amount;\n"
+                        + "    private java.time.LocalDateTime createdAt;\n"
+                        + "    private T weight;\n"
+                        + "    private byte[] payload;\n"
+                        + "    private String[][] tags;\n"
+                        + "    private java.util.List<String> items;\n"
+                        + "    private Status status;\n"
+                        + "    public enum Status { NEW }\n"
+                        + "}\n");
+
+        TableStructure generated = extract(classes, "demo.Order");
+        Files.delete(classes.resolve("META-INF/hdscompare/pojo-schema.index"));
+        TableStructure reflected = extract(classes, "demo.Order");
+
+        assertEquals(reflected.getTableName(), generated.getTableName());
+        assertEquals(reflected.getColumns().size(), generated.getColumns().size());
+        for (int i = 0; i < reflected.getColumns().size(); i++) {
+            ColumnStructure expected = reflected.getColumns().get(i);
+            ColumnStructure actual = generated.getColumns().get(i);
+            assertEquals(expected.getColumnName(), actual.getColumnName());
+            assertEquals(expected.getDataType(), actual.getDataType());
+            assertEquals(expected.getOrdinalPosition(), actual.getOrdinalPosition());
+            assertEquals(expected.getProperties(), actual.getProperties());
+            assertEquals(expected.getTypeMappings().size(), actual.getTypeMappings().size());
+        }
+        assertEquals("order_id", generated.getColumns().get(1).getColumnName());
+        assertEquals("[[Ljava.lang.String;", generated.getColumns().get(7).getProperties().get("javaType"));
+        assertEquals("demo.Order$Status", generated.getColumns().get(9).getProperties().get("javaType"));
+    }
+
+    @Test
+    void testGeneratedDescriptorIncludesInheritedFields() throws Exception {
+        Path classes = compile("demo/Invoice.java",
+                "package demo;\n"
+                        + "abstract class AuditedEntity {\n"
+                        + "    static final String AUDIT = \"audit\";\n"
+                        + "    private Long id;\n"
+                        + "    private String createdBy;\n"
+                        + "}\n"
+                        + "@org.wesuper.jtools.hdscompare.processor.PojoSchema\n"
+                        + "public class Invoice extends AuditedEntity {\n"
+                        + "    private java.math.BigDecimal total;\n"
+                        + "    private Integer createdBy;\n"
+                        + "}\n");
+
+        TableStructure generated = extract(classes, "demo.Invoice");
+        Files.delete(classes.resolve("META-INF/hdscompare/pojo-schema.index"));
+        TableStructure reflected = extract(classes, "demo.Invoice");
+
+        for (TableStructure structure : Arrays.asList(generated, reflected)) {
+            assertEquals(Arrays.asList("id", "createdBy", "total"), structure.getColumns().stream()
+                    .map(ColumnStructure::getColumnName).collect(Collectors.toList()));
+            assertEquals("java.lang.Integer", structure.getColumns().get(1).getProperties().get("javaType"));
+        }
+    }
+
+    @Test
+    void testGeneratedDescriptorDoesNotLoadEntityClass() throws Exception {
+        Path classes = compile("demo/Fragile.java",
+                "package demo;\n"
+                        + "@org.wesuper.jtools.hdscompare.processor.PojoSchema\n"
+                        + "public class Fragile {\n"
+                        + "    static { if (true) throw new IllegalStateException(\"loaded\"); }\n"
+                        + "    private String name;\n"
+                        + "}\n");
+
+        TableStructure structure = extract(classes, "demo.Fragile");
+        assertEquals("Fragile", structure.getTableName());
+        assertEquals(Collections.singletonList("name"),
+                Collections.singletonList(structure.getColumns().get(0).getColumnName()));
+    }
+
+    private Path compile(String path, String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeTrue(compiler != null, "javac is not available");
+
+        Path sourceFile = tempDir.resolve("src").resolve(path);
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-d", classes.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, fileManager.getJavaFileObjects(sourceFile.toFile()));
+            task.setProcessors(Collections.singletonList(new PojoSchemaProcessor()));
+            assertTrue(task.call(), "compilation failed");
+        }
+        return classes;
+    }
+
+    private TableStructure extract(Path classes, String className) throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, original)) {
+            thread.setContextClassLoader(classLoader);
+            return new PojoTableStructureExtractor()
+                    .extractTableStructure(new DataSourceCompareConfig.DataSourceConfig(), className);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+}
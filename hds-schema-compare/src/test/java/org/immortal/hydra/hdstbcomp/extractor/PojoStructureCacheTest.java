@@ -0,0 +1,68 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.PojoTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PojoStructureCacheTest {
+
+    private final PojoTableStructureExtractor extractor = new PojoTableStructureExtractor();
+
+    @Test
+    void testSuperclassFieldsComeFirst() throws Exception {
+        TableStructure structure = extract(Order.class);
+
+        assertEquals(Arrays.asList("id", "createdBy", "serialVersionUID", "amount"), structure.getColumns().stream()
+                .map(ColumnStructure::getColumnName).collect(Collectors.toList()));
+        assertEquals("java.lang.Integer", structure.getColumns().get(1).getProperties().get("javaType"));
+        assertEquals(Integer.valueOf(4), structure.getColumns().get(3).getOrdinalPosition());
+
+        TableStructure sibling = extract(Refund.class);
+        assertEquals(Arrays.asList("id", "createdBy", "reason"), sibling.getColumns().stream()
+                .map(ColumnStructure::getColumnName).collect(Collectors.toList()));
+        assertEquals("java.lang.String", sibling.getColumns().get(1).getProperties().get("javaType"));
+    }
+
+    @Test
+    void testCachedStructureIsSharedReadOnlySnapshot() throws Exception {
+        TableStructure first = extract(Order.class);
+        assertSame(first, extract(Order.class));
+
+        ColumnStructure column = first.getColumns().get(0);
+        assertThrows(UnsupportedOperationException.class, () -> first.setTableName("other"));
+        assertThrows(UnsupportedOperationException.class, () -> first.setColumns(Collections.emptyList()));
+        assertThrows(UnsupportedOperationException.class, () -> first.getColumns().add(new ColumnStructure()));
+        assertThrows(UnsupportedOperationException.class, () -> column.setComment("changed"));
+        assertThrows(UnsupportedOperationException.class, () -> column.getProperties().put("javaType", "int"));
+        assertThrows(UnsupportedOperationException.class, () -> column.getTypeMappings().get(0).addColumnType("int"));
+        assertEquals("Order", extract(Order.class).getTableName());
+    }
+
+    private TableStructure extract(Class<?> clazz) throws Exception {
+        return extractor.extractTableStructure(new DataSourceCompareConfig.DataSourceConfig(), clazz.getName());
+    }
+
+    static class BaseEntity {
+        static final String AUDIT = "audit";
+        private Long id;
+        private String createdBy;
+    }
+
+    static class Order extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        private Integer createdBy;
+        private java.math.BigDecimal amount;
+    }
+
+    static class Refund extends BaseEntity {
+        private String reason;
+    }
+}
@@ -0,0 +1,140 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.ElasticsearchTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.extractor.MySqlTableStructureExtractor;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 表结构版本探测测试
+ */
+class SchemaVersionProbeTest {
+
+    @Test
+    void testMySqlProbeCombinesServerSideChecksums() throws Exception {
+        List<String> parameters = new ArrayList<>();
+        AtomicReference<String> executedSql = new AtomicReference<>();
+        Map<String, String> row = new HashMap<>();
+        row.put("table_version", "2024-05-01 10:00:00:3632233996");
+        row.put("column_checksum", "12:2841127311");
+        row.put("index_checksum", "3:907060870");
+        MySqlTableStructureExtractor extractor = mySqlExtractor(row, parameters, executedSql);
+
+        assertEquals("2024-05-01 10:00:00:3632233996/12:2841127311/3:907060870",
+                extractor.probeSchemaVersion(dataSourceConfig("mysql", "mysql"), "t_user"));
+
+        // 一次查询在服务端聚合表、列、索引元数据，不读取随数据写入变化的 update_time
+        String sql = executedSql.get();
+        assertTrue(sql.contains("information_schema.tables"), sql);
+        assertTrue(sql.contains("information_schema.columns"), sql);
+        assertTrue(sql.contains("information_schema.statistics"), sql);
+        assertFalse(sql.toLowerCase().contains("update_time"), sql);
+        assertEquals(Arrays.asList("orders", "t_user", "orders", "t_user", "orders", "t_user"), parameters);
+    }
+
+    @Test
+    void testMySqlProbeReturnsNullWithoutTableVersion() throws Exception {
+        Map<String, String> row = new HashMap<>();
+        row.put("table_version", null);
+        row.put("column_checksum", "0:0");
+        row.put("index_checksum", "0:0");
+        MySqlTableStructureExtractor extractor = mySqlExtractor(row, new ArrayList<>(), new AtomicReference<>());
+
+        assertNull(extractor.probeSchemaVersion(dataSourceConfig("mysql", "mysql"), "v_user"));
+    }
+
+    @Test
+    void testElasticsearchProbeUsesIndexMetadataVersions() throws Exception {
+        List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean empty = new AtomicBoolean();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestURI().toString());
+            String response = empty.get() ? "{}" : "{\"metadata\":{\"indices\":{"
+                    + "\"order_2025\":{\"mapping_version\":1,\"settings_version\":1,\"settings\":{\"index\":{\"uuid\":\"u2\"}}},"
+                    + "\"order_2024\":{\"mapping_version\":3,\"settings_version\":2,\"settings\":{\"index\":{\"uuid\":\"u1\"}}}}}}";
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (RestHighLevelClient client = new RestHighLevelClient(RestClient.builder(
+                new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")))) {
+            ElasticsearchTableStructureExtractor extractor =
+                    new ElasticsearchTableStructureExtractor(Collections.singletonMap("es", client));
+            DataSourceCompareConfig.DataSourceConfig dataSourceConfig = dataSourceConfig("elasticsearch", "es");
+
+            // 别名或通配符对应多个索引时按索引名排序拼接
+            assertEquals("order_2024:u1:3:2,order_2025:u2:1:1", extractor.probeSchemaVersion(dataSourceConfig, "order_*"));
+            assertEquals(1, requests.size());
+            assertTrue(requests.get(0).startsWith("/_cluster/state/metadata/order_*?"), requests.get(0));
+            assertTrue(requests.get(0).contains("filter_path="), requests.get(0));
+
+            // 索引不存在时无法判断是否变化
+            empty.set(true);
+            assertNull(extractor.probeSchemaVersion(dataSourceConfig, "missing"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static MySqlTableStructureExtractor mySqlExtractor(Map<String, String> row, List<String> parameters,
+                                                               AtomicReference<String> executedSql) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getCatalog()).thenReturn("orders");
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            executedSql.set(invocation.getArgument(0));
+            PreparedStatement statement = mock(PreparedStatement.class);
+            doAnswer(setString -> parameters.add(setString.getArgument(1)))
+                    .when(statement).setString(anyInt(), anyString());
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.next()).thenReturn(true, false);
+            when(resultSet.getString(anyString())).thenAnswer(getString -> row.get((String) getString.getArgument(0)));
+            when(statement.executeQuery()).thenReturn(resultSet);
+            return statement;
+        });
+
+        MySqlTableStructureExtractor extractor = new MySqlTableStructureExtractor();
+        Field field = MySqlTableStructureExtractor.class.getDeclaredField("dataSourceMap");
+        field.setAccessible(true);
+        field.set(extractor, Collections.singletonMap("mysql", dataSource));
+        return extractor;
+    }
+
+    private static DataSourceCompareConfig.DataSourceConfig dataSourceConfig(String type, String name) {
+        DataSourceCompareConfig.DataSourceConfig dataSourceConfig = new DataSourceCompareConfig.DataSourceConfig();
+        dataSourceConfig.setType(type);
+        dataSourceConfig.setDataSourceName(name);
+        return dataSourceConfig;
+    }
+}
@@ -0,0 +1,49 @@
+package org.immortal.hydra.hdstbcomp.extractor;
+
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+import org.wesuper.jtools.hdscompare.extractor.TypeCompatibilityMatrix;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeCompatibilityMatrixTest {
+
+    private final TypeCompatibilityMatrix matrix = TypeCompatibilityMatrix.getDefault();
+
+    @Test
+    void testMappingsFollowExtractorTables() {
+        int pojo = matrix.dataSourceId("POJO");
+        int mysql = matrix.dataSourceId(DatabaseType.MYSQL);
+        int tidb = matrix.dataSourceId(DatabaseType.TIDB);
+        int es = matrix.dataSourceId(DatabaseType.ELASTICSEARCH);
+
+        int javaLong = matrix.typeId(Long.class.getName());
+        assertTrue(matrix.maps(pojo, javaLong, mysql, matrix.typeId("bigint")));
+        assertTrue(matrix.maps(pojo, javaLong, es, matrix.typeId("long")));
+        assertFalse(matrix.maps(pojo, javaLong, mysql, matrix.typeId("varchar")));
+
+        int decimal = matrix.typeId(BigDecimal.class.getName());
+        assertTrue(matrix.maps(pojo, decimal, es, matrix.typeId("scaled_float")));
+        assertTrue(matrix.maps(pojo, decimal, es, matrix.typeId("double")));
+
+        int keyword = matrix.typeId("keyword");
+        assertTrue(matrix.maps(es, keyword, tidb, matrix.typeId("enum")));
+        assertTrue(matrix.hasMapping(es, keyword, mysql));
+        // MySQL 字段本身不带映射，判定依赖对端的映射
+        assertFalse(matrix.hasMapping(mysql, matrix.typeId("varchar"), es));
+        assertFalse(matrix.sharesMappedType(pojo, matrix.typeId(String.class.getName()), es, keyword));
+    }
+
+    @Test
+    void testUnknownTypesHaveNoMapping() {
+        int es = matrix.dataSourceId(DatabaseType.ELASTICSEARCH);
+        int mysql = matrix.dataSourceId(DatabaseType.MYSQL);
+        assertEquals(TypeCompatibilityMatrix.UNKNOWN, matrix.typeId("geo_point"));
+        assertEquals(TypeCompatibilityMatrix.UNKNOWN, matrix.dataSourceId("oracle"));
+        assertFalse(matrix.hasMapping(es, TypeCompatibilityMatrix.UNKNOWN, mysql));
+        assertFalse(matrix.maps(es, matrix.typeId("long"), TypeCompatibilityMatrix.UNKNOWN, matrix.typeId("bigint")));
+        assertFalse(matrix.maps(es, matrix.typeId("long"), mysql, TypeCompatibilityMatrix.UNKNOWN));
+    }
+}
@@ -0,0 +1,30 @@
+package org.immortal.hydra.hdstbcomp.extractor.scan;
+
+/**
+ * 包扫描测试使用的类，扫描过程不应初始化其中任何类
+ */
+public class ScanFixtures {
+
+    public static class OrderItem {
+        static {
+            if (Boolean.TRUE) {
+                throw new IllegalStateException("OrderItem must not be initialized by scanning");
+            }
+        }
+
+        private Long id;
+    }
+
+    public abstract static class AbstractEntity {
+    }
+
+    public enum Status {
+        NEW
+    }
+
+    public interface Marker {
+    }
+
+    public class Inner {
+    }
+}
@@ -0,0 +1,81 @@
+package org.immortal.hydra.hdstbcomp.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.metrics.SchemaCompareMetrics;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaCompareMetricsTest {
+
+    @Test
+    void testRecordsPhasesComparisonsAndDifferences() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TableStructureCompareServiceImpl service = new TableStructureCompareServiceImpl();
+        SchemaCompareMetrics metrics = new SchemaCompareMetrics(registry);
+        setFieldByReflection(service, "metrics", metrics);
+
+        CompareResult result = service.compareTableStructures(
+                table("id", "name"), table("id"), compareConfig());
+
+        for (SchemaCompareMetrics.Phase phase : SchemaCompareMetrics.Phase.values()) {
+            assertEquals(1, registry.get(SchemaCompareMetrics.PHASE)
+                    .tag("phase", phase.name().toLowerCase()).timer().count());
+        }
+        assertEquals(1, registry.get(SchemaCompareMetrics.COMPARISONS).tag("matched", "false").counter().count());
+
+        metrics.recordRun(Collections.singletonList(result));
+        assertEquals(1, registry.get(SchemaCompareMetrics.DIFFERENCES).tag("level", "critical").gauge().value());
+    }
+
+    @Test
+    void testRecordsExtractionOutcome() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SchemaCompareMetrics metrics = new SchemaCompareMetrics(registry);
+
+        assertEquals("ok", metrics.recordExtraction("MySQL", "primary", false, 1, () -> "ok"));
+        assertThrows(IllegalStateException.class, () -> metrics.recordExtraction("mysql", "primary", true, 3, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, registry.get(SchemaCompareMetrics.EXTRACTION)
+                .tags("type", "mysql", "dataSource", "primary", "mode", "single", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(SchemaCompareMetrics.EXTRACTION)
+                .tags("mode", "bulk", "outcome", "error").timer().count());
+        assertEquals(1, registry.get(SchemaCompareMetrics.EXTRACTION_TABLES).counter().count());
+    }
+
+    private TableStructure table(String... columnNames) {
+        TableStructure table = new TableStructure();
+        table.setTableName("t_user");
+        table.setSourceType("mysql");
+        for (String columnName : columnNames) {
+            ColumnStructure column = new ColumnStructure();
+            column.setColumnName(columnName);
+            column.setDataType("bigint");
+            table.getColumns().add(column);
+        }
+        return table;
+    }
+
+    private DataSourceCompareConfig.CompareConfig compareConfig() {
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName("metrics");
+        config.getTableConfigs().add(new DataSourceCompareConfig.TableCompareConfig());
+        return config;
+    }
+
+    private void setFieldByReflection(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
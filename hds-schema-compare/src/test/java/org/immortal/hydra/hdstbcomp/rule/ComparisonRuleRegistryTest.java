@@ -0,0 +1,128 @@
+package org.immortal.hydra.hdstbcomp.rule;
+
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRule;
+import org.wesuper.jtools.hdscompare.rule.ComparisonRuleRegistry;
+import org.wesuper.jtools.hdscompare.rule.PropertyComparison;
+import org.wesuper.jtools.hdscompare.service.ComparisonPlan;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaFingerprint;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComparisonRuleRegistryTest {
+
+    @Test
+    void testBuiltInRulesFilterAndGradeTableProperties() {
+        ComparisonPlan esPlan = ComparisonPlan.compile(DatabaseType.ELASTICSEARCH, DatabaseType.MYSQL, null);
+        assertNull(evaluateTableProperty(esPlan, "number_of_shards"));
+        assertEquals(DifferenceLevel.NOTICE, evaluateTableProperty(esPlan, "description"));
+
+        DataSourceCompareConfig.TableCompareConfig tableConfig = new DataSourceCompareConfig.TableCompareConfig();
+        tableConfig.setIgnoreTypes(Collections.singletonList("ENGINE"));
+        ComparisonPlan mysqlPlan = ComparisonPlan.compile(DatabaseType.MYSQL, DatabaseType.TIDB, tableConfig);
+        assertEquals(DifferenceLevel.WARNING, evaluateTableProperty(mysqlPlan, "number_of_shards"));
+        assertEquals(DifferenceLevel.CRITICAL, evaluateTableProperty(mysqlPlan, "primary_key"));
+        assertEquals(DifferenceLevel.ACCEPTABLE, evaluateTableProperty(mysqlPlan, "engine"));
+        assertEquals(DifferenceLevel.NOTICE, evaluateTableProperty(mysqlPlan, "charset"));
+    }
+
+    @Test
+    void testAutoRandomColumnMatchesAutoIncrement() {
+        ColumnStructure source = new ColumnStructure();
+        source.setAutoIncrement(true);
+        ColumnStructure target = new ColumnStructure();
+        target.getProperties().put("is_auto_random", true);
+
+        ComparisonPlan plan = ComparisonPlan.compile(DatabaseType.MYSQL, DatabaseType.TIDB, null);
+        assertNull(plan.getRules().evaluate(PropertyComparison.columnProperty(plan, "autoIncrement",
+                true, false, source, target, DifferenceLevel.WARNING)));
+        assertEquals(DifferenceLevel.WARNING, plan.getRules().evaluate(PropertyComparison.columnProperty(plan, "nullable",
+                true, false, source, target, DifferenceLevel.WARNING)));
+    }
+
+    @Test
+    void testCustomRulesRunOnlyForDeclaredPairsAndProperties() {
+        ComparisonRule rule = new ComparisonRule() {
+            @Override
+            public Scope getScope() {
+                return Scope.TABLE_PROPERTY;
+            }
+
+            @Override
+            public boolean appliesTo(String sourceType, String targetType) {
+                return DatabaseType.TIDB.equalsIgnoreCase(targetType);
+            }
+
+            @Override
+            public Set<String> getPropertyNames() {
+                return Collections.singleton("Engine");
+            }
+
+            @Override
+            public void apply(PropertyComparison comparison) {
+                comparison.setLevel(DifferenceLevel.CRITICAL);
+            }
+        };
+        ComparisonRuleRegistry registry = new ComparisonRuleRegistry(Collections.singletonList(rule));
+
+        ComparisonPlan tidbPlan = ComparisonPlan.compile(DatabaseType.MYSQL, DatabaseType.TIDB, null, registry);
+        assertEquals(DifferenceLevel.CRITICAL, evaluateTableProperty(tidbPlan, "engine"));
+        assertEquals(DifferenceLevel.NOTICE, evaluateTableProperty(tidbPlan, "charset"));
+
+        ComparisonPlan mysqlPlan = ComparisonPlan.compile(DatabaseType.MYSQL, DatabaseType.MYSQL, null, registry);
+        assertEquals(DifferenceLevel.NOTICE, evaluateTableProperty(mysqlPlan, "engine"));
+    }
+
+    @Test
+    void testConfigFingerprintChangesWithRules() {
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName("orders");
+        config.getTableConfigs().add(new DataSourceCompareConfig.TableCompareConfig());
+
+        String builtIn = SchemaFingerprint.of(config);
+        assertEquals(builtIn, SchemaFingerprint.of(config, new ComparisonRuleRegistry(Collections.emptyList())));
+
+        String withRule = SchemaFingerprint.of(config,
+                new ComparisonRuleRegistry(Collections.singletonList(versionedRule("v1"))));
+        assertNotEquals(builtIn, withRule);
+        assertEquals(withRule, SchemaFingerprint.of(config,
+                new ComparisonRuleRegistry(Collections.singletonList(versionedRule("v1")))));
+        assertNotEquals(withRule, SchemaFingerprint.of(config,
+                new ComparisonRuleRegistry(Collections.singletonList(versionedRule("v2")))));
+    }
+
+    private static ComparisonRule versionedRule(String version) {
+        return new ComparisonRule() {
+            @Override
+            public Scope getScope() {
+                return Scope.COLUMN_PROPERTY;
+            }
+
+            @Override
+            public boolean appliesTo(String sourceType, String targetType) {
+                return true;
+            }
+
+            @Override
+            public void apply(PropertyComparison comparison) {
+                comparison.ignore();
+            }
+
+            @Override
+            public String getFingerprint() {
+                return "ignore-all:" + version;
+            }
+        };
+    }
+
+    private static DifferenceLevel evaluateTableProperty(ComparisonPlan plan, String propertyName) {
+        return plan.getRules().evaluate(PropertyComparison.tableProperty(plan, propertyName, "a", "b", DifferenceLevel.NOTICE));
+    }
+}
@@ -0,0 +1,189 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.TableStructureExtractor;
+import org.wesuper.jtools.hdscompare.extractor.TableStructureExtractorFactory;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 批量模式下按比对配置预先提取表结构的测试
+ */
+class BulkPrefetchTest {
+
+    private final TableStructureCompareServiceImpl service = new TableStructureCompareServiceImpl();
+
+    private final DataSourceCompareConfig dataSourceConfig = new DataSourceCompareConfig();
+
+    private final TableStructureExtractor mysqlExtractor = mock(TableStructureExtractor.class);
+
+    private final TableStructureExtractor tidbExtractor = mock(TableStructureExtractor.class);
+
+    @BeforeEach
+    void setup() throws Exception {
+        TableStructureExtractorFactory extractorFactory = mock(TableStructureExtractorFactory.class);
+        when(extractorFactory.getExtractor("mysql")).thenReturn(mysqlExtractor);
+        when(extractorFactory.getExtractor("tidb")).thenReturn(tidbExtractor);
+        setFieldByReflection(service, "extractorFactory", extractorFactory);
+        setFieldByReflection(service, "dataSourceConfig", dataSourceConfig);
+
+        dataSourceConfig.setBulkExtractionEnabled(true);
+        dataSourceConfig.setCompareConfigs(Arrays.asList(
+                compareConfig("orders", "t_order", "t_order_item"),
+                compareConfig("users", "t_user", "t_order")));
+
+        for (TableStructureExtractor extractor : Arrays.asList(mysqlExtractor, tidbExtractor)) {
+            when(extractor.supportsBulkExtraction()).thenReturn(true);
+            when(extractor.extractTableStructure(any(), anyString())).thenAnswer(invocation ->
+                    table(invocation.getArgument(1)));
+        }
+        // 目标端批量提取缺少 t_order_item，需要逐表补齐
+        when(mysqlExtractor.extractTableStructures(any(), anyCollection())).thenAnswer(invocation ->
+                tables(invocation.getArgument(1)));
+        when(tidbExtractor.extractTableStructures(any(), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> tableNames = invocation.getArgument(1);
+            return tables(tableNames.stream().filter(name -> !"t_order_item".equals(name)).collect(Collectors.toList()));
+        });
+    }
+
+    @Test
+    void testEachCompareConfigIsPrefetchedOncePerSide() throws Exception {
+        List<CompareResult> results = service.compareAllConfiguredTables();
+
+        assertEquals(4, results.size());
+        assertTrue(results.stream().allMatch(CompareResult::isFullyMatched));
+
+        verify(mysqlExtractor).extractTableStructures(any(), tableNames("t_order", "t_order_item"));
+        verify(tidbExtractor).extractTableStructures(any(), tableNames("t_order", "t_order_item"));
+        // 提取缓存命中的表不再进入后续比对配置的批量请求
+        verify(mysqlExtractor).extractTableStructures(any(), tableNames("t_user"));
+        verify(tidbExtractor).extractTableStructures(any(), tableNames("t_user"));
+
+        verify(mysqlExtractor, never()).extractTableStructure(any(), anyString());
+        verify(tidbExtractor, times(1)).extractTableStructure(any(), eq("t_order_item"));
+        verify(tidbExtractor, times(1)).extractTableStructure(any(), anyString());
+    }
+
+    @Test
+    void testFailedBulkExtractionFallsBackToPerTableExtraction() throws Exception {
+        when(mysqlExtractor.extractTableStructures(any(), anyCollection()))
+                .thenThrow(new SQLException("information_schema unavailable"));
+
+        List<CompareResult> results = service.compareAllConfiguredTables();
+
+        assertEquals(4, results.size());
+        verify(mysqlExtractor).extractTableStructure(any(), eq("t_order"));
+        verify(mysqlExtractor).extractTableStructure(any(), eq("t_order_item"));
+        verify(mysqlExtractor).extractTableStructure(any(), eq("t_user"));
+    }
+
+    @Test
+    void testBulkExtractionDisabled() throws Exception {
+        dataSourceConfig.setBulkExtractionEnabled(false);
+
+        assertEquals(4, service.compareAllConfiguredTables().size());
+
+        verify(mysqlExtractor, never()).extractTableStructures(any(), anyCollection());
+        verify(tidbExtractor, never()).extractTableStructures(any(), anyCollection());
+        // 两个比对配置共用的 t_order 由提取缓存复用
+        verify(mysqlExtractor, times(3)).extractTableStructure(any(), anyString());
+    }
+
+    @Test
+    void testExtractorWithoutBulkSupportIsExtractedPerTable() throws Exception {
+        when(mysqlExtractor.supportsBulkExtraction()).thenReturn(false);
+
+        assertEquals(4, service.compareAllConfiguredTables().size());
+
+        verify(mysqlExtractor, never()).extractTableStructures(any(), anyCollection());
+        verify(mysqlExtractor, times(3)).extractTableStructure(any(), anyString());
+    }
+
+    @Test
+    void testParallelComparisonPrefetchesAndFillsMisses() throws Exception {
+        dataSourceConfig.getParallel().setEnabled(true);
+        dataSourceConfig.getParallel().setThreads(2);
+
+        List<CompareResult> results = service.compareAllConfiguredTables();
+
+        assertEquals(Arrays.asList("t_order", "t_order_item", "t_user", "t_order"), results.stream()
+                .map(result -> result.getSourceTable().getTableName()).collect(Collectors.toList()));
+        verify(mysqlExtractor, never()).extractTableStructure(any(), anyString());
+        verify(tidbExtractor, times(1)).extractTableStructure(any(), eq("t_order_item"));
+        verify(tidbExtractor, times(1)).extractTableStructure(any(), anyString());
+    }
+
+    /**
+     * 按顺序匹配批量请求中的表名
+     */
+    private static Collection<String> tableNames(String... tableNames) {
+        return argThat(names -> names != null && new ArrayList<>(names).equals(Arrays.asList(tableNames)));
+    }
+
+    private static DataSourceCompareConfig.CompareConfig compareConfig(String name, String... tableNames) {
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName(name);
+        config.setSourceDataSource(dataSource("mysql", "primary"));
+        config.setTargetDataSource(dataSource("tidb", "secondary"));
+        List<DataSourceCompareConfig.TableCompareConfig> tableConfigs = new ArrayList<>();
+        for (String tableName : tableNames) {
+            DataSourceCompareConfig.TableCompareConfig tableConfig = new DataSourceCompareConfig.TableCompareConfig();
+            tableConfig.setSourceTableName(tableName);
+            tableConfig.setTargetTableName(tableName);
+            tableConfigs.add(tableConfig);
+        }
+        config.setTableConfigs(tableConfigs);
+        return config;
+    }
+
+    private static DataSourceCompareConfig.DataSourceConfig dataSource(String type, String name) {
+        DataSourceCompareConfig.DataSourceConfig config = new DataSourceCompareConfig.DataSourceConfig();
+        config.setType(type);
+        config.setDataSourceName(name);
+        return config;
+    }
+
+    private static Map<String, TableStructure> tables(Collection<String> tableNames) {
+        Map<String, TableStructure> tables = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            tables.put(tableName, table(tableName));
+        }
+        return tables;
+    }
+
+    private static TableStructure table(String tableName) {
+        TableStructure table = new TableStructure();
+        table.setTableName(tableName);
+        table.setSourceType("mysql");
+        table.setTableComment("");
+        ColumnStructure id = new ColumnStructure();
+        id.setColumnName("id");
+        id.setDataType("bigint");
+        table.getColumns().add(id);
+        return table;
+    }
+
+    private void setFieldByReflection(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
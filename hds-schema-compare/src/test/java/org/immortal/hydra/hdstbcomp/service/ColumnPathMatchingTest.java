@@ -0,0 +1,210 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.ColumnIndex;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+import org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotReader;
+import org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotWriter;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaFingerprint;
+import org.wesuper.jtools.hdscompare.snapshot.TableSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnPathMatchingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final TableStructureCompareServiceImpl service = new TableStructureCompareServiceImpl();
+
+    @Test
+    void testElasticsearchLeavesMatchDenormalizedColumns() {
+        TableStructure es = table("elasticsearch",
+                column("id", "long"),
+                column("address", "object"),
+                column("address.city", "keyword"),
+                column("address.zip_code", "keyword"),
+                column("address.street", "keyword"));
+        TableStructure mysql = table("mysql",
+                column("id", "bigint"),
+                column("address_city", "varchar"),
+                column("address_zip_code", "varchar"),
+                column("remark", "varchar"));
+
+        assertEquals(Arrays.asList("address.street", "remark"),
+                missingColumns(service.compareTableStructures(es, mysql, compareConfig())));
+        assertEquals(Arrays.asList("remark", "address.street"),
+                missingColumns(service.compareTableStructures(mysql, es, compareConfig())));
+    }
+
+    @Test
+    void testParentColumnCoversElasticsearchLeaves() {
+        TableStructure pojo = table("pojo",
+                column("id", "java.lang.Long"),
+                column("address", "com.example.Address"));
+        TableStructure es = table("elasticsearch",
+                column("id", "long"),
+                column("address", "object"),
+                column("address.city", "keyword"),
+                column("address.geo", "object"),
+                column("address.geo.lat", "double"),
+                column("tags", "keyword"));
+
+        assertEquals(Collections.singletonList("tags"),
+                missingColumns(service.compareTableStructures(pojo, es, compareConfig())));
+        assertEquals(Collections.singletonList("tags"),
+                missingColumns(service.compareTableStructures(es, pojo, compareConfig())));
+    }
+
+    @Test
+    void testMappedElasticsearchSnapshotMatchesByColumnName() throws Exception {
+        TableStructure es = mapped(table("elasticsearch",
+                column("id", "long"),
+                column("address", "object"),
+                column("address.city", "keyword"),
+                column("address.street", "keyword"),
+                column("contact", "object"),
+                column("contact.phone", "keyword"),
+                column("contact.email", "keyword")));
+        TableStructure mysql = table("mysql",
+                column("id", "bigint"),
+                column("address_city", "varchar"),
+                column("contact", "json"));
+
+        // 映射快照每次读取字段都会重新解码，覆盖和反规范化配对按字段名判断
+        assertEquals(Collections.singletonList("address.street"),
+                missingColumns(service.compareTableStructures(es, mysql, compareConfig())));
+        assertEquals(Collections.singletonList("address.street"),
+                missingColumns(service.compareTableStructures(mysql, es, compareConfig())));
+    }
+
+    @Test
+    void testColumnLookupsFollowMutations() {
+        TableStructure table = table("elasticsearch", column("address.city", "keyword"));
+        assertEquals(1, table.getColumnsByPathPrefix("address").size());
+
+        table.getColumns().get(0).setColumnName("location.city");
+        table.getColumns().add(column("address.zip", "keyword"));
+
+        assertEquals("location.city", table.getColumnByName("LOCATION.CITY").getColumnName());
+        assertEquals(Collections.singletonList("address.zip"), table.getColumnsByPathPrefix("address").stream()
+                .map(ColumnStructure::getColumnName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testColumnIndexLooksUpNamesAndPathPrefixes() {
+        TableStructure table = table("elasticsearch",
+                column("address", "object"),
+                column("Address.City", "keyword"),
+                column("address.geo", "object"),
+                column("address.geo.lat", "double"),
+                column("name", "text"),
+                column("name.keyword", "keyword"));
+        ColumnIndex index = table.indexColumns();
+
+        assertSame(index.getColumns().get(1), index.getColumnByName("address.city"));
+        assertEquals(Arrays.asList("Address.City", "address.geo", "address.geo.lat"),
+                names(index.getColumnsByPathPrefix("ADDRESS")));
+        assertEquals(Collections.singletonList("address.geo.lat"), names(index.getColumnsByPathPrefix("address.geo")));
+        assertEquals(Collections.singletonList("name.keyword"), names(index.getColumnsByPathPrefix("name")));
+        assertTrue(index.getColumnsByPathPrefix("address.city").isEmpty());
+        assertNull(index.getColumnByName("missing"));
+
+        // 索引是构建时的快照，字段列表之后的修改需要重新构建
+        table.getColumns().add(column("address.zip", "keyword"));
+        assertEquals(3, index.getColumnsByPathPrefix("address").size());
+        assertEquals(4, table.indexColumns().getColumnsByPathPrefix("address").size());
+    }
+
+    @Test
+    void testLargeFlattenedMappingIsMatchedWithoutQuadraticScans() {
+        int objects = 2000;
+        List<ColumnStructure> esColumns = new ArrayList<>();
+        List<ColumnStructure> mysqlColumns = new ArrayList<>();
+        for (int o = 0; o < objects; o++) {
+            esColumns.add(column("obj" + o, "object"));
+            for (int f = 0; f < 10; f++) {
+                esColumns.add(column("obj" + o + ".field" + f, "keyword"));
+                mysqlColumns.add(column("obj" + o + "_field" + f, "varchar"));
+            }
+        }
+        TableStructure es = table("elasticsearch", esColumns.toArray(new ColumnStructure[0]));
+        TableStructure mysql = table("mysql", mysqlColumns.toArray(new ColumnStructure[0]));
+
+        // 逐列的调试日志会掩盖匹配耗时，测试期间关闭
+        Logger logger = (Logger) LoggerFactory.getLogger(TableStructureCompareServiceImpl.class);
+        Level level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        try {
+            // 两万个叶子字段逐一匹配反规范化字段，每次查找都是 O(1)
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertTrue(missingColumns(service.compareTableStructures(es, mysql, compareConfig())).isEmpty());
+                assertTrue(missingColumns(service.compareTableStructures(mysql, es, compareConfig())).isEmpty());
+            });
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+
+    private static List<String> names(List<ColumnStructure> columns) {
+        return columns.stream().map(ColumnStructure::getColumnName).collect(Collectors.toList());
+    }
+
+    private static List<String> missingColumns(CompareResult result) {
+        return result.getColumnDifferences().stream()
+                .filter(diff -> diff.getType() == CompareResult.DifferenceType.COLUMN_MISSING)
+                .map(CompareResult.ColumnDifference::getColumnName)
+                .collect(Collectors.toList());
+    }
+
+    private TableStructure mapped(TableStructure table) throws IOException {
+        Path file = tempDir.resolve(table.getSourceType() + ".hdss");
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(file)) {
+            writer.write(new TableSnapshot(table.getSourceType(), "snapshot", table.getTableName(),
+                    SchemaFingerprint.of(table), table));
+        }
+        return MappedSnapshotReader.open(file).read(table.getTableName(), table.getSourceType(), "snapshot")
+                .getTableStructure();
+    }
+
+    private TableStructure table(String sourceType, ColumnStructure... columns) {
+        TableStructure table = new TableStructure();
+        table.setTableName("t_customer");
+        table.setSourceType(sourceType);
+        for (ColumnStructure column : columns) {
+            table.getColumns().add(column);
+        }
+        return table;
+    }
+
+    private ColumnStructure column(String name, String dataType) {
+        ColumnStructure column = new ColumnStructure();
+        column.setColumnName(name);
+        column.setDataType(dataType);
+        return column;
+    }
+
+    private DataSourceCompareConfig.CompareConfig compareConfig() {
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName("columns");
+        config.getTableConfigs().add(new DataSourceCompareConfig.TableCompareConfig());
+        return config;
+    }
+}
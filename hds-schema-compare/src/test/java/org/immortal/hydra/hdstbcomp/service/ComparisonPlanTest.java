@@ -0,0 +1,40 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.constants.DatabaseType;
+import org.wesuper.jtools.hdscompare.service.ComparisonPlan;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComparisonPlanTest {
+
+    @Test
+    void testPlanResolvesIgnoresAndCommentRules() {
+        DataSourceCompareConfig.TableCompareConfig tableConfig = new DataSourceCompareConfig.TableCompareConfig();
+        tableConfig.setIgnoreFields(Arrays.asList("create_time"));
+        tableConfig.setIgnoreTypes(Arrays.asList("COMMENT", "ENGINE"));
+
+        ComparisonPlan mysqlPlan = ComparisonPlan.compile("MySQL", DatabaseType.TIDB, tableConfig);
+        assertTrue(mysqlPlan.isMySQLFamilyComparison());
+        assertFalse(mysqlPlan.isPojoOrEsComparison());
+        assertTrue(mysqlPlan.isIgnored(ComparisonPlan.Check.COMMENT));
+        assertFalse(mysqlPlan.isIgnored(ComparisonPlan.Check.NULLABLE));
+        assertTrue(mysqlPlan.isIgnoredType("ENGINE"));
+        assertTrue(mysqlPlan.isIgnoredField("create_time"));
+        assertFalse(mysqlPlan.isIgnoredField("update_time"));
+        assertTrue(mysqlPlan.isCommentEqual(null, " "));
+        assertFalse(mysqlPlan.isCommentEqual("a", "b"));
+
+        ComparisonPlan esPlan = ComparisonPlan.compile(DatabaseType.ELASTICSEARCH, DatabaseType.MYSQL, tableConfig);
+        assertTrue(esPlan.isSourceES());
+        assertTrue(esPlan.isPojoOrEsComparison());
+        assertTrue(esPlan.isCommentEqual("a", "b"));
+
+        ComparisonPlan pojoPlan = ComparisonPlan.compile(DatabaseType.POJO, DatabaseType.ELASTICSEARCH, null);
+        assertFalse(pojoPlan.isCommentEqual("a", null));
+        assertFalse(pojoPlan.isIgnoredField("create_time"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.service.DefaultValueNormalizer;
+import org.wesuper.jtools.hdscompare.service.DefaultValueNormalizer.DefaultValue;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultValueNormalizerTest {
+
+    private final DefaultValueNormalizer normalizer = DefaultValueNormalizer.getDefault();
+
+    @Test
+    void testParsesTypedValues() {
+        assertEquals(DefaultValue.Kind.NULL, normalizer.normalize(" DEFAULT NULL ").getKind());
+        assertEquals(DefaultValue.Kind.NULL, normalizer.normalize("''").getKind());
+
+        DefaultValue timestamp = normalizer.normalize("CURRENT_TIMESTAMP(3)");
+        assertEquals(DefaultValue.Kind.CURRENT_TIMESTAMP, timestamp.getKind());
+        assertEquals(3, timestamp.getPrecision());
+
+        DefaultValue number = normalizer.normalize("'-1.50e2'");
+        assertEquals(DefaultValue.Kind.NUMERIC, number.getKind());
+        assertEquals(0, new BigDecimal("-150").compareTo(number.getNumber()));
+
+        assertEquals(DefaultValue.Kind.STRING, normalizer.normalize("default 'Active'").getKind());
+        assertEquals("active", normalizer.normalize("default 'Active'").getText());
+        assertEquals(DefaultValue.Kind.EXPRESSION, normalizer.normalize("uuid()").getKind());
+        assertEquals(DefaultValue.Kind.EXPRESSION, normalizer.normalize("current_timestamp(x)").getKind());
+        assertEquals(DefaultValue.Kind.EXPRESSION, normalizer.normalize("1.").getKind());
+        assertEquals(DefaultValue.Kind.EXPRESSION, normalizer.normalize("'").getKind());
+    }
+
+    @Test
+    void testEquivalences() {
+        assertTrue(normalizer.isEquivalent(null, "NULL"));
+        assertTrue(normalizer.isEquivalent("\"null\"", "default"));
+        assertTrue(normalizer.isEquivalent("CURRENT_TIMESTAMP", "current_timestamp(6)"));
+        assertTrue(normalizer.isEquivalent("007", "7"));
+        assertTrue(normalizer.isEquivalent("1.0", "'1'"));
+        assertTrue(normalizer.isEquivalent("'abc'", "ABC"));
+        assertFalse(normalizer.isEquivalent(null, "0"));
+        assertFalse(normalizer.isEquivalent("1", "2"));
+        assertFalse(normalizer.isEquivalent("current_timestamp", "now()"));
+        assertFalse(normalizer.isEquivalent("'a'", "'b'"));
+    }
+}
@@ -0,0 +1,92 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.ExtractionCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractionCacheTest {
+
+    @Test
+    void testConcurrentRequestsShareOneExtraction() throws Exception {
+        ExtractionCache cache = new ExtractionCache();
+        DataSourceCompareConfig.DataSourceConfig dataSource = dataSource("mysql", "primary");
+        AtomicInteger extractions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TableStructure>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> cache.get(dataSource, "t_user", () -> {
+                    extractions.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return table("t_user", "mysql");
+                })));
+            }
+            release.countDown();
+
+            TableStructure first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<TableStructure> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, extractions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testKeyIncludesTypeAndDataSource() throws Exception {
+        ExtractionCache cache = new ExtractionCache();
+
+        TableStructure mysql = cache.get(dataSource("MySQL", "primary"), "t_user", () -> table("t_user", "mysql"));
+        TableStructure tidb = cache.get(dataSource("tidb", "primary"), "t_user", () -> table("t_user", "tidb"));
+        TableStructure sameMysql = cache.get(dataSource("mysql", "primary"), "t_user", () -> table("t_user", "mysql"));
+
+        assertNotSame(mysql, tidb);
+        assertSame(mysql, sameMysql);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testFailureIsCachedForTheRun() {
+        ExtractionCache cache = new ExtractionCache();
+        DataSourceCompareConfig.DataSourceConfig dataSource = dataSource("mysql", "primary");
+        AtomicInteger extractions = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> cache.get(dataSource, "t_missing", () -> {
+                extractions.incrementAndGet();
+                throw new IllegalStateException("Table not found");
+            }));
+            assertEquals("Table not found", e.getMessage());
+        }
+        assertEquals(1, extractions.get());
+    }
+
+    private TableStructure table(String tableName, String sourceType) {
+        TableStructure tableStructure = new TableStructure();
+        tableStructure.setTableName(tableName);
+        tableStructure.setSourceType(sourceType);
+        return tableStructure;
+    }
+
+    private DataSourceCompareConfig.DataSourceConfig dataSource(String type, String name) {
+        DataSourceCompareConfig.DataSourceConfig config = new DataSourceCompareConfig.DataSourceConfig();
+        config.setType(type);
+        config.setDataSourceName(name);
+        return config;
+    }
+}
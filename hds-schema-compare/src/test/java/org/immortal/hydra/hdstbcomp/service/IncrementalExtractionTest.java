@@ -0,0 +1,157 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.TableStructureExtractor;
+import org.wesuper.jtools.hdscompare.extractor.TableStructureExtractorFactory;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+import org.wesuper.jtools.hdscompare.snapshot.FileSchemaSnapshotStore;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 启用快照时按表结构版本探测跳过未变化表的完整提取
+ */
+class IncrementalExtractionTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final TableStructureCompareServiceImpl service = new TableStructureCompareServiceImpl();
+
+    private final DataSourceCompareConfig dataSourceConfig = new DataSourceCompareConfig();
+
+    private final TableStructureExtractor extractor = mock(TableStructureExtractor.class);
+
+    private FileSchemaSnapshotStore snapshotStore;
+
+    @BeforeEach
+    void setup() throws Exception {
+        TableStructureExtractorFactory extractorFactory = mock(TableStructureExtractorFactory.class);
+        when(extractorFactory.getExtractor("mysql")).thenReturn(extractor);
+        snapshotStore = new FileSchemaSnapshotStore(tempDir);
+        setFieldByReflection(service, "extractorFactory", extractorFactory);
+        setFieldByReflection(service, "dataSourceConfig", dataSourceConfig);
+        setFieldByReflection(service, "snapshotStore", snapshotStore);
+
+        dataSourceConfig.getSnapshot().setEnabled(true);
+        dataSourceConfig.getSnapshot().setIncremental(true);
+        dataSourceConfig.setCompareConfigs(Collections.singletonList(compareConfig()));
+
+        when(extractor.extractTableStructure(any(), anyString())).thenAnswer(invocation -> table(invocation.getArgument(1)));
+    }
+
+    @Test
+    void testUnchangedProbeSkipsExtraction() throws Exception {
+        when(extractor.probeSchemaVersion(any(), anyString())).thenReturn("v1");
+
+        List<CompareResult> first = service.compareAllConfiguredTables();
+        assertEquals(1, first.size());
+        verify(extractor, times(2)).extractTableStructure(any(), eq("t_user"));
+        assertEquals("v1", snapshotStore.loadTable("mysql", "primary", "t_user").getProbe());
+
+        List<CompareResult> second = service.compareAllConfiguredTables();
+        assertEquals(1, second.size());
+        assertTrue(second.get(0).isFullyMatched());
+        assertEquals("t_user", second.get(0).getSourceTable().getTableName());
+        // 两端版本均未变化，第二轮只探测不提取
+        verify(extractor, times(4)).probeSchemaVersion(any(), eq("t_user"));
+        verify(extractor, times(2)).extractTableStructure(any(), eq("t_user"));
+    }
+
+    @Test
+    void testChangedProbeExtractsAgain() throws Exception {
+        when(extractor.probeSchemaVersion(any(), anyString())).thenReturn("v1", "v1", "v2", "v2");
+
+        service.compareAllConfiguredTables();
+        service.compareAllConfiguredTables();
+
+        verify(extractor, times(4)).extractTableStructure(any(), eq("t_user"));
+        assertEquals("v2", snapshotStore.loadTable("mysql", "primary", "t_user").getProbe());
+    }
+
+    @Test
+    void testMissingOrFailedProbeAlwaysExtracts() throws Exception {
+        when(extractor.probeSchemaVersion(any(), anyString()))
+                .thenReturn(null)
+                .thenThrow(new IOException("probe failed"));
+
+        assertEquals(1, service.compareAllConfiguredTables().size());
+        assertEquals(1, service.compareAllConfiguredTables().size());
+
+        verify(extractor, times(4)).extractTableStructure(any(), eq("t_user"));
+        assertNull(snapshotStore.loadTable("mysql", "primary", "t_user").getProbe());
+    }
+
+    @Test
+    void testProbeIsRecordedButNotUsedWithoutIncrementalMode() throws Exception {
+        dataSourceConfig.getSnapshot().setIncremental(false);
+        when(extractor.probeSchemaVersion(any(), anyString())).thenReturn("v1");
+
+        service.compareAllConfiguredTables();
+        service.compareAllConfiguredTables();
+
+        verify(extractor, times(4)).extractTableStructure(any(), eq("t_user"));
+        assertEquals("v1", snapshotStore.loadTable("mysql", "primary", "t_user").getProbe());
+    }
+
+    @Test
+    void testSnapshotDisabledDoesNotProbe() throws Exception {
+        dataSourceConfig.getSnapshot().setEnabled(false);
+
+        service.compareAllConfiguredTables();
+
+        verify(extractor, never()).probeSchemaVersion(any(), anyString());
+        verify(extractor, times(2)).extractTableStructure(any(), eq("t_user"));
+    }
+
+    private static DataSourceCompareConfig.CompareConfig compareConfig() {
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName("users");
+        config.setSourceDataSource(dataSource("primary"));
+        config.setTargetDataSource(dataSource("replica"));
+        DataSourceCompareConfig.TableCompareConfig tableConfig = new DataSourceCompareConfig.TableCompareConfig();
+        tableConfig.setSourceTableName("t_user");
+        tableConfig.setTargetTableName("t_user");
+        config.setTableConfigs(Collections.singletonList(tableConfig));
+        return config;
+    }
+
+    private static DataSourceCompareConfig.DataSourceConfig dataSource(String name) {
+        DataSourceCompareConfig.DataSourceConfig config = new DataSourceCompareConfig.DataSourceConfig();
+        config.setType("mysql");
+        config.setDataSourceName(name);
+        return config;
+    }
+
+    private static TableStructure table(String tableName) {
+        TableStructure table = new TableStructure();
+        table.setTableName(tableName);
+        table.setSourceType("mysql");
+        table.setTableComment("");
+        ColumnStructure id = new ColumnStructure();
+        id.setColumnName("id");
+        id.setDataType("bigint");
+        table.getColumns().add(id);
+        return table;
+    }
+
+    private void setFieldByReflection(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
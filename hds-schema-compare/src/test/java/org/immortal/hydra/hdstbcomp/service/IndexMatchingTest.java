@@ -0,0 +1,142 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+import org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotReader;
+import org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotWriter;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaFingerprint;
+import org.wesuper.jtools.hdscompare.snapshot.TableSnapshot;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexMatchingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final TableStructureCompareServiceImpl service = new TableStructureCompareServiceImpl();
+
+    @Test
+    void testDuplicateColumnSetsArePairedByUniqueness() {
+        TableStructure source = table("mysql",
+                index("PRIMARY", true, true, "id"),
+                index("idx_a_b", false, false, "a", "b"),
+                index("uk_b_a", false, true, "b", "a"),
+                index("idx_c", false, false, "c"));
+        TableStructure target = table("tidb",
+                index("pk", true, true, "id"),
+                index("uk_ba", false, true, "b", "a"),
+                index("idx_ab", false, false, "a", "b"),
+                index("idx_d", false, false, "d"));
+
+        CompareResult result = service.compareTableStructures(source, target, compareConfig());
+
+        assertEquals(2, result.getIndexDifferences().size());
+        CompareResult.IndexDifference sourceOnly = result.getIndexDifferences().get(0);
+        assertEquals(CompareResult.DifferenceType.INDEX_MISSING, sourceOnly.getType());
+        assertEquals("idx_c", sourceOnly.getSourceIndex().getIndexName());
+        CompareResult.IndexDifference targetOnly = result.getIndexDifferences().get(1);
+        assertEquals(CompareResult.DifferenceLevel.NOTICE, targetOnly.getLevel());
+        assertEquals("idx_d", targetOnly.getTargetIndex().getIndexName());
+    }
+
+    @Test
+    void testUnpairedRedundantSourceIndexIsReported() {
+        TableStructure source = table("mysql",
+                index("idx_a", false, false, "a"),
+                index("idx_a_dup", false, false, "a"));
+        TableStructure target = table("mysql", index("idx_a", false, false, "a"));
+
+        CompareResult result = service.compareTableStructures(source, target, compareConfig());
+
+        assertEquals(1, result.getIndexDifferences().size());
+        CompareResult.IndexDifference redundant = result.getIndexDifferences().get(0);
+        assertEquals(CompareResult.DifferenceType.INDEX_MISSING, redundant.getType());
+        assertEquals(CompareResult.DifferenceLevel.NOTICE, redundant.getLevel());
+        assertEquals("idx_a_dup", redundant.getSourceIndex().getIndexName());
+        assertTrue(redundant.getDescription().startsWith("Redundant index"));
+    }
+
+    @Test
+    void testUnpairedRedundantTargetIndexIsReported() {
+        TableStructure source = table("mysql",
+                index("PRIMARY", true, true, "id"),
+                index("idx_a", false, false, "a"));
+        TableStructure target = table("mysql",
+                index("PRIMARY", true, true, "id"),
+                index("idx_a", false, false, "a"),
+                index("idx_a_dup", false, false, "a"),
+                index("uk_id", false, true, "id"));
+
+        CompareResult result = service.compareTableStructures(source, target, compareConfig());
+
+        assertEquals(2, result.getIndexDifferences().size());
+        for (CompareResult.IndexDifference diff : result.getIndexDifferences()) {
+            assertEquals(CompareResult.DifferenceLevel.NOTICE, diff.getLevel());
+            assertNull(diff.getSourceIndex());
+            assertTrue(diff.getDescription().startsWith("Redundant index"));
+        }
+        assertEquals("idx_a_dup", result.getIndexDifferences().get(0).getTargetIndex().getIndexName());
+        assertEquals("uk_id", result.getIndexDifferences().get(1).getTargetIndex().getIndexName());
+    }
+
+    @Test
+    void testMappedSnapshotIndexesArePaired() throws Exception {
+        TableStructure live = table("mysql",
+                index("PRIMARY", true, true, "id"),
+                index("idx_a", false, false, "a"),
+                index("idx_a_dup", false, false, "a"),
+                index("uk_b", false, true, "b"));
+
+        Path file = tempDir.resolve("schema.hdss");
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(file)) {
+            writer.write(new TableSnapshot("mysql", "primary", "t_order", SchemaFingerprint.of(live), live));
+        }
+        TableStructure mapped = MappedSnapshotReader.open(file).read("t_order", "mysql", "primary").getTableStructure();
+
+        // 映射快照每次读取索引都会重新解码，配对状态不能依赖对象同一性
+        for (CompareResult result : new CompareResult[]{
+                service.compareTableStructures(live, mapped, compareConfig()),
+                service.compareTableStructures(mapped, live, compareConfig())}) {
+            assertTrue(result.getIndexDifferences().isEmpty(), () -> result.getIndexDifferences().toString());
+            assertTrue(result.isFullyMatched());
+        }
+    }
+
+    private TableStructure table(String sourceType, IndexStructure... indexes) {
+        TableStructure table = new TableStructure();
+        table.setTableName("t_order");
+        table.setSourceType(sourceType);
+        for (IndexStructure index : indexes) {
+            table.getIndexes().add(index);
+        }
+        return table;
+    }
+
+    private IndexStructure index(String name, boolean primary, boolean unique, String... columnNames) {
+        IndexStructure index = new IndexStructure();
+        index.setIndexName(name);
+        index.setPrimary(primary);
+        index.setUnique(unique);
+        for (String columnName : columnNames) {
+            IndexStructure.IndexColumnStructure column = new IndexStructure.IndexColumnStructure();
+            column.setColumnName(columnName);
+            index.getColumns().add(column);
+        }
+        return index;
+    }
+
+    private DataSourceCompareConfig.CompareConfig compareConfig() {
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName("indexes");
+        config.getTableConfigs().add(new DataSourceCompareConfig.TableCompareConfig());
+        return config;
+    }
+}
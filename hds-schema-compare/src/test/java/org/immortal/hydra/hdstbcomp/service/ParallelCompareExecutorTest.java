@@ -0,0 +1,173 @@
+package org.immortal.hydra.hdstbcomp.service;
+
+import org.junit.jupiter.api.Test;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.service.ParallelCompareExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCompareExecutorTest {
+
+    @Test
+    void testLimitsConcurrencyPerDataSourceWithoutBlockingOtherSources() throws Exception {
+        try (ParallelCompareExecutor executor = new ParallelCompareExecutor(config(4, 100, 2, 30))) {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(2);
+            CountDownLatch release = new CountDownLatch(1);
+
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit("mysql:primary", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    return 1;
+                }));
+            }
+
+            // 排队等待名额的任务不占用工作线程，其他数据源的任务仍能执行
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals("es", executor.submit("elasticsearch:es", () -> "es").get(5, TimeUnit.SECONDS));
+            assertEquals(2, maxRunning.get());
+
+            release.countDown();
+            for (CompletableFuture<Integer> future : futures) {
+                assertEquals(1, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(2, maxRunning.get());
+        }
+    }
+
+    @Test
+    void testTimeoutInterruptsTaskAndReleasesSlot() throws Exception {
+        try (ParallelCompareExecutor executor = new ParallelCompareExecutor(config(2, 100, 1, 1))) {
+            CountDownLatch interrupted = new CountDownLatch(1);
+            CompletableFuture<String> slow = executor.submit("mysql:primary", () -> {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                    return "slow";
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            });
+            CompletableFuture<String> next = executor.submit("mysql:primary", () -> "next");
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, error.getCause());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertEquals("next", next.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testNestedSubmitForSameDataSourceDoesNotDeadlock() throws Exception {
+        try (ParallelCompareExecutor executor = new ParallelCompareExecutor(config(1, 1, 1, 30))) {
+            CompletableFuture<String> nested = executor.submit("mysql:primary", () -> "outer")
+                    .thenCompose(outer -> executor.submit("mysql:primary", () -> outer + "-inner"));
+
+            assertEquals("outer-inner", nested.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testRejectedTaskCompletesExceptionallyInsteadOfRunningOnCaller() throws Exception {
+        try (ParallelCompareExecutor executor = new ParallelCompareExecutor(config(1, 1, 4, 30))) {
+            CountDownLatch release = new CountDownLatch(1);
+            Thread caller = Thread.currentThread();
+            List<CompletableFuture<Thread>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(null, () -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return Thread.currentThread();
+                }));
+            }
+
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> futures.get(2).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+
+            release.countDown();
+            assertNotSame(caller, futures.get(0).get(5, TimeUnit.SECONDS));
+            assertNotSame(caller, futures.get(1).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testAdoptAfterCloseCompletesExceptionally() {
+        ParallelCompareExecutor executor = new ParallelCompareExecutor(config(1, 10, 1, 30));
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> adopted = executor.adopt(source);
+        executor.close();
+
+        source.complete("late");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> adopted.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+
+    @Test
+    void testCloseFailsAdoptedResultsQueuedBehindRunningTask() throws Exception {
+        ParallelCompareExecutor executor = new ParallelCompareExecutor(config(1, 10, 1, 30));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(null, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 唯一的工作线程被占用，接管的结果在线程池队列中等待
+        CompletableFuture<String> adopted = executor.adopt(CompletableFuture.completedFuture("queued"));
+
+        executor.close();
+        release.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> adopted.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+
+    @Test
+    void testCloseFailsTasksWaitingForDataSourceSlot() throws Exception {
+        ParallelCompareExecutor executor = new ParallelCompareExecutor(config(2, 10, 1, 30));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit("mysql:primary", () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> waiting = executor.submit("mysql:primary", () -> "waiting");
+
+        executor.close();
+        release.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+
+    private static DataSourceCompareConfig.ParallelConfig config(int threads, int queueCapacity,
+                                                                 int maxConcurrencyPerDataSource, int timeoutSeconds) {
+        DataSourceCompareConfig.ParallelConfig config = new DataSourceCompareConfig.ParallelConfig();
+        config.setEnabled(true);
+        config.setThreads(threads);
+        config.setQueueCapacity(queueCapacity);
+        config.setMaxConcurrencyPerDataSource(maxConcurrencyPerDataSource);
+        config.setTaskTimeoutSeconds(timeoutSeconds);
+        return config;
+    }
+}
@@ -0,0 +1,105 @@
+package org.immortal.hydra.hdstbcomp.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.snapshot.CompareSnapshot;
+import org.wesuper.jtools.hdscompare.snapshot.FileSchemaSnapshotStore;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaFingerprint;
+import org.wesuper.jtools.hdscompare.snapshot.TableSnapshot;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSchemaSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFingerprintIgnoresIndexAndPropertyOrder() {
+        TableStructure first = table();
+        first.getIndexes().add(index("idx_b"));
+        first.getIndexes().add(index("idx_a"));
+        first.getProperties().put("engine", "InnoDB");
+        first.getProperties().put("charset", "utf8mb4");
+
+        TableStructure second = table();
+        second.getIndexes().add(index("idx_a"));
+        second.getIndexes().add(index("idx_b"));
+        second.getProperties().put("charset", "utf8mb4");
+        second.getProperties().put("engine", "InnoDB");
+
+        assertEquals(SchemaFingerprint.of(first), SchemaFingerprint.of(second));
+
+        second.getColumns().get(0).setNullable(true);
+        assertNotEquals(SchemaFingerprint.of(first), SchemaFingerprint.of(second));
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        FileSchemaSnapshotStore store = new FileSchemaSnapshotStore(tempDir);
+        TableStructure table = table();
+        String fingerprint = SchemaFingerprint.of(table);
+
+        assertNull(store.loadTable("mysql", "primary", "t_user"));
+        store.saveTable(new TableSnapshot("MySQL", "primary", "t_user", fingerprint, table));
+
+        TableSnapshot tableSnapshot = store.loadTable("mysql", "primary", "t_user");
+        assertNotNull(tableSnapshot);
+        assertEquals(fingerprint, tableSnapshot.getFingerprint());
+        assertEquals(fingerprint, SchemaFingerprint.of(tableSnapshot.getTableStructure()));
+
+        CompareResult result = new CompareResult("user-compare");
+        result.setSourceTable(table);
+        result.setTargetTable(table);
+        result.setMatchPercentage(50.0);
+        CompareResult.ColumnDifference difference = new CompareResult.ColumnDifference(
+                CompareResult.DifferenceType.COLUMN_TYPE_DIFFERENT, CompareResult.DifferenceLevel.CRITICAL, "type", "id");
+        difference.addPropertyDifference("dataType", "bigint", "int", CompareResult.DifferenceLevel.CRITICAL);
+        result.getColumnDifferences().add(difference);
+        result.incrementDifferenceCount(CompareResult.DifferenceLevel.CRITICAL);
+        store.saveCompare(new CompareSnapshot("key", "config", fingerprint, fingerprint, result));
+
+        CompareSnapshot compareSnapshot = store.loadCompare("key");
+        assertTrue(compareSnapshot.matches("config", fingerprint, fingerprint));
+        assertFalse(compareSnapshot.matches("other", fingerprint, fingerprint));
+
+        CompareResult loaded = compareSnapshot.getResult();
+        assertNull(loaded.getSourceTable());
+        assertEquals(50.0, loaded.getMatchPercentage());
+        assertEquals(1, loaded.getColumnDifferences().size());
+        assertEquals("id", loaded.getColumnDifferences().get(0).getColumnName());
+        assertEquals(CompareResult.DifferenceLevel.CRITICAL, loaded.getColumnDifferences().get(0).getLevel());
+        assertEquals("int", loaded.getColumnDifferences().get(0).getPropertyDifferences().get("dataType").getTargetValue());
+        assertEquals(Integer.valueOf(1), loaded.getDifferenceCountByLevel().get(CompareResult.DifferenceLevel.CRITICAL));
+    }
+
+    private TableStructure table() {
+        TableStructure table = new TableStructure();
+        table.setTableName("t_user");
+        table.setSourceType("mysql");
+        ColumnStructure column = new ColumnStructure();
+        column.setColumnName("id");
+        column.setDataType("bigint");
+        column.setOrdinalPosition(1);
+        table.getColumns().add(column);
+        return table;
+    }
+
+    private IndexStructure index(String name) {
+        IndexStructure index = new IndexStructure();
+        index.setIndexName(name);
+        index.setIndexType("NORMAL");
+        IndexStructure.IndexColumnStructure column = new IndexStructure.IndexColumnStructure();
+        column.setColumnName("id");
+        column.setPosition(1);
+        index.setColumns(Collections.singletonList(column));
+        return index;
+    }
+}
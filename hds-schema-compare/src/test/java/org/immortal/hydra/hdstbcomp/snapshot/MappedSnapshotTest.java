@@ -0,0 +1,196 @@
+package org.immortal.hydra.hdstbcomp.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.service.TableStructureCompareServiceImpl;
+import org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotReader;
+import org.wesuper.jtools.hdscompare.snapshot.MappedSnapshotWriter;
+import org.wesuper.jtools.hdscompare.snapshot.MappedTableStructure;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaFingerprint;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileFormat;
+import org.wesuper.jtools.hdscompare.snapshot.TableSnapshot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTripPreservesStructure() throws Exception {
+        TableStructure table = new TableStructure();
+        table.setTableName("t_order");
+        table.setSourceType("mysql");
+        table.setTableComment("订单表");
+        table.getProperties().put("engine", "InnoDB");
+        table.getProperties().put("rows", 42L);
+        table.getProperties().put("analyzer", Collections.singletonMap("type", "ik_max_word"));
+
+        ColumnStructure id = new ColumnStructure();
+        id.setColumnName("id");
+        id.setDataType("bigint");
+        id.setColumnType("bigint(20)");
+        id.setAutoIncrement(true);
+        id.setOrdinalPosition(1);
+        id.addTypeMapping("elasticsearch", "long");
+        table.getColumns().add(id);
+
+        ColumnStructure amount = new ColumnStructure();
+        amount.setColumnName("amount");
+        amount.setDataType("decimal");
+        amount.setPrecision(10);
+        amount.setScale(2);
+        amount.setNullable(true);
+        amount.setDefaultValue("0.00");
+        amount.setOrdinalPosition(2);
+        amount.getProperties().put("unsigned", true);
+        table.getColumns().add(amount);
+
+        IndexStructure primary = new IndexStructure();
+        primary.setIndexName("PRIMARY");
+        primary.setIndexType("BTREE");
+        primary.setPrimary(true);
+        primary.setUnique(true);
+        IndexStructure.IndexColumnStructure indexColumn = new IndexStructure.IndexColumnStructure();
+        indexColumn.setColumnName("id");
+        indexColumn.setPosition(1);
+        indexColumn.setSort("ASC");
+        primary.setColumns(Arrays.asList(indexColumn));
+        table.getIndexes().add(primary);
+
+        Path file = tempDir.resolve("schema.hdss");
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(file)) {
+            TableSnapshot snapshot = new TableSnapshot("mysql", "primary", "t_order", SchemaFingerprint.of(table), table);
+            snapshot.setProbe("probe-1");
+            writer.write(snapshot);
+        }
+        assertEquals(SnapshotFileFormat.MAPPED, SnapshotFileFormat.resolve(null, file));
+
+        TableSnapshot snapshot = MappedSnapshotReader.open(file).read("T_ORDER", "MySQL", "primary");
+        assertEquals("probe-1", snapshot.getProbe());
+        TableStructure mapped = snapshot.getTableStructure();
+        assertTrue(mapped instanceof MappedTableStructure);
+        assertEquals(SchemaFingerprint.of(table), SchemaFingerprint.of(mapped));
+
+        assertEquals("订单表", mapped.getTableComment());
+        assertEquals(42L, mapped.getProperties().get("rows"));
+        assertEquals(Collections.singletonMap("type", "ik_max_word"), mapped.getProperties().get("analyzer"));
+
+        ColumnStructure decodedId = mapped.getColumnByName("ID");
+        assertTrue(decodedId.isAutoIncrement());
+        assertFalse(decodedId.isNullable());
+        assertNull(decodedId.getLength());
+        assertEquals(Collections.singletonList("long"), decodedId.getTypeMapping("elasticsearch").getColumnTypes());
+
+        ColumnStructure decodedAmount = mapped.getColumns().get(1);
+        assertEquals(Integer.valueOf(2), decodedAmount.getScale());
+        assertEquals("0.00", decodedAmount.getDefaultValue());
+        assertEquals(Boolean.TRUE, decodedAmount.getProperties().get("unsigned"));
+        assertNull(decodedAmount.getTypeMappings());
+
+        IndexStructure decodedPrimary = mapped.getIndexByName("primary");
+        assertTrue(decodedPrimary.isPrimary());
+        assertEquals("ASC", decodedPrimary.getColumns().get(0).getSort());
+
+        assertThrows(UnsupportedOperationException.class, () -> mapped.setTableName("other"));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.getColumns().add(new ColumnStructure()));
+    }
+
+    @Test
+    void testDecodedElementsAreStablePerView() throws Exception {
+        TableStructure mapped = writeAndRead(orderTable());
+
+        assertSame(mapped.getColumns().get(0), mapped.getColumns().get(0));
+        assertSame(mapped.getColumns().get(1), mapped.getColumnByName("AMOUNT"));
+        assertSame(mapped.getColumns().get(2), mapped.getColumnsByPathPrefix("address").get(0));
+        assertSame(mapped.getIndexes().get(1), mapped.getIndexByName("idx_amount"));
+        assertSame(mapped.getIndexes().get(0), mapped.getIndexes().iterator().next());
+    }
+
+    @Test
+    void testMappedSnapshotComparesAsFullyMatched() throws Exception {
+        TableStructureCompareServiceImpl service = new TableStructureCompareServiceImpl();
+        DataSourceCompareConfig.CompareConfig config = new DataSourceCompareConfig.CompareConfig();
+        config.setName("snapshot");
+        config.getTableConfigs().add(new DataSourceCompareConfig.TableCompareConfig());
+
+        TableStructure live = orderTable();
+        TableStructure mapped = writeAndRead(orderTable());
+
+        // 比对引擎直接使用映射视图，字段和索引的配对结果与堆上的表结构一致
+        for (CompareResult result : new CompareResult[]{
+                service.compareTableStructures(live, mapped, config),
+                service.compareTableStructures(mapped, live, config),
+                service.compareTableStructures(mapped, writeAndRead(orderTable()), config)}) {
+            assertTrue(result.getColumnDifferences().isEmpty(), () -> result.getColumnDifferences().toString());
+            assertTrue(result.getIndexDifferences().isEmpty(), () -> result.getIndexDifferences().toString());
+            assertTrue(result.isFullyMatched());
+        }
+    }
+
+    @Test
+    void testRejectsNonMappedFile() throws Exception {
+        Path file = tempDir.resolve("schema.json");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("{\"formatVersion\":1,\"tables\":[]}");
+        }
+        assertThrows(IOException.class, () -> MappedSnapshotReader.open(file));
+        assertThrows(IOException.class, () -> MappedSnapshotReader.open(Paths.get(file + ".missing")));
+    }
+
+    private TableStructure writeAndRead(TableStructure table) throws IOException {
+        Path file = Files.createTempFile(tempDir, "schema", ".hdss");
+        try (MappedSnapshotWriter writer = new MappedSnapshotWriter(file)) {
+            writer.write(new TableSnapshot("mysql", "primary", table.getTableName(), SchemaFingerprint.of(table), table));
+        }
+        return MappedSnapshotReader.open(file).read(table.getTableName(), "mysql", "primary").getTableStructure();
+    }
+
+    private static TableStructure orderTable() {
+        TableStructure table = new TableStructure();
+        table.setTableName("t_order");
+        table.setSourceType("mysql");
+        table.setTableComment("");
+        table.getColumns().add(column("id", "bigint", "bigint(20)"));
+        table.getColumns().add(column("amount", "decimal", "decimal(10,2)"));
+        table.getColumns().add(column("address.city", "varchar", "varchar(64)"));
+        table.getIndexes().add(index("PRIMARY", true, "id"));
+        table.getIndexes().add(index("idx_amount", false, "amount"));
+        table.getIndexes().add(index("idx_amount_dup", false, "amount"));
+        return table;
+    }
+
+    private static ColumnStructure column(String name, String dataType, String columnType) {
+        ColumnStructure column = new ColumnStructure();
+        column.setColumnName(name);
+        column.setDataType(dataType);
+        column.setColumnType(columnType);
+        return column;
+    }
+
+    private static IndexStructure index(String name, boolean primary, String columnName) {
+        IndexStructure index = new IndexStructure();
+        index.setIndexName(name);
+        index.setPrimary(primary);
+        index.setUnique(primary);
+        IndexStructure.IndexColumnStructure indexColumn = new IndexStructure.IndexColumnStructure();
+        indexColumn.setColumnName(columnName);
+        indexColumn.setPosition(1);
+        index.setColumns(Arrays.asList(indexColumn));
+        return index;
+    }
+}
@@ -0,0 +1,91 @@
+package org.immortal.hydra.hdstbcomp.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.extractor.SnapshotTableStructureExtractor;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaFingerprint;
+import org.wesuper.jtools.hdscompare.snapshot.SchemaSnapshotWriter;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileFormat;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileReader;
+import org.wesuper.jtools.hdscompare.snapshot.SnapshotFileWriter;
+import org.wesuper.jtools.hdscompare.snapshot.TableSnapshot;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaSnapshotReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(SnapshotFileFormat.class)
+    void testReadTablesAtRandomOffsets(SnapshotFileFormat format) throws Exception {
+        Path file = tempDir.resolve("schema" + format.getExtension());
+        try (SnapshotFileWriter writer = format.openWriter(file)) {
+            for (int i = 0; i < 200; i++) {
+                writer.write(snapshot("mysql", "primary", table("t_" + i, "mysql", i % 7 + 1)));
+            }
+            writer.write(snapshot("elasticsearch", "es", table("t_7", "elasticsearch", 2)));
+        }
+
+        SnapshotFileReader reader = format.openReader(file);
+        assertEquals(201, reader.getTableCount());
+
+        TableSnapshot snapshot = reader.read("T_150", null, null);
+        assertEquals("t_150", snapshot.getTableName());
+        assertEquals(150 % 7 + 1, snapshot.getTableStructure().getColumns().size());
+        assertEquals(snapshot.getFingerprint(), SchemaFingerprint.of(snapshot.getTableStructure()));
+
+        assertThrows(IllegalStateException.class, () -> reader.read("t_7", null, null));
+        assertEquals("elasticsearch", reader.read("t_7", "elasticsearch", null).getTableStructure().getSourceType());
+        assertEquals("mysql", reader.read("t_7", null, "primary").getTableStructure().getSourceType());
+        assertNull(reader.read("missing", null, null));
+    }
+
+    @Test
+    void testSnapshotExtractorReturnsOriginalSourceType() throws Exception {
+        Path file = tempDir.resolve("prod.json");
+        try (SchemaSnapshotWriter writer = new SchemaSnapshotWriter(file, SnapshotFileFormat.JSON)) {
+            writer.write(snapshot("mysql", "primary", table("t_user", "mysql", 3)));
+        }
+
+        DataSourceCompareConfig.DataSourceConfig dataSource = new DataSourceCompareConfig.DataSourceConfig();
+        dataSource.setType("snapshot");
+        dataSource.getProperties().put(SnapshotTableStructureExtractor.PROPERTY_PATH, file.toString());
+
+        SnapshotTableStructureExtractor extractor = new SnapshotTableStructureExtractor();
+        TableStructure table = extractor.extractTableStructure(dataSource, "t_user");
+        assertEquals("mysql", table.getSourceType());
+        assertEquals(3, table.getColumns().size());
+        assertThrows(IllegalArgumentException.class, () -> extractor.extractTableStructure(dataSource, "t_order"));
+    }
+
+    private TableSnapshot snapshot(String type, String dataSourceName, TableStructure table) {
+        return new TableSnapshot(type, dataSourceName, table.getTableName(), SchemaFingerprint.of(table), table);
+    }
+
+    private TableStructure table(String name, String sourceType, int columnCount) {
+        TableStructure table = new TableStructure();
+        table.setTableName(name);
+        table.setSourceType(sourceType);
+        table.setTableComment("comment of " + name);
+        table.getProperties().put("engine", "InnoDB");
+        for (int i = 1; i <= columnCount; i++) {
+            ColumnStructure column = new ColumnStructure();
+            column.setColumnName("col_" + i);
+            column.setDataType("varchar");
+            column.setLength(64);
+            column.setOrdinalPosition(i);
+            column.setComment("column " + i);
+            table.getColumns().add(column);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,174 @@
+package org.immortal.hydra.hdstbcomp.starter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.CompareResult.ColumnDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceType;
+import org.wesuper.jtools.hdscompare.model.CompareResult.IndexDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.TableDifference;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.starter.JUnitXmlResultSink;
+import org.wesuper.jtools.hdscompare.starter.NdjsonResultSink;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompareResultSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testNdjsonWritesOneLinePerResult() throws Exception {
+        Path file = tempDir.resolve("results.ndjson");
+        try (NdjsonResultSink sink = new NdjsonResultSink(file)) {
+            sink.write(createResult("matched", false), null);
+            sink.write(createResult("orders", true), null);
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertTrue(mapper.readTree(lines.get(0)).get("fullyMatched").asBoolean());
+        JsonNode orders = mapper.readTree(lines.get(1));
+        assertEquals("orders", orders.get("name").asText());
+        assertEquals("mysql", orders.get("source").get("type").asText());
+        JsonNode column = orders.get("columnDifferences").get(0);
+        assertEquals("status", column.get("column").asText());
+        assertEquals("CRITICAL", column.get("level").asText());
+        assertEquals("varchar(\"32\")", column.get("properties").get("type").get("sourceValue").asText());
+    }
+
+    @Test
+    void testJUnitXmlReportsFailuresPerDifference() throws Exception {
+        Path file = tempDir.resolve("results.xml");
+        try (JUnitXmlResultSink sink = new JUnitXmlResultSink(file)) {
+            sink.write(createResult("matched", false), null);
+            sink.write(createResult("orders", true), null);
+        }
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+        assertEquals(2, document.getElementsByTagName("testsuite").getLength());
+        assertEquals(3, document.getElementsByTagName("testcase").getLength());
+        assertEquals(1, document.getElementsByTagName("failure").getLength());
+        assertEquals(1, document.getElementsByTagName("system-out").getLength());
+        assertEquals("2", document.getElementsByTagName("testsuite").item(1).getAttributes()
+                .getNamedItem("tests").getNodeValue());
+    }
+
+    @Test
+    void testNdjsonWritesTableAndIndexDifferences() throws Exception {
+        CompareResult result = createResult("orders", true);
+        result.getDifferenceCountByLevel().put(DifferenceLevel.CRITICAL, 1);
+        result.getTableDifferences().add(new TableDifference(DifferenceType.TABLE_PROPERTY_DIFFERENT,
+                DifferenceLevel.NOTICE, "Charset differs", "charset", "utf8mb4", null));
+        IndexDifference indexDiff = new IndexDifference(DifferenceType.INDEX_MISSING,
+                DifferenceLevel.WARNING, "Index missing", "idx_status");
+        result.getIndexDifferences().add(indexDiff);
+
+        Path file = tempDir.resolve("results.ndjson");
+        try (NdjsonResultSink sink = new NdjsonResultSink(file)) {
+            sink.write(result, null);
+        }
+
+        JsonNode node = new ObjectMapper().readTree(Files.readAllLines(file, StandardCharsets.UTF_8).get(0));
+        assertFalse(node.get("fullyMatched").asBoolean());
+        assertEquals(50.0, node.get("matchPercentage").asDouble());
+        assertTrue(node.get("critical").asBoolean());
+        assertFalse(node.get("warning").asBoolean());
+        assertEquals("tidb", node.get("target").get("type").asText());
+
+        JsonNode tableDiff = node.get("tableDifferences").get(0);
+        assertEquals("charset", tableDiff.get("property").asText());
+        assertEquals("TABLE_PROPERTY_DIFFERENT", tableDiff.get("type").asText());
+        assertEquals("utf8mb4", tableDiff.get("sourceValue").asText());
+        assertTrue(tableDiff.get("targetValue").isNull());
+
+        JsonNode index = node.get("indexDifferences").get(0);
+        assertEquals("idx_status", index.get("index").asText());
+        assertEquals("WARNING", index.get("level").asText());
+        assertEquals("Index missing", index.get("description").asText());
+        assertEquals(0, index.get("properties").size());
+        assertTrue(node.get("columnDifferences").get(1).get("properties").get("comment").get("targetValue").isNull());
+    }
+
+    @Test
+    void testJUnitXmlWritesTestCaseContent() throws Exception {
+        DataSourceCompareConfig.TableCompareConfig tableConfig = new DataSourceCompareConfig.TableCompareConfig();
+        tableConfig.setSourceTableName("orders");
+        tableConfig.setTargetTableName("orders_v2");
+
+        Path file = tempDir.resolve("results.xml");
+        try (JUnitXmlResultSink sink = new JUnitXmlResultSink(file)) {
+            sink.write(createResult("pojo_scan", true), tableConfig);
+            sink.write(createResult("pojo_scan", false), null);
+        }
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+        Element suite = (Element) document.getElementsByTagName("testsuite").item(0);
+        assertEquals("pojo_scan[orders vs orders_v2]", suite.getAttribute("name"));
+        assertEquals("1", suite.getAttribute("failures"));
+        assertEquals("0", suite.getAttribute("errors"));
+        // 同一比对名称下的每张表各有唯一的 testsuite 名称，未提供表配置时取结果中的表名
+        assertEquals("pojo_scan[pojo_scan vs pojo_scan]",
+                ((Element) document.getElementsByTagName("testsuite").item(1)).getAttribute("name"));
+
+        Element failedCase = (Element) document.getElementsByTagName("testcase").item(0);
+        assertEquals("pojo_scan[orders vs orders_v2]", failedCase.getAttribute("classname"));
+        assertEquals("column status", failedCase.getAttribute("name"));
+        Element failure = (Element) failedCase.getElementsByTagName("failure").item(0);
+        assertEquals("CRITICAL", failure.getAttribute("type"));
+        assertEquals("Column type <differs>", failure.getAttribute("message"));
+        assertEquals("[CRITICAL] COLUMN_TYPE_DIFFERENT\ntype: varchar(\"32\") → int (CRITICAL)\n",
+                failure.getTextContent());
+
+        Element noticeCase = (Element) document.getElementsByTagName("testcase").item(1);
+        assertEquals("column remark", noticeCase.getAttribute("name"));
+        assertEquals("[NOTICE] COLUMN_PROPERTY_DIFFERENT\ncomment: a & b → null (NOTICE)\n",
+                noticeCase.getElementsByTagName("system-out").item(0).getTextContent());
+
+        Element passedCase = (Element) document.getElementsByTagName("testcase").item(2);
+        assertEquals("structure", passedCase.getAttribute("name"));
+        assertEquals(0, passedCase.getChildNodes().getLength());
+    }
+
+    private CompareResult createResult(String name, boolean withDifferences) {
+        CompareResult result = new CompareResult(name);
+        TableStructure source = new TableStructure();
+        source.setSourceType("mysql");
+        source.setTableName(name);
+        TableStructure target = new TableStructure();
+        target.setSourceType("tidb");
+        target.setTableName(name);
+        result.setSourceTable(source);
+        result.setTargetTable(target);
+        result.setFullyMatched(!withDifferences);
+        result.setMatchPercentage(withDifferences ? 50 : 100);
+
+        if (withDifferences) {
+            ColumnDifference typeDiff = new ColumnDifference(DifferenceType.COLUMN_TYPE_DIFFERENT,
+                    DifferenceLevel.CRITICAL, "Column type <differs>", "status");
+            typeDiff.addPropertyDifference("type", "varchar(\"32\")", "int", DifferenceLevel.CRITICAL);
+            result.getColumnDifferences().add(typeDiff);
+
+            ColumnDifference commentDiff = new ColumnDifference(DifferenceType.COLUMN_PROPERTY_DIFFERENT,
+                    DifferenceLevel.NOTICE, "Column comment differs", "remark");
+            commentDiff.addPropertyDifference("comment", "a & b", null, DifferenceLevel.NOTICE);
+            result.getColumnDifferences().add(commentDiff);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package org.immortal.hydra.hdstbcomp.starter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
+import org.wesuper.jtools.hdscompare.model.ColumnStructure;
+import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.model.CompareResult.ColumnDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceLevel;
+import org.wesuper.jtools.hdscompare.model.CompareResult.DifferenceType;
+import org.wesuper.jtools.hdscompare.model.CompareResult.IndexDifference;
+import org.wesuper.jtools.hdscompare.model.CompareResult.TableDifference;
+import org.wesuper.jtools.hdscompare.model.IndexStructure;
+import org.wesuper.jtools.hdscompare.model.TableStructure;
+import org.wesuper.jtools.hdscompare.starter.MarkdownReportWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkdownReportWriterTest {
+
+    private static final String HEADER = "# Table Structure Comparison Report\n\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWritesFullyMatchedResult() throws Exception {
+        Path file = tempDir.resolve("report.md");
+        try (MarkdownReportWriter writer = new MarkdownReportWriter(file)) {
+            writer.write(createResult("users"), null);
+            assertEquals(1, writer.getResultCount());
+        }
+
+        assertEquals(HEADER
+                + "## Comparison: users\n\n"
+                + "**Result: ✅ FULLY MATCHED** (100%)\n\n"
+                + "### Overview\n"
+                + "- **Source Table:** `mysql`.`users`\n"
+                + "- **Target Table:** `tidb`.`users`\n"
+                + "\n"
+                + "---\n\n", read(file));
+    }
+
+    @Test
+    void testWritesAllDifferenceSections() throws Exception {
+        CompareResult result = createResult("orders");
+        result.setFullyMatched(false);
+        result.setMatchPercentage(62.5);
+        result.getDifferenceCountByLevel().put(DifferenceLevel.CRITICAL, 1);
+        result.getDifferenceCountByLevel().put(DifferenceLevel.WARNING, 2);
+
+        result.getTableDifferences().add(new TableDifference(DifferenceType.TABLE_PROPERTY_DIFFERENT,
+                DifferenceLevel.NOTICE, "Charset differs", "charset", "utf8mb4", "utf8"));
+
+        ColumnDifference typeDiff = new ColumnDifference(DifferenceType.COLUMN_TYPE_DIFFERENT,
+                DifferenceLevel.CRITICAL, "Column type differs", "status");
+        typeDiff.addPropertyDifference("type", "varchar(32)", "int", DifferenceLevel.CRITICAL);
+        result.getColumnDifferences().add(typeDiff);
+        ColumnDifference missingColumn = new ColumnDifference(DifferenceType.COLUMN_MISSING,
+                DifferenceLevel.WARNING, "Column missing", "remark");
+        missingColumn.setSourceColumn(new ColumnStructure());
+        result.getColumnDifferences().add(missingColumn);
+
+        IndexDifference missingIndex = new IndexDifference(DifferenceType.INDEX_MISSING,
+                DifferenceLevel.WARNING, "Index missing", "idx_status");
+        missingIndex.setTargetIndex(new IndexStructure());
+        result.getIndexDifferences().add(missingIndex);
+        IndexDifference uniqueDiff = new IndexDifference(DifferenceType.INDEX_STRUCTURE_DIFFERENT,
+                DifferenceLevel.NOTICE, "Index differs", "uk_code");
+        uniqueDiff.addPropertyDifference("unique", true, false, DifferenceLevel.NOTICE);
+        result.getIndexDifferences().add(uniqueDiff);
+
+        DataSourceCompareConfig.TableCompareConfig tableConfig = new DataSourceCompareConfig.TableCompareConfig();
+        tableConfig.setIgnoreFields(Arrays.asList("created_at", "updated_at"));
+        tableConfig.setIgnoreTypes(Collections.singletonList("COMMENT"));
+
+        Path file = tempDir.resolve("report.md");
+        try (MarkdownReportWriter writer = new MarkdownReportWriter(file)) {
+            writer.write(result, tableConfig);
+        }
+
+        assertEquals(HEADER
+                + "## Comparison: orders\n\n"
+                + "**Result: ❌ DIFFERENCES FOUND** (" + String.format("%.2f", 62.5) + "%)\n"
+                + "  ❗ **Contains CRITICAL Differences**\n"
+                + "\n"
+                + "### Overview\n"
+                + "- **Source Table:** `mysql`.`orders`\n"
+                + "- **Target Table:** `tidb`.`orders`\n"
+                + "- **Ignored Fields:** `created_at`, `updated_at`\n"
+                + "- **Ignored Types:** `COMMENT`\n"
+                + "\n"
+                + "### Ⅲ Table Property Differences\n"
+                + "| Property | Level | Source Value | Target Value |\n"
+                + "|----------|-------|--------------|--------------|\n"
+                + "| `charset` | ℹ️ NOTICE | `utf8mb4` | `utf8` |\n"
+                + "\n"
+                + "### Ⅱ Column Differences\n"
+                + "| Column Name | Type | Level | Details |\n"
+                + "|-------------|------|-------|---------|\n"
+                + "| `status` | COLUMN_TYPE_DIFFERENT | ❗ CRITICAL | `type`: `varchar(32)` → `int` (❗ CRITICAL) |\n"
+                + "| `remark` | COLUMN_MISSING | ⚠️ WARNING | Missing in target |\n"
+                + "\n"
+                + "### I Index Differences\n"
+                + "| Index Name | Type | Level | Details |\n"
+                + "|------------|------|-------|---------|\n"
+                + "| `idx_status` | INDEX_MISSING | ⚠️ WARNING | Missing in source |\n"
+                + "| `uk_code` | INDEX_STRUCTURE_DIFFERENT | ℹ️ NOTICE | `unique`: `true` → `false` (ℹ️ NOTICE) |\n"
+                + "\n"
+                + "---\n\n", read(file));
+    }
+
+    @Test
+    void testWarningBannerAndEscapedValues() throws Exception {
+        CompareResult result = createResult("logs");
+        result.setFullyMatched(false);
+        result.setMatchPercentage(90);
+        result.getDifferenceCountByLevel().put(DifferenceLevel.WARNING, 1);
+        ColumnDifference defaultDiff = new ColumnDifference(DifferenceType.COLUMN_PROPERTY_DIFFERENT,
+                DifferenceLevel.WARNING, "Default differs", "level");
+        defaultDiff.addPropertyDifference("default", "a|b_[c]", null, DifferenceLevel.WARNING);
+        result.getColumnDifferences().add(defaultDiff);
+
+        Path file = tempDir.resolve("report.md");
+        try (MarkdownReportWriter writer = new MarkdownReportWriter(file)) {
+            writer.write(result, null);
+        }
+
+        String report = read(file);
+        assertTrue(report.contains("  ⚠️ **Contains WARNINGS**\n"));
+        assertFalse(report.contains("CRITICAL Differences"));
+        // 与原 StringBuilder 报告相同的转义输出
+        assertTrue(report.contains("| `level` | COLUMN_PROPERTY_DIFFERENT | ⚠️ WARNING | "
+                + "`default`: `a\\\\|b\\\\_\\\\[c\\\\]` → `null` (⚠️ WARNING) |\n"), report);
+    }
+
+    @Test
+    void testSeparatesMultipleResultsAndOverwritesExistingFile() throws Exception {
+        Path file = tempDir.resolve("report.md");
+        Files.write(file, "stale report content that is longer than the new one".getBytes(StandardCharsets.UTF_8));
+
+        try (MarkdownReportWriter writer = new MarkdownReportWriter(file)) {
+            writer.write(createResult("a"), null);
+            writer.write(createResult("b"), null);
+            assertEquals(2, writer.getResultCount());
+        }
+
+        String report = read(file);
+        assertTrue(report.startsWith(HEADER + "## Comparison: a\n\n"));
+        assertTrue(report.contains("---\n\n## Comparison: b\n\n"));
+        assertTrue(report.endsWith("---\n\n"));
+        assertFalse(report.contains("stale"));
+    }
+
+    private CompareResult createResult(String name) {
+        CompareResult result = new CompareResult(name);
+        TableStructure source = new TableStructure();
+        source.setSourceType("mysql");
+        source.setTableName(name);
+        TableStructure target = new TableStructure();
+        target.setSourceType("tidb");
+        target.setTableName(name);
+        result.setSourceTable(source);
+        result.setTargetTable(target);
+        result.setFullyMatched(true);
+        result.setMatchPercentage(100);
+        return result;
+    }
+
+    private String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -8,12 +8,17 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.boot.ApplicationArguments;
 import org.wesuper.jtools.hdscompare.config.DataSourceCompareConfig;
 import org.wesuper.jtools.hdscompare.model.CompareResult;
+import org.wesuper.jtools.hdscompare.service.CompareResultListener;
 import org.wesuper.jtools.hdscompare.service.TableStructureCompareService;
+import org.wesuper.jtools.hdscompare.starter.CompareResultSink;
 import org.wesuper.jtools.hdscompare.starter.TableStructureCompareAutoStarter;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class TableStructureCompareAutoStarterTest {
@@ -44,7 +49,7 @@ class TableStructureCompareAutoStarterTest {
         autoStarter.run(applicationArguments);
 
         // 验证compareService没有被调用
-        verify(compareService, never()).compareAllConfiguredTables();
+        verify(compareService, never()).streamAllConfiguredTables(any());
     }
 
     @Test
@@ -59,13 +64,13 @@ class TableStructureCompareAutoStarterTest {
         result.setFullyMatched(true);
         results.add(result);
 
-        when(compareService.compareAllConfiguredTables()).thenReturn(results);
+        streamResults(results);
 
         // 执行测试
         autoStarter.run(applicationArguments);
 
         // 验证compareService被调用
-        verify(compareService, times(1)).compareAllConfiguredTables();
+        verify(compareService, times(1)).streamAllConfiguredTables(any());
     }
 
     @Test
@@ -100,13 +105,13 @@ class TableStructureCompareAutoStarterTest {
         
         results.add(result);
 
-        when(compareService.compareAllConfiguredTables()).thenReturn(results);
+        streamResults(results);
 
         // 执行测试
         autoStarter.run(applicationArguments);
 
         // 验证compareService被调用
-        verify(compareService, times(1)).compareAllConfiguredTables();
+        verify(compareService, times(1)).streamAllConfiguredTables(any());
     }
 
     @Test
@@ -115,13 +120,13 @@ class TableStructureCompareAutoStarterTest {
         when(dataSourceConfig.isAutoCompareOnStartup()).thenReturn(true);
 
         // 模拟空结果
-        when(compareService.compareAllConfiguredTables()).thenReturn(new ArrayList<>());
+        streamResults(new ArrayList<>());
 
         // 执行测试
         autoStarter.run(applicationArguments);
 
         // 验证compareService被调用
-        verify(compareService, times(1)).compareAllConfiguredTables();
+        verify(compareService, times(1)).streamAllConfiguredTables(any());
     }
 
     @Test
@@ -130,12 +135,85 @@ class TableStructureCompareAutoStarterTest {
         when(dataSourceConfig.isAutoCompareOnStartup()).thenReturn(true);
 
         // 模拟异常
-        when(compareService.compareAllConfiguredTables()).thenThrow(new RuntimeException("Test exception"));
+        doThrow(new RuntimeException("Test exception")).when(compareService).streamAllConfiguredTables(any());
 
         // 执行测试
         autoStarter.run(applicationArguments);
 
         // 验证compareService被调用
-        verify(compareService, times(1)).compareAllConfiguredTables();
+        verify(compareService, times(1)).streamAllConfiguredTables(any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testCustomSinkReceivesEachResultWithItsOwnTableConfig() throws Exception {
+        when(dataSourceConfig.isAutoCompareOnStartup()).thenReturn(true);
+        CompareResultSink sink = mock(CompareResultSink.class);
+        setFieldByReflection(autoStarter, "customSinks", Collections.singletonList(sink));
+
+        // 包扫描展开的两张表使用同一个比对名称，各自有不同的表配置
+        DataSourceCompareConfig.TableCompareConfig ordersConfig = new DataSourceCompareConfig.TableCompareConfig();
+        ordersConfig.setSourceTableName("orders");
+        DataSourceCompareConfig.TableCompareConfig usersConfig = new DataSourceCompareConfig.TableCompareConfig();
+        usersConfig.setSourceTableName("users");
+        CompareResult ordersResult = new CompareResult("pojo_scan");
+        ordersResult.setFullyMatched(true);
+        CompareResult usersResult = new CompareResult("pojo_scan");
+        usersResult.setFullyMatched(true);
+        doAnswer(invocation -> {
+            CompareResultListener listener = invocation.getArgument(0);
+            listener.onResult(ordersResult, ordersConfig);
+            listener.onResult(usersResult, usersConfig);
+            return null;
+        }).when(compareService).streamAllConfiguredTables(any());
+
+        autoStarter.run(applicationArguments);
+
+        verify(sink).write(ordersResult, ordersConfig);
+        verify(sink).write(usersResult, usersConfig);
+    }
+
+    @Test
+    void testCustomSinkIsFlushedButNotClosed() throws Exception {
+        when(dataSourceConfig.isAutoCompareOnStartup()).thenReturn(true);
+        CompareResultSink sink = mock(CompareResultSink.class);
+        setFieldByReflection(autoStarter, "customSinks", Collections.singletonList(sink));
+        CompareResult result = new CompareResult("test_table");
+        result.setFullyMatched(true);
+        streamResults(Collections.singletonList(result));
+
+        autoStarter.run(applicationArguments);
+
+        // Spring 管理的输出目标由容器负责关闭，启动器只刷新
+        verify(sink).flush();
+        verify(sink, never()).close();
+    }
+
+    @Test
+    void testCustomSinkIsFlushedWhenComparisonFails() throws Exception {
+        when(dataSourceConfig.isAutoCompareOnStartup()).thenReturn(true);
+        CompareResultSink sink = mock(CompareResultSink.class);
+        setFieldByReflection(autoStarter, "customSinks", Collections.singletonList(sink));
+        doThrow(new RuntimeException("Test exception")).when(compareService).streamAllConfiguredTables(any());
+
+        autoStarter.run(applicationArguments);
+
+        verify(sink).flush();
+        verify(sink, never()).close();
+    }
+
+    private void streamResults(List<CompareResult> results) {
+        doAnswer(invocation -> {
+            CompareResultListener listener = invocation.getArgument(0);
+            for (CompareResult result : results) {
+                listener.onResult(result, null);
+            }
+            return null;
+        }).when(compareService).streamAllConfiguredTables(any());
+    }
+
+    private void setFieldByReflection(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
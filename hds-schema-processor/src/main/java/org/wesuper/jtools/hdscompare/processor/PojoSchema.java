@@ -0,0 +1,21 @@
+package org.wesuper.jtools.hdscompare.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在编译期生成表结构描述的 POJO 实体类
+ * {@link PojoSchemaProcessor} 为标记的类生成静态的表结构描述并登记到索引中，
+ * 运行时 pojo 数据源从索引读取描述，不再加载实体类并反射字段。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface PojoSchema {
+}
@@ -0,0 +1,291 @@
+package org.wesuper.jtools.hdscompare.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@link PojoSchema} 注解处理器
+ * 为每个标记的类在 {@value #DESCRIPTOR_DIRECTORY} 下生成 JSON 表结构描述，并在 {@value #INDEX_RESOURCE} 中登记类名。
+ * 描述与运行时反射的结果一致：表名为类的简单名称，先按继承顺序包含父类的非静态字段，
+ * 再按声明顺序包含本类的全部字段（含静态字段），
+ * 字段名优先使用 {@code @JsonProperty} 的值，类型使用与 {@code Class#getName()} 相同的二进制名称。
+ * 增量编译时保留索引中仍然存在且仍带有注解的其他类。
+ *
+ * @author vincentruan
+ * @version 1.0.0
+ */
+@SupportedAnnotationTypes(PojoSchemaProcessor.ANNOTATION_TYPE)
+public class PojoSchemaProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION_TYPE = "org.wesuper.jtools.hdscompare.processor.PojoSchema";
+
+    /**
+     * 索引文件，每行一个类名；与 hds-schema-compare 中的 PojoSchemaIndex 保持一致
+     */
+    public static final String INDEX_RESOURCE = "META-INF/hdscompare/pojo-schema.index";
+
+    /**
+     * 描述文件目录，文件名为类的二进制名称加 .json
+     */
+    public static final String DESCRIPTOR_DIRECTORY = "META-INF/hdscompare/pojo-schema/";
+
+    private static final String JSON_PROPERTY_TYPE = "com.fasterxml.jackson.annotation.JsonProperty";
+
+    private final Set<String> generatedClasses = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!generatedClasses.isEmpty()) {
+                writeIndex();
+            }
+            return false;
+        }
+
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION_TYPE);
+        if (annotation == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@PojoSchema can only be applied to classes", element);
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+            try {
+                writeDescriptor(type, className);
+                generatedClasses.add(className);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write schema descriptor for " + className + ": " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private void writeDescriptor(TypeElement type, String className) throws IOException {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"className\":");
+        appendString(json, className);
+        json.append(",\"tableName\":");
+        appendString(json, type.getSimpleName().toString());
+        json.append(",\"tableComment\":\"\",\"columns\":[");
+        boolean first = true;
+        for (String[] column : collectColumns(type, false, new LinkedHashMap<>()).values()) {
+            json.append(first ? "" : ",").append("\n{\"name\":");
+            appendString(json, column[0]);
+            json.append(",\"dataType\":");
+            appendString(json, column[1]);
+            json.append(",\"javaType\":");
+            appendString(json, column[2]);
+            json.append('}');
+            first = false;
+        }
+        json.append("]}\n");
+
+        FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                DESCRIPTOR_DIRECTORY + className + ".json", type);
+        try (Writer writer = resource.openWriter()) {
+            writer.write(json.toString());
+        }
+    }
+
+    /**
+     * 按祖先类在前的顺序收集字段，与运行时反射一致：父类只取非静态字段，JDK 中的父类不展开，
+     * 子类重新声明同名字段时保留父类字段的位置并使用子类的类型
+     *
+     * @return 字段名 -> {字段名, 简单类型名, 二进制类型名}
+     */
+    private Map<String, String[]> collectColumns(TypeElement type, boolean inherited, Map<String, String[]> columns) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement superType = (TypeElement) processingEnv.getTypeUtils().asElement(superclass);
+            String superName = superType.getQualifiedName().toString();
+            if (!superName.startsWith("java.") && !superName.startsWith("javax.")) {
+                collectColumns(superType, true, columns);
+            }
+        }
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.FIELD || (inherited && member.getModifiers().contains(Modifier.STATIC))) {
+                continue;
+            }
+            TypeMirror fieldType = processingEnv.getTypeUtils().erasure(member.asType());
+            String name = fieldName((VariableElement) member);
+            columns.put(name, new String[]{name, simpleName(fieldType), binaryName(fieldType)});
+        }
+        return columns;
+    }
+
+    private void writeIndex() {
+        Set<String> classNames = new TreeSet<>(generatedClasses);
+        classNames.addAll(readExistingIndex());
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    INDEX_RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write schema index " + INDEX_RESOURCE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取上次编译生成的索引，只保留仍然存在且仍带有注解的类
+     */
+    private Set<String> readExistingIndex() {
+        Set<String> classNames = new TreeSet<>();
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    String className = line.trim();
+                    if (!className.isEmpty() && isStillAnnotated(className)) {
+                        classNames.add(className);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译没有索引
+        }
+        return classNames;
+    }
+
+    private boolean isStillAnnotated(String className) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        if (type == null) {
+            return false;
+        }
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (ANNOTATION_TYPE.equals(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 字段名，优先使用 JsonProperty 注解的值
+     */
+    private String fieldName(VariableElement field) {
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!JSON_PROPERTY_TYPE.equals(annotationType.getQualifiedName().toString())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet()) {
+                if ("value".contentEquals(entry.getKey().getSimpleName())) {
+                    String value = String.valueOf(entry.getValue().getValue());
+                    if (!value.isEmpty()) {
+                        return value;
+                    }
+                }
+            }
+        }
+        return field.getSimpleName().toString();
+    }
+
+    /**
+     * 与 Class#getSimpleName() 相同的简单名称
+     */
+    private String simpleName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return simpleName(((ArrayType) type).getComponentType()) + "[]";
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return processingEnv.getTypeUtils().asElement(type).getSimpleName().toString();
+        }
+        return type.toString();
+    }
+
+    /**
+     * 与 Class#getName() 相同的二进制名称，数组使用 [Ljava.lang.String; 形式
+     */
+    private String binaryName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "[" + arrayComponentName(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return processingEnv.getElementUtils()
+                    .getBinaryName((TypeElement) processingEnv.getTypeUtils().asElement(type)).toString();
+        }
+        return type.toString();
+    }
+
+    private String arrayComponentName(TypeMirror component) {
+        switch (component.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return binaryName(component);
+            default:
+                return "L" + binaryName(component) + ";";
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}